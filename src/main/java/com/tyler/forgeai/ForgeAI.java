@@ -24,6 +24,10 @@ public class ForgeAI implements ModInitializer {
     private static CommunicationManager comms;
     private static ContextScanner scanner;
     private static DecisionEngine decisionEngine;
+    private static TickScheduler tickScheduler;
+    private static BotRuntime botRuntime;
+    private static com.tyler.forgeai.util.PathPlanningService pathPlanningService;
+    private static com.tyler.forgeai.ai.SharedWorldMemory sharedWorldMemory;
 
     // AI subsystems
     private static TrainingManager trainingManager;
@@ -48,9 +52,16 @@ public class ForgeAI implements ModInitializer {
         TaskManager taskManager = new TaskManager(decisionEngine);
         decisionEngine.setTaskManager(taskManager);
 
+        com.tyler.forgeai.config.ConfigLoader configLoader = new com.tyler.forgeai.config.ConfigLoader();
+        configLoader.init();
+        com.tyler.forgeai.config.ConfigLoader.ForgeAIConfig config = configLoader.getConfig();
+
         // AI subsystems
-        trainingManager = new TrainingManager();
-        memoryManager = new MemoryManager();
+        // One trainer shared by every bot; its replica id doubles as its snapshot name,
+        // and it is reset to the started world's stored counts (restoreTraining)
+        trainingManager = new TrainingManager(MOD_ID);
+        memoryManager = new MemoryManager(config.experienceCapacity,
+            config.experienceSpill ? java.nio.file.Paths.get("config/forgeai_experiences.bin") : null);
         rewardSystem = new RewardSystem();
         punishmentSystem = new PunishmentSystem();
 
@@ -69,6 +80,7 @@ public class ForgeAI implements ModInitializer {
 
         // Learning, movement and observation subsystems
         LearningStore learningStore = new LearningStore();
+        learningStore.init();
         MovementManager movementManager = new MovementManager();
         ObservationManager observationManager = new ObservationManager(learningStore);
         ChatMonitor chatMonitor = new ChatMonitor(learningStore);
@@ -96,6 +108,7 @@ public class ForgeAI implements ModInitializer {
         EventHookRegistry.registerCombatEventHooks();
         EventHookRegistry.registerNavigationEventHooks();
         EventHookRegistry.registerGatheringEventHooks();
+        EventHookRegistry.registerWorldChangeHooks();
         LOGGER.info("Combat event hooks registered — RL feedback active");
 
         // Register trust commands (via chat hook)
@@ -104,10 +117,70 @@ public class ForgeAI implements ModInitializer {
         // Wire chat monitor into comms
         try { coms.setChatMonitor(chatMonitor); } catch (Exception ignored) {}        // Wire decision engine into comms for command execution
         comms.setDecisionEngine(decisionEngine);
+        // Tick scheduler: all per-tick AI work runs inside a fixed budget
+        tickScheduler = new TickScheduler(config.tickBudgetMs, config.maxDeferTicks);
+
+        // Multi-bot runtime: one scanner/engine/task manager per registered bot
+        botRuntime = new BotRuntime(comms, tickScheduler, engine -> {
+            engine.setTrainingManager(trainingManager);
+            engine.setMemoryManager(memoryManager);
+            engine.setRewardSystem(rewardSystem);
+            engine.setPunishmentSystem(punishmentSystem);
+            engine.setLearningStore(learningStore);
+            engine.setMovementManager(new MovementManager());
+            engine.setObservationManager(observationManager);
+            engine.setChatMonitor(chatMonitor);
+            engine.setTaskLockManager(new TaskLockManager());
+            engine.setSharedWorldMemory(sharedWorldMemory);
+        }, config.sampleBatchSize);
+        botRuntime.init();
+
+        // Path planning: searches run off-thread (or time-sliced) and never block a tick
+        pathPlanningService = new com.tyler.forgeai.util.PathPlanningService(
+            tickScheduler, config.pathThreads, config.pathIterationsPerTick);
+        pathPlanningService.init();
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STOPPING.register(
+            server -> pathPlanningService.stop());
+        // Learning data is written behind; save what is pending before the server goes away
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STOPPING.register(
+            server -> {
+                learningStore.flush();
+                memoryManager.flush();
+            });
+
+        // Shared world memory: recovered from its journal at start, published once per tick
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STARTED.register(server -> {
+            sharedWorldMemory = new com.tyler.forgeai.ai.SharedWorldMemory(server.overworld());
+            sharedWorldMemory.openJournal(server.getWorldPath(net.minecraft.world.level.storage.LevelResource.ROOT).resolve(MOD_ID));
+            decisionEngine.setSharedWorldMemory(sharedWorldMemory);
+            sharedWorldMemory.restoreTraining(trainingManager);
+        });
+        net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            if (sharedWorldMemory != null) {
+                sharedWorldMemory.storeTrainingSnapshot(trainingManager.getReplicaId(), trainingManager);
+                sharedWorldMemory.close();
+            }
+            sharedWorldMemory = null;
+        });
+        tickScheduler.register(MOD_ID, "world-memory", TickScheduler.Lane.SCANS, server -> {
+            if (sharedWorldMemory == null) return;
+            // Training counts changed in the last second go to the journal as one delta
+            if (server.getTickCount() % 20 == 0) {
+                sharedWorldMemory.storeTrainingSnapshot(trainingManager.getReplicaId(), trainingManager);
+            }
+            sharedWorldMemory.publish();
+        });
+
+        // Default engine drives the first online player only while no bots are registered
+        tickScheduler.register(MOD_ID, "decision", TickScheduler.Lane.DECISION, server -> {
+            if (botRuntime.getBotCount() == 0) decisionEngine.tick(server);
+        });
+        tickScheduler.register(MOD_ID, "tasks", TickScheduler.Lane.TASKS, taskManager::tick);
+
         // Register tick loop
         ServerTickEvents.END_SERVER_TICK.register(server -> {
             try {
-                decisionEngine.tick(server);
+                tickScheduler.tick(server);
             } catch (Exception e) {
                 LOGGER.error("ForgeAI tick error: ", e);
             }
@@ -128,6 +201,22 @@ public class ForgeAI implements ModInitializer {
         return decisionEngine;
     }
 
+    public static TickScheduler getTickScheduler() {
+        return tickScheduler;
+    }
+
+    public static BotRuntime getBotRuntime() {
+        return botRuntime;
+    }
+
+    public static com.tyler.forgeai.util.PathPlanningService getPathPlanningService() {
+        return pathPlanningService;
+    }
+
+    public static com.tyler.forgeai.ai.SharedWorldMemory getSharedWorldMemory() {
+        return sharedWorldMemory;
+    }
+
     public static TrainingManager getTrainingManager() {
         return trainingManager;
     }
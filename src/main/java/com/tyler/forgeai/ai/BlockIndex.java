@@ -0,0 +1,496 @@
+package com.tyler.forgeai.ai;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.*;
+
+/**
+ * BlockIndex: remembered block positions per block type, partitioned by chunk.
+ * - Each tracked type maps chunk -> the 16x16x16 sections holding that type; a
+ *   section stores its positions as a sorted short[] of 12-bit local indices and
+ *   switches to a 4096-bit set once dense, so memory stays ~2 bytes per block
+ * - add()/remove()/onBlockChanged() keep it current from block-change events
+ *   instead of rescanning
+ * - nearest() walks rings of chunks outward and skips whole sections that cannot
+ *   beat the best distance found so far
+ * - encode()/decode() give a compact array form for saving with the world
+ * - snapshot() returns a read-only copy sharing all data; after a snapshot the next
+ *   change to a type copies its chunk table (references only) and deep-copies just
+ *   the chunk being changed, so snapshots never change
+ * Types are lower-cased block ids without namespace ("diamond_ore").
+ * Writes are single-threaded (SharedWorldMemory's server thread); a published
+ * snapshot may be read from any thread.
+ */
+public class BlockIndex {
+    /** Sections switch between sorted array and bit set around this many blocks. */
+    public static final int DENSE_THRESHOLD = 256;
+
+    private final Map<String, TypeIndex> types = new HashMap<>();
+
+    /** One type: chunk key -> its sections holding that type. */
+    private static final class TypeIndex {
+        final Map<Long, List<SectionSet>> chunks = new HashMap<>();
+        int size = 0;
+        long lastUpdated = System.currentTimeMillis();
+        boolean shared = false;                  // also referenced by a snapshot
+        final Set<Long> owned = new HashSet<>(); // chunks whose lists this index may change
+
+        /** New table over the same chunk lists; none of them owned yet. */
+        TypeIndex shallowCopy() {
+            TypeIndex copy = new TypeIndex();
+            copy.chunks.putAll(chunks);
+            copy.size = size;
+            copy.lastUpdated = lastUpdated;
+            return copy;
+        }
+    }
+
+    /** Positions of one type within one 16x16x16 section. */
+    static final class SectionSet {
+        final int y;          // section y (block y >> 4)
+        short[] cells = new short[4];
+        long[] bits;          // non-null once dense
+        int size = 0;
+
+        SectionSet(int y) {
+            this.y = y;
+        }
+
+        boolean add(int local) {
+            if (bits != null) {
+                long mask = 1L << local;
+                if ((bits[local >> 6] & mask) != 0) return false;
+                bits[local >> 6] |= mask;
+                size++;
+                return true;
+            }
+            int i = Arrays.binarySearch(cells, 0, size, (short) local);
+            if (i >= 0) return false;
+            i = -i - 1;
+            if (size == cells.length) cells = Arrays.copyOf(cells, size * 2);
+            System.arraycopy(cells, i, cells, i + 1, size - i);
+            cells[i] = (short) local;
+            size++;
+            if (size > DENSE_THRESHOLD) toBits();
+            return true;
+        }
+
+        boolean remove(int local) {
+            if (bits != null) {
+                long mask = 1L << local;
+                if ((bits[local >> 6] & mask) == 0) return false;
+                bits[local >> 6] &= ~mask;
+                size--;
+                // Hysteresis so a section near the threshold does not flip every change
+                if (size < DENSE_THRESHOLD / 2) toCells();
+                return true;
+            }
+            int i = Arrays.binarySearch(cells, 0, size, (short) local);
+            if (i < 0) return false;
+            System.arraycopy(cells, i + 1, cells, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(int local) {
+            if (bits != null) return (bits[local >> 6] & (1L << local)) != 0;
+            return Arrays.binarySearch(cells, 0, size, (short) local) >= 0;
+        }
+
+        SectionSet copy() {
+            SectionSet copy = new SectionSet(y);
+            copy.cells = cells != null ? cells.clone() : null;
+            copy.bits = bits != null ? bits.clone() : null;
+            copy.size = size;
+            return copy;
+        }
+
+        /** Next set local index at or after from, or -1 (bit set form only). */
+        int nextBit(int from) {
+            int word = from >> 6;
+            if (word >= 64) return -1;
+            long w = bits[word] & (-1L << (from & 63));
+            while (w == 0) {
+                if (++word == 64) return -1;
+                w = bits[word];
+            }
+            return (word << 6) + Long.numberOfTrailingZeros(w);
+        }
+
+        private void toBits() {
+            bits = new long[64];
+            for (int i = 0; i < size; i++) bits[cells[i] >> 6] |= 1L << cells[i];
+            cells = null;
+        }
+
+        private void toCells() {
+            cells = new short[Math.max(4, size * 2)];
+            int n = 0;
+            for (int b = nextBit(0); b >= 0; b = nextBit(b + 1)) cells[n++] = (short) b;
+            bits = null;
+        }
+    }
+
+    // ---- Updates --------------------------------------------------------------
+
+    /** Start remembering a type (changes to blocks of untracked types are ignored). */
+    public void track(String type) {
+        types.computeIfAbsent(normalize(type), t -> new TypeIndex());
+    }
+
+    public boolean isTracked(String type) {
+        return types.containsKey(normalize(type));
+    }
+
+    public boolean add(String type, int x, int y, int z) {
+        String t = normalize(type);
+        TypeIndex index = types.get(t);
+        if (index == null) {
+            index = new TypeIndex();
+            types.put(t, index);
+        } else if (contains(index, x, y, z)) {
+            return false;
+        } else {
+            index = writable(t, index);
+        }
+        List<SectionSet> sections = writableChunk(index, chunkKey(x >> 4, z >> 4));
+        SectionSet section = section(sections, y >> 4);
+        if (section == null) {
+            section = new SectionSet(y >> 4);
+            sections.add(section);
+        }
+        section.add(local(x, y, z));
+        index.size++;
+        index.lastUpdated = System.currentTimeMillis();
+        return true;
+    }
+
+    public boolean remove(String type, int x, int y, int z) {
+        String t = normalize(type);
+        TypeIndex index = types.get(t);
+        if (index == null || !contains(index, x, y, z)) return false;
+        remove(writable(t, index), x, y, z);
+        return true;
+    }
+
+    /**
+     * A block changed: forget whatever tracked type was remembered there and
+     * remember the new block if its type is tracked (newType may be null for air).
+     * Returns whether anything remembered changed.
+     */
+    public boolean onBlockChanged(int x, int y, int z, String newType) {
+        if (types.isEmpty()) return false;
+        boolean changed = false;
+        String type = newType == null ? null : normalize(newType);
+        for (Map.Entry<String, TypeIndex> e : types.entrySet()) {
+            if (e.getKey().equals(type) || !contains(e.getValue(), x, y, z)) continue;
+            TypeIndex index = e.getValue();
+            if (index.shared) {
+                index = index.shallowCopy();
+                e.setValue(index);
+            }
+            remove(index, x, y, z);
+            changed = true;
+        }
+        if (type != null && types.containsKey(type)) changed |= add(type, x, y, z);
+        return changed;
+    }
+
+    /** Replace everything known about a type with a fresh scan (flattened x,y,z triples). */
+    public void replace(String type, int[] coords) {
+        TypeIndex index = new TypeIndex();
+        types.put(normalize(type), index);
+        for (int i = 0; i + 2 < coords.length; i += 3) add(type, coords[i], coords[i + 1], coords[i + 2]);
+    }
+
+    public void clear(String type) {
+        types.remove(normalize(type));
+    }
+
+    /** Read-only copy sharing all data with this index. */
+    public BlockIndex snapshot() {
+        BlockIndex copy = new BlockIndex();
+        for (Map.Entry<String, TypeIndex> e : types.entrySet()) {
+            e.getValue().shared = true;
+            copy.types.put(e.getKey(), e.getValue());
+        }
+        return copy;
+    }
+
+    /** Remove a position known to be present from an index this one owns. */
+    private static void remove(TypeIndex index, int x, int y, int z) {
+        long key = chunkKey(x >> 4, z >> 4);
+        List<SectionSet> sections = writableChunk(index, key);
+        SectionSet section = section(sections, y >> 4);
+        section.remove(local(x, y, z));
+        if (section.size == 0) {
+            sections.remove(section);
+            if (sections.isEmpty()) {
+                index.chunks.remove(key);
+                index.owned.remove(key);
+            }
+        }
+        index.size--;
+        index.lastUpdated = System.currentTimeMillis();
+    }
+
+    private TypeIndex writable(String type, TypeIndex index) {
+        if (!index.shared) return index;
+        TypeIndex copy = index.shallowCopy();
+        types.put(type, copy);
+        return copy;
+    }
+
+    /** A chunk's section list that index may change, copied first if still shared. */
+    private static List<SectionSet> writableChunk(TypeIndex index, long key) {
+        List<SectionSet> sections = index.chunks.get(key);
+        if (sections == null) {
+            sections = new ArrayList<>(2);
+            index.chunks.put(key, sections);
+        } else if (!index.owned.contains(key)) {
+            List<SectionSet> copy = new ArrayList<>(sections.size() + 1);
+            for (SectionSet section : sections) copy.add(section.copy());
+            sections = copy;
+            index.chunks.put(key, sections);
+        }
+        index.owned.add(key);
+        return sections;
+    }
+
+    private static boolean contains(TypeIndex index, int x, int y, int z) {
+        List<SectionSet> sections = index.chunks.get(chunkKey(x >> 4, z >> 4));
+        if (sections == null) return false;
+        SectionSet section = section(sections, y >> 4);
+        return section != null && section.contains(local(x, y, z));
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    /** Nearest remembered block of a type within radius (3D) of a point, or null. */
+    public BlockPos nearest(String type, int x, int y, int z, int radius) {
+        TypeIndex index = types.get(normalize(type));
+        if (index == null || index.size == 0) return null;
+        Nearest best = new Nearest(x, y, z, (long) radius * radius);
+
+        int cx = x >> 4, cz = z >> 4;
+        int visited = 0;
+        for (int r = 0; ; r++) {
+            // Anything in ring r is at least (r - 1) whole chunks away horizontally
+            long reach = (long) Math.max(0, r - 1) * 16;
+            if (reach * reach > best.dist) break;
+            if (visited >= index.chunks.size()) {
+                // Walking empty rings costs more than looking at every occupied chunk
+                for (Map.Entry<Long, List<SectionSet>> e : index.chunks.entrySet()) {
+                    best.offer((int) (e.getKey() >> 32), (int) (long) e.getKey(), e.getValue());
+                }
+                break;
+            }
+            for (int dx = -r; dx <= r; dx++) {
+                boolean edge = dx == -r || dx == r;
+                for (int dz = -r; dz <= r; dz += edge ? 1 : 2 * r) {
+                    List<SectionSet> sections = index.chunks.get(chunkKey(cx + dx, cz + dz));
+                    visited++;
+                    if (sections != null) best.offer(cx + dx, cz + dz, sections);
+                }
+            }
+        }
+        return best.found ? new BlockPos(best.bx, best.by, best.bz) : null;
+    }
+
+    /** Remembered blocks of a type within radius (3D) of a point, at most limit of them. */
+    public List<BlockPos> within(String type, int x, int y, int z, int radius, int limit) {
+        List<BlockPos> result = new ArrayList<>();
+        TypeIndex index = types.get(normalize(type));
+        if (index == null) return result;
+        long limitSqr = (long) radius * radius;
+        for (int cx = (x - radius) >> 4; cx <= (x + radius) >> 4; cx++) {
+            for (int cz = (z - radius) >> 4; cz <= (z + radius) >> 4; cz++) {
+                List<SectionSet> sections = index.chunks.get(chunkKey(cx, cz));
+                if (sections == null) continue;
+                for (SectionSet s : sections) {
+                    if (boxDistSqr(cx, s.y, cz, x, y, z) > limitSqr) continue;
+                    for (int local : locals(s)) {
+                        int bx = (cx << 4) | (local & 15), by = (s.y << 4) | (local >> 8), bz = (cz << 4) | ((local >> 4) & 15);
+                        if (distSqr(bx, by, bz, x, y, z) > limitSqr) continue;
+                        result.add(new BlockPos(bx, by, bz));
+                        if (result.size() >= limit) return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Every remembered block of a type as flattened x,y,z triples. */
+    public int[] positions(String type) {
+        TypeIndex index = types.get(normalize(type));
+        if (index == null) return new int[0];
+        int[] out = new int[index.size * 3];
+        int n = 0;
+        for (Map.Entry<Long, List<SectionSet>> e : index.chunks.entrySet()) {
+            int cx = (int) (e.getKey() >> 32), cz = (int) (long) e.getKey();
+            for (SectionSet s : e.getValue()) {
+                for (int local : locals(s)) {
+                    out[n++] = (cx << 4) | (local & 15);
+                    out[n++] = (s.y << 4) | (local >> 8);
+                    out[n++] = (cz << 4) | ((local >> 4) & 15);
+                }
+            }
+        }
+        return out;
+    }
+
+    public int size(String type) {
+        TypeIndex index = types.get(normalize(type));
+        return index != null ? index.size : 0;
+    }
+
+    public long getLastUpdated(String type) {
+        TypeIndex index = types.get(normalize(type));
+        return index != null ? index.lastUpdated : 0;
+    }
+
+    public Set<String> getTrackedTypes() {
+        return Collections.unmodifiableSet(types.keySet());
+    }
+
+    // ---- Compact form ---------------------------------------------------------
+
+    /** One type's positions: section keys, block count per section, then local indices packed two per int. */
+    public static final class Encoded {
+        public final long[] sections;
+        public final int[] sizes;
+        public final int[] cells;
+
+        public Encoded(long[] sections, int[] sizes, int[] cells) {
+            this.sections = sections;
+            this.sizes = sizes;
+            this.cells = cells;
+        }
+    }
+
+    public Encoded encode(String type) {
+        TypeIndex index = types.get(normalize(type));
+        if (index == null) return new Encoded(new long[0], new int[0], new int[0]);
+        int sectionCount = 0;
+        for (List<SectionSet> sections : index.chunks.values()) sectionCount += sections.size();
+        long[] sectionKeys = new long[sectionCount];
+        int[] sizes = new int[sectionCount];
+        int[] cells = new int[(index.size + 1) / 2];
+        int s = 0, c = 0;
+        for (Map.Entry<Long, List<SectionSet>> e : index.chunks.entrySet()) {
+            int cx = (int) (e.getKey() >> 32), cz = (int) (long) e.getKey();
+            for (SectionSet section : e.getValue()) {
+                sectionKeys[s] = sectionKey(cx, section.y, cz);
+                sizes[s++] = section.size;
+                for (int local : locals(section)) {
+                    if ((c & 1) == 0) cells[c >> 1] = local << 16;
+                    else cells[c >> 1] |= local;
+                    c++;
+                }
+            }
+        }
+        return new Encoded(sectionKeys, sizes, cells);
+    }
+
+    public void decode(String type, Encoded encoded) {
+        TypeIndex index = new TypeIndex();
+        types.put(normalize(type), index);
+        int c = 0;
+        for (int s = 0; s < encoded.sections.length; s++) {
+            long key = encoded.sections[s];
+            int cx = (int) (key >> 42), sy = (int) (key << 44 >> 44), cz = (int) (key << 22 >> 42);
+            for (int i = 0; i < encoded.sizes[s]; i++, c++) {
+                int word = encoded.cells[c >> 1];
+                int local = (c & 1) == 0 ? word >>> 16 : word & 0xFFFF;
+                add(type, (cx << 4) | (local & 15), (sy << 4) | (local >> 8), (cz << 4) | ((local >> 4) & 15));
+            }
+        }
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    /** Closest block offered so far, within the starting bound. */
+    private static final class Nearest {
+        final int x, y, z;
+        long dist;
+        boolean found = false;
+        int bx, by, bz;
+
+        Nearest(int x, int y, int z, long maxDist) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.dist = maxDist;
+        }
+
+        void offer(int cx, int cz, List<SectionSet> sections) {
+            for (SectionSet s : sections) {
+                if (boxDistSqr(cx, s.y, cz, x, y, z) > dist) continue;
+                for (int local : locals(s)) {
+                    int px = (cx << 4) | (local & 15), py = (s.y << 4) | (local >> 8), pz = (cz << 4) | ((local >> 4) & 15);
+                    long d = distSqr(px, py, pz, x, y, z);
+                    if (d < dist || (d == dist && !found)) {
+                        dist = d;
+                        found = true;
+                        bx = px;
+                        by = py;
+                        bz = pz;
+                    }
+                }
+            }
+        }
+    }
+
+    private static int[] locals(SectionSet s) {
+        if (s.bits == null) {
+            int[] out = new int[s.size];
+            for (int i = 0; i < s.size; i++) out[i] = s.cells[i];
+            return out;
+        }
+        int[] out = new int[s.size];
+        int n = 0;
+        for (int b = s.nextBit(0); b >= 0; b = s.nextBit(b + 1)) out[n++] = b;
+        return out;
+    }
+
+    private static SectionSet section(List<SectionSet> sections, int sy) {
+        for (SectionSet s : sections) if (s.y == sy) return s;
+        return null;
+    }
+
+    private static int local(int x, int y, int z) {
+        return ((y & 15) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    private static long chunkKey(int cx, int cz) {
+        return ((long) cx << 32) | (cz & 0xFFFFFFFFL);
+    }
+
+    /** Same layout as SectionPos: x 22 bits, z 22 bits, y 20 bits. */
+    private static long sectionKey(int cx, int sy, int cz) {
+        return ((long) (cx & 0x3FFFFF) << 42) | ((long) (cz & 0x3FFFFF) << 20) | (sy & 0xFFFFF);
+    }
+
+    private static long boxDistSqr(int cx, int sy, int cz, int x, int y, int z) {
+        long dx = axisGap(x, cx << 4), dy = axisGap(y, sy << 4), dz = axisGap(z, cz << 4);
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long axisGap(int v, int min) {
+        if (v < min) return min - v;
+        if (v > min + 15) return v - (min + 15);
+        return 0;
+    }
+
+    private static long distSqr(int ax, int ay, int az, int x, int y, int z) {
+        long dx = ax - x, dy = ay - y, dz = az - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    static String normalize(String type) {
+        String t = type.toLowerCase(Locale.ROOT);
+        int colon = t.indexOf(':');
+        return colon >= 0 ? t.substring(colon + 1) : t;
+    }
+}
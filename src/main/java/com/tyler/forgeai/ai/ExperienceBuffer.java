@@ -0,0 +1,280 @@
+package com.tyler.forgeai.ai;
+
+import com.tyler.forgeai.core.ContextScanner.Signals;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * ExperienceBuffer: fixed-capacity ring of experiences kept as primitive columns (MemoryManager).
+ * - Columns: module id (interned name), packed signals (Signals.PACKED_WORDS longs),
+ *   outcome, tick; no object per entry and no entity reference is kept
+ * - append() is O(1) and allocation-free; once full it overwrites the oldest entry
+ * - With a spill file, a background virtual thread appends entries to it before the
+ *   ring wraps onto them (entries overwritten first are counted as dropped); the file
+ *   is rolled to .old past SPILL_MAX_BYTES. readSpill() reads it back
+ * Thread-safe.
+ */
+public class ExperienceBuffer {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-experience");
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    /** Spill at least this often... */
+    public static final long SPILL_INTERVAL_MS = 5000;
+    /** ...and roll the spill file once it is this big. */
+    public static final long SPILL_MAX_BYTES = 64L << 20;
+
+    // Spill file records: a session start resets the module table
+    private static final byte SPILL_SESSION = 0;
+    private static final byte SPILL_MODULE = 1;      // int id, UTF name
+    private static final byte SPILL_EXPERIENCE = 2;  // int module, boolean outcome, long tick, packed signals
+
+    private static final Signals NO_SIGNALS = new Signals().snapshot();
+
+    private final int capacity;
+    private final int[] modules;
+    private final long[] features;
+    private final boolean[] outcomes;
+    private final long[] ticks;
+    private long appended;   // entries ever appended; entry n lives in slot n % capacity
+    private long cleared;    // entries before this were cleared
+    private final List<String> moduleNames = new ArrayList<>();
+    private final Map<String, Integer> moduleIds = new HashMap<>();
+
+    // Spilling
+    private final Path spillFile;
+    private long spilled;    // entries before this are on disk (or dropped)
+    private long dropped;
+    private final Object spillLock = new Object();  // one spill at a time
+    private int modulesInFile = -1;                  // module names written this session (spillLock)
+    private volatile boolean running = false;
+    private Thread spiller;
+
+    /** spillFile may be null (entries are only kept in memory). */
+    public ExperienceBuffer(int capacity, Path spillFile) {
+        this.capacity = Math.max(1, capacity);
+        this.modules = new int[this.capacity];
+        this.features = new long[this.capacity * Signals.PACKED_WORDS];
+        this.outcomes = new boolean[this.capacity];
+        this.ticks = new long[this.capacity];
+        this.spillFile = spillFile;
+    }
+
+    public void start() {
+        if (spillFile == null || running) return;
+        running = true;
+        spiller = Thread.ofVirtual().name("forgeai-experience-spill").start(this::spillLoop);
+    }
+
+    // ---- Writing --------------------------------------------------------------
+
+    /** Add one experience, overwriting the oldest once full. signals may be null. */
+    public synchronized void append(String module, Signals signals, boolean success, long tick) {
+        int slot = (int) (appended % capacity);
+        modules[slot] = moduleId(module);
+        (signals != null ? signals : NO_SIGNALS).pack(features, slot * Signals.PACKED_WORDS);
+        outcomes[slot] = success;
+        ticks[slot] = tick;
+        appended++;
+        if (spillFile == null) return;
+        long unspilled = appended - spilled;
+        if (unspilled > capacity) {
+            // The spiller fell a whole ring behind: the overwritten entry is lost
+            spilled++;
+            dropped++;
+        } else if (unspilled == capacity / 2 && spiller != null) {
+            LockSupport.unpark(spiller);
+        }
+    }
+
+    private int moduleId(String module) {
+        Integer id = moduleIds.get(module);
+        if (id != null) return id;
+        moduleNames.add(module);
+        moduleIds.put(module, moduleNames.size() - 1);
+        return moduleNames.size() - 1;
+    }
+
+    /** Forget the entries in memory (pending ones are spilled first). */
+    public void clear() {
+        spill();
+        synchronized (this) {
+            cleared = appended;
+        }
+    }
+
+    // ---- Reading --------------------------------------------------------------
+
+    public synchronized int size() {
+        return (int) (appended - first());
+    }
+
+    public int capacity() { return capacity; }
+
+    /** Entries overwritten before they could be spilled. */
+    public synchronized long dropped() { return dropped; }
+
+    /** The newest count entries, oldest first. */
+    public synchronized List<MemoryManager.Experience> recent(int count) {
+        long from = Math.max(first(), appended - Math.max(0, count));
+        List<MemoryManager.Experience> result = new ArrayList<>((int) (appended - from));
+        for (long n = from; n < appended; n++) result.add(entry((int) (n % capacity)));
+        return result;
+    }
+
+    /** The entries of a module (name compared ignoring case), oldest first. */
+    public synchronized List<MemoryManager.Experience> forModule(String module) {
+        boolean[] match = new boolean[moduleNames.size()];
+        for (int id = 0; id < match.length; id++) match[id] = moduleNames.get(id).equalsIgnoreCase(module);
+        List<MemoryManager.Experience> result = new ArrayList<>();
+        for (long n = first(); n < appended; n++) {
+            int slot = (int) (n % capacity);
+            if (match[modules[slot]]) result.add(entry(slot));
+        }
+        return result;
+    }
+
+    private long first() {
+        return Math.max(cleared, appended - capacity);
+    }
+
+    private MemoryManager.Experience entry(int slot) {
+        return new MemoryManager.Experience(moduleNames.get(modules[slot]),
+            Signals.unpack(features, slot * Signals.PACKED_WORDS), outcomes[slot], ticks[slot]);
+    }
+
+    // ---- Spilling -------------------------------------------------------------
+
+    private void spillLoop() {
+        while (running) {
+            spill();
+            LockSupport.parkNanos(SPILL_INTERVAL_MS * 1_000_000L);
+        }
+    }
+
+    /** Append the entries not yet on disk to the spill file. */
+    public void spill() {
+        if (spillFile == null) return;
+        synchronized (spillLock) {
+            long from, to;
+            int count;
+            int[] mod;
+            long[] feat, tick;
+            boolean[] out;
+            List<String> names;
+            synchronized (this) {
+                from = Math.max(spilled, appended - capacity);
+                to = appended;
+                count = (int) (to - from);
+                if (count == 0) return;
+                names = new ArrayList<>(moduleNames);
+                mod = new int[count];
+                out = new boolean[count];
+                tick = new long[count];
+                feat = new long[count * Signals.PACKED_WORDS];
+                for (int i = 0; i < count; i++) {
+                    int slot = (int) ((from + i) % capacity);
+                    mod[i] = modules[slot];
+                    out[i] = outcomes[slot];
+                    tick[i] = ticks[slot];
+                    System.arraycopy(features, slot * Signals.PACKED_WORDS, feat, i * Signals.PACKED_WORDS, Signals.PACKED_WORDS);
+                }
+            }
+            long before = 0;
+            try {
+                if (spillFile.getParent() != null) Files.createDirectories(spillFile.getParent());
+                if (Files.exists(spillFile) && Files.size(spillFile) > SPILL_MAX_BYTES) {
+                    Files.move(spillFile, spillFile.resolveSibling(spillFile.getFileName() + ".old"), StandardCopyOption.REPLACE_EXISTING);
+                    modulesInFile = -1;
+                }
+                before = Files.exists(spillFile) ? Files.size(spillFile) : 0;
+                try (DataOutputStream w = new DataOutputStream(new BufferedOutputStream(
+                        Files.newOutputStream(spillFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND)))) {
+                    int known = modulesInFile;
+                    if (known < 0) {
+                        w.writeByte(SPILL_SESSION);
+                        known = 0;
+                    }
+                    for (int id = known; id < names.size(); id++) {
+                        w.writeByte(SPILL_MODULE);
+                        w.writeInt(id);
+                        w.writeUTF(names.get(id));
+                    }
+                    for (int i = 0; i < count; i++) {
+                        w.writeByte(SPILL_EXPERIENCE);
+                        w.writeInt(mod[i]);
+                        w.writeBoolean(out[i]);
+                        w.writeLong(tick[i]);
+                        for (int k = 0; k < Signals.PACKED_WORDS; k++) w.writeLong(feat[i * Signals.PACKED_WORDS + k]);
+                    }
+                }
+                modulesInFile = names.size();
+                synchronized (this) {
+                    spilled = Math.max(spilled, to);
+                }
+                LOGGER.debug("Spilled {} experiences", count);
+            } catch (IOException e) {
+                // Left pending for the next spill; cut off what this one wrote
+                LOGGER.debug("Experience spill failed: {}", e.getMessage());
+                try (var channel = java.nio.channels.FileChannel.open(spillFile, StandardOpenOption.WRITE)) {
+                    if (channel.size() > before) channel.truncate(before);
+                } catch (IOException ignored) {}
+            }
+        }
+    }
+
+    /** Stop the spill thread and spill what is pending. */
+    public void close() {
+        running = false;
+        if (spiller != null) {
+            LockSupport.unpark(spiller);
+            try {
+                spiller.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            spiller = null;
+        }
+        spill();
+    }
+
+    /** Read a spill file back, oldest first; returns how many entries were read. */
+    public static int readSpill(Path file, Consumer<MemoryManager.Experience> out) throws IOException {
+        int count = 0;
+        List<String> names = new ArrayList<>();
+        long[] packed = new long[Signals.PACKED_WORDS];
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int kind = in.read();
+                if (kind < 0) break;
+                try {
+                    if (kind == SPILL_SESSION) {
+                        names.clear();
+                    } else if (kind == SPILL_MODULE) {
+                        int id = in.readInt();
+                        while (names.size() <= id) names.add("?");
+                        names.set(id, in.readUTF());
+                    } else if (kind == SPILL_EXPERIENCE) {
+                        int module = in.readInt();
+                        boolean success = in.readBoolean();
+                        long tick = in.readLong();
+                        for (int k = 0; k < packed.length; k++) packed[k] = in.readLong();
+                        String name = module >= 0 && module < names.size() ? names.get(module) : "?";
+                        out.accept(new MemoryManager.Experience(name, Signals.unpack(packed, 0), success, tick));
+                        count++;
+                    } else {
+                        break;
+                    }
+                } catch (EOFException torn) {
+                    break;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -1,4 +1,3 @@
-
 package com.tyler.forgeai.ai;
 
 import com.google.gson.Gson;
@@ -8,50 +7,351 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.io.FileReader;
-import java.io.FileWriter;
+import java.io.IOException;
 import java.lang.reflect.Type;
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * LearningStore: simple JSON persistence for learned data (hotbar layouts, heuristics, portals, observations).
+ * - Observations (record/getObservations) live in a segmented append-only
+ *   ObservationLog with per-key retention, encoded by ObservationCodec (binary,
+ *   schema per observation type); put/get values stay in the JSON map
+ * - Write-behind: put/forget only change memory and mark the key dirty; repeated
+ *   writes to a key are coalesced into one pending change
+ * - A background virtual thread writes the store once FLUSH_MAX_DIRTY keys are dirty
+ *   or FLUSH_INTERVAL_MS after the first unsaved change, whichever comes first
+ * - Writes go to a temp file that is renamed over the old one, so a crash leaves
+ *   either the previous or the new file, never a torn one
+ * - The same thread writes buffered observations and compacts their segments
+ * - flush() writes pending changes now (server stopping)
+ * - Startup reads only the log's segment indexes: observations under
+ *   EAGER_PREFIXES (taught procedures and locations, hotbar layouts) are decoded at
+ *   init and served from memory; every other body is read on first access. The JSON
+ *   map is parsed by the background thread (or by the first get/put that needs it),
+ *   except on the first start after an upgrade, when its lists still need moving
  */
 public class LearningStore {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-learning");
     private static final String DATA_PATH = "config/forgeai_learning.json";
+    private static final String OBSERVATIONS_PATH = "config/forgeai_observations";
+
+    /** Write at most this long after the first unsaved change... */
+    public static final long FLUSH_INTERVAL_MS = 5000;
+    /** ...or as soon as this many keys are dirty. */
+    public static final int FLUSH_MAX_DIRTY = 256;
+
+    /** Observations under these prefixes are loaded at init and kept in memory. */
+    public static final List<String> EAGER_PREFIXES = List.of("learned_procedure", "learned_location", "hotbar-");
+    // Records kept per key (longest matching prefix), in the log and in memory
+    private static final Map<String, Integer> RETENTION = Map.of(
+        "learned_procedure_", 1,   // only the latest version of a taught procedure or location matters
+        "learned_location_", 1,
+        "hotbar-", 64,
+        ObservationCodec.DICTIONARY_KEY, Integer.MAX_VALUE);
+
     private final Gson gson = new Gson();
     private final Map<String, Object> store = new HashMap<>();
+    private final ObservationLog observations = new ObservationLog(Paths.get(OBSERVATIONS_PATH));
+    private final Type mapType = new TypeToken<Map<String, Object>>() {}.getType();
+    // New dictionary strings are logged before the record that uses them
+    private final ObservationCodec codec = new ObservationCodec(
+        (id, value) -> observations.record(ObservationCodec.DICTIONARY_KEY, ObservationCodec.encodeString(id, value)));
+
+    // Guarded by this
+    private boolean storeLoaded = false;
+    private final TreeMap<String, List<Map<String, Object>>> resident = new TreeMap<>();
+    private Set<String> dirtyKeys = new HashSet<>();
+    private long firstDirtyAt = 0;
+
+    private final Object writeLock = new Object();  // one file write at a time
+    private volatile boolean running = false;
+    private Thread flusher;
+
+    public LearningStore() {
+        RETENTION.forEach(observations::setRetention);
+    }
 
     public void init() {
+        long start = System.currentTimeMillis();
+        observations.open();
+        for (byte[] entry : observations.readKey(ObservationCodec.DICTIONARY_KEY)) codec.loadString(entry);
+        // Nothing logged yet but a JSON map: it may hold lists to migrate before anyone reads
+        if (observations.keyCount() == 0 && Files.exists(Paths.get(DATA_PATH))) ensureLoaded();
+        int count = 0;
+        synchronized (this) {
+            for (String prefix : EAGER_PREFIXES) {
+                for (String key : observations.keys(prefix)) {
+                    List<Map<String, Object>> list = resident.computeIfAbsent(key, k -> new ArrayList<>());
+                    if (list.isEmpty()) {  // else already filled by a migration
+                        for (byte[] body : observations.readKey(key)) {
+                            Map<String, Object> obs = decode(key, body);
+                            if (obs != null) list.add(obs);
+                        }
+                    }
+                    count += list.size();
+                }
+            }
+        }
+        LOGGER.info("Learning store ready in {} ms: {} observations in memory, {} keys loaded on first use",
+            System.currentTimeMillis() - start, count, observations.keyCount() - resident.size());
+        if (!running) {
+            running = true;
+            flusher = Thread.ofVirtual().name("forgeai-learning-flush").start(this::flushLoop);
+        }
+    }
+
+    /** Parse the JSON map if not done yet (background thread, or the first caller that needs it). */
+    private synchronized void ensureLoaded() {
+        if (storeLoaded) return;
+        storeLoaded = true;
         File f = new File(DATA_PATH);
-        if (f.exists()) {
-            try (FileReader reader = new FileReader(f)) {
-                Type mapType = new TypeToken<Map<String, Object>>() {}.getType();
-                Map<String, Object> loaded = gson.fromJson(reader, mapType);
-                if (loaded != null) store.putAll(loaded);
-                LOGGER.info("Loaded learning data entries: {}", store.size());
-            } catch (Exception e) {
-                LOGGER.warn("Failed to load learning data: {}", e.getMessage());
+        if (!f.exists()) return;
+        long start = System.currentTimeMillis();
+        try (FileReader reader = new FileReader(f, StandardCharsets.UTF_8)) {
+            Map<String, Object> loaded = gson.fromJson(reader, mapType);
+            if (loaded != null) {
+                // Values put before the load are newer than the file's
+                loaded.keySet().removeAll(store.keySet());
+                store.putAll(loaded);
             }
+            migrateObservations();
+            LOGGER.info("Loaded {} learning data entries in {} ms", store.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            LOGGER.warn("Failed to load learning data: {}", e.getMessage());
         }
     }
 
     public synchronized void put(String key, Object value) {
+        ensureLoaded();
         store.put(key, value);
-        persist();
+        markDirty(key);
     }
 
     public synchronized Object get(String key) {
+        ensureLoaded();
         return store.get(key);
     }
 
-    public synchronized boolean contains(String key) { return store.containsKey(key); }
+    public synchronized boolean contains(String key) {
+        ensureLoaded();
+        return store.containsKey(key);
+    }
 
-    private void persist() {
-        try (FileWriter writer = new FileWriter(DATA_PATH)) {
-            gson.toJson(store, writer);
+    /**
+     * Append an observation under key (O(1), written in the background).
+     */
+    public void record(String key, Map<String, Object> payload) {
+        byte[] body = codec.encode(key, payload);
+        observations.record(key, body);
+        if (!isEager(key)) return;
+        Map<String, Object> obs = decode(key, body);
+        if (obs == null) return;
+        synchronized (this) {
+            List<Map<String, Object>> list = resident.computeIfAbsent(key, k -> new ArrayList<>());
+            list.add(obs);
+            int keep = retention(key);
+            if (list.size() > keep) list.subList(0, list.size() - keep).clear();
+        }
+    }
+
+    /**
+     * All observations recorded under keys starting with prefix: keys in order, each
+     * oldest first. Only the segments holding those records are read.
+     */
+    public List<Map<String, Object>> getObservations(String prefix) {
+        if (isEager(prefix)) {
+            List<Map<String, Object>> result = new ArrayList<>();
+            synchronized (this) {
+                for (List<Map<String, Object>> list : resident.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values()) {
+                    for (Map<String, Object> obs : list) result.add(new HashMap<>(obs));
+                }
+            }
+            return result;
+        }
+        List<byte[]> bodies;
+        if (ObservationCodec.DICTIONARY_KEY.startsWith(prefix)) {
+            bodies = new ArrayList<>();
+            for (String key : observations.keys(prefix)) {
+                if (!key.equals(ObservationCodec.DICTIONARY_KEY)) bodies.addAll(observations.readKey(key));
+            }
+        } else {
+            bodies = observations.read(prefix);
+        }
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (byte[] body : bodies) {
+            Map<String, Object> obs = decode(prefix, body);
+            if (obs != null) result.add(obs);
+        }
+        return result;
+    }
+
+    private Map<String, Object> decode(String key, byte[] body) {
+        try {
+            return codec.decode(body);
         } catch (Exception e) {
-            LOGGER.error("Failed to persist learning store: {}", e.getMessage());
+            LOGGER.debug("Skipping unreadable observation under {}: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    private static boolean isEager(String keyOrPrefix) {
+        for (String prefix : EAGER_PREFIXES) {
+            if (keyOrPrefix.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    private static int retention(String key) {
+        int best = -1, keep = ObservationLog.DEFAULT_RETENTION;
+        for (Map.Entry<String, Integer> rule : RETENTION.entrySet()) {
+            if (key.startsWith(rule.getKey()) && rule.getKey().length() > best) {
+                best = rule.getKey().length();
+                keep = rule.getValue();
+            }
+        }
+        return keep;
+    }
+
+    /**
+     * How often each value of field occurs in the observations under prefix.
+     */
+    public Map<String, Integer> summarizeCounts(String prefix, String field) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Map<String, Object> obs : getObservations(prefix)) {
+            Object value = obs.get(field);
+            if (value != null) counts.merge(value.toString(), 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    public void forget(String key) {
+        observations.forget(key);
+        synchronized (this) {
+            resident.remove(key);
+            ensureLoaded();
+            if (store.remove(key) != null) markDirty(key);
+        }
+    }
+
+    /** Move observation lists saved in the JSON map by older versions into the log. */
+    @SuppressWarnings("unchecked")
+    private void migrateObservations() {
+        int moved = 0;
+        for (Iterator<Map.Entry<String, Object>> it = store.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, Object> e = it.next();
+            if (!(e.getValue() instanceof List<?> list) || list.isEmpty() || !(list.get(0) instanceof Map)) continue;
+            for (Object o : list) {
+                if (o instanceof Map) record(e.getKey(), (Map<String, Object>) o);
+            }
+            it.remove();
+            markDirty(e.getKey());
+            moved++;
+        }
+        if (moved > 0) LOGGER.info("Moved {} observation lists into the observation log", moved);
+    }
+
+    // ---- Write-behind ---------------------------------------------------------
+
+    private void markDirty(String key) {
+        if (dirtyKeys.isEmpty()) firstDirtyAt = System.currentTimeMillis();
+        dirtyKeys.add(key);
+        if (dirtyKeys.size() >= FLUSH_MAX_DIRTY && flusher != null) LockSupport.unpark(flusher);
+    }
+
+    /** Milliseconds until the pending changes are due, 0 if due now, -1 if nothing is pending. */
+    private synchronized long dueIn() {
+        if (dirtyKeys.isEmpty()) return -1;
+        if (dirtyKeys.size() >= FLUSH_MAX_DIRTY) return 0;
+        return Math.max(0, firstDirtyAt + FLUSH_INTERVAL_MS - System.currentTimeMillis());
+    }
+
+    private void flushLoop() {
+        ensureLoaded();
+        long nextLogFlush = System.currentTimeMillis() + FLUSH_INTERVAL_MS;
+        while (running) {
+            long due = dueIn();
+            if (due == 0) {
+                flushStore();
+                continue;
+            }
+            long now = System.currentTimeMillis();
+            if (now >= nextLogFlush) {
+                observations.flush();
+                observations.compactIfNeeded();
+                nextLogFlush = now + FLUSH_INTERVAL_MS;
+            }
+            long wait = Math.min(nextLogFlush - now, due < 0 ? FLUSH_INTERVAL_MS : due);
+            LockSupport.parkNanos(Math.max(1, wait) * 1_000_000L);
+        }
+    }
+
+    /**
+     * Write all pending changes now.
+     */
+    public void flush() {
+        flushStore();
+        observations.flush();
+    }
+
+    /** Write the JSON map if it changed. Serializing holds the store lock; the file write does not. */
+    private void flushStore() {
+        synchronized (writeLock) {
+            Set<String> flushed;
+            String json;
+            synchronized (this) {
+                if (dirtyKeys.isEmpty()) return;
+                flushed = dirtyKeys;
+                dirtyKeys = new HashSet<>();
+                json = gson.toJson(store);
+            }
+            try {
+                persist(json);
+                LOGGER.debug("Persisted learning store ({} changed keys)", flushed.size());
+            } catch (Exception e) {
+                LOGGER.error("Failed to persist learning store: {}", e.getMessage());
+                synchronized (this) {
+                    if (dirtyKeys.isEmpty()) firstDirtyAt = System.currentTimeMillis();
+                    dirtyKeys.addAll(flushed);
+                }
+            }
+        }
+    }
+
+    /** Stop the background writer and write what is pending. */
+    public void close() {
+        running = false;
+        if (flusher != null) {
+            LockSupport.unpark(flusher);
+            try {
+                flusher.join(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            flusher = null;
+        }
+        flush();
+    }
+
+    private static void persist(String json) throws IOException {
+        Path target = Paths.get(DATA_PATH);
+        Path temp = Paths.get(DATA_PATH + ".tmp");
+        if (target.getParent() != null) Files.createDirectories(target.getParent());
+        // Force the contents to disk before the rename, or a crash could leave an empty file behind it
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) channel.write(bytes);
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
         }
     }
 }
@@ -0,0 +1,279 @@
+package com.tyler.forgeai.ai;
+
+import com.tyler.forgeai.ai.SharedWorldMemory.WorldLocation;
+
+import java.util.*;
+
+/**
+ * LocationIndex: spatial index of SharedWorldMemory locations.
+ * - One grid hash per (dimension, type): CELL_SIZE-block columns in x/z keyed by
+ *   a packed long, so lookups only touch the cells around the query
+ * - Types and dimensions are lower-cased and interned to small ids once, at
+ *   registration; queries never compare strings per location
+ * - nearest() searches rings of cells outward and stops once no unseen cell can
+ *   hold anything closer; sparse grids (portals far apart) scan occupied cells instead
+ * - Distances are squared 3D distances in long arithmetic
+ * - snapshot() returns a read-only copy that shares every grid; a shared grid is
+ *   copied before its next change (copy-on-write), so snapshots never change
+ * Locations must not be moved after they are added (register a new one instead).
+ * Writes are single-threaded (SharedWorldMemory's server thread); a published
+ * snapshot may be read from any thread.
+ */
+public class LocationIndex {
+    public static final int CELL_SHIFT = 5;   // 32-block cells
+    public static final int CELL_SIZE = 1 << CELL_SHIFT;
+
+    private final Map<String, Integer> typeIds = new HashMap<>();
+    private final Map<String, Integer> dimensionIds = new HashMap<>();
+    // (dimension id, type id) -> grid
+    private final Map<Long, Grid> grids = new HashMap<>();
+    private int size = 0;
+
+    /** Locations of one type in one dimension, bucketed by cell. */
+    private static final class Grid {
+        final Map<Long, List<WorldLocation>> cells = new HashMap<>();
+        int size = 0;
+        boolean shared = false;   // also referenced by a snapshot: copy before changing
+
+        Grid copy() {
+            Grid copy = new Grid();
+            for (Map.Entry<Long, List<WorldLocation>> e : cells.entrySet()) copy.cells.put(e.getKey(), new ArrayList<>(e.getValue()));
+            copy.size = size;
+            return copy;
+        }
+
+        void add(WorldLocation loc) {
+            cells.computeIfAbsent(cellKey(loc.x >> CELL_SHIFT, loc.z >> CELL_SHIFT), c -> new ArrayList<>(2)).add(loc);
+            size++;
+        }
+
+        boolean remove(WorldLocation loc) {
+            long key = cellKey(loc.x >> CELL_SHIFT, loc.z >> CELL_SHIFT);
+            List<WorldLocation> cell = cells.get(key);
+            if (cell == null || !cell.remove(loc)) return false;
+            if (cell.isEmpty()) cells.remove(key);
+            size--;
+            return true;
+        }
+    }
+
+    // ---- Updates --------------------------------------------------------------
+
+    public void add(WorldLocation loc) {
+        writable(grid(loc.dimension, loc.type, true)).add(loc);
+        size++;
+    }
+
+    public boolean remove(WorldLocation loc) {
+        Grid grid = grid(loc.dimension, loc.type, false);
+        if (grid == null) return false;
+        List<WorldLocation> cell = grid.cells.get(cellKey(loc.x >> CELL_SHIFT, loc.z >> CELL_SHIFT));
+        if (cell == null || !cell.contains(loc)) return false;
+        writable(grid).remove(loc);
+        size--;
+        return true;
+    }
+
+    /** Read-only copy sharing all grids with this index. */
+    public LocationIndex snapshot() {
+        LocationIndex copy = new LocationIndex();
+        copy.typeIds.putAll(typeIds);
+        copy.dimensionIds.putAll(dimensionIds);
+        for (Map.Entry<Long, Grid> e : grids.entrySet()) {
+            e.getValue().shared = true;
+            copy.grids.put(e.getKey(), e.getValue());
+        }
+        copy.size = size;
+        return copy;
+    }
+
+    public void clear() {
+        grids.clear();
+        size = 0;
+    }
+
+    public int size() { return size; }
+
+    // ---- Queries --------------------------------------------------------------
+
+    /** Nearest location of a type in a dimension, or null. */
+    public WorldLocation nearest(String type, String dimension, int x, int y, int z) {
+        List<WorldLocation> found = nearest(type, dimension, x, y, z, 1);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    /** Up to k locations of a type in a dimension, nearest first. */
+    public List<WorldLocation> nearest(String type, String dimension, int x, int y, int z, int k) {
+        Grid grid = grid(dimension, type, false);
+        if (grid == null || k <= 0) return new ArrayList<>();
+        Best best = new Best(k, x, y, z);
+
+        int cx = x >> CELL_SHIFT, cz = z >> CELL_SHIFT;
+        int visited = 0;
+        for (int r = 0; ; r++) {
+            // Anything in ring r is at least (r - 1) whole cells away horizontally
+            long reach = (long) Math.max(0, r - 1) * CELL_SIZE;
+            if (best.isFull() && reach * reach > best.worst()) break;
+            if (visited >= grid.cells.size()) {
+                // Walking empty rings costs more than looking at every occupied cell
+                best = new Best(k, x, y, z);
+                for (List<WorldLocation> cell : grid.cells.values()) best.offerAll(cell);
+                break;
+            }
+            for (int dx = -r; dx <= r; dx++) {
+                boolean edge = dx == -r || dx == r;
+                for (int dz = -r; dz <= r; dz += edge ? 1 : 2 * r) {
+                    List<WorldLocation> cell = grid.cells.get(cellKey(cx + dx, cz + dz));
+                    visited++;
+                    if (cell == null) continue;
+                    best.offerAll(cell);
+                }
+            }
+            if (best.seen >= grid.size) break;
+        }
+        return best.sorted();
+    }
+
+    /** Every location of a type in a dimension within radius (3D) of a point. */
+    public List<WorldLocation> within(String type, String dimension, int x, int y, int z, int radius) {
+        List<WorldLocation> result = new ArrayList<>();
+        Grid grid = grid(dimension, type, false);
+        if (grid != null) collectWithin(grid, x, y, z, radius, result);
+        return result;
+    }
+
+    /** Every location of any type in a dimension within radius (3D) of a point. */
+    public List<WorldLocation> within(String dimension, int x, int y, int z, int radius) {
+        List<WorldLocation> result = new ArrayList<>();
+        Integer dim = dimensionIds.get(normalize(dimension));
+        if (dim == null) return result;
+        for (Map.Entry<Long, Grid> e : grids.entrySet()) {
+            if ((int) (e.getKey() >> 32) == dim) collectWithin(e.getValue(), x, y, z, radius, result);
+        }
+        return result;
+    }
+
+    /** All locations of a type in a dimension. */
+    public List<WorldLocation> ofType(String type, String dimension) {
+        List<WorldLocation> result = new ArrayList<>();
+        Grid grid = grid(dimension, type, false);
+        if (grid != null) for (List<WorldLocation> cell : grid.cells.values()) result.addAll(cell);
+        return result;
+    }
+
+    /** All locations of a type in every dimension. */
+    public List<WorldLocation> ofType(String type) {
+        List<WorldLocation> result = new ArrayList<>();
+        Integer t = typeIds.get(normalize(type));
+        if (t == null) return result;
+        for (Map.Entry<Long, Grid> e : grids.entrySet()) {
+            if ((int) (long) e.getKey() != t) continue;
+            for (List<WorldLocation> cell : e.getValue().cells.values()) result.addAll(cell);
+        }
+        return result;
+    }
+
+    private static void collectWithin(Grid grid, int x, int y, int z, int radius, List<WorldLocation> out) {
+        long limit = (long) radius * radius;
+        int minX = (x - radius) >> CELL_SHIFT, maxX = (x + radius) >> CELL_SHIFT;
+        int minZ = (z - radius) >> CELL_SHIFT, maxZ = (z + radius) >> CELL_SHIFT;
+        long boxCells = (long) (maxX - minX + 1) * (maxZ - minZ + 1);
+        if (boxCells <= grid.cells.size()) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cz = minZ; cz <= maxZ; cz++) {
+                    List<WorldLocation> cell = grid.cells.get(cellKey(cx, cz));
+                    if (cell == null) continue;
+                    for (WorldLocation loc : cell) if (distSqr(loc, x, y, z) <= limit) out.add(loc);
+                }
+            }
+        } else {
+            for (Map.Entry<Long, List<WorldLocation>> e : grid.cells.entrySet()) {
+                int cx = (int) (e.getKey() >> 32), cz = (int) (long) e.getKey();
+                if (cx < minX || cx > maxX || cz < minZ || cz > maxZ) continue;
+                for (WorldLocation loc : e.getValue()) if (distSqr(loc, x, y, z) <= limit) out.add(loc);
+            }
+        }
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    /** The grid itself, or its private copy if a snapshot shares it. */
+    private Grid writable(Grid grid) {
+        if (!grid.shared) return grid;
+        Grid copy = grid.copy();
+        for (Map.Entry<Long, Grid> e : grids.entrySet()) {
+            if (e.getValue() == grid) {
+                e.setValue(copy);
+                break;
+            }
+        }
+        return copy;
+    }
+
+    private Grid grid(String dimension, String type, boolean create) {
+        String d = normalize(dimension), t = normalize(type);
+        Integer dim = dimensionIds.get(d);
+        Integer typ = typeIds.get(t);
+        if (!create && (dim == null || typ == null)) return null;
+        if (dim == null) {
+            dim = dimensionIds.size();
+            dimensionIds.put(d, dim);
+        }
+        if (typ == null) {
+            typ = typeIds.size();
+            typeIds.put(t, typ);
+        }
+        long key = cellKey(dim, typ);
+        return create ? grids.computeIfAbsent(key, k -> new Grid()) : grids.get(key);
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.toLowerCase(Locale.ROOT);
+    }
+
+    private static long cellKey(int a, int b) {
+        return ((long) a << 32) | (b & 0xFFFFFFFFL);
+    }
+
+    static long distSqr(WorldLocation loc, int x, int y, int z) {
+        long dx = loc.x - x, dy = loc.y - y, dz = loc.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /** The k closest locations offered so far (a bounded max-heap on distance). */
+    private static final class Best {
+        final int k;
+        final int x, y, z;
+        final PriorityQueue<WorldLocation> heap;
+        int seen = 0;
+
+        Best(int k, int x, int y, int z) {
+            this.k = k;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.heap = new PriorityQueue<>(k + 1, (a, b) -> Long.compare(distSqr(b, x, y, z), distSqr(a, x, y, z)));
+        }
+
+        void offerAll(List<WorldLocation> cell) {
+            for (WorldLocation loc : cell) {
+                seen++;
+                if (heap.size() < k) {
+                    heap.add(loc);
+                } else if (distSqr(loc, x, y, z) < worst()) {
+                    heap.poll();
+                    heap.add(loc);
+                }
+            }
+        }
+
+        boolean isFull() { return heap.size() >= k; }
+        long worst() { return heap.isEmpty() ? Long.MAX_VALUE : distSqr(heap.peek(), x, y, z); }
+
+        List<WorldLocation> sorted() {
+            List<WorldLocation> out = new ArrayList<>(heap);
+            out.sort(Comparator.comparingLong(l -> distSqr(l, x, y, z)));
+            return out;
+        }
+    }
+}
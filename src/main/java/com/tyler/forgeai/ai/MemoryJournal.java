@@ -0,0 +1,301 @@
+package com.tyler.forgeai.ai;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * MemoryJournal: write-ahead log of SharedWorldMemory changes.
+ * - Every change is one NBT record appended to journal-<generation>.log; records
+ *   are framed as length + CRC32 + bytes, so a record torn by a crash is detected
+ *   and everything before it still replays
+ * - Appends are queued from the server thread and written in batches by one
+ *   background thread, which flushes and forces each batch to disk
+ * - Compaction: compact() starts a new generation on the server thread and hands
+ *   the writer the immutable snapshot taken at that moment; the writer saves it to
+ *   memory.dat (temp file forced to disk, atomic rename, directory forced) and only
+ *   then deletes the generations it covers
+ * - Startup: load memory.dat, then replay the newer generations in order
+ */
+public class MemoryJournal {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-memory-journal");
+
+    /** Compact once this many journal bytes were written... */
+    public static final long COMPACT_BYTES = 4L << 20;
+    /** ...or this long after the last compaction if anything was written. */
+    public static final long COMPACT_INTERVAL_MS = 10 * 60 * 1000L;
+
+    private static final String SNAPSHOT_FILE = "memory.dat";
+    private static final String GENERATION_KEY = "journalGeneration";
+    /** Larger record lengths can only come from a corrupt frame header. */
+    private static final int MAX_RECORD_BYTES = 16 << 20;
+
+    private final Path dir;
+    private final ExecutorService writer;
+    private final ConcurrentLinkedQueue<Pending> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final AtomicLong bytesSinceCompact = new AtomicLong();
+    private volatile boolean compacting = false;
+
+    // Server thread
+    private int generation = 0;
+    private long lastCompact = System.currentTimeMillis();
+
+    // Writer thread
+    private DataOutputStream out;
+    private FileOutputStream outFile;
+    private int outGeneration = -1;
+
+    private record Pending(int generation, CompoundTag op) {}
+
+    public MemoryJournal(Path dir) {
+        this.dir = dir;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "forgeai-memory-journal");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // ---- Startup --------------------------------------------------------------
+
+    /**
+     * Hand the last compacted snapshot (if any) to load, replay every newer journal
+     * record into apply, and start a fresh generation for this session's writes.
+     */
+    public void recover(Consumer<CompoundTag> load, Consumer<CompoundTag> apply) {
+        long start = System.currentTimeMillis();
+        CompoundTag base = null;
+        int firstGeneration = 0;
+        try {
+            Files.createDirectories(dir);
+            Path snapshot = dir.resolve(SNAPSHOT_FILE);
+            if (Files.exists(snapshot)) {
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        new GZIPInputStream(Files.newInputStream(snapshot))))) {
+                    base = NbtIo.read(in);
+                }
+                firstGeneration = base.getInt(GENERATION_KEY);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to read memory snapshot, replaying journals only: {}", e.getMessage());
+            base = null;
+        }
+        if (base != null) load.accept(base);
+
+        int records = 0;
+        int last = firstGeneration - 1;
+        for (int gen : generations()) {
+            if (gen < firstGeneration) continue;
+            records += replay(journalFile(gen), apply);
+            last = Math.max(last, gen);
+        }
+        // Never append behind a possibly torn tail: this session writes a new file
+        generation = last + 1;
+        LOGGER.info("Memory journal recovered in {} ms: snapshot={}, {} records replayed",
+            System.currentTimeMillis() - start, base != null, records);
+    }
+
+    /** Apply the intact records of one journal file; returns how many. */
+    private int replay(Path file, Consumer<CompoundTag> apply) {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                int crc = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    LOGGER.warn("Dropping corrupt tail of {} after {} records", file.getFileName(), count);
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                if (crc(bytes) != crc) {
+                    LOGGER.warn("Dropping torn record in {} after {} records", file.getFileName(), count);
+                    break;
+                }
+                apply.accept(NbtIo.read(new DataInputStream(new ByteArrayInputStream(bytes))));
+                count++;
+            }
+        } catch (EOFException torn) {
+            LOGGER.warn("Dropping torn record at the end of {} after {} records", file.getFileName(), count);
+        } catch (Exception e) {
+            LOGGER.error("Failed to replay {}: {}", file.getFileName(), e.getMessage());
+        }
+        return count;
+    }
+
+    // ---- Writing --------------------------------------------------------------
+
+    /** Queue one change record (server thread). */
+    public void append(CompoundTag op) {
+        pending.add(new Pending(generation, op));
+        if (drainScheduled.compareAndSet(false, true)) writer.execute(this::drain);
+    }
+
+    /** Whether the server thread should call compact() now. */
+    public boolean shouldCompact() {
+        if (compacting) return false;
+        long written = bytesSinceCompact.get();
+        return written >= COMPACT_BYTES
+            || (written > 0 && System.currentTimeMillis() - lastCompact >= COMPACT_INTERVAL_MS);
+    }
+
+    /**
+     * Start a new generation and save snapshot (everything written so far) in the
+     * background. snapshot is called on the writer thread and must be immutable data.
+     */
+    public void compact(Supplier<CompoundTag> snapshot) {
+        int covered = ++generation;
+        bytesSinceCompact.set(0);
+        lastCompact = System.currentTimeMillis();
+        compacting = true;
+        writer.execute(() -> {
+            try {
+                drain();
+                CompoundTag root = snapshot.get();
+                root.putInt(GENERATION_KEY, covered);
+                writeSnapshot(root);
+                if (outGeneration >= 0 && outGeneration < covered) closeOutput();
+                for (int gen : generations()) {
+                    if (gen < covered) Files.deleteIfExists(journalFile(gen));
+                }
+            } catch (Exception e) {
+                LOGGER.error("Memory compaction failed (journal kept): {}", e.getMessage());
+            } finally {
+                compacting = false;
+            }
+        });
+    }
+
+    /** Compact one last time and wait for the writer to finish (server stopping). */
+    public void close(Supplier<CompoundTag> snapshot) {
+        compact(snapshot);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(30, TimeUnit.SECONDS)) {
+                LOGGER.warn("Memory journal writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        closeOutput();
+    }
+
+    // ---- Writer thread --------------------------------------------------------
+
+    private void drain() {
+        drainScheduled.set(false);
+        boolean wrote = false;
+        try {
+            for (Pending p; (p = pending.poll()) != null; ) {
+                if (p.generation() != outGeneration) openOutput(p.generation());
+                ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+                NbtIo.write(p.op(), new DataOutputStream(buffer));
+                byte[] bytes = buffer.toByteArray();
+                out.writeInt(bytes.length);
+                out.writeInt(crc(bytes));
+                out.write(bytes);
+                bytesSinceCompact.addAndGet(bytes.length + 8L);
+                wrote = true;
+            }
+            if (wrote) {
+                out.flush();
+                outFile.getChannel().force(false);
+            }
+        } catch (Exception e) {
+            LOGGER.error("Failed to append to memory journal: {}", e.getMessage());
+        }
+    }
+
+    private void openOutput(int gen) throws IOException {
+        closeOutput();
+        Files.createDirectories(dir);
+        outFile = new FileOutputStream(journalFile(gen).toFile(), true);
+        out = new DataOutputStream(new BufferedOutputStream(outFile));
+        outGeneration = gen;
+    }
+
+    private void closeOutput() {
+        try {
+            if (out != null) out.close();
+        } catch (IOException e) {
+            LOGGER.debug("Error closing journal: {}", e.getMessage());
+        }
+        out = null;
+        outFile = null;
+        outGeneration = -1;
+    }
+
+    private void writeSnapshot(CompoundTag root) throws IOException {
+        Path target = dir.resolve(SNAPSHOT_FILE);
+        Path temp = dir.resolve(SNAPSHOT_FILE + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             GZIPOutputStream gzip = new GZIPOutputStream(file)) {
+            DataOutputStream data = new DataOutputStream(new BufferedOutputStream(gzip));
+            NbtIo.write(root, data);
+            data.flush();
+            // The gzip trailer must be on disk before the force, not written by close()
+            gzip.finish();
+            file.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        // Make the rename durable before the caller deletes the journals it replaces
+        syncDirectory(dir);
+    }
+
+    private static void syncDirectory(Path dir) {
+        try (java.nio.channels.FileChannel channel = java.nio.channels.FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported everywhere (e.g. Windows); the rename is still atomic there
+            LOGGER.debug("Could not sync {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    private List<Integer> generations() {
+        List<Integer> gens = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "journal-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    gens.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+                } catch (NumberFormatException ignored) {}
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error listing journals: {}", e.getMessage());
+        }
+        Collections.sort(gens);
+        return gens;
+    }
+
+    private Path journalFile(int gen) {
+        return dir.resolve("journal-" + gen + ".log");
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
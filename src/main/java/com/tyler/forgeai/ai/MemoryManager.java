@@ -4,46 +4,61 @@ import com.tyler.forgeai.core.ContextScanner.Signals;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.*;
 
+/**
+ * MemoryManager: recent experiences (module, signals, outcome, tick) of every bot.
+ * - Kept in a fixed-capacity ExperienceBuffer of primitive columns: recording is
+ *   O(1), allocates nothing and keeps no player reference; the oldest entries are
+ *   overwritten (and spilled to disk first when a spill file is configured)
+ * - Experiences handed out are rebuilt from the columns (signals without a player)
+ */
 public class MemoryManager {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-memory");
 
-    // Simple in‑memory store of experiences
-    private final List<Experience> experiences = new ArrayList<>();
+    private final ExperienceBuffer experiences;
+
+    public MemoryManager() {
+        this(ExperienceBuffer.DEFAULT_CAPACITY, null);
+    }
+
+    /** spillFile may be null to keep experiences in memory only. */
+    public MemoryManager(int capacity, Path spillFile) {
+        this.experiences = new ExperienceBuffer(capacity, spillFile);
+    }
 
     public void init() {
-        LOGGER.info("MemoryManager initialized.");
+        experiences.start();
+        LOGGER.info("MemoryManager initialized ({} experiences kept).", experiences.capacity());
     }
 
     /**
-     * Record a new experience.
+     * Record a new experience (tick unknown).
      */
     public void recordExperience(String moduleName, Signals context, boolean success) {
-        Experience exp = new Experience(moduleName, context, success, System.currentTimeMillis());
-        experiences.add(exp);
-        LOGGER.debug("Recorded experience: " + exp);
+        recordExperience(moduleName, context, success, -1);
+    }
+
+    /**
+     * Record a new experience at a tick. Only the signal values are kept.
+     */
+    public void recordExperience(String moduleName, Signals context, boolean success, long tick) {
+        experiences.append(moduleName, context, success, tick);
     }
 
     /**
      * Retrieve past experiences for a module.
      */
     public List<Experience> getExperiences(String moduleName) {
-        List<Experience> result = new ArrayList<>();
-        for (Experience e : experiences) {
-            if (e.moduleName.equalsIgnoreCase(moduleName)) {
-                result.add(e);
-            }
-        }
-        return result;
+        return experiences.forModule(moduleName);
     }
 
     /**
      * Get last N experiences for quick recall.
      */
     public List<Experience> getRecentExperiences(int count) {
-        int start = Math.max(0, experiences.size() - count);
-        return experiences.subList(start, experiences.size());
+        return experiences.recent(count);
     }
 
     /**
@@ -54,18 +69,23 @@ public class MemoryManager {
         LOGGER.info("Memory cleared.");
     }
 
+    /** Spill pending experiences to disk now (server stopping). */
+    public void flush() {
+        experiences.spill();
+    }
+
     // Inner class representing an experience
     public static class Experience {
         public final String moduleName;
-        public final Signals context;
+        public final Signals context;   // immutable, no player
         public final boolean success;
-        public final long timestamp;
+        public final long tick;         // engine tick, -1 if unknown
 
-        public Experience(String moduleName, Signals context, boolean success, long timestamp) {
+        public Experience(String moduleName, Signals context, boolean success, long tick) {
             this.moduleName = moduleName;
             this.context = context;
             this.success = success;
-            this.timestamp = timestamp;
+            this.tick = tick;
         }
 
         @Override
@@ -73,7 +93,7 @@ public class MemoryManager {
             return "Experience{" +
                     "module='" + moduleName + '\'' +
                     ", success=" + success +
-                    ", time=" + new Date(timestamp) +
+                    ", tick=" + tick +
                     '}';
         }
     }
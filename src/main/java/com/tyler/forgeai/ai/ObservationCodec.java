@@ -0,0 +1,364 @@
+package com.tyler.forgeai.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * ObservationCodec: compact binary encoding of observation payloads (ObservationLog bodies).
+ * - Each observation type has a registered schema: numbered fields with a preferred
+ *   wire kind, plus constant fields ("type": "movement") that are not stored at all
+ * - A field is one varint tag (field id << 4 | wire kind) and its value; fields a
+ *   schema does not know are kept too, named by a dictionary id
+ * - Timestamps are varints relative to EPOCH_BASE; other integers are zigzag varints
+ * - Low-cardinality strings (names, modes, block types) are dictionary ids; the
+ *   dictionary is append-only and each new string is handed to the sink given to
+ *   the constructor, which must persist it before the record that uses it
+ * - Bodies that do not start with MAGIC are read as JSON (records written before
+ *   this format)
+ * Schema and field ids are part of the file format: never renumber or reuse them.
+ * Thread-safe.
+ */
+public class ObservationCodec {
+    public static final byte MAGIC = (byte) 0xB1;
+    /** ObservationLog key holding the string dictionary (sorts before every real key). */
+    public static final String DICTIONARY_KEY = "\u0000strings";
+    /** Timestamps are stored as milliseconds since 2024-01-01T00:00:00Z. */
+    public static final long EPOCH_BASE = 1704067200000L;
+
+    // Wire kinds (low 4 bits of a tag)
+    private static final int TEXT = 0, DICT = 1, LONG = 2, DOUBLE = 3, FALSE = 4, TRUE = 5,
+        TEXT_LIST = 6, DICT_LIST = 7, TIME = 8, POSITION = 9, JSON = 10;
+    /** Field id of fields the schema does not know; the tag is followed by a dictionary id for the name. */
+    private static final int EXTRA = 0;
+
+    private static final Map<String, Schema> BY_NAME = new HashMap<>();
+    private static final Map<String, Schema> BY_KEY_PREFIX = new LinkedHashMap<>();
+    private static final Schema[] BY_ID = new Schema[16];
+
+    /** Schema 0: no known fields, everything stored as extras. */
+    private static final Schema GENERIC = register(0, "generic", null, Map.of());
+
+    static {
+        register(1, "movement", "observation-", Map.of("type", "movement"))
+            .field(1, "style", DICT).field(2, "speed", DOUBLE).field(3, "timestamp", TIME);
+        register(2, "combat", "combat-", Map.of())
+            .field(1, "attacker", DICT).field(2, "defender", DICT).field(3, "outcome", DICT)
+            .field(4, "module", DICT).field(5, "timestamp", TIME);
+        register(3, "building", "building-", Map.of("type", "building"))
+            .field(1, "action", DICT).field(2, "blockType", DICT).field(3, "position", POSITION)
+            .field(4, "timestamp", TIME);
+        register(4, "task", "task-", Map.of("type", "task"))
+            .field(1, "taskType", DICT).field(2, "success", TRUE).field(3, "duration", LONG)
+            .field(4, "timestamp", TIME);
+        register(5, "chat", "chat", Map.of())
+            .field(1, "sender", DICT).field(2, "message", TEXT).field(3, "timestamp", TIME);
+        register(6, "hotbar", "hotbar-", Map.of())
+            .field(1, "mode", DICT).field(2, "layout", DICT_LIST).field(3, "timestamp", TIME);
+    }
+
+    /** One registered observation type. */
+    private static final class Schema {
+        final int id;
+        final String name;
+        final Map<String, Object> constants;
+        final Map<String, Integer> fieldIds = new HashMap<>();
+        final String[] fieldNames = new String[8];
+        final int[] fieldKinds = new int[8];
+
+        Schema(int id, String name, Map<String, Object> constants) {
+            this.id = id;
+            this.name = name;
+            this.constants = constants;
+        }
+
+        Schema field(int fieldId, String fieldName, int kind) {
+            fieldIds.put(fieldName, fieldId);
+            fieldNames[fieldId] = fieldName;
+            fieldKinds[fieldId] = kind;
+            return this;
+        }
+    }
+
+    private static Schema register(int id, String name, String keyPrefix, Map<String, Object> constants) {
+        Schema schema = new Schema(id, name, constants);
+        BY_ID[id] = schema;
+        BY_NAME.put(name, schema);
+        if (keyPrefix != null) BY_KEY_PREFIX.put(keyPrefix, schema);
+        return schema;
+    }
+
+    private final Gson gson = new Gson();
+    private final Type mapType = new TypeToken<Map<String, Object>>() {}.getType();
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final BiConsumer<Integer, String> newString;
+
+    /** newString persists each string added to the dictionary (id, value). */
+    public ObservationCodec(BiConsumer<Integer, String> newString) {
+        this.newString = newString;
+    }
+
+    // ---- Dictionary -----------------------------------------------------------
+
+    /** Restore one persisted dictionary entry (see encodeString). */
+    public synchronized void loadString(byte[] entry) {
+        ByteBuffer in = ByteBuffer.wrap(entry);
+        int id = (int) readVarLong(in);
+        String value = new String(entry, in.position(), in.remaining(), StandardCharsets.UTF_8);
+        while (strings.size() <= id) strings.add(null);
+        strings.set(id, value);
+        stringIds.put(value, id);
+    }
+
+    /** Persisted form of a dictionary entry: varint id, then UTF-8. */
+    public static byte[] encodeString(int id, String value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length() + 4);
+        writeVarLong(out, id);
+        out.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        return out.toByteArray();
+    }
+
+    public synchronized int dictionarySize() {
+        return strings.size();
+    }
+
+    private int intern(String s) {
+        Integer id = stringIds.get(s);
+        if (id != null) return id;
+        id = strings.size();
+        strings.add(s);
+        stringIds.put(s, id);
+        newString.accept(id, s);
+        return id;
+    }
+
+    private String lookup(int id) {
+        String s = id < strings.size() ? strings.get(id) : null;
+        return s == null ? "?" + id : s;
+    }
+
+    // ---- Encoding -------------------------------------------------------------
+
+    /** Encode an observation recorded under key. */
+    public synchronized byte[] encode(String key, Map<String, Object> payload) {
+        Schema schema = schemaFor(key, payload);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32);
+        out.write(MAGIC);
+        writeVarLong(out, schema.id);
+        for (Map.Entry<String, Object> e : payload.entrySet()) {
+            Object value = e.getValue();
+            if (value == null || value.equals(schema.constants.get(e.getKey()))) continue;
+            Integer fieldId = schema.fieldIds.get(e.getKey());
+            if (fieldId != null && writeField(out, fieldId, schema.fieldKinds[fieldId], value)) continue;
+            // Unknown field, or a value the schema's kind cannot hold
+            writeVarLong(out, EXTRA << 4 | genericKind(value));
+            writeVarLong(out, intern(e.getKey()));
+            writeValue(out, genericKind(value), value);
+        }
+        return out.toByteArray();
+    }
+
+    /** Schema named by the payload's type, else by the key; only if its constants hold. */
+    private static Schema schemaFor(String key, Map<String, Object> payload) {
+        Object type = payload.get("type");
+        Schema schema = type == null ? null : BY_NAME.get(type.toString());
+        if (schema == null) {
+            for (Map.Entry<String, Schema> e : BY_KEY_PREFIX.entrySet()) {
+                if (key.startsWith(e.getKey())) {
+                    schema = e.getValue();
+                    break;
+                }
+            }
+        }
+        if (schema == null) return GENERIC;
+        for (Map.Entry<String, Object> constant : schema.constants.entrySet()) {
+            if (!constant.getValue().equals(payload.get(constant.getKey()))) return GENERIC;
+        }
+        return schema;
+    }
+
+    /** Write a known field in its schema kind; false if the value does not fit it. */
+    private boolean writeField(ByteArrayOutputStream out, int fieldId, int kind, Object value) {
+        int wire;
+        switch (kind) {
+            case DICT, TEXT -> {
+                if (!(value instanceof String)) return false;
+                wire = kind;
+            }
+            case LONG, TIME -> {
+                if (!(value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) return false;
+                wire = kind;
+            }
+            case DOUBLE -> {
+                if (!(value instanceof Number)) return false;
+                wire = DOUBLE;
+            }
+            case TRUE -> {
+                if (!(value instanceof Boolean b)) return false;
+                wire = b ? TRUE : FALSE;
+            }
+            case DICT_LIST -> {
+                if (!(value instanceof List<?> list) || !allStrings(list)) return false;
+                wire = DICT_LIST;
+            }
+            case POSITION -> {
+                if (!(value instanceof String s) || parsePosition(s) == null) return false;
+                wire = POSITION;
+            }
+            default -> {
+                return false;
+            }
+        }
+        writeVarLong(out, (long) fieldId << 4 | wire);
+        writeValue(out, wire, value);
+        return true;
+    }
+
+    private static int genericKind(Object value) {
+        if (value instanceof String) return TEXT;
+        if (value instanceof Boolean b) return b ? TRUE : FALSE;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) return LONG;
+        if (value instanceof Number) return DOUBLE;
+        if (value instanceof List<?> list && allStrings(list)) return TEXT_LIST;
+        return JSON;
+    }
+
+    private void writeValue(ByteArrayOutputStream out, int wire, Object value) {
+        switch (wire) {
+            case TEXT -> writeText(out, (String) value);
+            case DICT -> writeVarLong(out, intern((String) value));
+            case LONG -> writeVarLong(out, zigzag(((Number) value).longValue()));
+            case TIME -> writeVarLong(out, zigzag(((Number) value).longValue() - EPOCH_BASE));
+            case DOUBLE -> {
+                long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+                for (int i = 7; i >= 0; i--) out.write((int) (bits >>> (i * 8)));
+            }
+            case FALSE, TRUE -> {}
+            case TEXT_LIST, DICT_LIST -> {
+                List<?> list = (List<?>) value;
+                writeVarLong(out, list.size());
+                for (Object o : list) {
+                    if (wire == DICT_LIST) writeVarLong(out, intern((String) o));
+                    else writeText(out, (String) o);
+                }
+            }
+            case POSITION -> {
+                for (int c : parsePosition((String) value)) writeVarLong(out, zigzag(c));
+            }
+            default -> writeText(out, gson.toJson(value));
+        }
+    }
+
+    // ---- Decoding -------------------------------------------------------------
+
+    /** Decode a body written by encode(), or a JSON body from before this format. */
+    public synchronized Map<String, Object> decode(byte[] body) {
+        if (body.length == 0 || body[0] != MAGIC) {
+            return gson.fromJson(new String(body, StandardCharsets.UTF_8), mapType);
+        }
+        ByteBuffer in = ByteBuffer.wrap(body, 1, body.length - 1);
+        int schemaId = (int) readVarLong(in);
+        Schema schema = schemaId < BY_ID.length && BY_ID[schemaId] != null ? BY_ID[schemaId] : GENERIC;
+        Map<String, Object> result = new LinkedHashMap<>(schema.constants);
+        while (in.hasRemaining()) {
+            long tag = readVarLong(in);
+            int fieldId = (int) (tag >>> 4);
+            int wire = (int) (tag & 15);
+            String name = fieldId == EXTRA ? lookup((int) readVarLong(in))
+                : fieldId < schema.fieldNames.length && schema.fieldNames[fieldId] != null ? schema.fieldNames[fieldId]
+                : "field" + fieldId;
+            result.put(name, readValue(in, wire));
+        }
+        return result;
+    }
+
+    private Object readValue(ByteBuffer in, int wire) {
+        return switch (wire) {
+            case TEXT -> readText(in);
+            case DICT -> lookup((int) readVarLong(in));
+            case LONG -> unzigzag(readVarLong(in));
+            case TIME -> unzigzag(readVarLong(in)) + EPOCH_BASE;
+            case DOUBLE -> in.getDouble();
+            case FALSE -> false;
+            case TRUE -> true;
+            case TEXT_LIST, DICT_LIST -> {
+                int n = (int) readVarLong(in);
+                List<String> list = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) list.add(wire == DICT_LIST ? lookup((int) readVarLong(in)) : readText(in));
+                yield list;
+            }
+            case POSITION -> unzigzag(readVarLong(in)) + "," + unzigzag(readVarLong(in)) + "," + unzigzag(readVarLong(in));
+            case JSON -> gson.fromJson(readText(in), Object.class);
+            default -> throw new IllegalArgumentException("Unknown wire kind " + wire);
+        };
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    private static boolean allStrings(List<?> list) {
+        for (Object o : list) if (!(o instanceof String)) return false;
+        return true;
+    }
+
+    /** "x,y,z" as three ints, or null. */
+    private static int[] parsePosition(String s) {
+        String[] parts = s.split(",");
+        if (parts.length != 3) return null;
+        try {
+            int[] xyz = new int[3];
+            for (int i = 0; i < 3; i++) {
+                xyz[i] = Integer.parseInt(parts[i].trim());
+                if (!parts[i].equals(Integer.toString(xyz[i]))) return null;  // must read back identically
+            }
+            return xyz;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeText(ByteArrayOutputStream out, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length);
+        out.writeBytes(bytes);
+    }
+
+    private static String readText(ByteBuffer in) {
+        int length = (int) readVarLong(in);
+        String s = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long v) {
+        while ((v & ~0x7FL) != 0) {
+            out.write((int) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        out.write((int) v);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long v = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            v |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return v;
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+}
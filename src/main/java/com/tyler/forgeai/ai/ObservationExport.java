@@ -0,0 +1,55 @@
+package com.tyler.forgeai.ai;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ObservationExport: debugging tool that dumps an observation log as JSON lines.
+ * - One line per record: {"key": ..., "observation": {...}}, keys in order, each
+ *   key's records oldest first
+ * - Usage: java -cp <mod jar + gson + slf4j> com.tyler.forgeai.ai.ObservationExport
+ *   [log dir, default config/forgeai_observations] [output file, default stdout]
+ * Only reads (ObservationLog.openReadOnly): the log files are left exactly as found,
+ * torn tails and missing index files included.
+ */
+public final class ObservationExport {
+    private ObservationExport() {}
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Paths.get(args.length > 0 ? args[0] : "config/forgeai_observations");
+        ObservationLog log = new ObservationLog(dir);
+        log.openReadOnly();
+        try (Writer out = args.length > 1
+                ? new BufferedWriter(new OutputStreamWriter(new FileOutputStream(args[1]), StandardCharsets.UTF_8))
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            int records = export(log, out);
+            out.flush();
+            System.err.println("Exported " + records + " observations from " + dir);
+        }
+    }
+
+    /** Write every record of log to out; returns how many. */
+    public static int export(ObservationLog log, Writer out) throws IOException {
+        ObservationCodec codec = new ObservationCodec((id, value) -> {});
+        for (byte[] entry : log.readKey(ObservationCodec.DICTIONARY_KEY)) codec.loadString(entry);
+        Gson gson = new Gson();
+        int count = 0;
+        for (String key : log.keys("")) {
+            if (key.equals(ObservationCodec.DICTIONARY_KEY)) continue;
+            for (byte[] body : log.readKey(key)) {
+                JsonObject line = new JsonObject();
+                line.addProperty("key", key);
+                line.add("observation", gson.toJsonTree(codec.decode(body)));
+                out.write(gson.toJson(line));
+                out.write('\n');
+                count++;
+            }
+        }
+        return count;
+    }
+}
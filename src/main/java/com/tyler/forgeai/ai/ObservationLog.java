@@ -0,0 +1,886 @@
+package com.tyler.forgeai.ai;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * ObservationLog: append-only, segmented store of observation records (LearningStore).
+ * - record() appends one frame to the active segment's in-memory tail: O(1), no
+ *   disk I/O on the caller's thread; flush() writes the tails from the background
+ * - Frames are length + CRC32 + content; a torn frame at the end of a segment after
+ *   a crash is detected and dropped. A record is (kind, varint sequence, varint key
+ *   id, body): each segment names a key once in a KEY frame before its first record
+ *   and refers to it by a small id after that
+ * - In-memory index: key -> references (segment, offset) of its records, oldest
+ *   first, in a sorted map so a prefix scan only visits matching keys and only reads
+ *   the segments their records live in
+ * - Retention: each key keeps its newest N records (longest matching prefix rule,
+ *   DEFAULT_RETENTION otherwise); older ones drop out of the index at once and out
+ *   of the files at the next compaction
+ * - compactIfNeeded() (background) merges every sealed segment into fresh ones
+ *   holding only live records once they are mostly dead or too many
+ * - forget() writes a tombstone, so forgotten records stay forgotten after restart
+ * - Every sealed segment, once on disk, gets a sidecar index (segment-N.idx: its key
+ *   table and the sequence/key/offset of each record), so open() reads only those
+ *   and never a body; a segment without a valid index (the last one written before
+ *   a restart, or a crash) is scanned once and indexed then. Bodies are read on
+ *   first access. Sequence numbers restore record order and drop duplicates left
+ *   by an interrupted compaction
+ * - openReadOnly() (tools) leaves the files exactly as found: torn tails are skipped
+ *   instead of cut, no index file is written, and writes are refused
+ * Thread-safe. Bodies are opaque bytes (LearningStore encodes them).
+ */
+public class ObservationLog {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-observation-log");
+
+    /** Segments are sealed at about this size. */
+    public static final int SEGMENT_BYTES = 1 << 20;
+    /** Records kept per key unless a retention rule says otherwise. */
+    public static final int DEFAULT_RETENTION = 1000;
+    /** Compact once there are more sealed segments than this, whatever their garbage. */
+    public static final int MAX_SEALED_SEGMENTS = 16;
+
+    // Frame kinds; 0 and 1 (fixed-width sequence, key inline) are only read, from older segments
+    private static final byte KIND_LEGACY_RECORD = 0;
+    private static final byte KIND_LEGACY_FORGET = 1;
+    private static final byte KIND_KEY = 2;     // varint key id, UTF-8 key
+    private static final byte KIND_RECORD = 3;  // varint sequence, varint key id, body
+    private static final byte KIND_FORGET = 4;  // varint sequence, varint key id
+    private static final int HEADER_BYTES = 8;  // length + crc
+
+    private final Path dir;
+    private final TreeMap<String, KeyRecords> index = new TreeMap<>();
+    private final Map<String, Integer> retention = new HashMap<>();  // key prefix -> records kept
+    private final Map<Integer, Segment> segments = new HashMap<>();
+    private Segment active;
+    private int nextSegmentId = 0;
+    private long nextSeq = 0;
+    private final Object writeLock = new Object();  // flush/compaction file writes, one at a time
+    private volatile boolean readOnly = false;
+
+    /** One segment file plus the bytes not yet written to it. */
+    private static final class Segment {
+        final int id;
+        final Path file;
+        long flushed;        // bytes on disk
+        byte[] writing;      // bytes being written by flush(), which start at flushed
+        Tail tail = new Tail();  // bytes after those
+        long length;         // all of the above
+        int records;         // records and tombstones in the segment
+        int live;            // of those, referenced by the index
+        boolean sealed;
+        Contents contents;   // kept while written, until its index file exists
+
+        Segment(int id, Path file) {
+            this.id = id;
+            this.file = file;
+        }
+
+        boolean onDisk() { return writing == null && tail.size == 0; }
+    }
+
+    /** A segment without its bodies: key table plus one entry per record or tombstone. */
+    private static final class Contents {
+        final List<String> keys = new ArrayList<>();
+        final Map<String, Integer> keyIds = new HashMap<>();
+        byte[] kinds = new byte[16];
+        long[] seqs = new long[16];
+        int[] keyOf = new int[16];
+        long[] offsets = new long[16];
+        int size;
+
+        void setKey(int id, String key) {
+            while (keys.size() <= id) keys.add(null);
+            keys.set(id, key);
+            keyIds.put(key, id);
+        }
+
+        String key(int id) {
+            return id >= 0 && id < keys.size() ? keys.get(id) : null;
+        }
+
+        void add(byte kind, long seq, int keyId, long offset) {
+            if (size == kinds.length) {
+                kinds = Arrays.copyOf(kinds, size * 2);
+                seqs = Arrays.copyOf(seqs, size * 2);
+                keyOf = Arrays.copyOf(keyOf, size * 2);
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            kinds[size] = kind;
+            seqs[size] = seq;
+            keyOf[size] = keyId;
+            offsets[size++] = offset;
+        }
+    }
+
+    /** Growable byte buffer that can be read in place. */
+    private static final class Tail {
+        byte[] bytes = new byte[0];
+        int size;
+
+        void write(byte[] b) {
+            if (size + b.length > bytes.length) bytes = Arrays.copyOf(bytes, Math.max(size + b.length, Math.max(4096, bytes.length * 2)));
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+        }
+    }
+
+    /** References of one key's records, oldest first (a queue over a long array). */
+    private static final class KeyRecords {
+        final int limit;
+        long[] refs = new long[4];
+        long[] seqs;   // only while open() rebuilds the index
+        int start, end;
+
+        KeyRecords(int limit) {
+            this.limit = limit;
+        }
+
+        int size() { return end - start; }
+        long get(int i) { return refs[start + i]; }
+
+        void add(long ref, long seq) {
+            if (end == refs.length) {
+                if (start > refs.length / 2) {
+                    System.arraycopy(refs, start, refs, 0, end - start);
+                    if (seqs != null) System.arraycopy(seqs, start, seqs, 0, end - start);
+                    end -= start;
+                    start = 0;
+                } else {
+                    refs = Arrays.copyOf(refs, refs.length * 2);
+                    if (seqs != null) seqs = Arrays.copyOf(seqs, refs.length);
+                }
+            }
+            if (seqs != null) seqs[end] = seq;
+            refs[end++] = ref;
+        }
+
+        long removeFirst() { return refs[start++]; }
+    }
+
+    public ObservationLog(Path dir) {
+        this.dir = dir;
+    }
+
+    /** Keep only the newest maxRecords records of keys starting with prefix (set before open()). */
+    public synchronized void setRetention(String prefix, int maxRecords) {
+        retention.put(prefix, Math.max(1, maxRecords));
+    }
+
+    // ---- Startup --------------------------------------------------------------
+
+    /** Rebuild the index from the segment files and start a new active segment. */
+    public synchronized void open() {
+        open(false);
+    }
+
+    /**
+     * Rebuild the index without touching the files (no truncation, no index files,
+     * no directory created); record(), forget(), flush() and compaction are refused
+     * or skipped. For tools that inspect a log (ObservationExport).
+     */
+    public synchronized void openReadOnly() {
+        open(true);
+    }
+
+    private void open(boolean readOnly) {
+        this.readOnly = readOnly;
+        long start = System.currentTimeMillis();
+        Map<String, Long> forgotten = new HashMap<>();
+        int frames = 0, rescanned = 0;
+        try {
+            if (!readOnly) Files.createDirectories(dir);
+            for (int id : segmentIds()) {
+                Segment seg = new Segment(id, segmentFile(id));
+                seg.sealed = true;
+                Contents contents = readIndex(seg);
+                if (contents == null) {
+                    contents = scan(seg);
+                    if (!readOnly) {
+                        if (Files.size(seg.file) > seg.length) {
+                            // Cut a torn tail so the index matches the file from now on
+                            try (FileChannel channel = FileChannel.open(seg.file, StandardOpenOption.WRITE)) {
+                                channel.truncate(seg.length);
+                            }
+                        }
+                        writeIndex(seg, contents);
+                    }
+                    rescanned++;
+                }
+                addToIndex(seg, contents, forgotten);
+                frames += contents.size;
+                segments.put(id, seg);
+                nextSegmentId = Math.max(nextSegmentId, id + 1);
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to open observation log: {}", e.getMessage());
+        }
+
+        // Restore record order, drop duplicates and forgotten records, apply retention
+        for (Iterator<Map.Entry<String, KeyRecords>> it = index.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<String, KeyRecords> e = it.next();
+            KeyRecords scanned = e.getValue();
+            long forgotAt = forgotten.getOrDefault(e.getKey(), -1L);
+            Integer[] order = new Integer[scanned.size()];
+            for (int i = 0; i < order.length; i++) order[i] = scanned.start + i;
+            Arrays.sort(order, Comparator.comparingLong(i -> scanned.seqs[i]));
+            KeyRecords kept = new KeyRecords(scanned.limit);
+            long lastSeq = -1;
+            for (int i : order) {
+                long seq = scanned.seqs[i];
+                if (seq <= forgotAt || seq == lastSeq) continue;
+                kept.add(scanned.refs[i], seq);
+                lastSeq = seq;
+            }
+            while (kept.size() > kept.limit) kept.removeFirst();
+            if (kept.size() == 0) it.remove();
+            else e.setValue(kept);
+        }
+        for (KeyRecords records : index.values()) {
+            for (int i = 0; i < records.size(); i++) segments.get(segmentOf(records.get(i))).live++;
+        }
+        active = newSegment();
+        LOGGER.info("Observation log opened{} in {} ms: {} segments ({} scanned), {} records, {} keys",
+            readOnly ? " read-only" : "", System.currentTimeMillis() - start, segments.size() - 1, rescanned, frames, index.size());
+    }
+
+    /** Add a segment's records to the index (seqs kept for ordering) and tombstones to forgotten. */
+    private void addToIndex(Segment seg, Contents contents, Map<String, Long> forgotten) {
+        for (int i = 0; i < contents.size; i++) {
+            String key = contents.key(contents.keyOf[i]);
+            if (key == null) {
+                LOGGER.warn("Dropping record with unknown key in {}", seg.file.getFileName());
+                continue;
+            }
+            long seq = contents.seqs[i];
+            nextSeq = Math.max(nextSeq, seq + 1);
+            if (contents.kinds[i] == KIND_FORGET) {
+                forgotten.merge(key, seq, Math::max);
+            } else {
+                KeyRecords records = index.computeIfAbsent(key, this::newKeyRecords);
+                if (records.seqs == null) records.seqs = new long[records.refs.length];
+                records.add(ref(seg.id, contents.offsets[i]), seq);
+            }
+        }
+        seg.records = contents.size;
+    }
+
+    /** Read every frame of a segment file (no index file, or a bad one). */
+    private Contents scan(Segment seg) {
+        Contents contents = new Contents();
+        int count = 0;
+        long offset = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(seg.file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException end) {
+                    break;
+                }
+                int crc = in.readInt();
+                if (length < 0 || length > SEGMENT_BYTES * 4) {
+                    LOGGER.warn("Dropping corrupt tail of {} after {} records", seg.file.getFileName(), count);
+                    break;
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                if (crc(frame) != crc) {
+                    LOGGER.warn("Dropping torn record in {} after {} records", seg.file.getFileName(), count);
+                    break;
+                }
+                Parsed parsed = parse(frame);
+                long at = offset;
+                offset += HEADER_BYTES + length;
+                if (parsed.kind == KIND_KEY) {
+                    contents.setKey(parsed.keyId, parsed.key);
+                    continue;
+                }
+                int keyId = parsed.keyId;
+                if (parsed.key != null) {
+                    // Older frame with the key inline
+                    Integer known = contents.keyIds.get(parsed.key);
+                    keyId = known != null ? known : contents.keys.size();
+                    if (known == null) contents.setKey(keyId, parsed.key);
+                }
+                boolean forget = parsed.kind == KIND_FORGET || parsed.kind == KIND_LEGACY_FORGET;
+                contents.add(forget ? KIND_FORGET : KIND_RECORD, parsed.seq, keyId, at);
+                count++;
+            }
+        } catch (EOFException torn) {
+            LOGGER.warn("Dropping torn record at the end of {} after {} records", seg.file.getFileName(), count);
+        } catch (IOException e) {
+            LOGGER.error("Failed to read {}: {}", seg.file.getFileName(), e.getMessage());
+        }
+        seg.flushed = seg.length = offset;
+        return contents;
+    }
+
+    // ---- Index files ----------------------------------------------------------
+
+    private static final int INDEX_MAGIC = 0x4F494458;  // "OIDX"
+
+    /** Save a sealed, fully written segment's contents next to it (temp file + rename). */
+    private void writeIndex(Segment seg, Contents contents) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(64 + contents.size * 8);
+        ByteBuffer head = ByteBuffer.allocate(12).putInt(INDEX_MAGIC).putLong(seg.length);
+        out.writeBytes(head.array());
+        ObservationCodec.writeVarLong(out, contents.keys.size());
+        for (String key : contents.keys) {
+            byte[] bytes = (key == null ? "" : key).getBytes(StandardCharsets.UTF_8);
+            ObservationCodec.writeVarLong(out, bytes.length);
+            out.writeBytes(bytes);
+        }
+        ObservationCodec.writeVarLong(out, contents.size);
+        for (int i = 0; i < contents.size; i++) {
+            out.write(contents.kinds[i]);
+            ObservationCodec.writeVarLong(out, contents.seqs[i]);
+            ObservationCodec.writeVarLong(out, contents.keyOf[i]);
+            ObservationCodec.writeVarLong(out, contents.offsets[i]);
+        }
+        byte[] body = out.toByteArray();
+        Path target = indexFile(seg.id);
+        Path temp = dir.resolve(target.getFileName() + ".tmp");
+        try {
+            Files.write(temp, frame(body));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.debug("Could not write index for {} (it will be scanned): {}", seg.file.getFileName(), e.getMessage());
+        }
+    }
+
+    /** A segment's saved contents, or null if missing, damaged or not matching the file. */
+    private Contents readIndex(Segment seg) {
+        Path file = indexFile(seg.id);
+        try {
+            if (!Files.exists(file)) return null;
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(file));
+            int length = in.getInt();
+            int crc = in.getInt();
+            if (length != in.remaining()) return null;
+            byte[] body = new byte[length];
+            in.get(body);
+            if (crc(body) != crc) return null;
+            in = ByteBuffer.wrap(body);
+            if (in.getInt() != INDEX_MAGIC) return null;
+            long segmentLength = in.getLong();
+            if (segmentLength != Files.size(seg.file)) return null;
+            Contents contents = new Contents();
+            int keyCount = (int) ObservationCodec.readVarLong(in);
+            for (int k = 0; k < keyCount; k++) {
+                int n = (int) ObservationCodec.readVarLong(in);
+                contents.setKey(k, new String(body, in.position(), n, StandardCharsets.UTF_8));
+                in.position(in.position() + n);
+            }
+            int size = (int) ObservationCodec.readVarLong(in);
+            for (int i = 0; i < size; i++) {
+                byte kind = in.get();
+                long seq = ObservationCodec.readVarLong(in);
+                int keyId = (int) ObservationCodec.readVarLong(in);
+                contents.add(kind, seq, keyId, ObservationCodec.readVarLong(in));
+            }
+            seg.flushed = seg.length = segmentLength;
+            return contents;
+        } catch (Exception e) {
+            LOGGER.debug("Ignoring index {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+    }
+
+    // ---- Writing --------------------------------------------------------------
+
+    /** Append one record for key. */
+    public synchronized void record(String key, byte[] body) {
+        if (readOnly) throw new IllegalStateException("Observation log is open read-only");
+        long ref = append(KIND_RECORD, key, body);
+        KeyRecords records = index.computeIfAbsent(key, this::newKeyRecords);
+        records.add(ref, 0);
+        segments.get(segmentOf(ref)).live++;
+        while (records.size() > records.limit) drop(records.removeFirst());
+    }
+
+    /** Forget every record of key. */
+    public synchronized void forget(String key) {
+        if (readOnly) throw new IllegalStateException("Observation log is open read-only");
+        KeyRecords records = index.remove(key);
+        if (records == null) return;
+        while (records.size() > 0) drop(records.removeFirst());
+        append(KIND_FORGET, key, new byte[0]);
+    }
+
+    private long append(byte kind, String key, byte[] body) {
+        if (active.records > 0 && active.length + body.length + 3L * key.length() + 32 > SEGMENT_BYTES) {
+            active.sealed = true;
+            active = newSegment();
+        }
+        int keyId = keyId(active, key, active.tail);
+        long ref = ref(active.id, active.length);
+        long seq = nextSeq++;
+        byte[] frame = frame(recordContent(kind, seq, keyId, body));
+        active.contents.add(kind, seq, keyId, active.length);
+        active.tail.write(frame);
+        active.length += frame.length;
+        active.records++;
+        return ref;
+    }
+
+    /** Id of key in a segment being written, naming it first (into out) if needed. */
+    private static int keyId(Segment seg, String key, Tail out) {
+        Integer id = seg.contents.keyIds.get(key);
+        if (id != null) return id;
+        id = seg.contents.keys.size();
+        seg.contents.setKey(id, key);
+        ByteArrayOutputStream content = new ByteArrayOutputStream(key.length() + 4);
+        content.write(KIND_KEY);
+        ObservationCodec.writeVarLong(content, id);
+        content.writeBytes(key.getBytes(StandardCharsets.UTF_8));
+        byte[] frame = frame(content.toByteArray());
+        out.write(frame);
+        seg.length += frame.length;
+        return id;
+    }
+
+    private static byte[] recordContent(byte kind, long seq, int keyId, byte[] body) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream(body.length + 8);
+        content.write(kind);
+        ObservationCodec.writeVarLong(content, seq);
+        ObservationCodec.writeVarLong(content, keyId);
+        content.writeBytes(body);
+        return content.toByteArray();
+    }
+
+    /** Length + CRC header, then content. */
+    private static byte[] frame(byte[] content) {
+        byte[] frame = new byte[HEADER_BYTES + content.length];
+        ByteBuffer.wrap(frame).putInt(content.length).putInt(crc(content)).put(content);
+        return frame;
+    }
+
+    private void drop(long ref) {
+        Segment seg = segments.get(segmentOf(ref));
+        if (seg != null) seg.live--;
+    }
+
+    /** Write buffered frames to their segment files (background thread). */
+    public void flush() {
+        if (readOnly) return;
+        synchronized (writeLock) {
+            List<Segment> pending = new ArrayList<>();
+            synchronized (this) {
+                for (Segment seg : segments.values()) {
+                    if (seg.tail.size == 0) continue;
+                    seg.writing = Arrays.copyOf(seg.tail.bytes, seg.tail.size);
+                    seg.tail = new Tail();
+                    pending.add(seg);
+                }
+            }
+            for (Segment seg : pending) {
+                try (FileChannel channel = FileChannel.open(seg.file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                    ByteBuffer bytes = ByteBuffer.wrap(seg.writing);
+                    long position = seg.flushed;
+                    while (bytes.hasRemaining()) position += channel.write(bytes, position);
+                    channel.force(false);
+                    synchronized (this) {
+                        seg.flushed += seg.writing.length;
+                        seg.writing = null;
+                    }
+                } catch (IOException e) {
+                    LOGGER.error("Failed to write {}: {}", seg.file.getFileName(), e.getMessage());
+                    synchronized (this) {
+                        // Put the bytes back in front of the tail and retry next time
+                        Tail retry = new Tail();
+                        retry.write(seg.writing);
+                        retry.write(Arrays.copyOf(seg.tail.bytes, seg.tail.size));
+                        seg.tail = retry;
+                        seg.writing = null;
+                    }
+                }
+            }
+            // Sealed segments now fully on disk get their index file
+            List<Segment> complete = new ArrayList<>();
+            synchronized (this) {
+                for (Segment seg : segments.values()) {
+                    if (seg.sealed && seg.contents != null && seg.tail.size == 0 && seg.flushed == seg.length) complete.add(seg);
+                }
+            }
+            for (Segment seg : complete) {
+                writeIndex(seg, seg.contents);
+                synchronized (this) {
+                    seg.contents = null;
+                }
+            }
+        }
+    }
+
+    // ---- Reading --------------------------------------------------------------
+
+    /** Bodies of every record under keys starting with prefix: keys in order, each oldest first. */
+    public synchronized List<byte[]> read(String prefix) {
+        return read(prefixMap(prefix).values(), prefix);
+    }
+
+    /** Bodies of the records of exactly key, oldest first. */
+    public synchronized List<byte[]> readKey(String key) {
+        KeyRecords records = index.get(key);
+        return records == null ? new ArrayList<>() : read(List.of(records), key);
+    }
+
+    /** Keys starting with prefix, in order. */
+    public synchronized List<String> keys(String prefix) {
+        return new ArrayList<>(prefixMap(prefix).keySet());
+    }
+
+    private SortedMap<String, KeyRecords> prefixMap(String prefix) {
+        return prefix.isEmpty() ? index : index.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private List<byte[]> read(Collection<KeyRecords> matches, String what) {
+        int total = 0;
+        for (KeyRecords records : matches) total += records.size();
+        long[] refs = new long[total];
+        int n = 0;
+        for (KeyRecords records : matches) {
+            for (int i = 0; i < records.size(); i++) refs[n++] = records.get(i);
+        }
+
+        // Read in file order (one pass per segment), then hand back in record order
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> refs[i]));
+        byte[][] bodies = new byte[total][];
+        FileChannel channel = null;
+        int channelSegment = -1;
+        try {
+            for (int i : order) {
+                Segment seg = segments.get(segmentOf(refs[i]));
+                long offset = offsetOf(refs[i]);
+                if (offset >= seg.flushed) {
+                    bodies[i] = body(bufferedFrame(seg, offset));
+                    continue;
+                }
+                if (seg.id != channelSegment) {
+                    if (channel != null) channel.close();
+                    channel = FileChannel.open(seg.file, StandardOpenOption.READ);
+                    channelSegment = seg.id;
+                }
+                bodies[i] = body(readFrame(channel, offset));
+            }
+        } catch (IOException e) {
+            LOGGER.error("Failed to read observations under '{}': {}", what, e.getMessage());
+        } finally {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {}
+            }
+        }
+        List<byte[]> result = new ArrayList<>(total);
+        for (byte[] body : bodies) if (body != null) result.add(body);
+        return result;
+    }
+
+    public synchronized boolean contains(String key) {
+        return index.containsKey(key);
+    }
+
+    public synchronized int keyCount() {
+        return index.size();
+    }
+
+    /** Frame (without header) at offset of a segment, from the bytes not yet on disk. */
+    private static byte[] bufferedFrame(Segment seg, long offset) {
+        byte[] source;
+        int at;
+        if (seg.writing != null && offset < seg.flushed + seg.writing.length) {
+            source = seg.writing;
+            at = (int) (offset - seg.flushed);
+        } else {
+            source = seg.tail.bytes;
+            at = (int) (offset - seg.flushed - (seg.writing == null ? 0 : seg.writing.length));
+        }
+        int length = ByteBuffer.wrap(source, at, 4).getInt();
+        return Arrays.copyOfRange(source, at + HEADER_BYTES, at + HEADER_BYTES + length);
+    }
+
+    private static byte[] readFrame(FileChannel channel, long offset) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        readFully(channel, header, offset);
+        byte[] frame = new byte[header.getInt(0)];
+        readFully(channel, ByteBuffer.wrap(frame), offset + HEADER_BYTES);
+        return frame;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) throw new EOFException();
+            position += read;
+        }
+    }
+
+    private static byte[] body(byte[] frame) {
+        return Arrays.copyOfRange(frame, parse(frame).bodyOffset, frame.length);
+    }
+
+    /** Fields of one frame's content. */
+    private static final class Parsed {
+        byte kind;
+        long seq;
+        int keyId = -1;
+        String key;      // KEY and legacy frames
+        int bodyOffset;
+    }
+
+    private static Parsed parse(byte[] frame) {
+        Parsed p = new Parsed();
+        p.kind = frame[0];
+        ByteBuffer in = ByteBuffer.wrap(frame);
+        in.position(1);
+        switch (p.kind) {
+            case KIND_LEGACY_RECORD, KIND_LEGACY_FORGET -> {
+                p.seq = in.getLong();
+                int keyLength = in.getShort() & 0xFFFF;
+                try {
+                    p.key = new DataInputStream(new ByteArrayInputStream(frame, 9, keyLength + 2)).readUTF();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                p.bodyOffset = 11 + keyLength;
+            }
+            case KIND_KEY -> {
+                p.keyId = (int) ObservationCodec.readVarLong(in);
+                p.key = new String(frame, in.position(), frame.length - in.position(), StandardCharsets.UTF_8);
+                p.bodyOffset = frame.length;
+            }
+            default -> {
+                p.seq = ObservationCodec.readVarLong(in);
+                p.keyId = (int) ObservationCodec.readVarLong(in);
+                p.bodyOffset = in.position();
+            }
+        }
+        return p;
+    }
+
+    // ---- Compaction -----------------------------------------------------------
+
+    /**
+     * Merge the sealed segments into new ones holding only their live records, once
+     * most of their records are dead or there are too many of them (background thread).
+     */
+    public void compactIfNeeded() {
+        if (readOnly) return;
+        synchronized (writeLock) {
+            List<Segment> merged = new ArrayList<>();
+            long[] refs;
+            String[] keys;
+            synchronized (this) {
+                int records = 0, live = 0;
+                for (Segment seg : segments.values()) {
+                    if (!seg.sealed || !seg.onDisk()) continue;
+                    merged.add(seg);
+                    records += seg.records;
+                    live += seg.live;
+                }
+                if (merged.size() < 2 && (merged.isEmpty() || merged.get(0).live > 0)) return;
+                if (records - live <= live && merged.size() <= MAX_SEALED_SEGMENTS) return;
+                Set<Integer> ids = new HashSet<>();
+                for (Segment seg : merged) ids.add(seg.id);
+                refs = new long[live];
+                keys = new String[live];
+                int n = 0;
+                for (Map.Entry<String, KeyRecords> e : index.entrySet()) {
+                    KeyRecords kr = e.getValue();
+                    for (int i = 0; i < kr.size(); i++) {
+                        if (!ids.contains(segmentOf(kr.get(i))) || n >= refs.length) continue;
+                        refs[n] = kr.get(i);
+                        keys[n++] = e.getKey();
+                    }
+                }
+                refs = Arrays.copyOf(refs, n);
+            }
+            long[] sortedRefs = refs;
+            Integer[] order = new Integer[refs.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingLong(i -> sortedRefs[i]));
+
+            // Copy live frames (headers included) into new segments outside the lock;
+            // sealed segments are never written again, so this reads stable files
+            Map<Long, Long> moved = new HashMap<>();
+            List<Segment> created = new ArrayList<>();
+            try {
+                Segment out = null;
+                DataOutputStream writer = null;
+                FileOutputStream file = null;
+                FileChannel in = null;
+                int inSegment = -1;
+                try {
+                    for (int r : order) {
+                        long ref = refs[r];
+                        if (segmentOf(ref) != inSegment) {
+                            if (in != null) in.close();
+                            inSegment = segmentOf(ref);
+                            in = FileChannel.open(segmentFile(inSegment), StandardOpenOption.READ);
+                        }
+                        byte[] old = readFrame(in, offsetOf(ref));
+                        Parsed parsed = parse(old);
+                        byte[] body = Arrays.copyOfRange(old, parsed.bodyOffset, old.length);
+                        if (out == null || (out.records > 0 && out.length + body.length + 3L * keys[r].length() + 32 > SEGMENT_BYTES)) {
+                            if (writer != null) closeSegmentFile(writer, file);
+                            int id;
+                            synchronized (this) {
+                                id = nextSegmentId++;
+                            }
+                            out = new Segment(id, segmentFile(id));
+                            out.sealed = true;
+                            out.contents = new Contents();
+                            created.add(out);
+                            file = new FileOutputStream(out.file.toFile());
+                            writer = new DataOutputStream(new BufferedOutputStream(file));
+                        }
+                        Tail bytes = new Tail();
+                        int keyId = keyId(out, keys[r], bytes);
+                        moved.put(ref, ref(out.id, out.length));
+                        out.contents.add(KIND_RECORD, parsed.seq, keyId, out.length);
+                        byte[] frame = frame(recordContent(KIND_RECORD, parsed.seq, keyId, body));
+                        bytes.write(frame);
+                        writer.write(bytes.bytes, 0, bytes.size);
+                        out.length += frame.length;
+                        out.flushed = out.length;
+                        out.records++;
+                    }
+                } finally {
+                    if (in != null) in.close();
+                    if (writer != null) closeSegmentFile(writer, file);
+                }
+                for (Segment seg : created) {
+                    writeIndex(seg, seg.contents);
+                    seg.contents = null;
+                }
+            } catch (IOException e) {
+                LOGGER.error("Observation log compaction failed (segments kept): {}", e.getMessage());
+                for (Segment seg : created) {
+                    try {
+                        Files.deleteIfExists(seg.file);
+                        Files.deleteIfExists(indexFile(seg.id));
+                    } catch (IOException ignored) {}
+                }
+                return;
+            }
+
+            // Point the index at the copies; records dropped meanwhile stay dead in them
+            synchronized (this) {
+                for (Segment seg : created) segments.put(seg.id, seg);
+                for (KeyRecords kr : index.values()) {
+                    for (int i = kr.start; i < kr.end; i++) {
+                        Long to = moved.get(kr.refs[i]);
+                        if (to == null) continue;
+                        kr.refs[i] = to;
+                        segments.get(segmentOf(to)).live++;
+                    }
+                }
+                for (Segment seg : merged) segments.remove(seg.id);
+            }
+            // The copies carry no FORGET frames, so a forgotten record is only safe
+            // while the segment with its FORGET survives: delete oldest first, each
+            // delete made durable before the next, so a crash never resurrects one
+            merged.sort(Comparator.comparingInt(seg -> seg.id));
+            for (Segment seg : merged) {
+                try {
+                    Files.deleteIfExists(seg.file);
+                    Files.deleteIfExists(indexFile(seg.id));
+                    syncDirectory();
+                } catch (IOException e) {
+                    LOGGER.debug("Error deleting {}: {}", seg.file.getFileName(), e.getMessage());
+                }
+            }
+            LOGGER.debug("Compacted {} observation segments into {} ({} live records)", merged.size(), created.size(), refs.length);
+        }
+    }
+
+    /** fsync the log directory so deletes reach the disk in order (not supported on every OS). */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            LOGGER.debug("Could not sync {}: {}", dir.getFileName(), e.getMessage());
+        }
+    }
+
+    private static void closeSegmentFile(DataOutputStream writer, FileOutputStream file) throws IOException {
+        writer.flush();
+        file.getChannel().force(false);
+        writer.close();
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    private KeyRecords newKeyRecords(String key) {
+        int limit = DEFAULT_RETENTION;
+        int matched = -1;
+        for (Map.Entry<String, Integer> rule : retention.entrySet()) {
+            if (key.startsWith(rule.getKey()) && rule.getKey().length() > matched) {
+                matched = rule.getKey().length();
+                limit = rule.getValue();
+            }
+        }
+        return new KeyRecords(limit);
+    }
+
+    private Segment newSegment() {
+        int id = nextSegmentId++;
+        Segment seg = new Segment(id, segmentFile(id));
+        seg.contents = new Contents();
+        segments.put(seg.id, seg);
+        return seg;
+    }
+
+    private List<Integer> segmentIds() {
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "segment-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    ids.add(Integer.parseInt(name.substring(8, name.length() - 4)));
+                } catch (NumberFormatException ignored) {}
+            }
+        } catch (IOException e) {
+            LOGGER.debug("Error listing segments: {}", e.getMessage());
+        }
+        Collections.sort(ids);
+        return ids;
+    }
+
+    private Path segmentFile(int id) {
+        return dir.resolve("segment-" + id + ".log");
+    }
+
+    private Path indexFile(int id) {
+        return dir.resolve("segment-" + id + ".idx");
+    }
+
+    private static long ref(int segment, long offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static int segmentOf(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static long offsetOf(long ref) {
+        return ref & 0xFFFFFFFFL;
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,156 @@
+package com.tyler.forgeai.ai;
+
+import com.tyler.forgeai.core.WorldChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * RouteCache: paths shared by every bot in a world, next to the SharedWorldMemory locations.
+ * - Keyed by dimension plus coarse start and goal regions (REGION_SIZE cubes), so bots
+ *   commuting between the same places (base, mine, portal, farm) share one entry
+ * - Each entry remembers the WorldChangeTracker version of every chunk it crosses;
+ *   any block change in one of them invalidates the entry on its next lookup
+ * - LRU eviction beyond MAX_ROUTES; hit/miss/invalidation counters
+ * Server thread only.
+ */
+public class RouteCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-route-cache");
+
+    public static final int REGION_SHIFT = 3;   // 8-block regions
+    public static final int REGION_SIZE = 1 << REGION_SHIFT;
+    public static final int MAX_ROUTES = 512;
+
+    /** A cached path with the chunk versions it was valid for. */
+    public static class Route {
+        public final long[] nodes;      // packed BlockPos, start to end
+        public final boolean complete;  // false for the first segment of a long trip
+        final long[] chunks;
+        final long[] versions;
+        public int uses = 0;
+
+        Route(long[] nodes, boolean complete, long[] chunks, long[] versions) {
+            this.nodes = nodes;
+            this.complete = complete;
+            this.chunks = chunks;
+            this.versions = versions;
+        }
+
+        public long getStart() { return nodes[0]; }
+        public long getEnd() { return nodes[nodes.length - 1]; }
+    }
+
+    private static final class Key {
+        final String dimension;
+        final long startRegion;
+        final long goalRegion;
+
+        Key(String dimension, long startRegion, long goalRegion) {
+            this.dimension = dimension;
+            this.startRegion = startRegion;
+            this.goalRegion = goalRegion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key k)) return false;
+            return startRegion == k.startRegion && goalRegion == k.goalRegion && dimension.equals(k.dimension);
+        }
+
+        @Override
+        public int hashCode() {
+            return (Long.hashCode(startRegion) * 31 + Long.hashCode(goalRegion)) * 31 + dimension.hashCode();
+        }
+    }
+
+    private final LinkedHashMap<Key, Route> routes = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Route> eldest) {
+            if (size() <= MAX_ROUTES) return false;
+            evictions++;
+            return true;
+        }
+    };
+
+    private long hits = 0;
+    private long misses = 0;
+    private long invalidations = 0;
+    private long evictions = 0;
+
+    /**
+     * Cached route whose start and goal regions match, or null. Entries whose
+     * chunks changed since they were stored are dropped here.
+     */
+    public Route get(Level level, BlockPos start, BlockPos goal) {
+        Key key = key(level, start, goal);
+        Route route = routes.get(key);
+        if (route == null) {
+            misses++;
+            return null;
+        }
+        for (int i = 0; i < route.chunks.length; i++) {
+            long chunk = route.chunks[i];
+            if (WorldChangeTracker.getChunkVersion(level, ChunkPos.getX(chunk), ChunkPos.getZ(chunk)) != route.versions[i]) {
+                routes.remove(key);
+                invalidations++;
+                misses++;
+                return null;
+            }
+        }
+        route.uses++;
+        hits++;
+        return route;
+    }
+
+    /** Store a path (packed positions) found from start towards goal. */
+    public void put(Level level, BlockPos start, BlockPos goal, long[] nodes, boolean complete) {
+        if (nodes == null || nodes.length == 0) return;
+        // Distinct chunks in path order (consecutive nodes mostly share one)
+        long[] chunks = new long[8];
+        int n = 0;
+        for (long node : nodes) {
+            long chunk = ChunkPos.asLong(BlockPos.getX(node) >> 4, BlockPos.getZ(node) >> 4);
+            boolean seen = false;
+            for (int i = n - 1; i >= 0 && i >= n - 4; i--) {
+                if (chunks[i] == chunk) { seen = true; break; }
+            }
+            if (seen) continue;
+            if (n == chunks.length) chunks = Arrays.copyOf(chunks, n * 2);
+            chunks[n++] = chunk;
+        }
+        chunks = Arrays.copyOf(chunks, n);
+        long[] versions = new long[n];
+        for (int i = 0; i < n; i++) {
+            versions[i] = WorldChangeTracker.getChunkVersion(level, ChunkPos.getX(chunks[i]), ChunkPos.getZ(chunks[i]));
+        }
+        routes.put(key(level, start, goal), new Route(nodes, complete, chunks, versions));
+        LOGGER.debug("Cached route {} -> {} ({} nodes, {} chunks)", start, goal, nodes.length, n);
+    }
+
+    public void clear() {
+        routes.clear();
+    }
+
+    private static Key key(Level level, BlockPos start, BlockPos goal) {
+        return new Key(level.dimension().location().toString(), region(start), region(goal));
+    }
+
+    private static long region(BlockPos pos) {
+        return BlockPos.asLong(pos.getX() >> REGION_SHIFT, pos.getY() >> REGION_SHIFT, pos.getZ() >> REGION_SHIFT);
+    }
+
+    public int size() { return routes.size(); }
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public long getInvalidations() { return invalidations; }
+    public long getEvictions() { return evictions; }
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
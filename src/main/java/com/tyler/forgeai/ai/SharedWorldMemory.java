@@ -1,25 +1,59 @@
 package com.tyler.forgeai.ai;
 
+import com.tyler.forgeai.core.WorldChangeTracker;
+import net.minecraft.core.BlockPos;
 import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
 import net.minecraft.nbt.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * SharedWorldMemory: Persistent memory shared across all bots in the same world.
  * Stores locations (beds, chests, portals, bases), block caches, and allows bots to query/update.
- * Backed by world NBT data so it persists across sessions.
+ * Locations are looked up through a per-dimension spatial index (LocationIndex);
+ * remembered blocks (ores etc.) live in a per-dimension BlockIndex kept current from
+ * block-change events.
+ * Paths between those places are shared through the RouteCache.
+ * Backed by world NBT data so it persists across sessions: every change is also
+ * appended to a MemoryJournal (when one is open), which is compacted into a snapshot
+ * in the background and replayed on startup, so a crash loses nothing.
+ *
+ * Threading: readers never lock. Queries go to an immutable Snapshot published
+ * through a volatile field, so planners on other threads read a consistent view
+ * without blocking the tick. Writes change the live state on the server thread
+ * (writes from other threads are queued for it) and are published as one new
+ * snapshot per batch: at publish() (once per server tick) or at the next
+ * server-thread read, which therefore always sees its own writes. Unchanged parts
+ * (location grids, block types, chunks) are shared between snapshots.
+ * The RouteCache is server thread only.
  */
 public class SharedWorldMemory {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-world-memory");
 
-    // In-memory cache
+    // Live state: changed on the server thread only (see write())
     private final Map<String, WorldLocation> locations = new HashMap<>();  // name -> location
-    private final Map<String, BlockCache> blockCaches = new HashMap<>();   // type -> block cache
+    private final LocationIndex locationIndex = new LocationIndex();       // dimension/type -> grid of locations
+    private final Map<String, BlockIndex> blockIndices = new HashMap<>();  // dimension -> remembered blocks
+    private final Map<Block, String> blockNames = new IdentityHashMap<>(); // block -> index type name
     private final Map<String, TrainingSnapshot> trainingSnapshots = new HashMap<>();  // bot_name -> training data
+    private final RouteCache routeCache = new RouteCache();  // commutes shared by all bots (not persisted)
+
+    // Writes made off the server thread, applied at the next publish
+    private final Queue<Runnable> pendingWrites = new ConcurrentLinkedQueue<>();
+    private boolean locationsDirty = false;
+    private boolean blocksDirty = false;
+    private boolean trainingDirty = false;
+    private MemoryJournal journal;  // null until openJournal()
+
+    // What readers see
+    private volatile Snapshot current = new Snapshot(0, Map.of(), new LocationIndex(), Map.of(), Map.of());
 
     private final ServerLevel level;
     private final String worldKey;
@@ -49,192 +83,497 @@ public class SharedWorldMemory {
         }
     }
 
-    public static class BlockCache {
-        public String blockType;
-        public int[] positions;  // flattened x,y,z coords
-        public long lastScanned;
-
-        public BlockCache(String blockType) {
-            this.blockType = blockType;
-            this.positions = new int[0];
-            this.lastScanned = System.currentTimeMillis();
-        }
-    }
-
+    /**
+     * A bot's training counts as last stored. Published snapshots are never changed;
+     * a store merges its delta into a copy.
+     */
     public static class TrainingSnapshot {
         public String botName;
-        public Map<String, Integer> successCounts = new HashMap<>();
-        public Map<String, Integer> failureCounts = new HashMap<>();
+        public TrainingCounters counters = new TrainingCounters();
         public long timestamp;
 
         public TrainingSnapshot(String botName) {
             this.botName = botName;
             this.timestamp = System.currentTimeMillis();
         }
+
+        public long getSuccesses(String module) { return counters.successes(module); }
+        public long getFailures(String module) { return counters.failures(module); }
+    }
+
+    /**
+     * Immutable view of the memory at one point; safe to keep and read from any thread.
+     */
+    public static final class Snapshot {
+        public final long epoch;
+        private final Map<String, WorldLocation> locations;
+        private final LocationIndex locationIndex;
+        private final Map<String, BlockIndex> blockIndices;
+        private final Map<String, TrainingSnapshot> trainingSnapshots;
+
+        Snapshot(long epoch, Map<String, WorldLocation> locations, LocationIndex locationIndex,
+                 Map<String, BlockIndex> blockIndices, Map<String, TrainingSnapshot> trainingSnapshots) {
+            this.epoch = epoch;
+            this.locations = locations;
+            this.locationIndex = locationIndex;
+            this.blockIndices = blockIndices;
+            this.trainingSnapshots = trainingSnapshots;
+        }
+
+        public WorldLocation getLocation(String nameOrType) {
+            return locations.get(nameOrType.toLowerCase());
+        }
+
+        public List<WorldLocation> getLocationsByType(String type) {
+            return locationIndex.ofType(type);
+        }
+
+        public List<WorldLocation> getLocationsByTypeAndDimension(String type, String dimension) {
+            return locationIndex.ofType(type, dimension);
+        }
+
+        public WorldLocation findNearestLocationInDimension(String type, String dimension, int x, int y, int z) {
+            return locationIndex.nearest(type, dimension, x, y, z);
+        }
+
+        public List<WorldLocation> findNearestLocations(String type, String dimension, int x, int y, int z, int k) {
+            return locationIndex.nearest(type, dimension, x, y, z, k);
+        }
+
+        public List<WorldLocation> getLocationsInRange(String type, String dimension, int x, int y, int z, int radius) {
+            return locationIndex.within(type, dimension, x, y, z, radius);
+        }
+
+        public Collection<WorldLocation> getAllLocations() {
+            return locations.values();
+        }
+
+        public int[] getBlockPositions(String dimension, String blockType) {
+            BlockIndex index = blockIndices.get(dimension.toLowerCase());
+            return index != null ? index.positions(blockType) : new int[0];
+        }
+
+        public BlockPos findNearestBlock(String dimension, String blockType, int x, int y, int z, int radius) {
+            BlockIndex index = blockIndices.get(dimension.toLowerCase());
+            return index != null ? index.nearest(blockType, x, y, z, radius) : null;
+        }
+
+        public List<BlockPos> getBlocksInRange(String dimension, String blockType, int x, int y, int z, int radius, int limit) {
+            BlockIndex index = blockIndices.get(dimension.toLowerCase());
+            return index != null ? index.within(blockType, x, y, z, radius, limit) : new ArrayList<>();
+        }
+
+        public TrainingSnapshot getTrainingSnapshot(String botName) {
+            return trainingSnapshots.get(botName);
+        }
+
+        public Map<String, TrainingSnapshot> getAllTrainingSnapshots() {
+            return trainingSnapshots;
+        }
     }
 
     public SharedWorldMemory(ServerLevel level) {
         this.level = level;
         this.worldKey = level.getWorld().getLevelName();
+        WorldChangeTracker.addListener(blockListener);
         LOGGER.info("SharedWorldMemory initialized for world: {}", worldKey);
     }
 
     /**
      * Register or update a world location (bed, chest, portal, etc.)
      */
-    public void registerLocation(String name, int x, int y, int z, String dimension, String type, String discoveredBy) {
+    public WorldLocation registerLocation(String name, int x, int y, int z, String dimension, String type, String discoveredBy) {
         WorldLocation loc = new WorldLocation(name, x, y, z, dimension, type, discoveredBy);
-        locations.put(name.toLowerCase(), loc);
+        change(op("location", locationToNBT(loc)));
         LOGGER.info("Registered location: {} at {},{},{} in {} by {}", name, x, y, z, dimension, discoveredBy);
+        return loc;
+    }
+
+    /**
+     * Forget a location by name.
+     */
+    public void removeLocation(String name) {
+        CompoundTag op = op("remove_location", new CompoundTag());
+        op.putString("name", name);
+        change(op);
+    }
+
+    private void putLocation(WorldLocation loc) {
+        WorldLocation previous = locations.put(loc.name.toLowerCase(), loc);
+        if (previous != null) locationIndex.remove(previous);
+        locationIndex.add(loc);
+        locationsDirty = true;
     }
 
     /**
      * Find a location by name or type.
      */
     public WorldLocation getLocation(String nameOrType) {
-        return locations.get(nameOrType.toLowerCase());
+        return snapshot().getLocation(nameOrType);
     }
 
     /**
      * Get all locations of a specific type (e.g., all beds, all chests).
      */
     public List<WorldLocation> getLocationsByType(String type) {
-        List<WorldLocation> result = new ArrayList<>();
-        for (WorldLocation loc : locations.values()) {
-            if (loc.type.equalsIgnoreCase(type)) {
-                result.add(loc);
-            }
-        }
-        return result;
+        return snapshot().getLocationsByType(type);
     }
 
     /**
      * Get all locations of a specific type in a specific dimension.
      */
     public List<WorldLocation> getLocationsByTypeAndDimension(String type, String dimension) {
-        List<WorldLocation> result = new ArrayList<>();
-        for (WorldLocation loc : locations.values()) {
-            if (loc.type.equalsIgnoreCase(type) && loc.dimension.equalsIgnoreCase(dimension)) {
-                result.add(loc);
-            }
-        }
-        return result;
+        return snapshot().getLocationsByTypeAndDimension(type, dimension);
     }
 
     /**
      * Find nearest location of a type in a specific dimension from player position.
      */
     public WorldLocation findNearestLocationInDimension(String type, String dimension, int playerX, int playerY, int playerZ) {
-        List<WorldLocation> candidates = getLocationsByTypeAndDimension(type, dimension);
-        WorldLocation nearest = null;
-        double minDist = Double.MAX_VALUE;
-
-        for (WorldLocation loc : candidates) {
-            double dist = Math.sqrt(
-                Math.pow(loc.x - playerX, 2) +
-                Math.pow(loc.y - playerY, 2) +
-                Math.pow(loc.z - playerZ, 2)
-            );
-            if (dist < minDist) {
-                minDist = dist;
-                nearest = loc;
-            }
-        }
-        return nearest;
+        return snapshot().findNearestLocationInDimension(type, dimension, playerX, playerY, playerZ);
+    }
+
+    /**
+     * Find up to k locations of a type in a dimension, nearest first.
+     */
+    public List<WorldLocation> findNearestLocations(String type, String dimension, int x, int y, int z, int k) {
+        return snapshot().findNearestLocations(type, dimension, x, y, z, k);
+    }
+
+    /**
+     * Get all locations of a type in a dimension within radius blocks of a point.
+     */
+    public List<WorldLocation> getLocationsInRange(String type, String dimension, int x, int y, int z, int radius) {
+        return snapshot().getLocationsInRange(type, dimension, x, y, z, radius);
+    }
+
+    /**
+     * Memory's dimension name for a level: overworld, nether or end.
+     */
+    public static String dimensionName(Level level) {
+        String dimName = level.dimension().location().getPath().toLowerCase();
+        if (dimName.contains("nether")) return "nether";
+        if (dimName.contains("end")) return "end";
+        return "overworld";
     }
 
     /**
-     * Update block cache for a specific type (e.g., all diamond_ore blocks found).
+     * Replace the remembered blocks of a type in this world's dimension with a fresh
+     * scan (e.g., all diamond_ore blocks found). The type stays tracked afterwards.
      */
     public void updateBlockCache(String blockType, int... coords) {
-        BlockCache cache = blockCaches.computeIfAbsent(blockType, BlockCache::new);
-        cache.positions = coords;
-        cache.lastScanned = System.currentTimeMillis();
+        CompoundTag op = blockOp("replace_blocks", dimensionName(level), blockType);
+        op.putIntArray("coords", coords);
+        change(op);
         LOGGER.info("Updated block cache for {}: {} blocks found", blockType, coords.length / 3);
     }
 
     /**
-     * Get cached block positions for a type.
+     * Get remembered block positions for a type (flattened x,y,z).
      */
     public int[] getBlockCache(String blockType) {
-        BlockCache cache = blockCaches.get(blockType);
-        return cache != null ? cache.positions : new int[0];
+        return snapshot().getBlockPositions(dimensionName(level), blockType);
     }
 
     /**
-     * Store a bot's training snapshot so other bots can learn from it.
+     * Keep track of a block type from now on: placed/broken blocks of it update memory.
+     */
+    public void trackBlockType(String dimension, String blockType) {
+        change(blockOp("track", dimension, blockType));
+    }
+
+    /**
+     * Remember one block a bot saw.
+     */
+    public void rememberBlock(String dimension, String blockType, int x, int y, int z) {
+        CompoundTag op = blockOp("remember", dimension, blockType);
+        op.putInt("x", x);
+        op.putInt("y", y);
+        op.putInt("z", z);
+        change(op);
+    }
+
+    /**
+     * Nearest remembered block of a type within radius of a point, or null.
+     */
+    public BlockPos findNearestBlock(String dimension, String blockType, int x, int y, int z, int radius) {
+        return snapshot().findNearestBlock(dimension, blockType, x, y, z, radius);
+    }
+
+    /**
+     * Remembered blocks of a type within radius of a point (at most limit).
+     */
+    public List<BlockPos> getBlocksInRange(String dimension, String blockType, int x, int y, int z, int radius, int limit) {
+        return snapshot().getBlocksInRange(dimension, blockType, x, y, z, radius, limit);
+    }
+
+    private BlockIndex blockIndex(String dimension) {
+        return blockIndices.computeIfAbsent(dimension.toLowerCase(), d -> new BlockIndex());
+    }
+
+    // Keeps remembered blocks current as blocks are placed and broken in this world's levels
+    private final WorldChangeTracker.Listener blockListener = new WorldChangeTracker.Listener() {
+        @Override
+        public void onBlockChanged(Level changed, BlockPos pos) {
+            if (changed.getServer() != level.getServer()) return;
+            BlockIndex index = blockIndices.get(dimensionName(changed));
+            if (index == null || index.getTrackedTypes().isEmpty()) return;
+            Block block = changed.getBlockState(pos).getBlock();
+            String name = blockNames.computeIfAbsent(block, b -> b.getDescriptionId().replace("block.minecraft.", ""));
+            if (!index.onBlockChanged(pos.getX(), pos.getY(), pos.getZ(), name)) return;
+            blocksDirty = true;
+            if (journal != null) {
+                CompoundTag op = blockOp("block", dimensionName(changed), name);
+                op.putInt("x", pos.getX());
+                op.putInt("y", pos.getY());
+                op.putInt("z", pos.getZ());
+                journal.append(op);
+            }
+        }
+    };
+
+    // ---- Changes --------------------------------------------------------------
+
+    /** Apply a change op to the live state (now or at the next publish) and journal it. */
+    private void change(CompoundTag op) {
+        write(() -> {
+            apply(op);
+            if (journal != null) journal.append(op);
+        });
+    }
+
+    /** Apply one change op (also used to replay the journal). Server thread only. */
+    private void apply(CompoundTag op) {
+        switch (op.getString("op")) {
+            case "location" -> putLocation(locationFromNBT(op));
+            case "remove_location" -> {
+                WorldLocation previous = locations.remove(op.getString("name").toLowerCase());
+                if (previous != null) {
+                    locationIndex.remove(previous);
+                    locationsDirty = true;
+                }
+            }
+            case "track" -> {
+                blockIndex(op.getString("dimension")).track(op.getString("type"));
+                blocksDirty = true;
+            }
+            case "remember" -> blocksDirty |= blockIndex(op.getString("dimension"))
+                .add(op.getString("type"), op.getInt("x"), op.getInt("y"), op.getInt("z"));
+            case "block" -> blocksDirty |= blockIndex(op.getString("dimension"))
+                .onBlockChanged(op.getInt("x"), op.getInt("y"), op.getInt("z"), op.getString("type"));
+            case "replace_blocks" -> {
+                blockIndex(op.getString("dimension")).replace(op.getString("type"), op.getIntArray("coords"));
+                blocksDirty = true;
+            }
+            case "training" -> {
+                // A delta: merge it into a copy so published snapshots never change
+                TrainingSnapshot delta = trainingFromNBT(op);
+                TrainingSnapshot previous = trainingSnapshots.get(delta.botName);
+                if (previous != null) {
+                    TrainingSnapshot merged = new TrainingSnapshot(delta.botName);
+                    merged.timestamp = delta.timestamp;
+                    merged.counters = previous.counters.copy();
+                    merged.counters.merge(delta.counters);
+                    delta = merged;
+                }
+                trainingSnapshots.put(delta.botName, delta);
+                trainingDirty = true;
+            }
+            default -> LOGGER.debug("Ignoring unknown memory op: {}", op.getString("op"));
+        }
+    }
+
+    private static CompoundTag op(String name, CompoundTag tag) {
+        tag.putString("op", name);
+        return tag;
+    }
+
+    private static CompoundTag blockOp(String name, String dimension, String blockType) {
+        CompoundTag op = op(name, new CompoundTag());
+        op.putString("dimension", dimension);
+        op.putString("type", blockType);
+        return op;
+    }
+
+    // ---- Journal --------------------------------------------------------------
+
+    /**
+     * Recover from the journal in dir (snapshot + replay) and journal every change
+     * from now on. Call once on the server thread at startup.
+     */
+    public void openJournal(Path dir) {
+        MemoryJournal opened = new MemoryJournal(dir);
+        opened.recover(this::load, this::apply);
+        journal = opened;
+        publish();
+    }
+
+    // ---- Snapshots ------------------------------------------------------------
+
+    /**
+     * Current view. On the server thread pending writes are published first, so a
+     * bot always reads what it just wrote; other threads get the last published view.
+     */
+    public Snapshot snapshot() {
+        return isServerThread() ? publish() : current;
+    }
+
+    /**
+     * Apply queued writes and publish one new snapshot if anything changed.
+     * Server thread only; call once per server tick.
+     */
+    public Snapshot publish() {
+        for (Runnable w; (w = pendingWrites.poll()) != null; ) w.run();
+        if (locationsDirty || blocksDirty || trainingDirty) current = nextSnapshot();
+        if (journal != null && journal.shouldCompact()) {
+            Snapshot snap = current;
+            journal.compact(() -> toNBT(snap));
+        }
+        return current;
+    }
+
+    private Snapshot nextSnapshot() {
+        Snapshot previous = current;
+        Map<String, WorldLocation> locs = previous.locations;
+        LocationIndex locIndex = previous.locationIndex;
+        if (locationsDirty) {
+            locs = Collections.unmodifiableMap(new HashMap<>(locations));
+            locIndex = locationIndex.snapshot();
+        }
+        Map<String, BlockIndex> blocks = previous.blockIndices;
+        if (blocksDirty) {
+            Map<String, BlockIndex> copy = new HashMap<>();
+            for (Map.Entry<String, BlockIndex> e : blockIndices.entrySet()) copy.put(e.getKey(), e.getValue().snapshot());
+            blocks = Collections.unmodifiableMap(copy);
+        }
+        Map<String, TrainingSnapshot> training = trainingDirty
+            ? Collections.unmodifiableMap(new HashMap<>(trainingSnapshots))
+            : previous.trainingSnapshots;
+
+        locationsDirty = blocksDirty = trainingDirty = false;
+        return new Snapshot(previous.epoch + 1, locs, locIndex, blocks, training);
+    }
+
+    /** Run a change now on the server thread, else queue it for the next publish. */
+    private void write(Runnable change) {
+        if (isServerThread()) change.run();
+        else pendingWrites.add(change);
+    }
+
+    private boolean isServerThread() {
+        var server = level.getServer();
+        return server == null || server.isSameThread();
+    }
+
+    /**
+     * Stop listening for block changes and write a final snapshot (server stopping).
+     */
+    public void close() {
+        WorldChangeTracker.removeListener(blockListener);
+        if (journal != null) {
+            Snapshot snap = publish();
+            journal.close(() -> toNBT(snap));
+            journal = null;
+        }
+    }
+
+    /**
+     * Store a bot's training counts so other bots can learn from them. Only the
+     * counts changed since the trainer's last store are sent (and journaled).
      */
     public void storeTrainingSnapshot(String botName, TrainingManager tm) {
-        TrainingSnapshot snap = new TrainingSnapshot(botName);
-        snap.successCounts = new HashMap<>(tm.getSuccessMap());
-        snap.failureCounts = new HashMap<>(tm.getFailureMap());
-        trainingSnapshots.put(botName, snap);
-        LOGGER.info("Stored training snapshot for bot: {}", botName);
+        TrainingSnapshot delta = new TrainingSnapshot(botName);
+        delta.counters = tm.takeDelta();
+        if (delta.counters.isEmpty()) return;
+        change(op("training", trainingToNBT(delta)));
+        LOGGER.debug("Stored training delta for bot {} ({} modules)", botName, delta.counters.modules().size());
+    }
+
+    /**
+     * Reset a trainer to its own stored counts in this world (the snapshot stored
+     * under its replica id; none for a new world) at startup, so it keeps counting
+     * where it left off here and nothing from another world leaks in.
+     */
+    public void restoreTraining(TrainingManager tm) {
+        TrainingSnapshot snap = snapshot().getTrainingSnapshot(tm.getReplicaId());
+        tm.seed(snap != null ? snap.counters : new TrainingCounters());
+        if (snap != null) {
+            LOGGER.info("Restored training counts of {} ({} modules)", tm.getReplicaId(), snap.counters.modules().size());
+        }
     }
 
     /**
-     * Load another bot's training data into this bot's trainer.
+     * Merge another bot's training counts into this bot's trainer: O(modules), and
+     * loading the same bot again does not count anything twice.
      */
     public void loadTrainingFromBot(String sourceBotName, TrainingManager targetTm) {
-        TrainingSnapshot snap = trainingSnapshots.get(sourceBotName);
+        TrainingSnapshot snap = snapshot().getTrainingSnapshot(sourceBotName);
         if (snap != null) {
-            for (Map.Entry<String, Integer> entry : snap.successCounts.entrySet()) {
-                for (int i = 0; i < entry.getValue(); i++) {
-                    targetTm.recordSuccess(entry.getKey());
-                }
-            }
+            targetTm.merge(snap.counters);
             LOGGER.info("Loaded training data from bot {} into target trainer", sourceBotName);
         }
     }
 
+    /**
+     * Routes found by any bot in this world (see PathFinder.findPath).
+     */
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+
     /**
      * Get all registered locations.
      */
     public Collection<WorldLocation> getAllLocations() {
-        return locations.values();
+        return snapshot().getAllLocations();
     }
 
     /**
      * Get all training snapshots (for inspection/merging).
      */
     public Map<String, TrainingSnapshot> getAllTrainingSnapshots() {
-        return new HashMap<>(trainingSnapshots);
+        return new HashMap<>(snapshot().getAllTrainingSnapshots());
     }
 
     /**
-     * Persist to NBT (called on server shutdown).
+     * Persist to NBT. Reads one snapshot, so it is consistent and may run off the
+     * server thread.
      */
     public CompoundTag serializeToNBT() {
+        return toNBT(snapshot());
+    }
+
+    /** Full dump of one snapshot (also the journal's compacted form). */
+    static CompoundTag toNBT(Snapshot snap) {
         CompoundTag root = new CompoundTag();
 
         // Save locations
         ListTag locList = new ListTag();
-        for (WorldLocation loc : locations.values()) {
-            CompoundTag locTag = new CompoundTag();
-            locTag.putString("name", loc.name);
-            locTag.putInt("x", loc.x);
-            locTag.putInt("y", loc.y);
-            locTag.putInt("z", loc.z);
-            locTag.putString("dimension", loc.dimension);
-            locTag.putString("type", loc.type);
-            locTag.putString("discoveredBy", loc.discoveredBy);
-            locTag.putLong("lastUpdated", loc.lastUpdated);
-            locList.add(locTag);
+        for (WorldLocation loc : snap.locations.values()) {
+            locList.add(locationToNBT(loc));
         }
         root.put("locations", locList);
 
+        // Save remembered blocks (compact per-section form)
+        ListTag blockList = new ListTag();
+        for (Map.Entry<String, BlockIndex> dim : snap.blockIndices.entrySet()) {
+            for (String type : dim.getValue().getTrackedTypes()) {
+                BlockIndex.Encoded encoded = dim.getValue().encode(type);
+                CompoundTag blockTag = new CompoundTag();
+                blockTag.putString("dimension", dim.getKey());
+                blockTag.putString("type", type);
+                blockTag.putLongArray("sections", encoded.sections);
+                blockTag.putIntArray("sizes", encoded.sizes);
+                blockTag.putIntArray("cells", encoded.cells);
+                blockList.add(blockTag);
+            }
+        }
+        root.put("blocks", blockList);
+
         // Save training snapshots
         ListTag trainingList = new ListTag();
-        for (TrainingSnapshot snap : trainingSnapshots.values()) {
-            CompoundTag snapTag = new CompoundTag();
-            snapTag.putString("botName", snap.botName);
-            snapTag.putLong("timestamp", snap.timestamp);
-            CompoundTag successTag = new CompoundTag();
-            for (Map.Entry<String, Integer> e : snap.successCounts.entrySet()) {
-                successTag.putInt(e.getKey(), e.getValue());
-            }
-            snapTag.put("successes", successTag);
-            trainingList.add(snapTag);
+        for (TrainingSnapshot training : snap.trainingSnapshots.values()) {
+            trainingList.add(trainingToNBT(training));
         }
         root.put("trainingSnapshots", trainingList);
 
@@ -246,32 +585,84 @@ public class SharedWorldMemory {
      */
     public void deserializeFromNBT(CompoundTag root) {
         if (!root.contains("locations", Tag.TAG_LIST)) return;
+        write(() -> load(root));
+    }
 
+    private void load(CompoundTag root) {
         ListTag locList = root.getList("locations", Tag.TAG_COMPOUND);
         for (int i = 0; i < locList.size(); i++) {
-            CompoundTag locTag = locList.getCompound(i);
-            registerLocation(
-                locTag.getString("name"),
-                locTag.getInt("x"),
-                locTag.getInt("y"),
-                locTag.getInt("z"),
-                locTag.getString("dimension"),
-                locTag.getString("type"),
-                locTag.getString("discoveredBy")
-            );
+            putLocation(locationFromNBT(locList.getCompound(i)));
         }
 
+        ListTag blockList = root.getList("blocks", Tag.TAG_COMPOUND);
+        for (int i = 0; i < blockList.size(); i++) {
+            CompoundTag blockTag = blockList.getCompound(i);
+            blockIndex(blockTag.getString("dimension")).decode(blockTag.getString("type"), new BlockIndex.Encoded(
+                blockTag.getLongArray("sections"),
+                blockTag.getIntArray("sizes"),
+                blockTag.getIntArray("cells")
+            ));
+        }
+        blocksDirty = true;
+
         ListTag trainingList = root.getList("trainingSnapshots", Tag.TAG_COMPOUND);
         for (int i = 0; i < trainingList.size(); i++) {
-            CompoundTag snapTag = trainingList.getCompound(i);
-            TrainingSnapshot snap = new TrainingSnapshot(snapTag.getString("botName"));
+            TrainingSnapshot snap = trainingFromNBT(trainingList.getCompound(i));
+            trainingSnapshots.put(snap.botName, snap);
+        }
+        trainingDirty = true;
+
+        LOGGER.info("Loaded {} locations, {} remembered block types and {} training snapshots from NBT",
+            locations.size(), blockList.size(), trainingSnapshots.size());
+    }
+
+    private static CompoundTag locationToNBT(WorldLocation loc) {
+        CompoundTag locTag = new CompoundTag();
+        locTag.putString("name", loc.name);
+        locTag.putInt("x", loc.x);
+        locTag.putInt("y", loc.y);
+        locTag.putInt("z", loc.z);
+        locTag.putString("dimension", loc.dimension);
+        locTag.putString("type", loc.type);
+        locTag.putString("discoveredBy", loc.discoveredBy);
+        locTag.putLong("lastUpdated", loc.lastUpdated);
+        return locTag;
+    }
+
+    private static WorldLocation locationFromNBT(CompoundTag locTag) {
+        WorldLocation loc = new WorldLocation(
+            locTag.getString("name"),
+            locTag.getInt("x"),
+            locTag.getInt("y"),
+            locTag.getInt("z"),
+            locTag.getString("dimension"),
+            locTag.getString("type"),
+            locTag.getString("discoveredBy")
+        );
+        loc.lastUpdated = locTag.getLong("lastUpdated");
+        return loc;
+    }
+
+    private static CompoundTag trainingToNBT(TrainingSnapshot snap) {
+        CompoundTag snapTag = new CompoundTag();
+        snapTag.putString("botName", snap.botName);
+        snapTag.putLong("timestamp", snap.timestamp);
+        snapTag.put("counters", snap.counters.toNBT());
+        return snapTag;
+    }
+
+    private static TrainingSnapshot trainingFromNBT(CompoundTag snapTag) {
+        TrainingSnapshot snap = new TrainingSnapshot(snapTag.getString("botName"));
+        snap.timestamp = snapTag.getLong("timestamp");
+        if (snapTag.contains("counters")) {
+            snap.counters = TrainingCounters.fromNBT(snapTag.getCompound("counters"));
+        } else {
+            // Older saves: plain success totals, counted as the bot's own
             CompoundTag successTag = snapTag.getCompound("successes");
             for (String key : successTag.getAllKeys()) {
-                snap.successCounts.put(key, successTag.getInt(key));
+                snap.counters.increment(snap.botName, key, TrainingCounters.SUCCESS, successTag.getInt(key));
             }
-            trainingSnapshots.put(snap.botName, snap);
         }
-
-        LOGGER.info("Loaded {} locations and {} training snapshots from NBT", locations.size(), trainingSnapshots.size());
+        return snap;
     }
 }
@@ -0,0 +1,159 @@
+package com.tyler.forgeai.ai;
+
+import net.minecraft.nbt.CompoundTag;
+
+import java.util.*;
+
+/**
+ * TrainingCounters: per-module success/failure counts as grow-only counters (G-counters).
+ * - Each replica (one TrainingManager) only ever increments its own slot; a
+ *   module's count is the sum of its slots, kept as a running total
+ * - merge() takes the per-slot maximum: O(slots of the other side), idempotent and
+ *   order-independent, so a peer's counts can be merged any number of times without
+ *   double counting, however large the counts are
+ * - A tracking instance remembers every slot changed by an increment or merge until
+ *   takeDelta(), so peers exchange only what changed since the last exchange
+ * Replica ids must be unique per counting instance: a replica that restarts from
+ * zero under an old id is ignored by merges until it passes its old counts.
+ * Not thread-safe (TrainingManager synchronizes).
+ */
+public class TrainingCounters {
+    public static final int SUCCESS = 0;
+    public static final int FAILURE = 1;
+
+    // module -> replica -> {successes, failures}
+    private final Map<String, Map<String, long[]>> slots = new HashMap<>();
+    // module -> {successes, failures} over all replicas
+    private final Map<String, long[]> totals = new HashMap<>();
+    // module -> replicas changed since the last takeDelta() (tracking instances only)
+    private final Map<String, Set<String>> changed;
+
+    public TrainingCounters() {
+        this(false);
+    }
+
+    public TrainingCounters(boolean trackChanges) {
+        this.changed = trackChanges ? new HashMap<>() : null;
+    }
+
+    // ---- Updates --------------------------------------------------------------
+
+    /** Add n to replica's own success or failure slot for a module. */
+    public void increment(String replica, String module, int kind, long n) {
+        if (n <= 0) return;
+        slot(module, replica)[kind] += n;
+        totals.computeIfAbsent(module, m -> new long[2])[kind] += n;
+        markChanged(module, replica);
+    }
+
+    /** Fold other into this counter (per-slot maximum). */
+    public void merge(TrainingCounters other) {
+        for (Map.Entry<String, Map<String, long[]>> module : other.slots.entrySet()) {
+            Map<String, long[]> own = slots.get(module.getKey());
+            for (Map.Entry<String, long[]> replica : module.getValue().entrySet()) {
+                long[] theirs = replica.getValue();
+                long[] mine = own == null ? null : own.get(replica.getKey());
+                if (mine != null && mine[SUCCESS] >= theirs[SUCCESS] && mine[FAILURE] >= theirs[FAILURE]) continue;
+                if (mine == null) mine = slot(module.getKey(), replica.getKey());
+                long[] total = totals.computeIfAbsent(module.getKey(), m -> new long[2]);
+                for (int kind = SUCCESS; kind <= FAILURE; kind++) {
+                    if (theirs[kind] <= mine[kind]) continue;
+                    total[kind] += theirs[kind] - mine[kind];
+                    mine[kind] = theirs[kind];
+                }
+                markChanged(module.getKey(), replica.getKey());
+            }
+        }
+    }
+
+    /** The slots changed since the last call (empty when not tracking), then forget them. */
+    public TrainingCounters takeDelta() {
+        TrainingCounters delta = new TrainingCounters();
+        if (changed == null) return delta;
+        for (Map.Entry<String, Set<String>> module : changed.entrySet()) {
+            Map<String, long[]> own = slots.get(module.getKey());
+            for (String replica : module.getValue()) {
+                long[] counts = own.get(replica);
+                System.arraycopy(counts, 0, delta.slot(module.getKey(), replica), 0, 2);
+                long[] total = delta.totals.computeIfAbsent(module.getKey(), m -> new long[2]);
+                total[SUCCESS] += counts[SUCCESS];
+                total[FAILURE] += counts[FAILURE];
+            }
+        }
+        changed.clear();
+        return delta;
+    }
+
+    /** Forget every count (and every pending change). */
+    public void clear() {
+        slots.clear();
+        totals.clear();
+        if (changed != null) changed.clear();
+    }
+
+    /** Independent (non-tracking) copy. */
+    public TrainingCounters copy() {
+        TrainingCounters copy = new TrainingCounters();
+        copy.merge(this);
+        return copy;
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    public long successes(String module) {
+        long[] total = totals.get(module);
+        return total == null ? 0 : total[SUCCESS];
+    }
+
+    public long failures(String module) {
+        long[] total = totals.get(module);
+        return total == null ? 0 : total[FAILURE];
+    }
+
+    public Set<String> modules() {
+        return Collections.unmodifiableSet(totals.keySet());
+    }
+
+    public boolean isEmpty() {
+        return totals.isEmpty();
+    }
+
+    // ---- NBT ------------------------------------------------------------------
+
+    /** module -> {replica -> [successes, failures]} */
+    public CompoundTag toNBT() {
+        CompoundTag tag = new CompoundTag();
+        for (Map.Entry<String, Map<String, long[]>> module : slots.entrySet()) {
+            CompoundTag replicas = new CompoundTag();
+            for (Map.Entry<String, long[]> replica : module.getValue().entrySet()) {
+                replicas.putLongArray(replica.getKey(), replica.getValue().clone());
+            }
+            tag.put(module.getKey(), replicas);
+        }
+        return tag;
+    }
+
+    public static TrainingCounters fromNBT(CompoundTag tag) {
+        TrainingCounters counters = new TrainingCounters();
+        for (String module : tag.getAllKeys()) {
+            CompoundTag replicas = tag.getCompound(module);
+            for (String replica : replicas.getAllKeys()) {
+                long[] counts = replicas.getLongArray(replica);
+                if (counts.length < 2) continue;
+                counters.increment(replica, module, SUCCESS, counts[SUCCESS]);
+                counters.increment(replica, module, FAILURE, counts[FAILURE]);
+            }
+        }
+        return counters;
+    }
+
+    // ---- Helpers --------------------------------------------------------------
+
+    private long[] slot(String module, String replica) {
+        return slots.computeIfAbsent(module, m -> new HashMap<>(4)).computeIfAbsent(replica, r -> new long[2]);
+    }
+
+    private void markChanged(String module, String replica) {
+        if (changed != null) changed.computeIfAbsent(module, m -> new HashSet<>(4)).add(replica);
+    }
+}
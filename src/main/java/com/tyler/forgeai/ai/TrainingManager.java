@@ -4,21 +4,31 @@ import com.tyler.forgeai.core.ContextScanner.Signals;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  * TrainingManager handles adaptive learning:
  * - Tracks outcomes of module decisions
  * - Stores performance metrics
  * - Provides feedback loops for refinement
+ * - Counts are G-counters (TrainingCounters) under this trainer's replica id, so
+ *   bots can merge each other's counts in O(modules) and exchange only deltas
+ *   (SharedWorldMemory.storeTrainingSnapshot / loadTrainingFromBot)
+ * - The replica id is stable across restarts (it is also the name the trainer's
+ *   TrainingSnapshot is stored under) and the trainer is seeded from that snapshot
+ *   at startup, so its slot keeps growing instead of restarting from zero
  */
 public class TrainingManager {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-training");
 
-    // Simple metrics store (expandable later)
-    private final Map<String, Integer> successCounts = new HashMap<>();
-    private final Map<String, Integer> failureCounts = new HashMap<>();
+    private final String replicaId;
+    private final TrainingCounters counters = new TrainingCounters(true);
+
+    /**
+     * A trainer counting under replicaId, which must be the same on every start and
+     * used by no other trainer. Call seed() with each world's stored counts before counting.
+     */
+    public TrainingManager(String replicaId) {
+        this.replicaId = replicaId;
+    }
 
     public void init() {
         LOGGER.info("TrainingManager initialized.");
@@ -27,30 +37,66 @@ public class TrainingManager {
     /**
      * Record a successful action for a module.
      */
-    public void recordSuccess(String moduleName) {
-        successCounts.put(moduleName, successCounts.getOrDefault(moduleName, 0) + 1);
-        LOGGER.debug("Recorded success for " + moduleName + " (total: " + successCounts.get(moduleName) + ")");
+    public synchronized void recordSuccess(String moduleName) {
+        counters.increment(replicaId, moduleName, TrainingCounters.SUCCESS, 1);
+        LOGGER.debug("Recorded success for {} (total: {})", moduleName, counters.successes(moduleName));
     }
 
     /**
      * Record a failed action for a module.
      */
-    public void recordFailure(String moduleName) {
-        failureCounts.put(moduleName, failureCounts.getOrDefault(moduleName, 0) + 1);
-        LOGGER.debug("Recorded failure for " + moduleName + " (total: " + failureCounts.get(moduleName) + ")");
+    public synchronized void recordFailure(String moduleName) {
+        counters.increment(replicaId, moduleName, TrainingCounters.FAILURE, 1);
+        LOGGER.debug("Recorded failure for {} (total: {})", moduleName, counters.failures(moduleName));
     }
 
     /**
      * Evaluate module performance.
      */
-    public double getSuccessRate(String moduleName) {
-        int successes = successCounts.getOrDefault(moduleName, 0);
-        int failures = failureCounts.getOrDefault(moduleName, 0);
-        int total = successes + failures;
+    public synchronized double getSuccessRate(String moduleName) {
+        long successes = counters.successes(moduleName);
+        long total = successes + counters.failures(moduleName);
         if (total == 0) return 0.0;
         return (double) successes / total;
     }
 
+    /**
+     * Fold another trainer's counts into this one (per-replica maximum, so merging
+     * the same counts again changes nothing).
+     */
+    public synchronized void merge(TrainingCounters other) {
+        counters.merge(other);
+    }
+
+    /**
+     * Replace every count with the persisted counts of the world being started:
+     * counts from a previous world (integrated server) are dropped, and the
+     * restored ones are already stored, so takeDelta() does not hand them out again.
+     */
+    public synchronized void seed(TrainingCounters persisted) {
+        counters.clear();
+        counters.merge(persisted);
+        counters.takeDelta();
+    }
+
+    /**
+     * Counts changed since the last call, for sending to peers.
+     */
+    public synchronized TrainingCounters takeDelta() {
+        return counters.takeDelta();
+    }
+
+    /**
+     * Copy of all counts.
+     */
+    public synchronized TrainingCounters getCounters() {
+        return counters.copy();
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
     /**
      * Suggest refinement based on performance.
      */
@@ -60,7 +106,7 @@ public class TrainingManager {
             LOGGER.info("Module " + moduleName + " underperforming (success rate " + rate + "). Consider refinement.");
             // Feed performance data to adaptive learning
             try {
-                if (context != null && context.inCombat) {
+                if (context != null && context.inCombat()) {
                     LOGGER.debug("Low success rate in combat; adjusting " + moduleName + " priority lower.");
                 }
             } catch (Exception e) {
@@ -60,5 +60,20 @@ public class ConfigLoader {
         public boolean allowOverwriteBuilds = false;
         public boolean allowRedstoneBuilds = false;
         public boolean buildDryRunDefault = true;
+
+        // Tick scheduler: ms of AI work per server tick, and how many ticks
+        // a job may be deferred before it is forced to run
+        public int tickBudgetMs = 20;
+        public int maxDeferTicks = 20;
+        // Bots whose signals are re-sampled per tick (others reuse their last sample)
+        public int sampleBatchSize = 16;
+        // Path planning: worker threads (0 = time-sliced on the server thread)
+        // and node expansions per tick when time-sliced
+        public int pathThreads = 2;
+        public int pathIterationsPerTick = 2000;
+        // Experience memory: entries kept in memory, and whether older ones are
+        // spilled to config/forgeai_experiences.bin before being overwritten
+        public int experienceCapacity = 4096;
+        public boolean experienceSpill = true;
     }
 }
@@ -0,0 +1,178 @@
+package com.tyler.forgeai.core;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * BotRuntime: drives every bot registered in any BotRegistry.
+ * - Each bot gets its own scanner (bound to its player), DecisionEngine and TaskManager
+ * - Bots are reconciled against the registries once per tick and their decision/task
+ *   jobs are registered with the TickScheduler under the bot's name
+ * - Signals are sampled in rotating batches of sampleBatchSize bots per tick; the other
+ *   bots reuse their last sample, so per-tick sampling cost stays flat as bots are added
+ */
+public class BotRuntime {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-runtime");
+    private static final String OWNER = "forgeai-runtime";
+
+    /** Per-bot state owned by the runtime. */
+    public static class BotContext {
+        public final String botName;
+        public final ContextScanner scanner;
+        public final DecisionEngine engine;
+        public final TaskManager taskManager;
+        public final BotRegistry.BotInstance instance;
+
+        BotContext(String botName, ContextScanner scanner, DecisionEngine engine,
+                   TaskManager taskManager, BotRegistry.BotInstance instance) {
+            this.botName = botName;
+            this.scanner = scanner;
+            this.engine = engine;
+            this.taskManager = taskManager;
+            this.instance = instance;
+        }
+    }
+
+    private final CommunicationManager comms;
+    private final Consumer<DecisionEngine> engineSetup;
+    private final TickScheduler scheduler;
+    private final Map<String, BotContext> bots = new LinkedHashMap<>();
+    private final List<BotContext> sampleOrder = new ArrayList<>();
+    private int sampleBatchSize;
+    private int sampleCursor = 0;
+
+    /**
+     * @param engineSetup wires shared subsystems (training, memory, rewards...) into a new engine
+     */
+    public BotRuntime(CommunicationManager comms, TickScheduler scheduler,
+                      Consumer<DecisionEngine> engineSetup, int sampleBatchSize) {
+        this.comms = comms;
+        this.scheduler = scheduler;
+        this.engineSetup = engineSetup;
+        this.sampleBatchSize = Math.max(1, sampleBatchSize);
+    }
+
+    /** Register the runtime's own per-tick work with the scheduler. */
+    public void init() {
+        scheduler.register(OWNER, "sync", TickScheduler.Lane.SCANS, this::sync);
+        scheduler.register(OWNER, "sample", TickScheduler.Lane.SCANS, this::sampleBatch);
+        LOGGER.info("BotRuntime initialized (sample batch: {})", sampleBatchSize);
+    }
+
+    public void setSampleBatchSize(int size) { this.sampleBatchSize = Math.max(1, size); }
+
+    /**
+     * Spawn-side entry point: register a player as a bot in its level and
+     * build its runtime context immediately.
+     */
+    public BotContext addBot(String botName, ServerPlayer player, String owner) {
+        BotRegistry registry = BotRegistry.getOrCreateRegistry((ServerLevel) player.level());
+        registry.registerBot(botName, player, null, null, owner);
+        return attach(registry.getBot(botName));
+    }
+
+    public void removeBot(String botName) {
+        BotContext ctx = bots.remove(botName.toLowerCase());
+        if (ctx == null) return;
+        sampleOrder.remove(ctx);
+        scheduler.unregister(ctx.botName);
+        if (ctx.instance.player != null && ctx.instance.player.level() instanceof ServerLevel level) {
+            BotRegistry.getOrCreateRegistry(level).unregisterBot(ctx.botName);
+        }
+        LOGGER.info("Removed bot from runtime: {}", botName);
+    }
+
+    /**
+     * Reconcile runtime contexts with every level's BotRegistry: attach new
+     * bots and detach ones that went offline or were unregistered.
+     */
+    public void sync(MinecraftServer server) {
+        Set<String> seen = new HashSet<>();
+        for (ServerLevel level : server.getAllLevels()) {
+            BotRegistry registry = BotRegistry.getOrCreateRegistry(level);
+            if (registry.getActiveBotCount() == 0) continue;
+            for (BotRegistry.BotInstance instance : registry.getAllBots()) {
+                if (!instance.active || instance.player == null) continue;
+                String key = instance.botName.toLowerCase();
+                seen.add(key);
+                BotContext ctx = bots.get(key);
+                if (ctx == null || ctx.instance != instance) attach(instance);
+                else if (ctx.scanner.getBoundPlayer() != instance.player) ctx.scanner.bind(instance.player);
+            }
+        }
+        if (seen.size() == bots.size()) return;
+        for (String key : new ArrayList<>(bots.keySet())) {
+            if (!seen.contains(key)) {
+                BotContext ctx = bots.remove(key);
+                sampleOrder.remove(ctx);
+                scheduler.unregister(ctx.botName);
+                LOGGER.info("Detached bot: {}", ctx.botName);
+            }
+        }
+    }
+
+    private BotContext attach(BotRegistry.BotInstance instance) {
+        ContextScanner scanner = new ContextScanner();
+        scanner.init();
+        scanner.bind(instance.player);
+        scanner.setExternallySampled(true);
+
+        DecisionEngine engine = instance.decisionEngine;
+        TaskManager taskManager = instance.taskManager;
+        if (engine == null) {
+            engine = new DecisionEngine(scanner, comms, instance.botName);
+            if (engineSetup != null) engineSetup.accept(engine);
+            engine.init();
+            instance.decisionEngine = engine;
+        }
+        if (taskManager == null) {
+            taskManager = new TaskManager(engine);
+            instance.taskManager = taskManager;
+        }
+        engine.setTaskManager(taskManager);
+
+        BotContext ctx = new BotContext(instance.botName, scanner, engine, taskManager, instance);
+        BotContext previous = bots.put(instance.botName.toLowerCase(), ctx);
+        if (previous != null) sampleOrder.remove(previous);
+        sampleOrder.add(ctx);
+
+        // Per-bot jobs: the scheduler round-robins these across bots
+        DecisionEngine e = engine;
+        scheduler.register(ctx.botName, "decision", TickScheduler.Lane.DECISION, e::tick);
+        scheduler.register(ctx.botName, "tasks", TickScheduler.Lane.TASKS, taskManager::tick);
+        LOGGER.info("Attached bot: {} (owner: {})", ctx.botName, instance.owner);
+        return ctx;
+    }
+
+    /** Refresh signals for the next batch of bots (rotating). */
+    private void sampleBatch(MinecraftServer server) {
+        int n = sampleOrder.size();
+        if (n == 0) return;
+        int count = Math.min(sampleBatchSize, n);
+        for (int i = 0; i < count; i++) {
+            BotContext ctx = sampleOrder.get((sampleCursor + i) % n);
+            try {
+                ctx.scanner.refresh(server);
+            } catch (Exception e) {
+                LOGGER.debug("Sampling failed for {}: {}", ctx.botName, e.getMessage());
+            }
+        }
+        sampleCursor = (sampleCursor + count) % n;
+    }
+
+    public BotContext getBot(String botName) {
+        return bots.get(botName.toLowerCase());
+    }
+
+    public Collection<BotContext> getBots() {
+        return Collections.unmodifiableCollection(bots.values());
+    }
+
+    public int getBotCount() { return bots.size(); }
+}
@@ -176,7 +176,7 @@ public class ChestManager {
             sharedMemory.registerLocation(
                 "chest_" + chestPos.getX() + "_" + chestPos.getZ(),
                 chestPos.getX(), chestPos.getY(), chestPos.getZ(),
-                "chest", "ChestManager"
+                SharedWorldMemory.dimensionName(level), "chest", "ChestManager"
             );
 
             return snapshot;
@@ -287,8 +287,9 @@ public class ChestManager {
     public BlockPos findNearestChest(ServerPlayer player, int searchRadius) {
         if (player == null) return null;
 
-        SharedWorldMemory.WorldLocation nearestLoc = sharedMemory.findNearestLocation(
-            "chest", player.getBlockX(), player.getBlockY(), player.getBlockZ()
+        SharedWorldMemory.WorldLocation nearestLoc = sharedMemory.findNearestLocationInDimension(
+            "chest", SharedWorldMemory.dimensionName(player.level()),
+            player.getBlockX(), player.getBlockY(), player.getBlockZ()
         );
 
         if (nearestLoc != null) {
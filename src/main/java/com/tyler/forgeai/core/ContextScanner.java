@@ -8,20 +8,170 @@ public class ContextScanner {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-context");
     private Signals lastSignals = null;
 
+    // Player this scanner samples; null = first online player (single-bot setup)
+    private ServerPlayer boundPlayer = null;
+    // When true the owner (BotRuntime) refreshes signals in batches and sample() reuses them
+    private boolean externallySampled = false;
+
     public void init() {
         LOGGER.info("ContextScanner initialized.");
     }
 
+    /** Bind this scanner to one bot's player. */
+    public void bind(ServerPlayer player) { this.boundPlayer = player; }
+    public ServerPlayer getBoundPlayer() { return boundPlayer; }
+
+    public void setExternallySampled(boolean externallySampled) { this.externallySampled = externallySampled; }
+
     public Signals sample(MinecraftServer server) {
         if (server == null) {
             return lastSignals;
         }
+        if (externallySampled && lastSignals != null) {
+            return lastSignals;
+        }
+        return refresh(server);
+    }
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
-        lastSignals = Signals.from(player);
+    /** Take a fresh sample now, regardless of batching. */
+    public Signals refresh(MinecraftServer server) {
+        ServerPlayer player = boundPlayer;
+        if (player == null) {
+            player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        } else if (player.isRemoved()) {
+            player = null;
+        }
+        if (player != null) {
+            cache.compute(player, buffer);
+        } else {
+            buffer.clear();
+        }
+        lastSignals = buffer;
         return lastSignals;
     }
 
+    /** Signal groups served from cache since startup. */
+    public long getCacheHits() { return cache.hits; }
+    /** Signal groups that had to be recomputed since startup. */
+    public long getCacheMisses() { return cache.misses; }
+
+    /**
+     * Player a module should act through: the sampled bot when there is one,
+     * otherwise the first online player (legacy single-bot behaviour).
+     */
+    public static ServerPlayer resolvePlayer(MinecraftServer server, Signals signals) {
+        if (signals != null && signals.player != null) return signals.player;
+        if (server == null) return null;
+        return server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+    }
+
+    private final SignalCache cache = new SignalCache();
+    // Reused every sample; see Signals.snapshot() for keeping a copy
+    private final Signals buffer = new Signals();
+
+    /**
+     * SignalCache: remembers the expensive signal groups and the change
+     * versions they were computed against; a group is recomputed only when
+     * its dependency moved (see WorldChangeTracker).
+     */
+    private static final class SignalCache {
+        // Entities move without load/unload events, so entity-derived signals also expire
+        private static final int ENTITY_TTL_TICKS = 10;
+
+        ServerPlayer player;
+
+        // Obsidian: block changes in the chunks around the player + player position
+        net.minecraft.core.BlockPos obsidianOrigin;
+        long obsidianVersion;
+        boolean obsidianNearby;
+
+        // Crystal entities: entity load/unload epoch + position + TTL
+        net.minecraft.core.BlockPos entityOrigin;
+        long entityEpoch;
+        long entityTime;
+        boolean crystalEntities;
+
+        // Inventory-derived: inventory change counter + held stacks
+        int inventoryVersion = -1;
+        Object mainHand, offHand;
+        boolean needsResources, building, maceEquipped, hasRockets;
+
+        // Armor wear: inventory changes + damage events
+        int armorInventoryVersion = -1;
+        long armorDamageEpoch = -1;
+        boolean armorBroken;
+
+        long hits, misses;
+
+        void compute(ServerPlayer p, Signals out) {
+            if (p != player) {
+                player = p;
+                obsidianOrigin = null;
+                entityOrigin = null;
+                inventoryVersion = -1;
+                armorInventoryVersion = -1;
+            }
+            net.minecraft.world.level.Level level = p.level();
+            net.minecraft.core.BlockPos pos = p.blockPosition();
+
+            long areaVersion = WorldChangeTracker.getAreaVersion(level, pos.getX() - 8, pos.getZ() - 8, pos.getX() + 8, pos.getZ() + 8);
+            if (pos.equals(obsidianOrigin) && areaVersion == obsidianVersion) {
+                hits++;
+            } else {
+                misses++;
+                obsidianNearby = Signals.scanObsidianNearby(p);
+                obsidianOrigin = pos;
+                obsidianVersion = areaVersion;
+            }
+
+            // Only look for crystals/endermen when obsidian makes it matter
+            boolean crystalOpp = false;
+            if (obsidianNearby) {
+                long epoch = WorldChangeTracker.getEntityEpoch(level);
+                long now = level.getGameTime();
+                if (pos.equals(entityOrigin) && epoch == entityEpoch && now - entityTime < ENTITY_TTL_TICKS) {
+                    hits++;
+                } else {
+                    misses++;
+                    crystalEntities = Signals.scanCrystalEntities(p);
+                    entityOrigin = pos;
+                    entityEpoch = epoch;
+                    entityTime = now;
+                }
+                crystalOpp = crystalEntities;
+            }
+
+            var inventory = p.getInventory();
+            int invVersion = inventory.getTimesChanged();
+            Object main = p.getMainHandItem();
+            Object off = p.getOffhandItem();
+            if (invVersion == inventoryVersion && main == mainHand && off == offHand) {
+                hits++;
+            } else {
+                misses++;
+                needsResources = inventory.isEmpty();
+                building = Signals.scanHoldingBlock(p);
+                maceEquipped = Signals.scanMaceEquipped(p);
+                hasRockets = Signals.scanRockets(p);
+                inventoryVersion = invVersion;
+                mainHand = main;
+                offHand = off;
+            }
+
+            long damageEpoch = WorldChangeTracker.getDamageEpoch(level);
+            if (invVersion == armorInventoryVersion && damageEpoch == armorDamageEpoch) {
+                hits++;
+            } else {
+                misses++;
+                armorBroken = Signals.scanArmorBroken(p);
+                armorInventoryVersion = invVersion;
+                armorDamageEpoch = damageEpoch;
+            }
+
+            out.assemble(p, crystalOpp, needsResources, building, maceEquipped, hasRockets, armorBroken);
+        }
+    }
+
     public Signals getLastSignals() {
         return lastSignals;
     }
@@ -29,167 +179,303 @@ public class ContextScanner {
     /** Test-only: set the last sampled Signals so `sample(null)` will return it. */
     public void setLastSignals(Signals s) { this.lastSignals = s; }
 
+    /**
+     * Signals: one bot's sampled context.
+     * The scanner owns a single reusable instance per bot and refills it in
+     * place each sample, so the decision loop allocates nothing per tick.
+     * Boolean flags are packed into one bitset, effects are interned IDs in a
+     * bitmask. Anything that keeps a Signals past the current tick (memory,
+     * logging, other threads) must call snapshot() to get an immutable copy.
+     */
     public static class Signals {
-        public final ServerPlayer player;
-
-        public final boolean inCombat;
-        public final boolean isFlyingWithElytra;
-        public final boolean hasMaceEquipped;
-        public final boolean crystalOpportunity;
-        public final boolean needsResources;
-        public final boolean isBuildingPhase;
-        public final boolean shouldEnterStasis;
-        
-        // Extended combat state
-        public final float playerHealth;
-        public final int foodLevel;
-        public final float[] armorDurability;
-        public final java.util.Set<String> activePotionEffects;
-        public final boolean isLowHealth;
-        public final boolean isArmorBroken;
-        public final float incomingMeleeDamage;
-        public final float incomingProjectileDamage;
-        public final boolean opponentAirborne;
-        public final boolean opponentHasShield;
-        public final boolean hasRockets;
-        public final int nearbyOpponents;
-        public final boolean webTrapDetected;
-        public final boolean falling;
-        public final float fallHeight;
-        public final boolean inLava;
-
-        private Signals(ServerPlayer player,
-                        boolean inCombat,
-                        boolean isFlyingWithElytra,
-                        boolean hasMaceEquipped,
-                        boolean crystalOpportunity,
-                        boolean needsResources,
-                        boolean isBuildingPhase,
-                        boolean shouldEnterStasis,
-                        float playerHealth,
-                        int foodLevel,
-                        float[] armorDurability,
-                        java.util.Set<String> activePotionEffects,
-                        boolean isLowHealth,
-                        boolean isArmorBroken,
-                        float incomingMeleeDamage,
-                        float incomingProjectileDamage,
-                        boolean opponentAirborne,
-                        boolean opponentHasShield,
-                        boolean hasRockets,
-                        int nearbyOpponents,
-                        boolean webTrapDetected,
-                        boolean falling,
-                        float fallHeight,
-                        boolean inLava) {
-            this.player = player;
-            this.inCombat = inCombat;
-            this.isFlyingWithElytra = isFlyingWithElytra;
-            this.hasMaceEquipped = hasMaceEquipped;
-            this.crystalOpportunity = crystalOpportunity;
-            this.needsResources = needsResources;
-            this.isBuildingPhase = isBuildingPhase;
-            this.shouldEnterStasis = shouldEnterStasis;
-            this.playerHealth = playerHealth;
-            this.foodLevel = foodLevel;
-            this.armorDurability = armorDurability;
-            this.activePotionEffects = activePotionEffects;
-            this.isLowHealth = isLowHealth;
-            this.isArmorBroken = isArmorBroken;
-            this.incomingMeleeDamage = incomingMeleeDamage;
-            this.incomingProjectileDamage = incomingProjectileDamage;
-            this.opponentAirborne = opponentAirborne;
-            this.opponentHasShield = opponentHasShield;
-            this.hasRockets = hasRockets;
-            this.nearbyOpponents = nearbyOpponents;
-            this.webTrapDetected = webTrapDetected;
-            this.falling = falling;
-            this.fallHeight = fallHeight;
-            this.inLava = inLava;
+        // Flag bit positions
+        private static final int IN_COMBAT = 0;
+        private static final int FLYING_WITH_ELYTRA = 1;
+        private static final int MACE_EQUIPPED = 2;
+        private static final int CRYSTAL_OPPORTUNITY = 3;
+        private static final int NEEDS_RESOURCES = 4;
+        private static final int BUILDING_PHASE = 5;
+        private static final int SHOULD_ENTER_STASIS = 6;
+        private static final int LOW_HEALTH = 7;
+        private static final int ARMOR_BROKEN = 8;
+        private static final int OPPONENT_AIRBORNE = 9;
+        private static final int OPPONENT_HAS_SHIELD = 10;
+        private static final int HAS_ROCKETS = 11;
+        private static final int WEB_TRAP_DETECTED = 12;
+        private static final int FALLING = 13;
+        private static final int IN_LAVA = 14;
+
+        // Interned effect IDs: each distinct effect name gets one bit (max 64)
+        private static final java.util.Map<String, Integer> EFFECT_IDS = new java.util.concurrent.ConcurrentHashMap<>();
+        private static final String[] EFFECT_NAMES = new String[64];
+
+        public ServerPlayer player;
+
+        private long flags;
+        private long effectMask;
+        private float playerHealth;
+        private int foodLevel;
+        private float incomingMeleeDamage;
+        private float incomingProjectileDamage;
+        private int nearbyOpponents;
+        private float fallHeight;
+        private final float[] armorDurability = {1.0f, 1.0f, 1.0f, 1.0f};
+        private boolean frozen;
+
+        /** Empty buffer (idle defaults); refilled by the scanner. */
+        public Signals() {
+            clear();
+        }
+
+        /** Immutable copy for consumers that keep signals around. */
+        public Signals snapshot() {
+            if (frozen) return this;
+            Signals copy = new Signals();
+            copy.copyFrom(this);
+            copy.frozen = true;
+            return copy;
+        }
+
+        public boolean isSnapshot() { return frozen; }
+
+        void copyFrom(Signals other) {
+            checkWritable();
+            player = other.player;
+            flags = other.flags;
+            effectMask = other.effectMask;
+            playerHealth = other.playerHealth;
+            foodLevel = other.foodLevel;
+            incomingMeleeDamage = other.incomingMeleeDamage;
+            incomingProjectileDamage = other.incomingProjectileDamage;
+            nearbyOpponents = other.nearbyOpponents;
+            fallHeight = other.fallHeight;
+            System.arraycopy(other.armorDurability, 0, armorDurability, 0, 4);
+        }
+
+        /** Reset to the no-player defaults (idle, stasis). */
+        void clear() {
+            checkWritable();
+            player = null;
+            flags = 1L << SHOULD_ENTER_STASIS;
+            effectMask = 0;
+            playerHealth = 20.0f;
+            foodLevel = 20;
+            incomingMeleeDamage = 0;
+            incomingProjectileDamage = 0;
+            nearbyOpponents = 0;
+            fallHeight = 0;
+            java.util.Arrays.fill(armorDurability, 1.0f);
         }
 
+        private void checkWritable() {
+            if (frozen) throw new IllegalStateException("Signals snapshot is immutable");
+        }
+
+        // ---- Packed form (MemoryManager's experience columns) -----------------
+
+        /** Longs written by pack(). */
+        public static final int PACKED_WORDS = 5;
+
+        /**
+         * Write everything but the player as PACKED_WORDS longs at dest[offset]:
+         * flags, effects, health|food|opponents, melee|projectile damage, fall height|armor
+         * (armor durability kept to 1/255).
+         */
+        public void pack(long[] dest, int offset) {
+            dest[offset] = flags;
+            dest[offset + 1] = effectMask;
+            dest[offset + 2] = (long) Float.floatToIntBits(playerHealth) << 32
+                | (foodLevel & 0xFFFFL) << 16 | (nearbyOpponents & 0xFFFFL);
+            dest[offset + 3] = (long) Float.floatToIntBits(incomingMeleeDamage) << 32
+                | (Float.floatToIntBits(incomingProjectileDamage) & 0xFFFFFFFFL);
+            long armor = 0;
+            for (int i = 0; i < 4; i++) {
+                armor |= (long) Math.round(Math.max(0f, Math.min(1f, armorDurability[i])) * 255f) << (i * 8);
+            }
+            dest[offset + 4] = (long) Float.floatToIntBits(fallHeight) << 32 | armor;
+        }
+
+        /** Immutable signals (no player) from words written by pack(). */
+        public static Signals unpack(long[] src, int offset) {
+            Signals s = new Signals();
+            s.flags = src[offset];
+            s.effectMask = src[offset + 1];
+            s.playerHealth = Float.intBitsToFloat((int) (src[offset + 2] >>> 32));
+            s.foodLevel = (short) (src[offset + 2] >>> 16);
+            s.nearbyOpponents = (short) src[offset + 2];
+            s.incomingMeleeDamage = Float.intBitsToFloat((int) (src[offset + 3] >>> 32));
+            s.incomingProjectileDamage = Float.intBitsToFloat((int) src[offset + 3]);
+            s.fallHeight = Float.intBitsToFloat((int) (src[offset + 4] >>> 32));
+            for (int i = 0; i < 4; i++) s.armorDurability[i] = ((src[offset + 4] >>> (i * 8)) & 0xFF) / 255f;
+            s.frozen = true;
+            return s;
+        }
+
+        private void setFlag(int bit, boolean value) {
+            if (value) flags |= 1L << bit;
+            else flags &= ~(1L << bit);
+        }
+
+        private boolean flag(int bit) {
+            return (flags & (1L << bit)) != 0;
+        }
+
+        // ---- Effect interning -------------------------------------------------
+
+        /** Bit index for an effect name, or -1 if the 64 slots are used up. */
+        static int internEffect(String name) {
+            Integer id = EFFECT_IDS.get(name);
+            if (id != null) return id;
+            synchronized (EFFECT_IDS) {
+                id = EFFECT_IDS.get(name);
+                if (id != null) return id;
+                int next = EFFECT_IDS.size();
+                if (next >= EFFECT_NAMES.length) return -1;
+                EFFECT_NAMES[next] = name;
+                EFFECT_IDS.put(name, next);
+                return next;
+            }
+        }
+
+        void addEffect(String name) {
+            int id = internEffect(name);
+            if (id >= 0) effectMask |= 1L << id;
+        }
+
+        public boolean hasEffect(String name) {
+            Integer id = EFFECT_IDS.get(name);
+            return id != null && (effectMask & (1L << id)) != 0;
+        }
+
+        // ---- Filling from the world -------------------------------------------
+
         public static Signals from(ServerPlayer player) {
+            Signals s = new Signals();
             if (player == null) {
-                return new Signals(null, false, false, false, false, false, false, true,
-                        20.0f, 20, new float[]{1.0f, 1.0f, 1.0f, 1.0f}, new java.util.HashSet<>(),
-                        false, false, 0, 0, false, false, false, 0, false, false, 0, false);
+                return s;
             }
+            boolean crystalOpp = scanObsidianNearby(player) && scanCrystalEntities(player);
+            boolean needsRes = player.getInventory().isEmpty();
+            boolean building = scanHoldingBlock(player);
+            s.assemble(player, crystalOpp, needsRes, building, scanMaceEquipped(player),
+                scanRockets(player), scanArmorBroken(player));
+            return s;
+        }
 
+        /** Combine the expensive (possibly cached) parts with the cheap per-tick ones, in place. */
+        void assemble(ServerPlayer player, boolean crystalOpp, boolean needsRes, boolean building,
+                      boolean maceEquipped, boolean hasRockets, boolean armorBroken) {
+            clear();
+            this.player = player;
             boolean inCombat = player.getLastHurtByMob() != null;
             boolean isFlying = player.isFallFlying();
-            boolean maceEquipped = player.getMainHandItem().getItem().toString().toLowerCase().contains("mace");
-            boolean crystalOpp = false;
-            // Enhanced crystal opportunity detection: obsidian nearby + end crystal or enderman present
+            setFlag(IN_COMBAT, inCombat);
+            setFlag(FLYING_WITH_ELYTRA, isFlying);
+            setFlag(MACE_EQUIPPED, maceEquipped);
+            setFlag(CRYSTAL_OPPORTUNITY, crystalOpp);
+            setFlag(NEEDS_RESOURCES, needsRes);
+            setFlag(BUILDING_PHASE, building);
+            setFlag(SHOULD_ENTER_STASIS, !inCombat && !isFlying && !needsRes && !building);
+
+            // Extended combat state
+            playerHealth = player.getHealth();
+            foodLevel = player.getFoodData().getFoodLevel();
+            setFlag(LOW_HEALTH, playerHealth < 6.0f);
+            setFlag(ARMOR_BROKEN, armorBroken);
+            setFlag(HAS_ROCKETS, hasRockets);
+            nearbyOpponents = countNearbyOpponents(player);
+            try {
+                if (!player.getActiveEffects().isEmpty()) {
+                    for (var effect : player.getActiveEffects()) {
+                        addEffect(effect.getDescriptionId());
+                    }
+                }
+            } catch (Exception ignored) {}
+        }
+
+        // ---- Individual signal scans (each depends on one kind of world change) ----
+
+        /** Obsidian within the 17x9x17 box around the player. Depends on block changes. */
+        static boolean scanObsidianNearby(ServerPlayer player) {
             try {
-                // Check for obsidian blocks within range
-                boolean obsidianNearby = false;
                 for (net.minecraft.core.BlockPos pos : net.minecraft.core.BlockPos.betweenClosed(
                     player.blockPosition().offset(-8, -4, -8),
                     player.blockPosition().offset(8, 4, 8))) {
                     var state = player.level().getBlockState(pos);
                     if (state.getBlock().getDescriptionId().contains("obsidian")) {
-                        obsidianNearby = true;
-                        break;
+                        return true;
                     }
                 }
+            } catch (Exception ignored) {}
+            return false;
+        }
 
-                // Check for end crystals or endermen
-                boolean endCrystalOrEndermanNearby = false;
+        /** End crystal or enderman within 16 blocks. Depends on entity changes. */
+        static boolean scanCrystalEntities(ServerPlayer player) {
+            try {
                 var nearbyEntities = player.level().getEntities(player, player.getBoundingBox().inflate(16));
                 for (var entity : nearbyEntities) {
                     String entityType = entity.getType().toString().toLowerCase();
                     if (entityType.contains("end_crystal") || entityType.contains("enderman")) {
-                        endCrystalOrEndermanNearby = true;
-                        break;
+                        return true;
                     }
                 }
-
-                // Crystal opportunity exists if obsidian is available and end crystal/enderman is present
-                crystalOpp = obsidianNearby && endCrystalOrEndermanNearby;
+                return false;
             } catch (Exception e) {
                 // Fallback to simple detection if enhanced detection fails
                 var nearbyBlocks = player.level().getEntitiesOfClass(net.minecraft.world.entity.decoration.ArmorStand.class, player.getBoundingBox().inflate(16));
                 for (var entity : (java.util.List<net.minecraft.world.entity.decoration.ArmorStand>) nearbyBlocks) {
-                    var passenger = entity.getPassengers();
-                    for (var pass : passenger) {
-                        if (pass.getType().toString().contains("end_crystal")) { crystalOpp = true; break; }
+                    for (var pass : entity.getPassengers()) {
+                        if (pass.getType().toString().contains("end_crystal")) return true;
                     }
                 }
+                return false;
             }
-            boolean needsRes = player.getInventory().isEmpty();
-            // Check if item is a block type
-            boolean building = !player.getMainHandItem().isEmpty() && player.getMainHandItem().getItem() instanceof net.minecraft.world.item.BlockItem;
-            boolean stasis = !inCombat && !isFlying && !needsRes && !building;
-            
-            // Extended combat state
-            float health = player.getHealth();
-            int food = player.getFoodData().getFoodLevel();
-            boolean lowHealth = health < 6.0f;
-            // Check armor durability (all pieces)
-            boolean armorBroken = false;
+        }
+
+        /** Any armor piece above 80% wear. Depends on inventory changes and damage. */
+        static boolean scanArmorBroken(ServerPlayer player) {
             try {
                 for (var armor : player.getInventory().armor) {
                     if (!armor.isEmpty() && armor.getDamageValue() > armor.getMaxDamage() * 0.8f) {
-                        armorBroken = true; break;
+                        return true;
                     }
                 }
             } catch (Exception ignored) {}
-            boolean hasRockets = false;
-            int nearbyOpponents = 0;
+            return false;
+        }
+
+        static boolean scanHoldingBlock(ServerPlayer player) {
+            // Check if item is a block type
+            return !player.getMainHandItem().isEmpty() && player.getMainHandItem().getItem() instanceof net.minecraft.world.item.BlockItem;
+        }
+
+        static boolean scanMaceEquipped(ServerPlayer player) {
+            return player.getMainHandItem().getItem().toString().toLowerCase().contains("mace");
+        }
+
+        static boolean scanRockets(ServerPlayer player) {
             try {
                 String main = player.getMainHandItem().getItem().toString().toLowerCase();
                 String off = player.getOffhandItem().getItem().toString().toLowerCase();
-                hasRockets = main.contains("rocket") || off.contains("rocket") || main.contains("firework") || off.contains("firework");
-            } catch (Exception ignored) {}
-            try {
-                nearbyOpponents = (int) player.level().players().stream()
-                    .filter(p -> !p.getUUID().equals(player.getUUID()) && p.distanceTo(player) < 12.0)
-                    .count();
-                } catch (Exception ignored) { nearbyOpponents = 0; }
+                return main.contains("rocket") || off.contains("rocket") || main.contains("firework") || off.contains("firework");
+            } catch (Exception ignored) {
+                return false;
+            }
+        }
 
-                return new Signals(player, inCombat, isFlying, maceEquipped, crystalOpp, needsRes, building, stasis,
-                    health, food, new float[]{1.0f, 1.0f, 1.0f, 1.0f}, new java.util.HashSet<>(),
-                    lowHealth, armorBroken, 0, 0, false, false, hasRockets, nearbyOpponents, false, false, 0, false);
+        static int countNearbyOpponents(ServerPlayer player) {
+            try {
+                int count = 0;
+                var players = player.level().players();
+                for (int i = 0; i < players.size(); i++) {
+                    var p = players.get(i);
+                    if (p != player && p.distanceToSqr(player) < 144.0) count++;
+                }
+                return count;
+            } catch (Exception ignored) {
+                return 0;
+            }
         }
 
         /**
@@ -204,9 +490,9 @@ public class ContextScanner {
                                         boolean needsResources,
                                         boolean isBuildingPhase,
                                         boolean shouldEnterStasis) {
-                return new Signals(null, inCombat, isFlyingWithElytra, hasMaceEquipped, crystalOpportunity, needsResources, isBuildingPhase, shouldEnterStasis,
-                    20.0f, 20, new float[]{1.0f, 1.0f, 1.0f, 1.0f}, new java.util.HashSet<>(),
-                    false, false, 0, 0, false, false, false, 0, false, false, 0, false);
+            return syntheticFull(inCombat, isFlyingWithElytra, hasMaceEquipped, crystalOpportunity, needsResources, isBuildingPhase, shouldEnterStasis,
+                20.0f, 20, null, null,
+                false, false, 0, 0, false, false, false, 0, false, false, 0, false);
         }
         
         /**
@@ -235,21 +521,75 @@ public class ContextScanner {
                         boolean falling,
                         float fallHeight,
                         boolean inLava) {
-            return new Signals(null, inCombat, isFlyingWithElytra, hasMaceEquipped, crystalOpportunity, needsResources, isBuildingPhase, shouldEnterStasis,
-                playerHealth, foodLevel, armorDurability, activePotionEffects,
-                isLowHealth, isArmorBroken, incomingMeleeDamage, incomingProjectileDamage,
-                opponentAirborne, opponentHasShield, hasRockets, nearbyOpponents, webTrapDetected, falling, fallHeight, inLava);
-        }
-
-        // Convenience getters
-        public boolean inCombat() { return inCombat; }
-        public boolean isFlyingWithElytra() { return isFlyingWithElytra; }
-        public boolean hasMaceEquipped() { return hasMaceEquipped; }
-        public boolean crystalOpportunity() { return crystalOpportunity; }
-        public boolean needsResources() { return needsResources; }
-        public boolean isBuildingPhase() { return isBuildingPhase; }
-        public boolean shouldEnterStasis() { return shouldEnterStasis; }
-        public boolean hasRockets() { return hasRockets; }
+            Signals s = new Signals();
+            s.setFlag(IN_COMBAT, inCombat);
+            s.setFlag(FLYING_WITH_ELYTRA, isFlyingWithElytra);
+            s.setFlag(MACE_EQUIPPED, hasMaceEquipped);
+            s.setFlag(CRYSTAL_OPPORTUNITY, crystalOpportunity);
+            s.setFlag(NEEDS_RESOURCES, needsResources);
+            s.setFlag(BUILDING_PHASE, isBuildingPhase);
+            s.setFlag(SHOULD_ENTER_STASIS, shouldEnterStasis);
+            s.setFlag(LOW_HEALTH, isLowHealth);
+            s.setFlag(ARMOR_BROKEN, isArmorBroken);
+            s.setFlag(OPPONENT_AIRBORNE, opponentAirborne);
+            s.setFlag(OPPONENT_HAS_SHIELD, opponentHasShield);
+            s.setFlag(HAS_ROCKETS, hasRockets);
+            s.setFlag(WEB_TRAP_DETECTED, webTrapDetected);
+            s.setFlag(FALLING, falling);
+            s.setFlag(IN_LAVA, inLava);
+            s.playerHealth = playerHealth;
+            s.foodLevel = foodLevel;
+            s.incomingMeleeDamage = incomingMeleeDamage;
+            s.incomingProjectileDamage = incomingProjectileDamage;
+            s.nearbyOpponents = nearbyOpponents;
+            s.fallHeight = fallHeight;
+            if (armorDurability != null) {
+                System.arraycopy(armorDurability, 0, s.armorDurability, 0, Math.min(4, armorDurability.length));
+            }
+            if (activePotionEffects != null) {
+                for (String effect : activePotionEffects) s.addEffect(effect);
+            }
+            s.frozen = true;
+            return s;
+        }
+
+        // Accessors
+        public boolean inCombat() { return flag(IN_COMBAT); }
+        public boolean isFlyingWithElytra() { return flag(FLYING_WITH_ELYTRA); }
+        public boolean hasMaceEquipped() { return flag(MACE_EQUIPPED); }
+        public boolean crystalOpportunity() { return flag(CRYSTAL_OPPORTUNITY); }
+        public boolean needsResources() { return flag(NEEDS_RESOURCES); }
+        public boolean isBuildingPhase() { return flag(BUILDING_PHASE); }
+        public boolean shouldEnterStasis() { return flag(SHOULD_ENTER_STASIS); }
+        public boolean isLowHealth() { return flag(LOW_HEALTH); }
+        public boolean isArmorBroken() { return flag(ARMOR_BROKEN); }
+        public boolean opponentAirborne() { return flag(OPPONENT_AIRBORNE); }
+        public boolean opponentHasShield() { return flag(OPPONENT_HAS_SHIELD); }
+        public boolean hasRockets() { return flag(HAS_ROCKETS); }
+        public boolean webTrapDetected() { return flag(WEB_TRAP_DETECTED); }
+        public boolean falling() { return flag(FALLING); }
+        public boolean inLava() { return flag(IN_LAVA); }
+        public float playerHealth() { return playerHealth; }
+        public int foodLevel() { return foodLevel; }
+        public float incomingMeleeDamage() { return incomingMeleeDamage; }
+        public float incomingProjectileDamage() { return incomingProjectileDamage; }
         public int nearbyOpponents() { return nearbyOpponents; }
+        public float fallHeight() { return fallHeight; }
+        public float armorDurability(int slot) { return armorDurability[slot]; }
+
+        /** Packed flag bits (for compact storage). */
+        public long flagBits() { return flags; }
+
+        /** Active effect names; allocates, so not for the per-tick path. */
+        public java.util.Set<String> activePotionEffects() {
+            java.util.Set<String> names = new java.util.HashSet<>();
+            long mask = effectMask;
+            while (mask != 0) {
+                int id = Long.numberOfTrailingZeros(mask);
+                names.add(EFFECT_NAMES[id]);
+                mask &= mask - 1;
+            }
+            return names;
+        }
     }
 }
@@ -78,6 +78,8 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
     private final com.tyler.forgeai.modules.pvp.items.TridentModule tridentModule = new com.tyler.forgeai.modules.pvp.items.TridentModule();
     private final CombatEventHandler combatHandler = new CombatEventHandler();
 
+    private long tickCount = 0;  // ticks of this engine (experience timestamps)
+
     // Mode flags
     private boolean combatMode = false;
     private boolean builderMode = false;
@@ -123,6 +125,7 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
     }
 
     public void tick(MinecraftServer server) {
+        tickCount++;
         ContextScanner.Signals s = scanner.sample(server);
         
         // Nighttime sleep check first (highest priority)
@@ -159,7 +162,7 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
         // Route ticks based on current mode
         if (combatMode) {
             // Auto-eat if health is low (survival priority)
-            if (s.player != null && s.playerHealth < 8.0f) {
+            if (s.player != null && s.playerHealth() < 8.0f) {
                 try { com.tyler.forgeai.util.FoodUtils.autoEatIfLow(s.player, 8.0f); } catch (Exception ignored) {}
             }
             // Allow WebModule to attempt traps for crits before main combat decisions
@@ -422,7 +425,7 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
     private void tickCombatSuite(MinecraftServer server, ContextScanner.Signals s) {
         // Priority ordering: Crystal > Mace > Sword > Cart
         // Prefer aerial/mace strategies when rockets present or multiple opponents
-        if (s.nearbyOpponents > 1 && moduleWeights.mace > 0.5) {
+        if (s.nearbyOpponents() > 1 && moduleWeights.mace > 0.5) {
             maceModule.tick(s);
             currentModule = "MaceModule";
             recordOutcome("MaceModule", true);
@@ -441,7 +444,7 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
                     return;
                 }
         }
-        if ((s.isFlyingWithElytra() || s.hasRockets || s.nearbyOpponents > 1) && s.hasMaceEquipped) {
+        if ((s.isFlyingWithElytra() || s.hasRockets() || s.nearbyOpponents() > 1) && s.hasMaceEquipped()) {
             maceModule.tick(s);
             currentModule = "MaceModule";
             recordOutcome("MaceModule", true);
@@ -510,7 +513,7 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
                 else trainingManager.recordFailure(moduleName);
             }
             if (memoryManager != null) {
-                memoryManager.recordExperience(moduleName, scanner.getLastSignals(), success);
+                memoryManager.recordExperience(moduleName, scanner.getLastSignals(), success, tickCount);
             }
             if (success && rewardSystem != null) {
                 rewardSystem.reward(moduleName, 1);
@@ -565,6 +568,15 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
             case TASK_FIGHT_MONSTERS:
                 handleFightMonsters(task);
                 break;
+            // Long-running tasks: attach a routine that TaskManager steps each tick
+            case TASK_MINE_IRON:
+            case TASK_MINE_GOLD:
+            case TASK_FARM_WHEAT:
+            case TASK_FARM_CARROTS:
+            case NAV_GO_TO:
+            case PVP_DEFEND:
+                task.routine = createRoutine(server, task);
+                break;
             // Add other task types as needed
             default:
                 LOGGER.warn("Unhandled task type: {}", task.commandType);
@@ -572,11 +584,62 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
         }
     }
 
+    /**
+     * Build the tick-driven routine for a long-running task.
+     * Returns null when there is no player to act through yet.
+     */
+    private TaskRoutine createRoutine(MinecraftServer server, TaskManager.Task task) {
+        ContextScanner.Signals signals = scanner != null ? scanner.getLastSignals() : null;
+        if (signals == null || signals.player == null) {
+            LOGGER.warn("No player available for task {}", task.id);
+            return null;
+        }
+        var player = signals.player;
+        switch (task.commandType) {
+            case TASK_MINE_IRON:
+                task.parameters.putIfAbsent("ore", "iron_ore");
+                return TaskManager.executeMine(server, task, player);
+            case TASK_MINE_GOLD:
+                task.parameters.putIfAbsent("ore", "gold_ore");
+                return TaskManager.executeMine(server, task, player);
+            case TASK_FARM_WHEAT:
+                task.parameters.putIfAbsent("crop", "wheat");
+                return TaskManager.executeFarm(server, task, player);
+            case TASK_FARM_CARROTS:
+                task.parameters.putIfAbsent("crop", "carrots");
+                return TaskManager.executeFarm(server, task, player);
+            case NAV_GO_TO: {
+                // Parsed commands carry "destination" as "x y z"; anything else is a named place
+                String dest = task.parameters.getOrDefault("destination", "");
+                String[] parts = dest.trim().split("[\\s,]+");
+                if (!task.parameters.containsKey("x") && parts.length == 3) {
+                    try {
+                        for (String part : parts) Integer.parseInt(part);
+                    } catch (NumberFormatException e) {
+                        LOGGER.info("Not a coordinate destination: {}", dest);
+                        return null;
+                    }
+                    task.parameters.put("x", parts[0]);
+                    task.parameters.put("y", parts[1]);
+                    task.parameters.put("z", parts[2]);
+                }
+                if (!task.parameters.containsKey("x")) return null;
+                return TaskManager.executeNavigate(server, task, player);
+            }
+            case PVP_DEFEND:
+                task.parameters.putIfAbsent("location", "here");
+                task.parameters.putIfAbsent("duration", "30");
+                return TaskManager.executeGuard(server, task, player);
+            default:
+                return null;
+        }
+    }
+
     @Override
     public boolean isTaskComplete(TaskManager.Task task) {
-        // For now, mark tasks as complete immediately after execution
-        // In a real implementation, you'd check if the task's goal is achieved
-        return true;
+        // Routine-backed tasks finish when their routine does; the rest
+        // do all their work in executeTask and complete immediately
+        return task.routine == null || task.routine.isFinished();
     }
 
     @Override
@@ -762,7 +825,6 @@ public class DecisionEngine implements TaskManager.TaskExecutor {
                     com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
                     collectedAny = true;
                     LOGGER.info("Collected {} at {}", itemName, pos.toShortString());
-                    try { Thread.sleep(200); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
                     break;
                 } catch (Exception e) {
                     LOGGER.debug("Failed to collect {}: {}", itemName, e.getMessage());
@@ -125,20 +125,42 @@ public class DimensionalTravelManager {
                 LOGGER.info("Planning waypoint-assisted travel via {}", nearestWaypoint.name);
             } else {
                 // Standard walking
-                route.portalLocations.add(player.blockPosition());
-                route.portalLocations.add(targetPos);
+                addWalkingWaypoints(route, player, targetPos);
                 LOGGER.info("Planning walking travel - distance: {} blocks", (int) distance);
             }
         } else {
             // Default to walking
-            route.portalLocations.add(player.blockPosition());
-            route.portalLocations.add(targetPos);
+            addWalkingWaypoints(route, player, targetPos);
             LOGGER.info("Planning walking travel - distance: {} blocks", (int) distance);
         }
 
         return route;
     }
 
+    /**
+     * Fill a walking route with chunk-level waypoints from the hierarchical planner
+     * (start, one waypoint per chunk crossing, target). Falls back to a straight
+     * start/target pair when nothing loaded could be planned through.
+     */
+    private static void addWalkingWaypoints(TravelRoute route, ServerPlayer player, BlockPos targetPos) {
+        BlockPos start = player.blockPosition();
+        route.portalLocations.add(start);
+        try {
+            var plan = com.tyler.forgeai.util.path.HierarchicalPlanner.of((ServerLevel) player.level())
+                .plan(start.asLong(), targetPos.asLong());
+            if (plan != null) {
+                // Waypoints come in pairs across each border; the far side of each is enough
+                for (int i = 2; i < plan.waypoints.length - 1; i += 2) {
+                    route.portalLocations.add(BlockPos.of(plan.waypoints[i]));
+                }
+                if (plan.partial) LOGGER.debug("Walking route only reaches {}", BlockPos.of(plan.getFinalWaypoint()));
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Hierarchical planning failed: {}", e.getMessage());
+        }
+        route.portalLocations.add(targetPos);
+    }
+
     /**
      * Plan inter-dimensional travel using optimal portal routes.
      */
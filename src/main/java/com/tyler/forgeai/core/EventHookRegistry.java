@@ -1,6 +1,8 @@
 package com.tyler.forgeai.core;
 
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerEntityEvents;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.damagesource.DamageSource;
 import net.minecraft.world.entity.LivingEntity;
@@ -46,6 +48,23 @@ public class EventHookRegistry {
         LOGGER.info("Combat event hooks registered successfully");
     }
 
+    /**
+     * Register change hooks that invalidate cached Signals (see WorldChangeTracker).
+     * Block changes come from LevelSetBlockMixin.
+     */
+    public static void registerWorldChangeHooks() {
+        ServerEntityEvents.ENTITY_LOAD.register((entity, world) -> WorldChangeTracker.onEntityLoadChanged(world));
+        ServerEntityEvents.ENTITY_UNLOAD.register((entity, world) -> WorldChangeTracker.onEntityLoadChanged(world));
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) ->
+            WorldChangeTracker.onChunkUnloaded(world, chunk.getPos().x, chunk.getPos().z));
+        ServerLivingEntityEvents.ALLOW_DAMAGE.register((entity, source, amount) -> {
+            WorldChangeTracker.onDamage(entity.level());
+            return true;
+        });
+        WorldChangeTracker.addListener(com.tyler.forgeai.util.path.WalkabilityCache.LISTENER);
+        LOGGER.info("World change hooks registered");
+    }
+
     /**
      * Extended: Register navigation event hooks.
      */
@@ -246,6 +246,8 @@ public class MultiBotDispatcher {
             if (bot != null) {
                 bot.taskManager.cancelCurrentTask("Job cancelled by owner");
             }
+            // Free the cells it had reserved so the remaining bots can use them
+            com.tyler.forgeai.util.path.ReservationTable.releaseEverywhere(assignment.assignedBot);
         }
 
         job.status = JobStatus.CANCELLED;
@@ -63,8 +63,7 @@ public class StructureFinder {
                     if (isBaseLocation(level, pos)) {
                         String baseName = "base_" + foundBases.size();
                         String dimension = getDimensionName(level);
-                        worldMemory.registerLocation(baseName, pos.getX(), pos.getY(), pos.getZ(), dimension, "base", botName);
-                        SharedWorldMemory.WorldLocation loc = worldMemory.new WorldLocation(
+                        SharedWorldMemory.WorldLocation loc = worldMemory.registerLocation(
                             baseName, pos.getX(), pos.getY(), pos.getZ(), dimension, "base", botName
                         );
                         foundBases.add(loc);
@@ -97,8 +96,7 @@ public class StructureFinder {
                     if (structureType != null) {
                         String structName = structureType + "_" + foundStructures.size();
                         String dimension = getDimensionName(level);
-                        worldMemory.registerLocation(structName, pos.getX(), pos.getY(), pos.getZ(), dimension, structureType, botName);
-                        SharedWorldMemory.WorldLocation loc = worldMemory.new WorldLocation(
+                        SharedWorldMemory.WorldLocation loc = worldMemory.registerLocation(
                             structName, pos.getX(), pos.getY(), pos.getZ(), dimension, structureType, botName
                         );
                         foundStructures.add(loc);
@@ -171,10 +169,7 @@ public class StructureFinder {
      * Get dimension name from level.
      */
     private String getDimensionName(ServerLevel level) {
-        String dimName = level.dimension().toString().toLowerCase();
-        if (dimName.contains("nether")) return "nether";
-        if (dimName.contains("end") || dimName.contains("the_end")) return "end";
-        return "overworld";
+        return SharedWorldMemory.dimensionName(level);
     }
 
     /**
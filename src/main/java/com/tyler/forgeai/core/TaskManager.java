@@ -40,6 +40,8 @@ public class TaskManager {
         public long completedAt;
         public String failureReason;
         public Map<String, Object> pauseData;
+        /** Tick-driven work attached by the executor; null for executor-managed tasks. */
+        public TaskRoutine routine;
 
         public Task(String id, AICommandParser.CommandType commandType, 
                    TaskPriority priority, Map<String, String> parameters) {
@@ -99,6 +101,7 @@ public class TaskManager {
         // Check if it's the current task
         if (currentTask != null && taskId.equals(currentTask.id)) {
             currentTask.status = TaskStatus.CANCELLED;
+            if (currentTask.routine != null) currentTask.routine.cancel("removed");
             currentTask = null;
             LOGGER.info("Cancelled current task: {}", taskId);
             return true;
@@ -136,9 +139,19 @@ public class TaskManager {
      * Execute next task in queue.
      */
     public void tick(MinecraftServer server) {
+        // Step the current task's routine (one bounded step per tick)
+        if (currentTask != null && currentTask.status == TaskStatus.EXECUTING && currentTask.routine != null) {
+            TaskRoutine.State state = currentTask.routine.tick(server);
+            if (state == TaskRoutine.State.FAILED) {
+                failCurrentTask(currentTask.routine.getFailureReason());
+                return;
+            }
+        }
+
         // If current task is done, mark as completed
         if (currentTask != null && currentTask.status == TaskStatus.EXECUTING) {
-            if (executor.isTaskComplete(currentTask)) {
+            boolean routineDone = currentTask.routine != null && currentTask.routine.isFinished();
+            if (routineDone || executor.isTaskComplete(currentTask)) {
                 currentTask.status = TaskStatus.COMPLETED;
                 currentTask.completedAt = System.currentTimeMillis();
                 completedTasks.put(currentTask.id, currentTask);
@@ -162,6 +175,21 @@ public class TaskManager {
         }
     }
 
+    /**
+     * Mark the current task failed (its routine gave up) and free the slot.
+     */
+    private void failCurrentTask(String reason) {
+        currentTask.status = TaskStatus.FAILED;
+        currentTask.failureReason = reason;
+        currentTask.completedAt = System.currentTimeMillis();
+        completedTasks.put(currentTask.id, currentTask);
+        if (lockManager != null) {
+            lockManager.unlockTask();
+        }
+        LOGGER.info("Failed task: {} - {}", currentTask.id, reason);
+        currentTask = null;
+    }
+
     /**
      * Pause current task execution.
      */
@@ -191,6 +219,7 @@ public class TaskManager {
         if (currentTask != null) {
             currentTask.status = TaskStatus.CANCELLED;
             currentTask.failureReason = reason;
+            if (currentTask.routine != null) currentTask.routine.cancel(reason);
             executor.cancelTask(currentTask);
             // Unlock task if it was locked
             if (lockManager != null) {
@@ -317,407 +346,366 @@ public class TaskManager {
          */
         void cancelTask(Task task);
     }
-
     // ---- Extended task type handlers (crafting, smelting, etc.) ----
+    //
+    // Each handler builds a TaskRoutine instead of doing the work inline: the
+    // routine runs one bounded step per server tick and waits in game ticks,
+    // so no task ever blocks the tick thread. TaskManager.tick drives it.
+
+    /** Blocks scanned per tick when a routine searches a large area. */
+    private static final int SCAN_BUDGET = com.tyler.forgeai.util.BlockScanCursor.DEFAULT_BUDGET;
 
     /**
      * Execute crafting task: craft <recipe> [amount]
      * Examples: craft oak_planks 64, craft oak_door 10
      */
-    public static void executeCraft(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeCraft(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String recipe = task.parameters.getOrDefault("recipe", "oak_planks");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing craft task: {} x{}", recipe, amount);
-        
-        try {
-            // Find crafting table
-            net.minecraft.core.BlockPos craftingTable = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock().getName().getString().contains("crafting_table")) {
-                    craftingTable = pos;
-                    break;
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("craft", r -> {
+            net.minecraft.core.BlockPos craftingTable = scan.next(player.level(),
+                state -> state.getBlock().getName().getString().contains("crafting_table"), SCAN_BUDGET);
+            if (craftingTable == null) {
+                if (!scan.isExhausted()) {
+                    r.repeat(0);
+                    return;
                 }
-            }
-            
-            if (craftingTable != null) {
-                com.tyler.forgeai.util.PlayerActionUtils.interactBlock(player, craftingTable, net.minecraft.world.InteractionHand.MAIN_HAND);
-                LOGGER.info("Crafting {} x{}", recipe, amount);
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "Crafting " + amount + " " + recipe + "...");
-            } else {
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
                     player, "I couldn't find a crafting table nearby.");
+                r.fail("no crafting table");
+                return;
             }
-        } catch (Exception e) {
-            LOGGER.error("Crafting task failed: {}", e.getMessage());
+            com.tyler.forgeai.util.PlayerActionUtils.interactBlock(player, craftingTable, net.minecraft.world.InteractionHand.MAIN_HAND);
+            LOGGER.info("Crafting {} x{}", recipe, amount);
             com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, crafting failed.");
-        }
+                player, "Crafting " + amount + " " + recipe + "...");
+        });
     }
 
     /**
      * Execute smelting task: smelt <ore> [amount]
      * Examples: smelt iron_ore 64, smelt gold_ore 32
      */
-    public static void executeSmelt(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeSmelt(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String ore = task.parameters.getOrDefault("ore", "iron_ore");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing smelt task: {} x{}", ore, amount);
-        try {
-            // Find a nearby furnace or blast furnace
-            net.minecraft.core.BlockPos furnacePos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                String name = state.getBlock().getName().getString().toLowerCase();
-                if (name.contains("furnace") || name.contains("blast_furnace") || name.contains("smoker")) {
-                    furnacePos = pos;
-                    break;
-                }
-            }
 
-            if (furnacePos == null) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "I couldn't find a furnace nearby.");
-                return;
-            }
-
-            // Move ore and fuel to hotbar
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, ore); } catch (Exception ignored) {}
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "coal"); } catch (Exception ignored) {}
-
-            // Open furnace UI (best-effort) and simulate smelting time
-            com.tyler.forgeai.util.BlockInteractionUtils.openFurnace(player, furnacePos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smelting " + amount + " " + ore + "...");
-            try { Thread.sleep(1000L * Math.min(amount, 16)); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("smelt",
+            r -> {
+                // Find a nearby furnace or blast furnace
+                net.minecraft.core.BlockPos furnacePos = scan.next(player.level(), state -> {
+                    String name = state.getBlock().getName().getString().toLowerCase();
+                    return name.contains("furnace") || name.contains("blast_furnace") || name.contains("smoker");
+                }, SCAN_BUDGET);
+                if (furnacePos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "I couldn't find a furnace nearby.");
+                    r.fail("no furnace");
+                    return;
+                }
 
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Finished smelting (best-effort). Collect your items.");
-        } catch (Exception e) {
-            LOGGER.error("Smelting task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, smelting failed.");
-        }
+                // Move ore and fuel to hotbar
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, ore); } catch (Exception ignored) {}
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "coal"); } catch (Exception ignored) {}
+
+                // Open furnace UI (best-effort) and wait out the smelting time
+                com.tyler.forgeai.util.BlockInteractionUtils.openFurnace(player, furnacePos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smelting " + amount + " " + ore + "...");
+                r.next(secondsToTicks(Math.min(amount, 16)));
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Finished smelting (best-effort). Collect your items.")
+        );
     }
 
     /**
      * Execute mining task: mine <ore_type> [amount]
      * Examples: mine diamond_ore 10, mine iron_ore 64
      */
-    public static void executeMine(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeMine(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String ore = task.parameters.getOrDefault("ore", "iron_ore");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing mine task: {} x{}", ore, amount);
-        
-        try {
-            int mined = 0;
-            int maxAttempts = amount * 3;  // Allow multiple blocks searched
-            
-            for (int i = 0; i < maxAttempts && mined < amount; i++) {
-                // Scan for ore blocks nearby
-                net.minecraft.core.BlockPos orePos = null;
-                for (net.minecraft.core.BlockPos scanPos : 
-                    net.minecraft.core.BlockPos.betweenClosed(
-                        player.blockPosition().offset(-32, -5, -32),
-                        player.blockPosition().offset(32, 10, 32))) {
-                    var blockState = player.level().getBlockState(scanPos);
-                    if (blockState.getMaterial().isReplaceable()) continue;
-                    
-                    String blockName = blockState.getBlock().getName().getString().toLowerCase();
-                    if (blockName.contains(ore.toLowerCase())) {
-                        orePos = scanPos;
-                        break;
-                    }
-                }
-                
+
+        String oreName = ore.toLowerCase();
+        HarvestProgress harvest = harvest(player, state ->
+            !state.getMaterial().isReplaceable()
+                && state.getBlock().getName().getString().toLowerCase().contains(oreName));
+
+        return TaskRoutine.of("mine",
+            r -> {
+                if (r.getProgress() >= amount) return;
+                // Nearest reachable ore first; walking there and searching span ticks
+                net.minecraft.core.BlockPos orePos = stepHarvest(player, harvest);
                 if (orePos == null) {
-                    LOGGER.info("No {} ore found nearby", ore);
-                    break;
+                    if (harvest.isDone()) {
+                        LOGGER.info("No {} ore found nearby", ore);
+                        return;
+                    }
+                    r.repeat(0);
+                    return;
                 }
-                
-                // Navigate to ore and mine it
+
+                // Mine it, then give the block time to break
                 com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, orePos);
                 com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, orePos);
-                
-                // Simulate mining time
-                try { Thread.sleep(500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                
-                mined++;
+                r.addProgress(1);
+                r.repeat(10);
+            },
+            r -> {
+                LOGGER.info("Mined {} blocks of {}", r.getProgress(), ore);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "I've mined " + r.getProgress() + " " + ore + " for you!");
             }
-            
-            LOGGER.info("Mined {} blocks of {}", mined, ore);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "I've mined " + mined + " " + ore + " for you!");
-        } catch (Exception e) {
-            LOGGER.error("Mining task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, mining failed.");
-        }
+        ).onFinish(() -> releaseReservations(player));  // done, failed or cancelled
     }
 
     /**
      * Execute farming task: farm <crop_type> [amount]
      * Examples: farm wheat 64, farm carrot 32, farm melon
      */
-    public static void executeFarm(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeFarm(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String crop = task.parameters.getOrDefault("crop", "wheat");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing farm task: {} x{}", crop, amount);
-        
-        try {
-            int harvested = 0;
-            
-            // Find farmland blocks with crops
-            for (net.minecraft.core.BlockPos scanPos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-32, -2, -32),
-                    player.blockPosition().offset(32, 2, 32))) {
-                
-                if (harvested >= amount) break;
-                
-                var blockState = player.level().getBlockState(scanPos);
-                String blockName = blockState.getBlock().getName().getString().toLowerCase();
-                
-                // Check if it's the right crop and mature
-                if (blockName.contains(crop.toLowerCase())) {
-                    // Look at and harvest
-                    com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, scanPos);
-                    com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, scanPos);
-                    harvested++;
-                    
-                    try { Thread.sleep(200); } catch (InterruptedException e) { }
+
+        String cropName = crop.toLowerCase();
+        com.tyler.forgeai.util.BlockScanCursor scan =
+            com.tyler.forgeai.util.BlockScanCursor.around(player.blockPosition(), 32, -2, 2);
+
+        return TaskRoutine.of("farm",
+            r -> {
+                if (r.getProgress() >= amount) return;
+                // Find farmland blocks with the right crop
+                net.minecraft.core.BlockPos cropPos = scan.next(player.level(), state ->
+                    state.getBlock().getName().getString().toLowerCase().contains(cropName), SCAN_BUDGET);
+                if (cropPos == null) {
+                    if (!scan.isExhausted()) r.repeat(0);
+                    return;
                 }
+                // Look at and harvest
+                com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, cropPos);
+                com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, cropPos);
+                r.addProgress(1);
+                r.repeat(4);
+            },
+            r -> {
+                LOGGER.info("Harvested {} {} crops", r.getProgress(), crop);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Harvested " + r.getProgress() + " " + crop + "!");
             }
-            
-            LOGGER.info("Harvested {} {} crops", harvested, crop);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Harvested " + harvested + " " + crop + "!");
-        } catch (Exception e) {
-            LOGGER.error("Farming task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, farming failed.");
-        }
+        );
     }
 
     /**
      * Execute fishing task: fish [amount]
      * Examples: fish 32, fish
      */
-    public static void executeFish(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeFish(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing fish task: x{}", amount);
-        
-        try {
-            // Find water
-            net.minecraft.core.BlockPos waterPos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getMaterial().isReplaceable() && state.getMaterial().isLiquid()) {
-                    waterPos = pos;
-                    break;
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("fish",
+            r -> {
+                // Find water
+                net.minecraft.core.BlockPos waterPos = scan.next(player.level(),
+                    state -> state.getMaterial().isReplaceable() && state.getMaterial().isLiquid(), SCAN_BUDGET);
+                if (waterPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "I couldn't find water nearby.");
+                    r.fail("no water");
+                    return;
                 }
-            }
-            
-            if (waterPos != null) {
                 com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, waterPos);
                 LOGGER.info("Fishing at {}", waterPos.toShortString());
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
                     player, "Fishing for " + amount + " fish...");
-                // Simulate fishing time
-                try { Thread.sleep(amount * 500L); } catch (InterruptedException e) { }
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "Got some fish!");
-            } else {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "I couldn't find water nearby.");
-            }
-        } catch (Exception e) {
-            LOGGER.error("Fishing task failed: {}", e.getMessage());
-        }
+                // Wait out the fishing time
+                r.next(amount * 10);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                player, "Got some fish!")
+        );
     }
 
     /**
      * Execute wood chopping task: chop [amount]
      * Examples: chop 64, chop
      */
-    public static void executeChop(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeChop(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing chop task: x{}", amount);
-        
-        try {
-            int chopped = 0;
-            // Find logs
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-32, -2, -32),
-                    player.blockPosition().offset(32, 10, 32))) {
-                
-                if (chopped >= amount) break;
-                
-                var state = player.level().getBlockState(pos);
-                String name = state.getBlock().getName().getString().toLowerCase();
-                if (name.contains("log")) {
-                    com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
-                    chopped++;
-                    try { Thread.sleep(200); } catch (InterruptedException e) { }
+
+        com.tyler.forgeai.util.BlockScanCursor scan =
+            com.tyler.forgeai.util.BlockScanCursor.around(player.blockPosition(), 32, -2, 10);
+
+        return TaskRoutine.of("chop",
+            r -> {
+                if (r.getProgress() >= amount) return;
+                // Find logs
+                net.minecraft.core.BlockPos logPos = scan.next(player.level(), state ->
+                    state.getBlock().getName().getString().toLowerCase().contains("log"), SCAN_BUDGET);
+                if (logPos == null) {
+                    if (!scan.isExhausted()) r.repeat(0);
+                    return;
                 }
+                com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, logPos);
+                r.addProgress(1);
+                r.repeat(4);
+            },
+            r -> {
+                LOGGER.info("Chopped {} logs", r.getProgress());
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Chopped " + r.getProgress() + " logs!");
             }
-            
-            LOGGER.info("Chopped {} logs", chopped);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Chopped " + chopped + " logs!");
-        } catch (Exception e) {
-            LOGGER.error("Chopping task failed: {}", e.getMessage());
-        }
+        );
     }
 
     /**
      * Execute enchanting task: enchant <item_type> <level>
      * Examples: enchant sword sharpness_5, enchant pickaxe efficiency_5
      */
-    public static void executeEnchant(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeEnchant(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String item = task.parameters.getOrDefault("item", "sword");
         int level = Integer.parseInt(task.parameters.getOrDefault("level", "1"));
         LOGGER.info("Executing enchant task: {} level {}", item, level);
-        try {
-            net.minecraft.core.BlockPos tablePos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock().getName().getString().toLowerCase().contains("enchanting_table")) {
-                    tablePos = pos; break;
-                }
-            }
-
-            if (tablePos == null) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No enchanting table found nearby.");
-                return;
-            }
 
-            // Move item and lapis to hotbar
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, item); } catch (Exception ignored) {}
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "lapis"); } catch (Exception ignored) {}
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("enchant",
+            r -> {
+                net.minecraft.core.BlockPos tablePos = scan.next(player.level(),
+                    state -> state.getBlock().getName().getString().toLowerCase().contains("enchanting_table"), SCAN_BUDGET);
+                if (tablePos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No enchanting table found nearby.");
+                    r.fail("no enchanting table");
+                    return;
+                }
 
-            com.tyler.forgeai.util.BlockInteractionUtils.openEnchantingTable(player, tablePos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Applying enchantments (best-effort)...");
-            try { Thread.sleep(800); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+                // Move item and lapis to hotbar
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, item); } catch (Exception ignored) {}
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "lapis"); } catch (Exception ignored) {}
 
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Enchantment process complete (please verify).");
-        } catch (Exception e) {
-            LOGGER.error("Enchanting task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, enchanting failed.");
-        }
+                com.tyler.forgeai.util.BlockInteractionUtils.openEnchantingTable(player, tablePos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Applying enchantments (best-effort)...");
+                r.next(16);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Enchantment process complete (please verify).")
+        );
     }
 
     /**
      * Execute anvil repair task: repair <item_type>
      * Examples: repair sword, repair pickaxe
      */
-    public static void executeRepair(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeRepair(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String item = task.parameters.getOrDefault("item", "sword");
         LOGGER.info("Executing repair task: {}", item);
-        try {
-            net.minecraft.core.BlockPos anvilPos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.AnvilBlock) { anvilPos = pos; break; }
-            }
-
-            if (anvilPos == null) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No anvil found nearby.");
-                return;
-            }
-
-            // Move item and material (iron_ingot / netherite_ingot) to hotbar
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, item); } catch (Exception ignored) {}
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "iron_ingot"); } catch (Exception ignored) {}
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "netherite_ingot"); } catch (Exception ignored) {}
 
-            com.tyler.forgeai.util.BlockInteractionUtils.openAnvil(player, anvilPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Repairing item (best-effort)...");
-            try { Thread.sleep(800); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("repair",
+            r -> {
+                net.minecraft.core.BlockPos anvilPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.AnvilBlock, SCAN_BUDGET);
+                if (anvilPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No anvil found nearby.");
+                    r.fail("no anvil");
+                    return;
+                }
 
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Repair complete (please verify durability).");
-        } catch (Exception e) {
-            LOGGER.error("Repair task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, repair failed.");
-        }
+                // Move item and material (iron_ingot / netherite_ingot) to hotbar
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, item); } catch (Exception ignored) {}
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "iron_ingot"); } catch (Exception ignored) {}
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "netherite_ingot"); } catch (Exception ignored) {}
+
+                com.tyler.forgeai.util.BlockInteractionUtils.openAnvil(player, anvilPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Repairing item (best-effort)...");
+                r.next(16);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Repair complete (please verify durability).")
+        );
     }
 
     /**
      * Execute brewing task: brew <potion_type>
      * Examples: brew strength, brew speed, brew invisibility
      */
-    public static void executeBrew(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeBrew(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String potion = task.parameters.getOrDefault("potion", "strength");
         LOGGER.info("Executing brew task: {}", potion);
-        try {
-            net.minecraft.core.BlockPos standPos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.BrewingStandBlock) { standPos = pos; break; }
-            }
 
-            if (standPos == null) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No brewing stand found nearby.");
-                return;
-            }
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("brew",
+            r -> {
+                net.minecraft.core.BlockPos standPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.BrewingStandBlock, SCAN_BUDGET);
+                if (standPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No brewing stand found nearby.");
+                    r.fail("no brewing stand");
+                    return;
+                }
 
-            // Move bottles and ingredient keywords to hotbar
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "bottle"); } catch (Exception ignored) {}
-            // Map common potion types to ingredients
-            String ingredientKeyword = switch (potion.toLowerCase()) {
-                case "strength" -> "blaze_powder";
-                case "speed" -> "sugar";
-                case "invisibility" -> "golden_apple"; // rough mapping
-                default -> potion;
-            };
-            try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, ingredientKeyword); } catch (Exception ignored) {}
-
-            com.tyler.forgeai.util.BlockInteractionUtils.openBrewingStand(player, standPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Brewing " + potion + " (best-effort)...");
-            try { Thread.sleep(1200); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Brewing complete (please collect bottles).");
-        } catch (Exception e) {
-            LOGGER.error("Brewing task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, brewing failed.");
-        }
+                // Move bottles and ingredient keywords to hotbar
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "bottle"); } catch (Exception ignored) {}
+                // Map common potion types to ingredients
+                String ingredientKeyword = switch (potion.toLowerCase()) {
+                    case "strength" -> "blaze_powder";
+                    case "speed" -> "sugar";
+                    case "invisibility" -> "golden_apple"; // rough mapping
+                    default -> potion;
+                };
+                try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, ingredientKeyword); } catch (Exception ignored) {}
+
+                com.tyler.forgeai.util.BlockInteractionUtils.openBrewingStand(player, standPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Brewing " + potion + " (best-effort)...");
+                r.next(24);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Brewing complete (please collect bottles).")
+        );
     }
 
     /**
      * Execute composting task: compost <plant_matter_amount>
      * Examples: compost 64, compost
      */
-    public static void executeCompost(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeCompost(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing compost task: {} items", amount);
-        try {
-            net.minecraft.core.BlockPos composterPos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-16, -2, -16),
-                    player.blockPosition().offset(16, 2, 16))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock() instanceof net.minecraft.world.level.block.ComposterBlock) { composterPos = pos; break; }
-            }
 
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("compost", r -> {
+            net.minecraft.core.BlockPos composterPos = scan.next(player.level(),
+                state -> state.getBlock() instanceof net.minecraft.world.level.block.ComposterBlock, SCAN_BUDGET);
             if (composterPos == null) {
+                if (!scan.isExhausted()) {
+                    r.repeat(0);
+                    return;
+                }
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "I couldn't find a composter nearby.");
+                r.fail("no composter");
                 return;
             }
 
@@ -737,137 +725,150 @@ public class TaskManager {
 
             com.tyler.forgeai.util.BlockInteractionUtils.useComposter(player, composterPos);
             com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Composting " + added + " items (best-effort). Please collect bone meal when ready.");
-        } catch (Exception e) {
-            LOGGER.error("Compost task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, composting failed.");
-        }
+        });
+    }
+
+    /** Placement state carried between ticks of a build routine. */
+    private static final class BuildProgress {
+        List<com.tyler.forgeai.util.LitematicaIntegration.BlockEntry> order = List.of();
+        net.minecraft.core.BlockPos origin;
+        com.tyler.forgeai.config.ConfigLoader.ForgeAIConfig cfg;
+        int index = 0;
     }
 
+    /** Maximum blocks a single build task places (matches the old per-task cap). */
+    private static final int BUILD_BLOCK_CAP = 64;
+
     /**
      * Execute building task: build <schematic_file>
      * Examples: build farm_house, build bunker
      */
-    public static void executeBuild(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeBuild(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String schematic = task.parameters.getOrDefault("schematic", "structure");
         LOGGER.info("Executing build task: {}", schematic);
 
-        try {
-            // Load schematic
-            java.io.File schematicDir = new java.io.File("schematics");
-            if (!schematicDir.exists()) schematicDir.mkdirs();
-            java.io.File schematicFile = new java.io.File(schematicDir, schematic + ".litematic");
-            if (!schematicFile.exists()) schematicFile = new java.io.File(schematicDir, schematic);
-            if (!schematicFile.exists()) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Schematic file not found: " + schematic);
-                return;
-            }
-
-            com.tyler.forgeai.util.LitematicaIntegration.SchematicData schematicData = com.tyler.forgeai.util.LitematicaIntegration.loadSchematic(schematicFile);
-            if (schematicData == null || schematicData.blocks.isEmpty()) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Failed to load schematic: " + schematic);
-                return;
-            }
-
-            // Material list
-            Map<String, Integer> materials = com.tyler.forgeai.util.LitematicaIntegration.computeMaterialRequirements(schematicData);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Building the " + schematic + "! (" + schematicData.blocks.size() + " blocks)");
-
-            // Validate anchor
-            com.tyler.forgeai.modules.builder.BuildSafetyManager.setBuildLocation(player, player.blockPosition().getX(), player.blockPosition().getY(), player.blockPosition().getZ());
-            net.minecraft.core.BlockPos origin = com.tyler.forgeai.modules.builder.BuildSafetyManager.getBuildLocation(player);
-            if (origin == null) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Please set a build anchor before starting a build.");
-                return;
-            }
+        BuildProgress build = new BuildProgress();
+        return TaskRoutine.of("build",
+            r -> {
+                // Load schematic
+                java.io.File schematicDir = new java.io.File("schematics");
+                if (!schematicDir.exists()) schematicDir.mkdirs();
+                java.io.File schematicFile = new java.io.File(schematicDir, schematic + ".litematic");
+                if (!schematicFile.exists()) schematicFile = new java.io.File(schematicDir, schematic);
+                if (!schematicFile.exists()) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Schematic file not found: " + schematic);
+                    r.fail("schematic not found");
+                    return;
+                }
 
-            // Config and flags
-            com.tyler.forgeai.config.ConfigLoader cfgLoader = new com.tyler.forgeai.config.ConfigLoader();
-            cfgLoader.init();
-            com.tyler.forgeai.config.ConfigLoader.ForgeAIConfig cfg = cfgLoader.getConfig();
-            boolean dryRun = Boolean.parseBoolean(task.parameters.getOrDefault("dryRun", String.valueOf(cfg.buildDryRunDefault)));
-            boolean allowOverwrite = Boolean.parseBoolean(task.parameters.getOrDefault("allowOverwrite", String.valueOf(cfg.allowOverwriteBuilds)));
+                com.tyler.forgeai.util.LitematicaIntegration.SchematicData schematicData = com.tyler.forgeai.util.LitematicaIntegration.loadSchematic(schematicFile);
+                if (schematicData == null || schematicData.blocks.isEmpty()) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Failed to load schematic: " + schematic);
+                    r.fail("schematic failed to load");
+                    return;
+                }
 
-            // Dry-run validation
-            if (!com.tyler.forgeai.modules.builder.BuildSafetyManager.dryRunValidate((net.minecraft.server.level.ServerLevel) player.level(), schematicData, origin, cfg)) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Dry-run validation failed; build canceled.");
-                return;
-            }
+                // Material list
+                Map<String, Integer> materials = com.tyler.forgeai.util.LitematicaIntegration.computeMaterialRequirements(schematicData);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Building the " + schematic + "! (" + schematicData.blocks.size() + " blocks)");
+
+                // Validate anchor
+                com.tyler.forgeai.modules.builder.BuildSafetyManager.setBuildLocation(player, player.blockPosition().getX(), player.blockPosition().getY(), player.blockPosition().getZ());
+                net.minecraft.core.BlockPos origin = com.tyler.forgeai.modules.builder.BuildSafetyManager.getBuildLocation(player);
+                if (origin == null) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Please set a build anchor before starting a build.");
+                    r.fail("no build anchor");
+                    return;
+                }
 
-            if (!com.tyler.forgeai.modules.builder.BuildSafetyManager.validateAreaClear((net.minecraft.server.level.ServerLevel) player.level(), schematicData, origin, cfg)) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Schematic placement conflict or unsafe area. Aborting build.");
-                return;
-            }
+                // Config and flags
+                com.tyler.forgeai.config.ConfigLoader cfgLoader = new com.tyler.forgeai.config.ConfigLoader();
+                cfgLoader.init();
+                com.tyler.forgeai.config.ConfigLoader.ForgeAIConfig cfg = cfgLoader.getConfig();
+                boolean dryRun = Boolean.parseBoolean(task.parameters.getOrDefault("dryRun", String.valueOf(cfg.buildDryRunDefault)));
+
+                // Dry-run validation
+                if (!com.tyler.forgeai.modules.builder.BuildSafetyManager.dryRunValidate((net.minecraft.server.level.ServerLevel) player.level(), schematicData, origin, cfg)) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Dry-run validation failed; build canceled.");
+                    r.fail("dry-run validation failed");
+                    return;
+                }
 
-            // Delegate gatherers if resources missing
-            try {
-                com.tyler.forgeai.modules.utility.ResourceTracker rt = new com.tyler.forgeai.modules.utility.ResourceTracker();
-                rt.update(player);
-                BotRegistry registry = BotRegistry.getOrCreateRegistry((net.minecraft.server.level.ServerLevel) player.level());
-                for (Map.Entry<String, Integer> entry : materials.entrySet()) {
-                    String material = entry.getKey();
-                    int required = entry.getValue();
-                    int have = rt.getCount(material);
-                    if (have < required) {
-                        var gatherers = registry.findAvailableBotsForRole(player.getGameProfile().getName(), "gatherer");
-                        if (!gatherers.isEmpty()) {
-                            Map<String, String> p = new HashMap<>();
-                            p.put("resource", material);
-                            p.put("amount", String.valueOf(required - have));
-                            AICommandParser.CommandType type = AICommandParser.CommandType.TASK_MINE_IRON;
-                            Task subtask = new Task(UUID.randomUUID().toString().substring(0,8), type, TaskPriority.NORMAL, p);
-                            gatherers.get(0).taskManager.enqueueTask(subtask);
-                            LOGGER.info("Delegated gather task for {} x{} to {}", material, required - have, gatherers.get(0).botName);
-                        }
-                    }
+                if (!com.tyler.forgeai.modules.builder.BuildSafetyManager.validateAreaClear((net.minecraft.server.level.ServerLevel) player.level(), schematicData, origin, cfg)) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Schematic placement conflict or unsafe area. Aborting build.");
+                    r.fail("area not clear");
+                    return;
                 }
-            } catch (Exception e) {
-                LOGGER.debug("Build gatherer delegation failed: {}", e.getMessage());
-            }
 
-            if (dryRun) {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Dry-run successful; no blocks placed.");
-                return;
-            }
+                delegateMissingMaterials(player, materials);
 
-            // Build with layer-by-layer placement
-            try {
-                int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
-                for (com.tyler.forgeai.util.LitematicaIntegration.BlockEntry b : schematicData.blocks) {
-                    int y = b.pos.getY();
-                    minY = Math.min(minY, y);
-                    maxY = Math.max(maxY, y);
+                if (dryRun) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Dry-run successful; no blocks placed.");
+                    r.done();
+                    return;
                 }
-                int placed = 0;
+
+                // Build layer by layer: bottom-up placement order
                 List<com.tyler.forgeai.util.LitematicaIntegration.BlockEntry> sorted = new ArrayList<>(schematicData.blocks);
                 sorted.sort(Comparator.comparingInt(e -> e.pos.getY()));
-                for (int layer = minY; layer <= maxY; layer++) {
-                    for (com.tyler.forgeai.util.LitematicaIntegration.BlockEntry entry : sorted) {
-                        if (entry.pos.getY() != layer) continue;
-                        net.minecraft.core.BlockPos worldPos = origin.offset(entry.pos.getX(), entry.pos.getY(), entry.pos.getZ());
-                        boolean guardOk = com.tyler.forgeai.modules.builder.BuildSafetyManager.guardPlacement((net.minecraft.server.level.ServerLevel) player.level(), player, entry, origin, cfg);
-                        if (!guardOk) {
-                            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Build safety violation; aborting.");
-                            return;
-                        }
-                        com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, worldPos);
-                        com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, entry.blockName);
-                        boolean placedOk = com.tyler.forgeai.util.PlayerActionUtils.placeBlock(player, worldPos);
-                        if (!placedOk) {
-                            LOGGER.warn("Failed to place block at {}: {}", worldPos, entry.blockName);
-                            try { if (com.tyler.forgeai.ForgeAI.getPunishmentSystem() != null) com.tyler.forgeai.ForgeAI.getPunishmentSystem().punish("BuilderModule", 10); } catch (Exception ignored) {}
-                            return;
-                        }
-                        placed++;
-                        if (placed >= 64) break;
+                build.order = sorted;
+                build.origin = origin;
+                build.cfg = cfg;
+            },
+            r -> {
+                // Place one block per tick
+                if (build.index >= build.order.size() || r.getProgress() >= BUILD_BLOCK_CAP) return;
+                com.tyler.forgeai.util.LitematicaIntegration.BlockEntry entry = build.order.get(build.index++);
+                net.minecraft.core.BlockPos worldPos = build.origin.offset(entry.pos.getX(), entry.pos.getY(), entry.pos.getZ());
+                boolean guardOk = com.tyler.forgeai.modules.builder.BuildSafetyManager.guardPlacement((net.minecraft.server.level.ServerLevel) player.level(), player, entry, build.origin, build.cfg);
+                if (!guardOk) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Build safety violation; aborting.");
+                    r.fail("build safety violation");
+                    return;
+                }
+                com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, worldPos);
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, entry.blockName);
+                boolean placedOk = com.tyler.forgeai.util.PlayerActionUtils.placeBlock(player, worldPos);
+                if (!placedOk) {
+                    LOGGER.warn("Failed to place block at {}: {}", worldPos, entry.blockName);
+                    try { if (com.tyler.forgeai.ForgeAI.getPunishmentSystem() != null) com.tyler.forgeai.ForgeAI.getPunishmentSystem().punish("BuilderModule", 10); } catch (Exception ignored) {}
+                    r.fail("placement failed");
+                    return;
+                }
+                r.addProgress(1);
+                r.repeat(1);
+            },
+            r -> LOGGER.info("Completed build of {} (~{} blocks placed)", schematic, r.getProgress())
+        );
+    }
+
+    /**
+     * Delegate gatherers for any build materials the builder is missing.
+     */
+    private static void delegateMissingMaterials(net.minecraft.server.level.ServerPlayer player, Map<String, Integer> materials) {
+        try {
+            com.tyler.forgeai.modules.utility.ResourceTracker rt = new com.tyler.forgeai.modules.utility.ResourceTracker();
+            rt.update(player);
+            BotRegistry registry = BotRegistry.getOrCreateRegistry((net.minecraft.server.level.ServerLevel) player.level());
+            for (Map.Entry<String, Integer> entry : materials.entrySet()) {
+                String material = entry.getKey();
+                int required = entry.getValue();
+                int have = rt.getCount(material);
+                if (have < required) {
+                    var gatherers = registry.findAvailableBotsForRole(player.getGameProfile().getName(), "gatherer");
+                    if (!gatherers.isEmpty()) {
+                        Map<String, String> p = new HashMap<>();
+                        p.put("resource", material);
+                        p.put("amount", String.valueOf(required - have));
+                        AICommandParser.CommandType type = AICommandParser.CommandType.TASK_MINE_IRON;
+                        Task subtask = new Task(UUID.randomUUID().toString().substring(0,8), type, TaskPriority.NORMAL, p);
+                        gatherers.get(0).taskManager.enqueueTask(subtask);
+                        LOGGER.info("Delegated gather task for {} x{} to {}", material, required - have, gatherers.get(0).botName);
                     }
                 }
-                LOGGER.info("Completed build of {} (~{} blocks placed)", schematic, placed);
-            } catch (Exception e) {
-                LOGGER.error("Build error: {}", e.getMessage());
             }
         } catch (Exception e) {
-            LOGGER.error("Building task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, building failed.");
+            LOGGER.debug("Build gatherer delegation failed: {}", e.getMessage());
         }
     }
 
@@ -875,60 +876,72 @@ public class TaskManager {
      * Execute gathering task: gather <resource_type> [amount]
      * Examples: gather wood 64, gather stone 128
      */
-    public static void executeGather(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeGather(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String resource = task.parameters.getOrDefault("resource", "wood");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing gather task: {} x{}", resource, amount);
-        
-        try {
-            int gathered = 0;
-            // Scan for resource blocks
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-32, -2, -32),
-                    player.blockPosition().offset(32, 10, 32))) {
-                
-                if (gathered >= amount) break;
-                
-                var state = player.level().getBlockState(pos);
-                String name = state.getBlock().getName().getString().toLowerCase();
-                if (name.contains(resource.toLowerCase())) {
-                    com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
-                    gathered++;
-                    try { Thread.sleep(200); } catch (InterruptedException e) { }
+
+        String resourceName = resource.toLowerCase();
+        HarvestProgress harvest = harvest(player, state ->
+            state.getBlock().getName().getString().toLowerCase().contains(resourceName));
+
+        return TaskRoutine.of("gather",
+            r -> {
+                if (r.getProgress() >= amount) return;
+                // Nearest reachable resource block first
+                net.minecraft.core.BlockPos pos = stepHarvest(player, harvest);
+                if (pos == null) {
+                    if (!harvest.isDone()) r.repeat(0);
+                    return;
                 }
+                com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
+                r.addProgress(1);
+                r.repeat(4);
+            },
+            r -> {
+                LOGGER.info("Gathered {} {}", r.getProgress(), resource);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Gathered " + r.getProgress() + " " + resource + "!");
             }
-            
-            LOGGER.info("Gathered {} {}", gathered, resource);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Gathered " + gathered + " " + resource + "!");
-        } catch (Exception e) {
-            LOGGER.error("Gathering task failed: {}", e.getMessage());
-        }
+        ).onFinish(() -> releaseReservations(player));  // done, failed or cancelled
     }
 
+    /** Give up walking to a bed after this many ticks (30 s) and try from where we are. */
+    private static final int SLEEP_WALK_TIMEOUT_TICKS = 600;
+
     /**
      * Execute sleep task: sleep
      * Returns to home/bed and sleeps if nighttime
      */
-    public static void executeSleep(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeSleep(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         LOGGER.info("Executing sleep task");
-        
-        try {
+
+        com.tyler.forgeai.util.BlockScanCursor scan =
+            com.tyler.forgeai.util.BlockScanCursor.around(player.blockPosition(), 32, -2, 2);
+        net.minecraft.core.BlockPos[] bed = new net.minecraft.core.BlockPos[1];
+
+        return TaskRoutine.of("sleep", r -> {
             // Find bed
-            net.minecraft.core.BlockPos bedPos = null;
-            for (net.minecraft.core.BlockPos pos :
-                net.minecraft.core.BlockPos.betweenClosed(
-                    player.blockPosition().offset(-32, -2, -32),
-                    player.blockPosition().offset(32, 2, 32))) {
-                var state = player.level().getBlockState(pos);
-                if (state.getBlock().getName().getString().contains("bed")) {
-                    bedPos = pos;
-                    break;
+            if (bed[0] == null) {
+                bed[0] = scan.next(player.level(),
+                    state -> state.getBlock().getName().getString().contains("bed"), SCAN_BUDGET);
+                if (bed[0] == null && !scan.isExhausted()) {
+                    r.repeat(0);
+                    return;
                 }
             }
-            
+
+            net.minecraft.core.BlockPos bedPos = bed[0];
             if (bedPos != null) {
+                // Walk over; bots sleeping at the same base share one cached flow field
+                if (player.distanceToSqr(bedPos.getX() + 0.5, bedPos.getY() + 0.5, bedPos.getZ() + 0.5) > 4
+                        && r.getStepTicks() < SLEEP_WALK_TIMEOUT_TICKS
+                        && com.tyler.forgeai.util.PlayerActionUtils.followFlowField(player,
+                            com.tyler.forgeai.util.path.FlowField.of((net.minecraft.server.level.ServerLevel) player.level(), bedPos.below()))) {
+                    r.repeat(0);
+                    return;
+                }
+                com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
                 com.tyler.forgeai.util.PlayerActionUtils.interactBlock(player, bedPos, net.minecraft.world.InteractionHand.MAIN_HAND);
                 LOGGER.info("Sleep initiated");
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
@@ -936,202 +949,402 @@ public class TaskManager {
             } else {
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
                     player, "I couldn't find a bed.");
+                r.fail("no bed");
             }
-        } catch (Exception e) {
-            LOGGER.error("Sleep task failed: {}", e.getMessage());
-        }
+        });
     }
 
     /**
      * Execute trading task: trade <villager_type> [amount]
      * Examples: trade librarian 10, trade cleric
      */
-    public static void executeTrade(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeTrade(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String villagerType = task.parameters.getOrDefault("villager", "librarian");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing trade task: {} x{}", villagerType, amount);
-        try {
-            var villager = com.tyler.forgeai.core.VillagerTradeManager.findVillagerWithTrade(player, villagerType, 32);
-            if (villager != null && villager.villager.isAlive()) {
+
+        return TaskRoutine.of("trade",
+            r -> {
+                var villager = com.tyler.forgeai.core.VillagerTradeManager.findVillagerWithTrade(player, villagerType, 32);
+                if (villager == null || !villager.villager.isAlive()) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "I couldn't find a " + villagerType + " nearby.");
+                    r.fail("no villager");
+                    return;
+                }
                 player.openMerchantScreen(villager.villager);
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Trading with " + villagerType + "...");
-                try { Thread.sleep(1000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Trade complete (check inventory).");
-            } else {
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "I couldn't find a " + villagerType + " nearby.");
-            }
-        } catch (Exception e) {
-            LOGGER.error("Trade task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Sorry, trading failed.");
-        }
+                r.next(20);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Trade complete (check inventory).")
+        );
     }
 
     /**
      * Execute stonecutting task: cut <material> [amount]
      * Examples: cut granite 32, cut sandstone 64
      */
-    public static void executeStonecutting(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeStonecutting(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String material = task.parameters.getOrDefault("material", "stone");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing stonecutting task: {} x{}", material, amount);
-        try {
-            net.minecraft.core.BlockPos cutterPos = com.tyler.forgeai.util.BlockInteractionUtils.findNearestBlock(player, net.minecraft.world.level.block.StonecutterBlock.class, 16);
-            if (cutterPos == null) { com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No stonecutter found."); return; }
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, material);
-            com.tyler.forgeai.util.BlockInteractionUtils.openStonecutter(player, cutterPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Stonecutting " + amount + " items...");
-            try { Thread.sleep(800); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Stonecutting complete.");
-        } catch (Exception e) { LOGGER.error("Stonecutting task failed: {}", e.getMessage()); }
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("stonecutting",
+            r -> {
+                net.minecraft.core.BlockPos cutterPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.StonecutterBlock, SCAN_BUDGET);
+                if (cutterPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No stonecutter found.");
+                    r.fail("no stonecutter");
+                    return;
+                }
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, material);
+                com.tyler.forgeai.util.BlockInteractionUtils.openStonecutter(player, cutterPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Stonecutting " + amount + " items...");
+                r.next(16);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Stonecutting complete.")
+        );
     }
 
     /**
      * Execute smithing task: smith <recipe>
      * Examples: smith netherite_pickaxe, smith netherite_armor
      */
-    public static void executeSmithing(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeSmithing(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String recipe = task.parameters.getOrDefault("recipe", "netherite_pickaxe");
         LOGGER.info("Executing smithing task: {}", recipe);
-        try {
-            net.minecraft.core.BlockPos smithPos = com.tyler.forgeai.util.BlockInteractionUtils.findNearestBlock(player, net.minecraft.world.level.block.SmithingTableBlock.class, 16);
-            if (smithPos == null) { com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No smithing table found."); return; }
-            com.tyler.forgeai.util.BlockInteractionUtils.openSmithingTable(player, smithPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smithing " + recipe + "...");
-            try { Thread.sleep(1000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smithing complete (check inventory).");
-        } catch (Exception e) { LOGGER.error("Smithing task failed: {}", e.getMessage()); }
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("smithing",
+            r -> {
+                net.minecraft.core.BlockPos smithPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.SmithingTableBlock, SCAN_BUDGET);
+                if (smithPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No smithing table found.");
+                    r.fail("no smithing table");
+                    return;
+                }
+                com.tyler.forgeai.util.BlockInteractionUtils.openSmithingTable(player, smithPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smithing " + recipe + "...");
+                r.next(20);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Smithing complete (check inventory).")
+        );
     }
 
     /**
      * Execute loom task: loom <banner_pattern> [amount]
      * Examples: loom stripe 10, loom cross 5
      */
-    public static void executeLoom(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeLoom(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String pattern = task.parameters.getOrDefault("pattern", "stripe");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing loom task: {} x{}", pattern, amount);
-        try {
-            net.minecraft.core.BlockPos loomPos = com.tyler.forgeai.util.BlockInteractionUtils.findNearestBlock(player, net.minecraft.world.level.block.LoomBlock.class, 16);
-            if (loomPos == null) { com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No loom found."); return; }
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "banner");
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "dye");
-            com.tyler.forgeai.util.BlockInteractionUtils.openLoom(player, loomPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Weaving " + pattern + "...");
-            try { Thread.sleep(800); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Weaving complete.");
-        } catch (Exception e) { LOGGER.error("Loom task failed: {}", e.getMessage()); }
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("loom",
+            r -> {
+                net.minecraft.core.BlockPos loomPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.LoomBlock, SCAN_BUDGET);
+                if (loomPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No loom found.");
+                    r.fail("no loom");
+                    return;
+                }
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "banner");
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "dye");
+                com.tyler.forgeai.util.BlockInteractionUtils.openLoom(player, loomPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Weaving " + pattern + "...");
+                r.next(16);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Weaving complete.")
+        );
     }
 
     /**
      * Execute cartography task: map <location>
      * Examples: map spawn, map base
      */
-    public static void executeCartography(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeCartography(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String location = task.parameters.getOrDefault("location", "spawn");
         LOGGER.info("Executing cartography task: mapping {}", location);
-        try {
-            net.minecraft.core.BlockPos cartPos = com.tyler.forgeai.util.BlockInteractionUtils.findNearestBlock(player, net.minecraft.world.level.block.CartographyTableBlock.class, 16);
-            if (cartPos == null) { com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No cartography table found."); return; }
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "map");
-            com.tyler.forgeai.util.BlockInteractionUtils.openCartographyTable(player, cartPos);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Mapping " + location + "...");
-            try { Thread.sleep(600); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Map created (check inventory).");
-        } catch (Exception e) { LOGGER.error("Cartography task failed: {}", e.getMessage()); }
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("cartography",
+            r -> {
+                net.minecraft.core.BlockPos cartPos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.CartographyTableBlock, SCAN_BUDGET);
+                if (cartPos == null) {
+                    if (!scan.isExhausted()) {
+                        r.repeat(0);
+                        return;
+                    }
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "No cartography table found.");
+                    r.fail("no cartography table");
+                    return;
+                }
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "map");
+                com.tyler.forgeai.util.BlockInteractionUtils.openCartographyTable(player, cartPos);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Mapping " + location + "...");
+                r.next(12);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Map created (check inventory).")
+        );
     }
 
     /**
      * Execute portal creation: portal <nether|end>
      * Examples: portal nether, portal end
      */
-    public static void executePortal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executePortal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String type = task.parameters.getOrDefault("type", "nether");
         LOGGER.info("Executing portal task: creating {} portal", type);
-        try {
-            String material = type.toLowerCase().contains("nether") ? "obsidian" : "end_frame_block";
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, material);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Building " + type + " portal...");
-            try { Thread.sleep(1500); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, type.toLowerCase().contains("nether") ? "flint_and_steel" : "eye_of_ender");
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Portal created (best-effort).");
-        } catch (Exception e) { LOGGER.error("Portal task failed: {}", e.getMessage()); }
+        boolean nether = type.toLowerCase().contains("nether");
+
+        return TaskRoutine.of("portal",
+            r -> {
+                String material = nether ? "obsidian" : "end_frame_block";
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, material);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Building " + type + " portal...");
+                r.next(30);
+            },
+            r -> {
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, nether ? "flint_and_steel" : "eye_of_ender");
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Portal created (best-effort).");
+            }
+        );
+    }
+
+    /** Give up walking toward a navigation target after this many ticks (5 s). */
+    private static final int NAVIGATE_TIMEOUT_TICKS = 100;
+    /** Same, when following a planned path (5 min). */
+    private static final int NAVIGATE_PATH_TIMEOUT_TICKS = 6000;
+    /** Route nodes ahead of the bot checked each tick for blocks placed on the way. */
+    private static final int NAVIGATE_LOOKAHEAD = 8;
+    /** Node cap of the incremental search that repairs a blocked segment. */
+    private static final int NAVIGATE_REPAIR_NODES = 20_000;
+
+    /** Path-following state for one navigate routine. */
+    private static final class NavProgress {
+        com.tyler.forgeai.util.PathFinder.Path path;
+        long[] route;
+        int index = 0;
+        boolean noPath = false;
+        final RouteWalk walk = new RouteWalk();
+        // Incremental search toward the current segment's end, opened the first time it is blocked
+        com.tyler.forgeai.util.path.DStarLite repair;
+
+        void closeRepair() {
+            if (repair != null) repair.close();
+            repair = null;
+        }
     }
 
     /**
      * Execute navigation task: goto <x> <y> <z>
      * Examples: goto 100 64 200, goto -500 100 -500
+     * Follows a path from the PathPlanningService when one arrives; steers
+     * straight at the target until then, or if no path exists.
      */
-    public static void executeNavigate(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeNavigate(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         int x = Integer.parseInt(task.parameters.getOrDefault("x", "0"));
         int y = Integer.parseInt(task.parameters.getOrDefault("y", "64"));
         int z = Integer.parseInt(task.parameters.getOrDefault("z", "0"));
         LOGGER.info("Executing navigate task: to {} {} {}", x, y, z);
-        try {
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Navigating to " + x + " " + z + "...");
-            double dist = player.distanceToSqr(x + 0.5, y + 0.5, z + 0.5);
-            if (dist < 10) { com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Already near target."); return; }
-            double dirX = x - player.getX(); double dirZ = z - player.getZ(); double norm = Math.sqrt(dirX * dirX + dirZ * dirZ);
-            if (norm > 0.01) { com.tyler.forgeai.util.PlayerActionUtils.lookAt(player, x, y, z); com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.6f); }
-            try { Thread.sleep(5000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Arrived at destination (best-effort).");
-        } catch (Exception e) { LOGGER.error("Navigate task failed: {}", e.getMessage()); }
+
+        String owner = player.getName().getString();
+        NavProgress nav = new NavProgress();
+        return TaskRoutine.of("navigate",
+            r -> {
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Navigating to " + x + " " + z + "...");
+                if (player.distanceToSqr(x + 0.5, y + 0.5, z + 0.5) < 10) {
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Already near target.");
+                    r.done();
+                    return;
+                }
+                requestPath(owner, player, new net.minecraft.core.BlockPos(x, y - 1, z), nav);
+            },
+            r -> {
+                // Keep steering toward the target each tick until close or timed out
+                int timeout = nav.path != null ? NAVIGATE_PATH_TIMEOUT_TICKS : NAVIGATE_TIMEOUT_TICKS;
+                if (player.distanceToSqr(x + 0.5, y + 0.5, z + 0.5) < 10 || r.getStepTicks() >= timeout) {
+                    com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+                    return;
+                }
+                if (nav.route != null && nav.index < nav.route.length && routeBlocked(player, nav.route, nav.index)) {
+                    repairRoute(owner, player, new net.minecraft.core.BlockPos(x, y - 1, z), nav);
+                }
+                if (nav.route != null && nav.index < nav.route.length) {
+                    // Straight legs when alone, reserved windows around other bots
+                    nav.index = walkRoute(player, owner, nav.route, nav.index, nav.walk);
+                    if (nav.index >= nav.route.length && !nav.path.complete) {
+                        // Long trip: plan the next segment from here
+                        requestPath(owner, player, new net.minecraft.core.BlockPos(x, y - 1, z), nav);
+                    }
+                    r.repeat(0);
+                    return;
+                }
+                double dirX = x - player.getX(); double dirZ = z - player.getZ(); double norm = Math.sqrt(dirX * dirX + dirZ * dirZ);
+                if (norm > 0.01) { com.tyler.forgeai.util.PlayerActionUtils.lookAt(player, x, y, z); com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.6f); }
+                r.repeat(0);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Arrived at destination (best-effort).")
+        ).onFinish(() -> {
+            // Arrived, timed out or cancelled
+            nav.closeRepair();
+            com.tyler.forgeai.util.PathPlanningService service = com.tyler.forgeai.ForgeAI.getPathPlanningService();
+            if (service != null) service.cancel(owner);
+            releaseReservations(player);
+        });
+    }
+
+    /** Has a block been placed or broken on the next stretch of route? */
+    private static boolean routeBlocked(net.minecraft.server.level.ServerPlayer player, long[] route, int index) {
+        com.tyler.forgeai.util.path.WalkabilityCache cache =
+            com.tyler.forgeai.util.path.WalkabilityCache.of((net.minecraft.server.level.ServerLevel) player.level());
+        int end = Math.min(route.length, index + NAVIGATE_LOOKAHEAD);
+        for (int i = index; i < end; i++) {
+            int nx = net.minecraft.core.BlockPos.getX(route[i]), ny = net.minecraft.core.BlockPos.getY(route[i]), nz = net.minecraft.core.BlockPos.getZ(route[i]);
+            if (!cache.isWalkable(nx, ny, nz) && !cache.isClimbable(nx, ny, nz)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Route around a blockage toward the current segment's end with the job's
+     * DStarLite: it is opened the first time, then only moved to the bot and
+     * replanned, so later blockages revisit just the changed nodes. Falls back
+     * to a fresh planner request when it finds no way.
+     */
+    private static void repairRoute(String owner, net.minecraft.server.level.ServerPlayer player,
+                                    net.minecraft.core.BlockPos goal, NavProgress nav) {
+        net.minecraft.server.level.ServerLevel level = (net.minecraft.server.level.ServerLevel) player.level();
+        long segmentEnd = nav.route[nav.route.length - 1];
+        long feet = player.blockPosition().below().asLong();
+        if (nav.repair != null && nav.repair.getGoal() != segmentEnd) nav.closeRepair();
+        if (nav.repair == null) {
+            nav.repair = new com.tyler.forgeai.util.path.DStarLite(com.tyler.forgeai.util.path.WalkabilityCache.of(level),
+                level, feet, segmentEnd, NAVIGATE_REPAIR_NODES);
+        } else {
+            nav.repair.moveStart(feet);
+        }
+        long[] repaired = nav.repair.replan() == com.tyler.forgeai.util.path.DStarLite.Status.FOUND ? nav.repair.path() : null;
+        nav.walk.reset();
+        if (repaired != null) {
+            LOGGER.debug("Route of {} blocked, repaired ({} nodes)", owner, repaired.length);
+            nav.route = repaired;
+            nav.index = 0;
+            return;
+        }
+        LOGGER.debug("Route of {} blocked with no way around, replanning", owner);
+        nav.closeRepair();
+        nav.route = null;
+        requestPath(owner, player, goal, nav);
+    }
+
+    /** Ask the planning service for a path; the result lands in nav on the server thread. */
+    private static void requestPath(String owner, net.minecraft.server.level.ServerPlayer player,
+                                    net.minecraft.core.BlockPos goal, NavProgress nav) {
+        com.tyler.forgeai.util.PathPlanningService service = com.tyler.forgeai.ForgeAI.getPathPlanningService();
+        if (service == null || nav.noPath) return;
+        service.request(owner, (net.minecraft.server.level.ServerLevel) player.level(), player.blockPosition().below(), goal)
+            .thenAccept(path -> {
+                if (path == null) {
+                    nav.noPath = true;
+                    LOGGER.debug("No path for {}, steering directly", owner);
+                    return;
+                }
+                nav.path = path;
+                nav.route = path.nodes.stream().mapToLong(net.minecraft.core.BlockPos::asLong).toArray();
+                nav.index = 0;
+                nav.walk.reset();
+                nav.closeRepair();
+            });
     }
 
     /**
      * Execute guard task: guard <location> [duration]
      * Examples: guard spawn, guard base 3600 (1 hour)
      */
-    public static void executeGuard(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeGuard(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String location = task.parameters.getOrDefault("location", "spawn");
         long duration = Long.parseLong(task.parameters.getOrDefault("duration", "0"));
         LOGGER.info("Executing guard task: at {}, duration {}s", location, duration);
-        try {
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Standing guard at " + location + "...");
-            long endTime = System.currentTimeMillis() + (duration * 1000);
-            while (System.currentTimeMillis() < endTime) {
+        long durationTicks = duration * 20;
+
+        return TaskRoutine.of("guard",
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Standing guard at " + location + "..."),
+            r -> {
+                if (r.getStepTicks() >= durationTicks) return;
                 var threats = player.level().getEntitiesOfClass(net.minecraft.world.entity.LivingEntity.class, player.getBoundingBox().inflate(16));
                 for (var threat : threats) if (threat != player && threat.isAttackable()) { LOGGER.info("Threat detected: {}", threat.getName().getString()); }
-                try { Thread.sleep(1000); } catch (InterruptedException e) { break; }
-            }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Guard duty complete.");
-        } catch (Exception e) { LOGGER.error("Guard task failed: {}", e.getMessage()); }
+                // Re-check once per second
+                r.repeat(20);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Guard duty complete.")
+        );
     }
 
     /**
      * Execute animal breeding task: breed <animal_type> [amount]
      * Examples: breed cow 10, breed sheep 5
      */
-    public static void executeBreed(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeBreed(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String animal = task.parameters.getOrDefault("animal", "cow");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing breed task: {} x{}", animal, amount);
-        try {
-            String food = switch (animal.toLowerCase()) { case "cow" -> "wheat"; case "sheep" -> "wheat"; case "chicken" -> "seeds"; default -> "wheat"; };
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, food);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Breeding " + amount + " " + animal + "...");
-            try { Thread.sleep(2000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Bred " + animal + "!");
-        } catch (Exception e) { LOGGER.error("Breed task failed: {}", e.getMessage()); }
+
+        return TaskRoutine.of("breed",
+            r -> {
+                String food = switch (animal.toLowerCase()) { case "cow" -> "wheat"; case "sheep" -> "wheat"; case "chicken" -> "seeds"; default -> "wheat"; };
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, food);
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Breeding " + amount + " " + animal + "...");
+                r.next(40);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Bred " + animal + "!")
+        );
     }
 
     /**
      * Execute cooking task: cook <food_type> [amount]
      * Examples: cook beef 32, cook salmon 64
      */
-    public static void executeCook(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeCook(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String food = task.parameters.getOrDefault("food", "beef");
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
         LOGGER.info("Executing cook task: {} x{}", food, amount);
-        try {
-            String rawFood = "raw_" + food.toLowerCase();
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, rawFood);
-            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "coal");
-            net.minecraft.core.BlockPos furnacePos = com.tyler.forgeai.util.BlockInteractionUtils.findNearestBlock(player, net.minecraft.world.level.block.FurnaceBlock.class, 16);
-            if (furnacePos != null) { com.tyler.forgeai.util.BlockInteractionUtils.openFurnace(player, furnacePos); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Cooking " + amount + " " + food + "...");
-            try { Thread.sleep(1000); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Cooking complete (collect your food).");
-        } catch (Exception e) { LOGGER.error("Cook task failed: {}", e.getMessage()); }
+
+        com.tyler.forgeai.util.BlockScanCursor scan = nearbyScan(player);
+        return TaskRoutine.of("cook",
+            r -> {
+                net.minecraft.core.BlockPos furnacePos = scan.next(player.level(),
+                    state -> state.getBlock() instanceof net.minecraft.world.level.block.FurnaceBlock, SCAN_BUDGET);
+                if (furnacePos == null && !scan.isExhausted()) {
+                    r.repeat(0);
+                    return;
+                }
+                String rawFood = "raw_" + food.toLowerCase();
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, rawFood);
+                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "coal");
+                if (furnacePos != null) { com.tyler.forgeai.util.BlockInteractionUtils.openFurnace(player, furnacePos); }
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Cooking " + amount + " " + food + "...");
+                r.next(20);
+            },
+            r -> com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, "Cooking complete (collect your food).")
+        );
     }
 
     // ---- NEW: Animal Farming, Villager Trading, Herding, Dimensional Travel ----
@@ -1140,234 +1353,528 @@ public class TaskManager {
      * Execute animal farming task: farm_animal <type> [breed|kill] [amount]
      * Examples: farm_animal sheep breed 10, farm_animal cow kill 5
      */
-    public static void executeFarmAnimal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeFarmAnimal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String animalType = task.parameters.getOrDefault("animal", "sheep");
         String action = task.parameters.getOrDefault("action", "breed");  // breed or kill
         int amount = Integer.parseInt(task.parameters.getOrDefault("amount", "1"));
-        
+
         LOGGER.info("Executing farm animal task: {} x{} ({})", animalType, amount, action);
-        
-        try {
-            if (action.equals("breed")) {
-                // Breed animals
-                int bred = com.tyler.forgeai.util.AnimalFarmingUtils.breedMultipleAnimals(
-                    player, animalType, amount);
-                LOGGER.info("Successfully bred {} {}", bred, animalType);
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "I've bred " + bred + " " + animalType + "!");
-            } else if (action.equals("kill")) {
-                // Kill animals
-                int killed = com.tyler.forgeai.util.AnimalFarmingUtils.killAnimalsOfType(
-                    player, animalType, amount);
-                LOGGER.info("Successfully killed {} {}", killed, animalType);
+
+        return TaskRoutine.of("farm_animal", r -> {
+            try {
+                if (action.equals("breed")) {
+                    // Breed animals
+                    int bred = com.tyler.forgeai.util.AnimalFarmingUtils.breedMultipleAnimals(
+                        player, animalType, amount);
+                    LOGGER.info("Successfully bred {} {}", bred, animalType);
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "I've bred " + bred + " " + animalType + "!");
+                } else if (action.equals("kill")) {
+                    // Kill animals
+                    int killed = com.tyler.forgeai.util.AnimalFarmingUtils.killAnimalsOfType(
+                        player, animalType, amount);
+                    LOGGER.info("Successfully killed {} {}", killed, animalType);
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "Harvested " + killed + " " + animalType + ".");
+                }
+            } catch (Exception e) {
+                LOGGER.error("Farm animal task failed: {}", e.getMessage());
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "Harvested " + killed + " " + animalType + ".");
+                    player, "Sorry, I couldn't complete the farming task.");
+                r.fail(e.getMessage());
             }
-        } catch (Exception e) {
-            LOGGER.error("Farm animal task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, I couldn't complete the farming task.");
-        }
+        });
     }
 
     /**
      * Execute villager trading task: trade_villager <profession> <item>
      * Examples: trade_villager librarian mending, trade_villager cleric healing
      */
-    public static void executeTradeVillager(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeTradeVillager(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String profession = task.parameters.getOrDefault("profession", "librarian");
         String tradeItem = task.parameters.getOrDefault("item", "mending");
-        
+
         LOGGER.info("Executing villager trade task: {} profession for {}", profession, tradeItem);
-        
-        try {
-            // Find villager with desired trade
-            com.tyler.forgeai.core.VillagerTradeManager.VillagerInfo villager = 
-                com.tyler.forgeai.core.VillagerTradeManager.findVillagerWithTrade(
-                    player, profession, tradeItem);
-            
-            if (villager == null) {
-                LOGGER.warn("No {} villager found with trade: {}", profession, tradeItem);
+
+        return TaskRoutine.of("trade_villager", r -> {
+            try {
+                // Find villager with desired trade
+                com.tyler.forgeai.core.VillagerTradeManager.VillagerInfo villager =
+                    com.tyler.forgeai.core.VillagerTradeManager.findVillagerWithTrade(
+                        player, profession, tradeItem);
+
+                if (villager == null) {
+                    LOGGER.warn("No {} villager found with trade: {}", profession, tradeItem);
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "I couldn't find a " + profession + " with that trade.");
+                    r.fail("no villager with trade");
+                    return;
+                }
+
+                // Move to villager
+                com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, villager.location);
+
+                // Gather materials if needed
+                if (!player.getInventory().contains(
+                    new net.minecraft.world.item.ItemStack(net.minecraft.world.item.Items.EMERALD))) {
+                    LOGGER.info("Gathering emeralds for trade");
+                    com.tyler.forgeai.core.VillagerTradeManager.gatherMaterialsForTrade(
+                        player, profession);
+                }
+
+                // Execute trade
+                com.tyler.forgeai.core.VillagerTradeManager.executeTradeWithVillager(
+                    player, villager, tradeItem);
+
+                LOGGER.info("Successfully traded with {} villager", profession);
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "I couldn't find a " + profession + " with that trade.");
-                return;
-            }
-            
-            // Move to villager
-            com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, villager.location);
-            
-            // Gather materials if needed
-            if (!player.getInventory().contains(
-                new net.minecraft.world.item.ItemStack(net.minecraft.world.item.Items.EMERALD))) {
-                LOGGER.info("Gathering emeralds for trade");
-                com.tyler.forgeai.core.VillagerTradeManager.gatherMaterialsForTrade(
-                    player, profession);
+                    player, "Got it! I've traded with the " + profession + ".");
+            } catch (Exception e) {
+                LOGGER.error("Villager trade task failed: {}", e.getMessage());
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Sorry, the trading attempt failed.");
+                r.fail(e.getMessage());
             }
-            
-            // Execute trade
-            com.tyler.forgeai.core.VillagerTradeManager.executeTradeWithVillager(
-                player, villager, tradeItem);
-            
-            LOGGER.info("Successfully traded with {} villager", profession);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Got it! I've traded with the " + profession + ".");
-        } catch (Exception e) {
-            LOGGER.error("Villager trade task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, the trading attempt failed.");
-        }
+        });
     }
 
     /**
      * Execute animal herding task: herd_animal <type> <destination>
      * Examples: herd_animal sheep 100_64_200, herd_animal horse base
      */
-    public static void executeHerdAnimal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeHerdAnimal(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String animalType = task.parameters.getOrDefault("animal", "sheep");
         String destination = task.parameters.getOrDefault("destination", "home");
-        
+
         LOGGER.info("Executing herd animal task: {} to {}", animalType, destination);
-        
-        try {
-            // Parse destination coordinates
-            net.minecraft.core.BlockPos targetPos;
-            if (destination.equals("home")) {
-                // Use player's spawn point or home location
-                targetPos = player.getRespawnPosition() != null ? 
-                    player.getRespawnPosition() : player.blockPosition();
-            } else {
-                // Parse format: "100_64_200"
-                String[] coords = destination.split("_");
-                int x = Integer.parseInt(coords[0]);
-                int y = Integer.parseInt(coords[1]);
-                int z = Integer.parseInt(coords[2]);
-                targetPos = new net.minecraft.core.BlockPos(x, y, z);
-            }
-            
-            // Create herd
-            com.tyler.forgeai.util.AnimalHerdingUtils.HerdInfo herd = 
-                com.tyler.forgeai.util.AnimalHerdingUtils.createHerd(
-                    player, animalType, targetPos);
-            
-            if (herd == null || herd.animals.isEmpty()) {
-                LOGGER.warn("No {} animals found to herd", animalType);
+
+        return TaskRoutine.of("herd_animal", r -> {
+            try {
+                // Parse destination coordinates
+                net.minecraft.core.BlockPos targetPos;
+                if (destination.equals("home")) {
+                    // Use player's spawn point or home location
+                    targetPos = player.getRespawnPosition() != null ?
+                        player.getRespawnPosition() : player.blockPosition();
+                } else {
+                    // Parse format: "100_64_200"
+                    String[] coords = destination.split("_");
+                    int x = Integer.parseInt(coords[0]);
+                    int y = Integer.parseInt(coords[1]);
+                    int z = Integer.parseInt(coords[2]);
+                    targetPos = new net.minecraft.core.BlockPos(x, y, z);
+                }
+
+                // Create herd
+                com.tyler.forgeai.util.AnimalHerdingUtils.HerdInfo herd =
+                    com.tyler.forgeai.util.AnimalHerdingUtils.createHerd(
+                        player, animalType, targetPos);
+
+                if (herd == null || herd.animals.isEmpty()) {
+                    LOGGER.warn("No {} animals found to herd", animalType);
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "I couldn't find any " + animalType + " nearby.");
+                    r.fail("no animals to herd");
+                    return;
+                }
+
+                // Lead herd to destination
+                long estimatedTime = com.tyler.forgeai.util.AnimalHerdingUtils.estimateTimeToTarget(herd);
+                LOGGER.info("Herding {} animals, estimated time: {}ms", herd.animals.size(), estimatedTime);
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "I couldn't find any " + animalType + " nearby.");
-                return;
+                    player, "Leading " + herd.animals.size() + " " + animalType + " to destination...");
+
+                com.tyler.forgeai.util.AnimalHerdingUtils.moveHerd(herd);
+
+                LOGGER.info("Successfully herded {} animals to {}", animalType, targetPos.toShortString());
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Done! I've brought the " + animalType + " to your destination.");
+            } catch (Exception e) {
+                LOGGER.error("Herd animal task failed: {}", e.getMessage());
+                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                    player, "Sorry, I couldn't complete the herding task.");
+                r.fail(e.getMessage());
             }
-            
-            // Lead herd to destination
-            long estimatedTime = com.tyler.forgeai.util.AnimalHerdingUtils.estimateTimeToTarget(herd);
-            LOGGER.info("Herding {} animals, estimated time: {}ms", herd.animals.size(), estimatedTime);
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Leading " + herd.animals.size() + " " + animalType + " to destination...");
-            
-            com.tyler.forgeai.util.AnimalHerdingUtils.moveHerd(herd);
-            
-            LOGGER.info("Successfully herded {} animals to {}", animalType, targetPos.toShortString());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Done! I've brought the " + animalType + " to your destination.");
-        } catch (Exception e) {
-            LOGGER.error("Herd animal task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, I couldn't complete the herding task.");
-        }
+        });
     }
 
     /**
      * Execute dimensional travel task: travel <dimension> <x> <y> <z>
      * Examples: travel nether 100 64 200, travel end 0 128 0, travel overworld -1000 65 -1000
      */
-    public static void executeDimensionalTravel(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeDimensionalTravel(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String dimension = task.parameters.getOrDefault("dimension", "overworld");
         int x = Integer.parseInt(task.parameters.getOrDefault("x", "0"));
         int y = Integer.parseInt(task.parameters.getOrDefault("y", "64"));
         int z = Integer.parseInt(task.parameters.getOrDefault("z", "0"));
-        
+
         LOGGER.info("Executing dimensional travel: {} to {}/{}/{}", dimension, x, y, z);
-        
-        try {
-            // Create travel route
-            net.minecraft.core.BlockPos destination = new net.minecraft.core.BlockPos(x, y, z);
-            
-            com.tyler.forgeai.core.DimensionalTravelManager.TravelRoute route = 
-                com.tyler.forgeai.core.DimensionalTravelManager.planDimensionalTravel(
-                    player, dimension, destination);
-            
-            if (route == null) {
-                LOGGER.warn("Unable to plan travel to {} dimension", dimension);
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "I can't figure out how to get to the " + dimension + ".");
-                return;
-            }
-            
-            // Report travel plan
-            LOGGER.info("Travel route planned: {} -> {}", 
-                route.startPos.toShortString(), route.endPos.toShortString());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Ready! I'll travel to the " + dimension + " at your command.");
-            
-            // Find nearest portal
-            net.minecraft.core.BlockPos nearestPortal = 
-                com.tyler.forgeai.core.DimensionalTravelManager.findNearestPortal(
-                    player, dimension);
-            
-            if (nearestPortal != null) {
-                LOGGER.info("Found portal at {}", nearestPortal.toShortString());
-                
-                // Navigate to and use portal
-                com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, nearestPortal);
-                com.tyler.forgeai.core.DimensionalTravelManager.usePortal(player, nearestPortal);
-                
+
+        return TaskRoutine.of("dimensional_travel", r -> {
+            try {
+                // Create travel route
+                net.minecraft.core.BlockPos destination = new net.minecraft.core.BlockPos(x, y, z);
+
+                com.tyler.forgeai.core.DimensionalTravelManager.TravelRoute route =
+                    com.tyler.forgeai.core.DimensionalTravelManager.planDimensionalTravel(
+                        player, dimension, destination);
+
+                if (route == null) {
+                    LOGGER.warn("Unable to plan travel to {} dimension", dimension);
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "I can't figure out how to get to the " + dimension + ".");
+                    r.fail("no travel route");
+                    return;
+                }
+
+                // Report travel plan
+                LOGGER.info("Travel route planned: {} -> {}",
+                    route.startPos.toShortString(), route.endPos.toShortString());
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "Portal located and used! Traveling now...");
-            } else {
-                LOGGER.warn("No portal found, will create one");
+                    player, "Ready! I'll travel to the " + dimension + " at your command.");
+
+                // Find nearest portal
+                net.minecraft.core.BlockPos nearestPortal =
+                    com.tyler.forgeai.core.DimensionalTravelManager.findNearestPortal(
+                        player, dimension);
+
+                if (nearestPortal != null) {
+                    LOGGER.info("Found portal at {}", nearestPortal.toShortString());
+
+                    // Navigate to and use portal
+                    com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, nearestPortal);
+                    com.tyler.forgeai.core.DimensionalTravelManager.usePortal(player, nearestPortal);
+
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "Portal located and used! Traveling now...");
+                } else {
+                    LOGGER.warn("No portal found, will create one");
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
+                        player, "No portal found. I'll create one.");
+                }
+
+                LOGGER.info("Dimensional travel to {} initiated", dimension);
+            } catch (Exception e) {
+                LOGGER.error("Dimensional travel task failed: {}", e.getMessage());
                 com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                    player, "No portal found. I'll create one.");
+                    player, "Sorry, I couldn't complete the dimensional travel.");
+                r.fail(e.getMessage());
             }
-            
-            LOGGER.info("Dimensional travel to {} initiated", dimension);
-        } catch (Exception e) {
-            LOGGER.error("Dimensional travel task failed: {}", e.getMessage());
-            com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(
-                player, "Sorry, I couldn't complete the dimensional travel.");
-        }
+        });
     }
 
     /**
      * Execute chat task: chat <message> [or] ask <question>
      * Examples: chat Hello there!, ask Do you have materials?
      */
-    public static void executeChat(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
+    public static TaskRoutine executeChat(MinecraftServer server, Task task, net.minecraft.server.level.ServerPlayer player) {
         String action = task.parameters.getOrDefault("action", "say");
         String message = task.parameters.getOrDefault("message", "Hello!");
-        
+
         LOGGER.info("Executing chat task: {} - {}", action, message);
-        
-        try {
-            if (action.equals("ask")) {
-                // Ask a question
-                com.tyler.forgeai.core.CompanionChatHandler.askQuestion(player, message);
-                LOGGER.info("Asked question: {}", message);
-            } else if (action.equals("status")) {
-                // Report current status
-                com.tyler.forgeai.core.CompanionChatHandler.reportStatus(player);
-                LOGGER.info("Reporting status");
-            } else if (action.equals("greet")) {
-                // Greet player
-                com.tyler.forgeai.core.CompanionChatHandler.greet(player);
-                LOGGER.info("Greeting player");
-            } else {
-                // Default: send custom message
-                com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, message);
-                LOGGER.info("Sent message: {}", message);
+
+        return TaskRoutine.of("chat", r -> {
+            try {
+                if (action.equals("ask")) {
+                    // Ask a question
+                    com.tyler.forgeai.core.CompanionChatHandler.askQuestion(player, message);
+                    LOGGER.info("Asked question: {}", message);
+                } else if (action.equals("status")) {
+                    // Report current status
+                    com.tyler.forgeai.core.CompanionChatHandler.reportStatus(player);
+                    LOGGER.info("Reporting status");
+                } else if (action.equals("greet")) {
+                    // Greet player
+                    com.tyler.forgeai.core.CompanionChatHandler.greet(player);
+                    LOGGER.info("Greeting player");
+                } else {
+                    // Default: send custom message
+                    com.tyler.forgeai.core.CompanionChatHandler.sendChatMessage(player, message);
+                    LOGGER.info("Sent message: {}", message);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Chat task failed: {}", e.getMessage());
+                // Fail gracefully
             }
-        } catch (Exception e) {
-            LOGGER.error("Chat task failed: {}", e.getMessage());
-            // Fail gracefully
+        });
+    }
+
+    // ---- Routine helpers ----
+
+    /** Standing nodes a harvest search expands per tick (each probes the blocks in reach). */
+    private static final int HARVEST_EXPANSIONS_PER_TICK = 64;
+    /** Standing nodes a harvest search may visit before giving up (~ the old 32-block scan box). */
+    private static final int HARVEST_MAX_NODES = 20_000;
+    /** Give up on one target after walking toward it this long (10 s). */
+    private static final int HARVEST_TARGET_TIMEOUT_TICKS = 200;
+    /** Squared block-interaction reach from the eyes. */
+    private static final double HARVEST_REACH_SQR = 4.5 * 4.5;
+
+    /**
+     * Nearest-first harvesting state: one MultiGoalSearch streams targets in walking
+     * order for the whole routine, so a vein is chained without re-searching.
+     */
+    private static final class HarvestProgress {
+        final com.tyler.forgeai.util.path.MultiGoalSearch search;
+        final java.util.function.Predicate<net.minecraft.world.level.block.state.BlockState> match;
+        com.tyler.forgeai.util.path.MultiGoalSearch.Goal goal;
+        int index = 0;
+        int ticks = 0;
+        final RouteWalk walk = new RouteWalk();
+
+        HarvestProgress(com.tyler.forgeai.util.path.MultiGoalSearch search,
+                        java.util.function.Predicate<net.minecraft.world.level.block.state.BlockState> match) {
+            this.search = search;
+            this.match = match;
+        }
+
+        boolean isDone() {
+            return goal == null && search.isExhausted();
+        }
+    }
+
+    private static HarvestProgress harvest(net.minecraft.server.level.ServerPlayer player,
+                                           java.util.function.Predicate<net.minecraft.world.level.block.state.BlockState> match) {
+        net.minecraft.server.level.ServerLevel level = (net.minecraft.server.level.ServerLevel) player.level();
+        net.minecraft.core.BlockPos.MutableBlockPos probe = new net.minecraft.core.BlockPos.MutableBlockPos();
+        com.tyler.forgeai.util.path.MultiGoalSearch search = com.tyler.forgeai.util.path.MultiGoalSearch.forMatching(
+            com.tyler.forgeai.util.path.WalkabilityCache.of(level), player.blockPosition().below().asLong(),
+            (bx, by, bz) -> {
+                probe.set(bx, by, bz);
+                // Never load chunks for a probe
+                if (!level.isLoaded(probe)) return false;
+                try {
+                    return match.test(level.getBlockState(probe));
+                } catch (Exception e) {
+                    return false;
+                }
+            },
+            com.tyler.forgeai.util.path.MultiGoalSearch.DEFAULT_REACH, HARVEST_MAX_NODES);
+        return new HarvestProgress(search, match);
+    }
+
+    /**
+     * One tick of a harvest routine: take the next-nearest target, walk along its
+     * path, and return it once it is within reach. Null while searching or walking
+     * (call again next tick) and when nothing reachable is left (isDone()).
+     */
+    private static net.minecraft.core.BlockPos stepHarvest(net.minecraft.server.level.ServerPlayer player, HarvestProgress h) {
+        if (h.goal == null) {
+            h.goal = h.search.next(HARVEST_EXPANSIONS_PER_TICK);
+            if (h.goal == null) return null;
+            // Paths start at the search origin; pick up from the node nearest to the bot
+            h.index = nearestNode(player, h.goal.path(), 0, h.goal.path().length - 1);
+            h.ticks = 0;
+            h.walk.reset();
         }
+
+        net.minecraft.core.BlockPos target = h.goal.targetPos();
+        if (++h.ticks > HARVEST_TARGET_TIMEOUT_TICKS || !h.match.test(player.level().getBlockState(target))) {
+            // Stuck, or someone else already took it
+            h.goal = null;
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+            return null;
+        }
+
+        long[] path = h.goal.path();
+        boolean inReach = player.getEyePosition().distanceToSqr(net.minecraft.world.phys.Vec3.atCenterOf(target)) <= HARVEST_REACH_SQR;
+        if (!inReach && h.index >= path.length) {
+            // Walked the whole path and still out of reach (knocked off it, or the stand changed): skip it
+            h.goal = null;
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+            return null;
+        }
+        if (inReach) {
+            h.goal = null;
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+            // Hold the cell we work from so other bots route around us
+            net.minecraft.core.BlockPos feet = player.blockPosition().below();
+            com.tyler.forgeai.util.PathFinder.planWindow((net.minecraft.server.level.ServerLevel) player.level(),
+                player.getName().getString(), feet, feet.asLong(),
+                com.tyler.forgeai.util.path.ReservationTable.stepAt(player.level().getGameTime()));
+            return target;
+        }
+
+        h.index = walkRoute(player, player.getName().getString(), path, h.index, h.walk);
+        return null;
+    }
+
+    /** Re-aim at the current leg's end this often while walking it (drift correction). */
+    private static final int LEG_REAIM_TICKS = 10;
+
+    /** Route-walking state: smoothed legs when alone, reserved windows when sharing the area. */
+    private static final class RouteWalk {
+        boolean cooperative = false;
+        // Cooperative mode: the reserved window of cells being walked
+        long[] window;
+        long windowStep;
+        int target;
+        // Alone: straight legs, with the step our presence was last announced at
+        com.tyler.forgeai.util.path.PathSmoother.Leg[] legs;
+        int leg = 0;
+        long aimed = Long.MIN_VALUE;
+        int sinceAim = 0;
+        long presenceStep = Long.MIN_VALUE;
+
+        void reset() {
+            window = null;
+            legs = null;
+            leg = 0;
+            aimed = Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Walk one tick along route (packed standing nodes) from index. With no other
+     * bot reserving cells nearby the route is smoothed into straight legs and only
+     * the cell underfoot is reserved; otherwise it is walked cooperatively
+     * (followRoute). Returns the new index, route.length once the end is reached.
+     */
+    private static int walkRoute(net.minecraft.server.level.ServerPlayer player, String owner,
+                                 long[] route, int index, RouteWalk w) {
+        net.minecraft.server.level.ServerLevel level = (net.minecraft.server.level.ServerLevel) player.level();
+        com.tyler.forgeai.util.path.ReservationTable table = com.tyler.forgeai.util.path.ReservationTable.of(level);
+        int id = com.tyler.forgeai.util.path.ReservationTable.ownerId(owner);
+        long step = com.tyler.forgeai.util.path.ReservationTable.stepAt(level.getGameTime());
+        net.minecraft.core.BlockPos feet = player.blockPosition().below();
+
+        boolean shared = table.othersNear(id, feet.getX(), feet.getZ(), step);
+        if (shared != w.cooperative) {
+            w.cooperative = shared;
+            w.window = null;
+            w.aimed = Long.MIN_VALUE;
+        }
+        if (shared) return followRoute(player, owner, route, index, w);
+
+        if (step != w.presenceStep) {
+            // Let bots that come near see us
+            table.reserve(id, new long[] { feet.asLong() }, step);
+            w.presenceStep = step;
+        }
+        return followLegs(player, route, index, w);
+    }
+
+    /**
+     * Walk the smoothed legs of route: look/move commands go out only when a leg
+     * starts (plus a periodic re-aim), sprinting and jumping on SPRINT_JUMP legs.
+     */
+    private static int followLegs(net.minecraft.server.level.ServerPlayer player, long[] route, int index, RouteWalk w) {
+        if (w.legs == null) {
+            w.legs = com.tyler.forgeai.util.path.PathSmoother.smooth(
+                com.tyler.forgeai.util.path.WalkabilityCache.of((net.minecraft.server.level.ServerLevel) player.level()), route);
+            w.leg = 0;
+        }
+        // Skip legs already behind us (e.g. walked cooperatively)
+        while (w.leg < w.legs.length && w.legs[w.leg].end < index) w.leg++;
+        if (w.leg >= w.legs.length) return route.length;
+
+        com.tyler.forgeai.util.path.PathSmoother.Leg leg = w.legs[w.leg];
+        int tx = net.minecraft.core.BlockPos.getX(leg.to), ty = net.minecraft.core.BlockPos.getY(leg.to), tz = net.minecraft.core.BlockPos.getZ(leg.to);
+        double dx = tx + 0.5 - player.getX(), dz = tz + 0.5 - player.getZ();
+        if (dx * dx + dz * dz < 0.36 && Math.abs(player.getY() - (ty + 1)) < 1.5) {
+            w.leg++;
+            w.aimed = Long.MIN_VALUE;
+            if (w.leg >= w.legs.length) {
+                com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+                com.tyler.forgeai.util.PlayerActionUtils.setSprinting(player, false);
+                return route.length;
+            }
+            return leg.end + 1;
+        }
+
+        boolean newLeg = w.aimed != leg.to;
+        if (newLeg || ++w.sinceAim >= LEG_REAIM_TICKS) {
+            // Nodes are the blocks to stand on: aim at the top centre
+            com.tyler.forgeai.util.PlayerActionUtils.lookAt(player, tx + 0.5, ty + 1, tz + 0.5);
+            if (newLeg) {
+                com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.6f);
+                com.tyler.forgeai.util.PlayerActionUtils.setSprinting(player,
+                    leg.kind == com.tyler.forgeai.util.path.PathSmoother.Kind.SPRINT_JUMP);
+            }
+            w.aimed = leg.to;
+            w.sinceAim = 0;
+        }
+        if (leg.kind == com.tyler.forgeai.util.path.PathSmoother.Kind.SPRINT_JUMP && player.onGround()) {
+            // Take off at the edge: no floor just ahead
+            double norm = Math.sqrt(dx * dx + dz * dz);
+            int ax = net.minecraft.util.Mth.floor(player.getX() + dx / norm * 0.8);
+            int az = net.minecraft.util.Mth.floor(player.getZ() + dz / norm * 0.8);
+            if (!com.tyler.forgeai.util.path.WalkabilityCache.of((net.minecraft.server.level.ServerLevel) player.level())
+                    .isWalkable(ax, player.blockPosition().getY() - 1, az)) {
+                com.tyler.forgeai.util.PlayerActionUtils.jump(player);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Walk one tick along route (packed standing nodes) from index. Every half
+     * window the next COOPERATIVE_WINDOW steps are re-planned around the cells
+     * other bots reserved (waiting or side-stepping when needed) and reserved in
+     * turn. Returns the new index, route.length once the last node is reached.
+     */
+    private static int followRoute(net.minecraft.server.level.ServerPlayer player, String owner,
+                                   long[] route, int index, RouteWalk c) {
+        int window = com.tyler.forgeai.util.PathFinder.COOPERATIVE_WINDOW;
+        long step = com.tyler.forgeai.util.path.ReservationTable.stepAt(player.level().getGameTime());
+        if (c.window == null || step - c.windowStep >= Math.min(window / 2, c.window.length)) {
+            index = nearestNode(player, route, index, Math.min(route.length - 1, index + window));
+            c.target = Math.min(index + window, route.length - 1);
+            c.window = com.tyler.forgeai.util.PathFinder.planWindow((net.minecraft.server.level.ServerLevel) player.level(),
+                owner, player.blockPosition().below(), route[c.target], step);
+            c.windowStep = step;
+        }
+
+        long cell = c.window[(int) Math.min(step - c.windowStep, c.window.length - 1)];
+        int cx = net.minecraft.core.BlockPos.getX(cell), cy = net.minecraft.core.BlockPos.getY(cell), cz = net.minecraft.core.BlockPos.getZ(cell);
+        double dx = cx + 0.5 - player.getX(), dz = cz + 0.5 - player.getZ();
+        if (dx * dx + dz * dz < 0.36) {
+            // On this step's cell: wait for the next step (or stop at the end)
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+            if (c.target == route.length - 1 && cell == route[c.target]) return route.length;
+        } else {
+            // Nodes are the blocks to stand on: aim at the top centre
+            com.tyler.forgeai.util.PlayerActionUtils.lookAt(player, cx + 0.5, cy + 1, cz + 0.5);
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.6f);
+        }
+        return index;
+    }
+
+    private static void releaseReservations(net.minecraft.server.level.ServerPlayer player) {
+        com.tyler.forgeai.util.path.ReservationTable.of(player.level())
+            .release(com.tyler.forgeai.util.path.ReservationTable.ownerId(player.getName().getString()));
+    }
+
+    /** Index in [from, to] of the route node closest to the bot's feet. */
+    private static int nearestNode(net.minecraft.server.level.ServerPlayer player, long[] path, int from, int to) {
+        net.minecraft.core.BlockPos feet = player.blockPosition().below();
+        int best = from;
+        long bestDist = Long.MAX_VALUE;
+        for (int i = from; i <= to; i++) {
+            long dx = net.minecraft.core.BlockPos.getX(path[i]) - feet.getX();
+            long dy = net.minecraft.core.BlockPos.getY(path[i]) - feet.getY();
+            long dz = net.minecraft.core.BlockPos.getZ(path[i]) - feet.getZ();
+            long dist = dx * dx + dy * dy + dz * dz;
+            // Later nodes win ties so the bot never walks back along the path
+            if (dist <= bestDist) {
+                bestDist = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Cursor over the small box (16 out, 2 up and down) a routine looks for its
+     * workstation in; scanned SCAN_BUDGET blocks per tick like the larger searches.
+     */
+    private static com.tyler.forgeai.util.BlockScanCursor nearbyScan(net.minecraft.server.level.ServerPlayer player) {
+        return com.tyler.forgeai.util.BlockScanCursor.around(player.blockPosition(), 16, -2, 2);
+    }
+
+    private static int secondsToTicks(int seconds) {
+        return seconds * 20;
     }
 
     // TaskExecutor interface is declared earlier in the file; duplicate removed.
-}
\ No newline at end of file
+}
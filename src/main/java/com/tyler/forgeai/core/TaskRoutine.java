@@ -0,0 +1,168 @@
+package com.tyler.forgeai.core;
+
+import net.minecraft.server.MinecraftServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * TaskRoutine: resumable, tick-driven state machine behind a task.
+ * - Each call to tick() runs at most one bounded step on the server thread
+ * - Steps yield by waiting a number of game ticks, never by sleeping the thread
+ * - A step can advance, repeat itself (loops), complete early or fail
+ * - Paused tasks simply stop being ticked and resume where they left off
+ * - onFinish() cleanup runs once however the routine ends (done, failed, cancelled)
+ */
+public class TaskRoutine {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-tasks");
+
+    public enum State { RUNNING, WAITING, COMPLETED, FAILED }
+
+    /**
+     * One phase of a routine. Call one of next/repeat/done/fail on the routine
+     * to choose what happens after this step; doing nothing advances to the
+     * next step on the following tick.
+     */
+    @FunctionalInterface
+    public interface Step {
+        void run(TaskRoutine routine) throws Exception;
+    }
+
+    private final String name;
+    private final List<Step> steps;
+    private State state = State.RUNNING;
+    private int stepIndex = 0;
+    private int waitTicks = 0;
+    private long elapsedTicks = 0;
+    private long stepTicks = 0;
+    private int progress = 0;
+    private String failureReason;
+    private Runnable onFinish;
+
+    // Transition chosen by the step currently running
+    private boolean advance;
+
+    public TaskRoutine(String name, List<Step> steps) {
+        this.name = name;
+        this.steps = List.copyOf(steps);
+        if (this.steps.isEmpty()) state = State.COMPLETED;
+    }
+
+    public static TaskRoutine of(String name, Step... steps) {
+        return new TaskRoutine(name, List.of(steps));
+    }
+
+    /** Run cleanup once when the routine completes, fails or is cancelled. */
+    public TaskRoutine onFinish(Runnable cleanup) {
+        this.onFinish = cleanup;
+        return this;
+    }
+
+    /** A routine that has already finished (used for tasks that complete instantly). */
+    public static TaskRoutine completed(String name) {
+        return new TaskRoutine(name, List.of());
+    }
+
+    /**
+     * Advance the routine by at most one step. Returns the resulting state.
+     */
+    public State tick(MinecraftServer server) {
+        if (isFinished()) return state;
+        elapsedTicks++;
+        stepTicks++;
+
+        if (waitTicks > 0) {
+            waitTicks--;
+            state = State.WAITING;
+            return state;
+        }
+
+        state = State.RUNNING;
+        advance = true;
+        try {
+            steps.get(stepIndex).run(this);
+        } catch (Exception e) {
+            LOGGER.error("Task routine {} failed at step {}: {}", name, stepIndex, e.getMessage());
+            fail(e.getMessage());
+        }
+        if (isFinished()) return state;
+
+        if (advance) {
+            stepIndex++;
+            stepTicks = 0;
+            if (stepIndex >= steps.size()) {
+                done();
+                return state;
+            }
+        }
+        if (waitTicks > 0) state = State.WAITING;
+        return state;
+    }
+
+    // ---- Transitions (called from inside a step) ----------------------------
+
+    /** Move to the next step after waiting the given number of game ticks. */
+    public void next(int ticks) {
+        advance = true;
+        waitTicks = Math.max(0, ticks);
+    }
+
+    /** Run the current step again after waiting the given number of game ticks. */
+    public void repeat(int ticks) {
+        advance = false;
+        waitTicks = Math.max(0, ticks);
+    }
+
+    /** Finish the routine successfully, skipping any remaining steps. */
+    public void done() {
+        state = State.COMPLETED;
+        finished();
+    }
+
+    /** Finish the routine unsuccessfully. */
+    public void fail(String reason) {
+        state = State.FAILED;
+        failureReason = reason;
+        finished();
+    }
+
+    /** Stop the routine from outside (task cancelled). */
+    public void cancel(String reason) {
+        if (isFinished()) return;
+        fail(reason);
+    }
+
+    private void finished() {
+        Runnable cleanup = onFinish;
+        if (cleanup == null) return;
+        onFinish = null;
+        try {
+            cleanup.run();
+        } catch (Exception e) {
+            LOGGER.debug("Cleanup of task routine {} failed: {}", name, e.getMessage());
+        }
+    }
+
+    // ---- Progress bookkeeping ------------------------------------------------
+
+    public int getProgress() { return progress; }
+    public void addProgress(int amount) { progress += amount; }
+
+    /** Ticks this routine has been ticked in total (waiting included). */
+    public long getElapsedTicks() { return elapsedTicks; }
+
+    /** Ticks spent in the current step (reset when the routine advances). */
+    public long getStepTicks() { return stepTicks; }
+
+    public boolean isFinished() { return state == State.COMPLETED || state == State.FAILED; }
+    public State getState() { return state; }
+    public String getFailureReason() { return failureReason; }
+    public String getName() { return name; }
+
+    @Override
+    public String toString() {
+        return String.format("Routine{%s, step=%d/%d, state=%s, progress=%d}",
+            name, stepIndex, steps.size(), state, progress);
+    }
+}
@@ -0,0 +1,292 @@
+package com.tyler.forgeai.core;
+
+import net.minecraft.server.MinecraftServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * TickScheduler: runs all ForgeAI per-tick work inside a fixed millisecond budget.
+ * - Work is split into lanes (decision, tasks, scans, pathing) that share the budget by weight
+ * - Within a lane, jobs from every bot are served round-robin from a cursor kept across ticks
+ * - Work that does not fit is carried over to the next tick (counted as deferred)
+ * - A starvation guard runs any recurring job that has waited maxDeferTicks, budget or not
+ * - One-shot jobs can expire or be coalesced by key (counted as skipped)
+ */
+public class TickScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-scheduler");
+
+    public enum Lane {
+        DECISION(40), TASKS(25), SCANS(20), PATHING(15);
+
+        /** Relative share of the tick budget. */
+        public final int weight;
+
+        Lane(int weight) { this.weight = weight; }
+    }
+
+    @FunctionalInterface
+    public interface Job {
+        void run(MinecraftServer server) throws Exception;
+    }
+
+    private static final class Entry {
+        final String owner;
+        final String key;
+        final Lane lane;
+        Job job;
+        final boolean recurring;
+        final long submittedTick;
+        final int maxAgeTicks;
+        long lastRunTick;
+
+        Entry(String owner, String key, Lane lane, Job job, boolean recurring, long tick, int maxAgeTicks) {
+            this.owner = owner;
+            this.key = key;
+            this.lane = lane;
+            this.job = job;
+            this.recurring = recurring;
+            this.submittedTick = tick;
+            this.maxAgeTicks = maxAgeTicks;
+            this.lastRunTick = tick;
+        }
+    }
+
+    /** Counters since startup (or the last resetStats). */
+    public static class Stats {
+        public long ticks;
+        public long jobsRun;
+        public long deferred;
+        public long skippedStale;
+        public long skippedCoalesced;
+        public long starvationRuns;
+        public long overruns;
+        public long errors;
+        public long lastTickNanos;
+        public long maxTickNanos;
+        public int recurringJobs;
+        public int pendingJobs;
+
+        @Override
+        public String toString() {
+            return String.format("Scheduler{ticks=%d, run=%d, deferred=%d, stale=%d, coalesced=%d, starved=%d, overruns=%d, errors=%d, last=%.2fms, max=%.2fms, recurring=%d, pending=%d}",
+                ticks, jobsRun, deferred, skippedStale, skippedCoalesced, starvationRuns, overruns, errors,
+                lastTickNanos / 1_000_000.0, maxTickNanos / 1_000_000.0, recurringJobs, pendingJobs);
+        }
+    }
+
+    private final EnumMap<Lane, List<Entry>> recurring = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, ArrayDeque<Entry>> pending = new EnumMap<>(Lane.class);
+    private final EnumMap<Lane, Integer> cursors = new EnumMap<>(Lane.class);
+    private final Stats stats = new Stats();
+    private boolean[] ran = new boolean[16];  // runRecurring scratch, reused across lanes and ticks
+    private boolean runningRecurring = false;
+    private final List<Runnable> deferredChanges = new ArrayList<>();  // register/unregister from inside a recurring job
+
+    private long budgetNanos;
+    private int maxDeferTicks;
+    private long tickCount = 0;
+
+    public TickScheduler(int budgetMs, int maxDeferTicks) {
+        for (Lane lane : Lane.values()) {
+            recurring.put(lane, new ArrayList<>());
+            pending.put(lane, new ArrayDeque<>());
+            cursors.put(lane, 0);
+        }
+        setBudgetMs(budgetMs);
+        this.maxDeferTicks = Math.max(1, maxDeferTicks);
+    }
+
+    public void setBudgetMs(int budgetMs) {
+        this.budgetNanos = Math.max(1, budgetMs) * 1_000_000L;
+    }
+
+    public void setMaxDeferTicks(int ticks) {
+        this.maxDeferTicks = Math.max(1, ticks);
+    }
+
+    // ---- Registration ----------------------------------------------------------
+
+    /** Register a job that runs every tick (when budget allows) until unregistered. */
+    public void register(String owner, String key, Lane lane, Job job) {
+        if (runningRecurring) {
+            deferredChanges.add(() -> register(owner, key, lane, job));
+            return;
+        }
+        removeRecurring(lane, e -> e.owner.equals(owner) && e.key.equals(key));
+        recurring.get(lane).add(new Entry(owner, key, lane, job, true, tickCount, 0));
+    }
+
+    /**
+     * Submit a one-shot job. A pending job with the same owner and key is
+     * replaced (coalesced); jobs older than maxAgeTicks are dropped (0 = never).
+     */
+    public void submit(String owner, String key, Lane lane, int maxAgeTicks, Job job) {
+        for (Entry e : pending.get(lane)) {
+            if (e.owner.equals(owner) && e.key.equals(key)) {
+                e.job = job;
+                stats.skippedCoalesced++;
+                return;
+            }
+        }
+        pending.get(lane).add(new Entry(owner, key, lane, job, false, tickCount, maxAgeTicks));
+    }
+
+    /** Drop every job owned by a bot (e.g. when it despawns). */
+    public void unregister(String owner) {
+        if (runningRecurring) {
+            deferredChanges.add(() -> unregister(owner));
+            return;
+        }
+        for (Lane lane : Lane.values()) {
+            removeRecurring(lane, e -> e.owner.equals(owner));
+            pending.get(lane).removeIf(e -> e.owner.equals(owner));
+        }
+    }
+
+    /** Remove a lane's matching recurring jobs, keeping its cursor on the same next job. */
+    private void removeRecurring(Lane lane, java.util.function.Predicate<Entry> match) {
+        List<Entry> entries = recurring.get(lane);
+        int cursor = entries.isEmpty() ? 0 : cursors.get(lane) % entries.size();
+        int before = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            if (i < cursor && match.test(entries.get(i))) before++;
+        }
+        if (entries.removeIf(match)) cursors.put(lane, entries.isEmpty() ? 0 : (cursor - before) % entries.size());
+    }
+
+    // ---- Tick ------------------------------------------------------------------
+
+    public void tick(MinecraftServer server) {
+        tickCount++;
+        long start = System.nanoTime();
+        long deadline = start + budgetNanos;
+
+        int weightLeft = 0;
+        for (Lane lane : Lane.values()) weightLeft += lane.weight;
+
+        for (Lane lane : Lane.values()) {
+            // Unused time from earlier lanes flows to later ones
+            long now = System.nanoTime();
+            long laneDeadline = now + Math.max(0, (deadline - now) * lane.weight / weightLeft);
+            weightLeft -= lane.weight;
+
+            runRecurring(server, lane, laneDeadline);
+            runPending(server, lane, laneDeadline);
+        }
+
+        long elapsed = System.nanoTime() - start;
+        stats.ticks++;
+        stats.lastTickNanos = elapsed;
+        stats.maxTickNanos = Math.max(stats.maxTickNanos, elapsed);
+        if (elapsed > budgetNanos) {
+            stats.overruns++;
+            LOGGER.debug("Tick {} overran budget: {}ms", tickCount, elapsed / 1_000_000.0);
+        }
+    }
+
+    /**
+     * Run a lane's recurring jobs. Jobs that register or unregister (their own lane
+     * or another) are applied once the lane is done, so the list and cursor stay fixed.
+     */
+    private void runRecurring(MinecraftServer server, Lane lane, long laneDeadline) {
+        if (recurring.get(lane).isEmpty()) return;
+        runningRecurring = true;
+        try {
+            runRecurringEntries(server, lane, laneDeadline);
+        } finally {
+            runningRecurring = false;
+            for (int i = 0; i < deferredChanges.size(); i++) deferredChanges.get(i).run();
+            deferredChanges.clear();
+        }
+    }
+
+    private void runRecurringEntries(MinecraftServer server, Lane lane, long laneDeadline) {
+        List<Entry> entries = recurring.get(lane);
+        int n = entries.size();
+
+        // Starvation guard first: anything waiting too long runs regardless of budget
+        if (ran.length < n) ran = new boolean[Math.max(n, ran.length * 2)];
+        boolean[] ran = this.ran;
+        Arrays.fill(ran, 0, n, false);
+        for (int i = 0; i < n; i++) {
+            Entry e = entries.get(i);
+            if (tickCount - e.lastRunTick >= maxDeferTicks) {
+                run(server, e);
+                ran[i] = true;
+                stats.starvationRuns++;
+            }
+        }
+
+        int cursor = cursors.get(lane) % n;
+        int visited = 0;
+        while (visited < n && System.nanoTime() < laneDeadline) {
+            int i = (cursor + visited) % n;
+            if (!ran[i]) {
+                run(server, entries.get(i));
+                ran[i] = true;
+            }
+            visited++;
+        }
+        // Whatever was not reached goes first next tick
+        cursors.put(lane, (cursor + visited) % n);
+        for (int i = 0; i < n; i++) if (!ran[i]) stats.deferred++;
+    }
+
+    private void runPending(MinecraftServer server, Lane lane, long laneDeadline) {
+        ArrayDeque<Entry> queue = pending.get(lane);
+        while (!queue.isEmpty() && System.nanoTime() < laneDeadline) {
+            Entry e = queue.poll();
+            if (e.maxAgeTicks > 0 && tickCount - e.submittedTick > e.maxAgeTicks) {
+                stats.skippedStale++;
+                continue;
+            }
+            run(server, e);
+        }
+        stats.deferred += queue.size();
+    }
+
+    private void run(MinecraftServer server, Entry e) {
+        try {
+            e.job.run(server);
+        } catch (Exception ex) {
+            stats.errors++;
+            LOGGER.error("Scheduled job {}/{} failed: ", e.owner, e.key, ex);
+        }
+        e.lastRunTick = tickCount;
+        stats.jobsRun++;
+    }
+
+    // ---- Stats -----------------------------------------------------------------
+
+    /** Copy of the current counters. */
+    public Stats getStats() {
+        Stats s = new Stats();
+        s.ticks = stats.ticks;
+        s.jobsRun = stats.jobsRun;
+        s.deferred = stats.deferred;
+        s.skippedStale = stats.skippedStale;
+        s.skippedCoalesced = stats.skippedCoalesced;
+        s.starvationRuns = stats.starvationRuns;
+        s.overruns = stats.overruns;
+        s.errors = stats.errors;
+        s.lastTickNanos = stats.lastTickNanos;
+        s.maxTickNanos = stats.maxTickNanos;
+        for (Lane lane : Lane.values()) {
+            s.recurringJobs += recurring.get(lane).size();
+            s.pendingJobs += pending.get(lane).size();
+        }
+        return s;
+    }
+
+    public void resetStats() {
+        long ticks = stats.ticks;
+        stats.jobsRun = stats.deferred = stats.skippedStale = stats.skippedCoalesced = 0;
+        stats.starvationRuns = stats.overruns = stats.errors = 0;
+        stats.lastTickNanos = stats.maxTickNanos = 0;
+        stats.ticks = ticks;
+    }
+
+    public long getTickCount() { return tickCount; }
+}
@@ -0,0 +1,121 @@
+package com.tyler.forgeai.core;
+
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * WorldChangeTracker: cheap change counters that cached signals depend on.
+ * - Block changes bump a per-chunk version (fed by LevelSetBlockMixin)
+ * - Entity load/unload bumps a per-level entity epoch
+ * - Damage events bump a per-level damage epoch
+ * A consumer remembers the versions it computed against and recomputes only
+ * when one of them moved. Caches that need the exact position (e.g. the
+ * pathfinding walkability cache) register a Listener instead.
+ * All updates happen on the server thread.
+ */
+public class WorldChangeTracker {
+    private static final Map<Level, LevelVersions> levels = new WeakHashMap<>();
+
+    // Monotonic across all levels so a version never repeats after a chunk reloads
+    private static long clock = 0;
+
+    /** Notified on the server thread for every block change and chunk unload. */
+    public interface Listener {
+        void onBlockChanged(Level level, BlockPos pos);
+
+        default void onChunkUnloaded(Level level, int chunkX, int chunkZ) {}
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private static final class LevelVersions {
+        // Primitive map (fastutil ships with Minecraft) so lookups do not box
+        final Long2LongOpenHashMap chunkVersions = new Long2LongOpenHashMap();
+        long entityEpoch = 0;
+        long damageEpoch = 0;
+    }
+
+    private static LevelVersions of(Level level) {
+        return levels.computeIfAbsent(level, l -> new LevelVersions());
+    }
+
+    // ---- Event inputs ---------------------------------------------------------
+
+    public static void onBlockChanged(Level level, BlockPos pos) {
+        if (level == null || level.isClientSide()) return;
+        of(level).chunkVersions.put(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), ++clock);
+        for (Listener listener : listeners) listener.onBlockChanged(level, pos);
+    }
+
+    public static void onEntityLoadChanged(Level level) {
+        if (level == null) return;
+        of(level).entityEpoch = ++clock;
+    }
+
+    public static void onDamage(Level level) {
+        if (level == null) return;
+        of(level).damageEpoch = ++clock;
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    public static long getChunkVersion(Level level, int chunkX, int chunkZ) {
+        LevelVersions v = levels.get(level);
+        if (v == null) return 0;
+        return v.chunkVersions.get(ChunkPos.asLong(chunkX, chunkZ));
+    }
+
+    /**
+     * Combined version of every chunk touched by a block box (block x/z bounds).
+     * Changes whenever any block in one of those chunks changed since the last call.
+     */
+    public static long getAreaVersion(Level level, int minX, int minZ, int maxX, int maxZ) {
+        LevelVersions v = levels.get(level);
+        if (v == null || v.chunkVersions.isEmpty()) return 0;
+        long combined = 0;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                // Versions are unique clock values, so the max identifies the latest change
+                long version = v.chunkVersions.get(ChunkPos.asLong(cx, cz));
+                if (version > combined) combined = version;
+            }
+        }
+        return combined;
+    }
+
+    public static long getEntityEpoch(Level level) {
+        LevelVersions v = levels.get(level);
+        return v != null ? v.entityEpoch : 0;
+    }
+
+    public static long getDamageEpoch(Level level) {
+        LevelVersions v = levels.get(level);
+        return v != null ? v.damageEpoch : 0;
+    }
+
+    /**
+     * Give an unloading chunk a fresh version rather than forgetting it: a removed
+     * entry would read as 0 (or an area's older max) again, and a cache stored at
+     * the newer version would get a false hit. Costs one map entry per chunk seen.
+     */
+    public static void onChunkUnloaded(Level level, int chunkX, int chunkZ) {
+        if (level == null || level.isClientSide()) return;
+        of(level).chunkVersions.put(ChunkPos.asLong(chunkX, chunkZ), ++clock);
+        for (Listener listener : listeners) listener.onChunkUnloaded(level, chunkX, chunkZ);
+    }
+
+    public static void addListener(Listener listener) {
+        if (!listeners.contains(listener)) listeners.add(listener);
+    }
+
+    public static void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+}
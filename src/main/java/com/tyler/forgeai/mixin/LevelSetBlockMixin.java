@@ -0,0 +1,21 @@
+package com.tyler.forgeai.mixin;
+
+import com.tyler.forgeai.core.WorldChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(Level.class)
+public class LevelSetBlockMixin {
+	@Inject(at = @At("RETURN"), method = "setBlock(Lnet/minecraft/core/BlockPos;Lnet/minecraft/world/level/block/state/BlockState;II)Z")
+	private void forgeai$onSetBlock(BlockPos pos, BlockState state, int flags, int maxUpdateDepth, CallbackInfoReturnable<Boolean> cir) {
+		// Bump the chunk's version so cached block-derived signals recompute
+		if (cir.getReturnValueZ()) {
+			WorldChangeTracker.onBlockChanged((Level) (Object) this, pos);
+		}
+	}
+}
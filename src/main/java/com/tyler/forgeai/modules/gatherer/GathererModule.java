@@ -11,6 +11,20 @@ public class GathererModule {
     private boolean active = false;
     private boolean collectAllMode = false;
 
+    // Collect-all mode: nearest-first search, kept across ticks
+    private static final int SEARCH_EXPANSIONS_PER_TICK = 64;
+    private static final int SEARCH_MAX_NODES = 4096;       // ~ the old 16-block box
+    private static final int SEARCH_RESTART_DISTANCE = 8;
+    private static final int MINE_TARGET_TIMEOUT_TICKS = 200;   // give up walking to one block (10 s)
+    private static final double MINE_REACH_SQR = 4.5 * 4.5;     // block-interaction reach from the eyes
+    private com.tyler.forgeai.util.path.MultiGoalSearch mineSearch;
+    private net.minecraft.world.level.Level mineSearchLevel;
+    private net.minecraft.core.BlockPos mineSearchOrigin;
+    // Block being walked to: its path is followed to the stand position before breaking
+    private com.tyler.forgeai.util.path.MultiGoalSearch.Goal mineGoal;
+    private int mineIndex;
+    private int mineTicks;
+
     // All mineable blocks in Minecraft
     private static final Set<String> MINEABLE_BLOCKS = Set.of(
         // Ores
@@ -52,6 +66,7 @@ public class GathererModule {
 
     public void setActive(boolean enabled) {
         active = enabled;
+        if (!enabled) mineGoal = null;
         LOGGER.info("Gatherer module active: " + enabled);
     }
 
@@ -107,30 +122,91 @@ public class GathererModule {
     }
 
     private boolean collectAllMineableBlocks(net.minecraft.server.level.ServerPlayer player) {
-        boolean gatheredAny = false;
-        int searchRadius = 16;
-
-        for (net.minecraft.core.BlockPos pos : net.minecraft.core.BlockPos.betweenClosed(
-            player.blockPosition().offset(-searchRadius, -4, -searchRadius),
-            player.blockPosition().offset(searchRadius, 8, searchRadius))) {
-
-            var state = player.level().getBlockState(pos);
-            String blockName = state.getBlock().getDescriptionId().replace("block.minecraft.", "");
-
-            if (MINEABLE_BLOCKS.contains(blockName)) {
-                try {
-                    com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, pos);
-                    com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
-                    gatheredAny = true;
-                    try { Thread.sleep(150); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                    break; // Break one block per tick to avoid lag
-                } catch (Exception e) {
-                    LOGGER.debug("Failed to break block {}: {}", blockName, e.getMessage());
-                }
+        if (mineGoal == null) {
+            // One search streams blocks nearest-first across ticks; restart it once the
+            // bot has wandered off or nothing reachable is left
+            net.minecraft.core.BlockPos feet = player.blockPosition().below();
+            if (mineSearch == null || mineSearch.isExhausted() || mineSearchLevel != player.level()
+                    || feet.distManhattan(mineSearchOrigin) > SEARCH_RESTART_DISTANCE) {
+                mineSearch = newMineSearch((net.minecraft.server.level.ServerLevel) player.level(), feet);
+                mineSearchLevel = player.level();
+                mineSearchOrigin = feet;
+            }
+            mineGoal = mineSearch.next(SEARCH_EXPANSIONS_PER_TICK);
+            if (mineGoal == null) return false;
+            // Paths start at the search origin; pick up from the node nearest to the bot
+            mineIndex = nearestNode(mineGoal.path(), feet);
+            mineTicks = 0;
+        }
+
+        net.minecraft.core.BlockPos pos = mineGoal.targetPos();
+        String blockName = player.level().getBlockState(pos).getBlock().getDescriptionId().replace("block.minecraft.", "");
+        boolean inReach = player.getEyePosition().distanceToSqr(net.minecraft.world.phys.Vec3.atCenterOf(pos)) <= MINE_REACH_SQR;
+        long[] path = mineGoal.path();
+        if (!MINEABLE_BLOCKS.contains(blockName) || ++mineTicks > MINE_TARGET_TIMEOUT_TICKS
+                || (!inReach && mineIndex >= path.length)) {
+            // Already taken, stuck, or still out of reach at the stand position: next one
+            mineGoal = null;
+            com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+            return false;
+        }
+
+        if (!inReach) {
+            // Walk the path to the stand position one node at a time
+            long node = path[mineIndex];
+            int nx = net.minecraft.core.BlockPos.getX(node), ny = net.minecraft.core.BlockPos.getY(node), nz = net.minecraft.core.BlockPos.getZ(node);
+            double dx = nx + 0.5 - player.getX(), dz = nz + 0.5 - player.getZ();
+            if (dx * dx + dz * dz < 0.36) {
+                mineIndex++;
+            } else {
+                // Nodes are the blocks to stand on: aim at the top centre
+                com.tyler.forgeai.util.PlayerActionUtils.lookAt(player, nx + 0.5, ny + 1, nz + 0.5);
+                com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.6f);
+            }
+            return false;
+        }
+
+        mineGoal = null;
+        com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.0f);
+        try {
+            com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, pos);
+            com.tyler.forgeai.util.PlayerActionUtils.breakBlock(player, pos);
+            return true; // Break one block per tick to avoid lag
+        } catch (Exception e) {
+            LOGGER.debug("Failed to break block {}: {}", blockName, e.getMessage());
+            return false;
+        }
+    }
+
+    /** Index of the path node (packed standing positions) closest to feet. */
+    private static int nearestNode(long[] path, net.minecraft.core.BlockPos feet) {
+        int best = 0;
+        long bestDist = Long.MAX_VALUE;
+        for (int i = 0; i < path.length; i++) {
+            long dx = net.minecraft.core.BlockPos.getX(path[i]) - feet.getX();
+            long dy = net.minecraft.core.BlockPos.getY(path[i]) - feet.getY();
+            long dz = net.minecraft.core.BlockPos.getZ(path[i]) - feet.getZ();
+            long dist = dx * dx + dy * dy + dz * dz;
+            if (dist < bestDist) {
+                bestDist = dist;
+                best = i;
             }
         }
+        return best;
+    }
 
-        return gatheredAny;
+    private static com.tyler.forgeai.util.path.MultiGoalSearch newMineSearch(net.minecraft.server.level.ServerLevel level,
+                                                                             net.minecraft.core.BlockPos feet) {
+        net.minecraft.core.BlockPos.MutableBlockPos probe = new net.minecraft.core.BlockPos.MutableBlockPos();
+        return com.tyler.forgeai.util.path.MultiGoalSearch.forMatching(
+            com.tyler.forgeai.util.path.WalkabilityCache.of(level), feet.asLong(),
+            (x, y, z) -> {
+                probe.set(x, y, z);
+                if (!level.isLoaded(probe)) return false;
+                String name = level.getBlockState(probe).getBlock().getDescriptionId().replace("block.minecraft.", "");
+                return MINEABLE_BLOCKS.contains(name);
+            },
+            com.tyler.forgeai.util.path.MultiGoalSearch.DEFAULT_REACH, SEARCH_MAX_NODES);
     }
 
     public boolean collectSpecificItem(String itemName) {
@@ -8,6 +8,8 @@ public class CartModule {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-cart");
 
     private boolean active = false;
+    // Ticks until the pushed cart is detonated (0 = nothing pending)
+    private int detonateInTicks = 0;
 
     public void init() {
         LOGGER.info("Cart PvP module initialized.");
@@ -23,6 +25,11 @@ public class CartModule {
 
         LOGGER.debug("Cart PvP tick running for player: " + s.player.getName().getString());
 
+        if (detonateInTicks > 0) {
+            if (--detonateInTicks == 0) detonate(s);
+            return;
+        }
+
         if (s.inCombat()) {
             deployCartAttack(s);
         } else {
@@ -59,13 +66,21 @@ public class CartModule {
             if (opp != null) {
                 com.tyler.forgeai.util.PlayerActionUtils.lookAtEntity(s.player, opp);
                 com.tyler.forgeai.util.PlayerActionUtils.moveForward(s.player, 1.0f);
-                try { Thread.sleep(400); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-                // Detonation: try to place TNT next to rail or use main hand again
-                com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(s.player, "tnt");
-                com.tyler.forgeai.util.PlayerActionUtils.useMainHand(s.player, 2);
+                // Let the cart roll for ~400ms (8 ticks) before detonating
+                detonateInTicks = 8;
             }
         } catch (Exception e) {
             LOGGER.debug("Error during cart attack: {}", e.getMessage());
         }
     }
+
+    private void detonate(Signals s) {
+        try {
+            // Detonation: try to place TNT next to rail or use main hand again
+            com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(s.player, "tnt");
+            com.tyler.forgeai.util.PlayerActionUtils.useMainHand(s.player, 2);
+        } catch (Exception e) {
+            LOGGER.debug("Error during cart detonation: {}", e.getMessage());
+        }
+    }
 }
@@ -55,12 +55,12 @@ public class MaceModule {
         if (!active || s == null || s.player == null) return;
 
         ServerPlayer player = s.player;
-        LOGGER.debug("Mace PvP tick for {} (hp={})", player.getName().getString(), s.playerHealth);
+        LOGGER.debug("Mace PvP tick for {} (hp={})", player.getName().getString(), s.playerHealth());
 
         long now = System.currentTimeMillis();
 
         // 1) If flying with elytra and has mace, prefer aerial experimentation (if rockets available prefer to stay aloft)
-        if (s.isFlyingWithElytra() && s.hasMaceEquipped) {
+        if (s.isFlyingWithElytra() && s.hasMaceEquipped()) {
             if ((now - lastAerialAttempt) >= AERIAL_COOLDOWN) {
                 attemptAerialCombo(player, s);
                 lastAerialAttempt = now;
@@ -69,7 +69,7 @@ public class MaceModule {
         }
 
         // 2) If not flying but has elytra + rockets, consider launching into air (wind-charge experiments)
-        if (!s.isFlyingWithElytra() && s.hasMaceEquipped && prefersRockets(player)) {
+        if (!s.isFlyingWithElytra() && s.hasMaceEquipped() && prefersRockets(player)) {
             if ((now - lastAerialAttempt) >= AERIAL_COOLDOWN) {
                 attemptElytraLaunchExperiment(player, s);
                 lastAerialAttempt = now;
@@ -100,7 +100,7 @@ public class MaceModule {
     private void attemptAerialCombo(ServerPlayer player, Signals s) {
         comboInProgress = true;
         comboType = "aerial_dive_mace";
-        LOGGER.info("Attempting aerial dive-mace combo at hp={} (opponentAirborne={})", s.playerHealth, s.opponentAirborne);
+        LOGGER.info("Attempting aerial dive-mace combo at hp={} (opponentAirborne={})", s.playerHealth(), s.opponentAirborne());
         try {
             Entity opp = player.level().getNearestPlayer(player, 64);
             if (opp != null) {
@@ -164,15 +164,15 @@ public class MaceModule {
      */
     public void attemptShieldDisableWithAxe(ServerPlayer player, Signals s) {
         if (s == null) return;
-        if (s.playerHealth < 6.0f || s.incomingMeleeDamage > 3.0f) {
-            LOGGER.info("Skipping shield-disable: unsafe (hp={} incoming={})", s.playerHealth, s.incomingMeleeDamage);
+        if (s.playerHealth() < 6.0f || s.incomingMeleeDamage() > 3.0f) {
+            LOGGER.info("Skipping shield-disable: unsafe (hp={} incoming={})", s.playerHealth(), s.incomingMeleeDamage());
             if (punishmentSystem != null) punishmentSystem.punish("MaceModule.shield_disable_skip", 1);
             return;
         }
 
         comboInProgress = true;
         comboType = "shield_disable_axe";
-        LOGGER.info("Attempting shield disable sequence using axe (hp={})", s.playerHealth);
+        LOGGER.info("Attempting shield disable sequence using axe (hp={})", s.playerHealth());
 
         // Move an axe into hotbar and attempt quick-swap timing
         try { InventoryUtils.moveItemToHotbar(player, "axe"); } catch (Exception ignored) {}
@@ -188,7 +188,7 @@ public class MaceModule {
      */
     public void performStunSlam(ServerPlayer player, Signals s) {
         if (s == null) return;
-        if (s.playerHealth < 4.0f) {
+        if (s.playerHealth() < 4.0f) {
             LOGGER.info("Aborting stun-slam: player low health {}");
             if (punishmentSystem != null) punishmentSystem.punish("MaceModule.stunslam_abort_lowhp", 2);
             return;
@@ -31,41 +31,41 @@ public class ShieldModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || !hasShield || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Lethal burst damage incoming - switch away from shield
-        if (signals.incomingMeleeDamage > signals.playerHealth && shieldActive && canToggleShield(now)) {
+        if (signals.incomingMeleeDamage() > signals.playerHealth() && shieldActive && canToggleShield(now)) {
             disengageShield(player);
             lastShieldToggle = now;
             return;
         }
 
         // Crystal burst window - shield might not help
-        if (signals.crystalOpportunity && shieldActive && canToggleShield(now)) {
+        if (signals.crystalOpportunity() && shieldActive && canToggleShield(now)) {
             disengageShield(player);
             lastShieldToggle = now;
             return;
         }
 
         // Use shield against projectiles
-        if (signals.inCombat() && signals.incomingProjectileDamage > 2.0f && !shieldActive && canToggleShield(now)) {
+        if (signals.inCombat() && signals.incomingProjectileDamage() > 2.0f && !shieldActive && canToggleShield(now)) {
             engageShield(player);
             lastShieldToggle = now;
             return;
         }
 
         // Use shield against melee burst
-        if (signals.inCombat() && signals.incomingMeleeDamage > 4.0f && !shieldActive && canToggleShield(now)) {
+        if (signals.inCombat() && signals.incomingMeleeDamage() > 4.0f && !shieldActive && canToggleShield(now)) {
             engageShield(player);
             lastShieldToggle = now;
             return;
         }
 
         // Shield when opponent shielded (mirror them)
-        if (signals.inCombat() && signals.opponentHasShield && !shieldActive && canToggleShield(now)) {
+        if (signals.inCombat() && signals.opponentHasShield() && !shieldActive && canToggleShield(now)) {
             engageShield(player);
             lastShieldToggle = now;
         }
@@ -55,7 +55,7 @@ public class SwordModule {
             PlayerActionUtils.moveInDirection(s.player, 0.6f, 0.2f);
 
             // If low health, retreat briefly
-            if (s.playerHealth < 6.0f) {
+            if (s.playerHealth() < 6.0f) {
                 PlayerActionUtils.moveInDirection(s.player, -0.6f, 0.0f);
                 return;
             }
@@ -76,7 +76,7 @@ public class SwordModule {
         }
         
         // If opponent has shield up and we have an axe, attempt to disable shield safely
-        if (s.opponentHasShield && hasAxeAvailable(s)) {
+        if (s.opponentHasShield() && hasAxeAvailable(s)) {
             attemptShieldDisable(s);
             return;
         }
@@ -104,8 +104,8 @@ public class SwordModule {
     }
 
     private void attemptShieldDisable(Signals s) {
-        if (s.playerHealth < 6.0f || s.incomingMeleeDamage > 3.0f) {
-            LOGGER.info("SwordModule: unsafe to attempt shield-disable (hp={}, incoming={})", s.playerHealth, s.incomingMeleeDamage);
+        if (s.playerHealth() < 6.0f || s.incomingMeleeDamage() > 3.0f) {
+            LOGGER.info("SwordModule: unsafe to attempt shield-disable (hp={}, incoming={})", s.playerHealth(), s.incomingMeleeDamage());
             if (punishmentSystem != null) punishmentSystem.punish("SwordModule.shield_disable_skip", 1);
             return;
         }
@@ -31,21 +31,21 @@ public class TotemModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || totemCount == 0 || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Lethal damage incoming - use totem
-        if (signals.incomingMeleeDamage >= signals.playerHealth && canUseTotem(now)) {
+        if (signals.incomingMeleeDamage() >= signals.playerHealth() && canUseTotem(now)) {
             useTotem(player, signals);
             lastTotemUse = now;
             return;
         }
 
         // Burst damage incoming that exceeds shield - use totem
-        if (signals.inCombat() && signals.playerHealth < 4.0f && 
-            signals.incomingMeleeDamage + signals.incomingProjectileDamage > signals.playerHealth && 
+        if (signals.inCombat() && signals.playerHealth() < 4.0f && 
+            signals.incomingMeleeDamage() + signals.incomingProjectileDamage() > signals.playerHealth() && 
             canUseTotem(now)) {
             useTotem(player, signals);
             lastTotemUse = now;
@@ -53,14 +53,14 @@ public class TotemModule {
         }
 
         // Last resort: health critically low
-        if (signals.playerHealth < LETHAL_THRESHOLD && signals.inCombat() && canUseTotem(now)) {
+        if (signals.playerHealth() < LETHAL_THRESHOLD && signals.inCombat() && canUseTotem(now)) {
             useTotem(player, signals);
             lastTotemUse = now;
         }
     }
 
     private void useTotem(ServerPlayer player, ContextScanner.Signals signals) {
-        LOGGER.debug("Using totem! (Health: {}, Incoming: {})", signals.playerHealth, signals.incomingMeleeDamage);
+        LOGGER.debug("Using totem! (Health: {}, Incoming: {})", signals.playerHealth(), signals.incomingMeleeDamage());
         try {
             // Best-effort: move totem to hotbar and attempt a quick use sequence
             com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "totem");
@@ -72,7 +72,7 @@ public class TotemModule {
         totemCount--;
 
         // Reward correct totem usage
-        if (rewardSystem != null && signals.playerHealth < 4.0f) {
+        if (rewardSystem != null && signals.playerHealth() < 4.0f) {
             rewardSystem.reward("TotemModule", 75);
         }
     }
@@ -29,13 +29,13 @@ public class BowModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || !hasBow || arrowCount == 0 || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Shoot when low health (safer distance)
-        if (signals.inCombat() && signals.playerHealth < 8.0f && canShootArrow(now)) {
+        if (signals.inCombat() && signals.playerHealth() < 8.0f && canShootArrow(now)) {
             shootArrowForSafety(player);
             lastArrowShot = now;
             return;
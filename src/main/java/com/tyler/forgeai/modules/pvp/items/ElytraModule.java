@@ -32,35 +32,35 @@ public class ElytraModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || !hasElytra || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // DEFENSIVE: Retreat when overwhelmed
-        if (signals.inCombat() && signals.playerHealth < 6.0f && canToggleElytra(now)) {
+        if (signals.inCombat() && signals.playerHealth() < 6.0f && canToggleElytra(now)) {
             engageElytraForRetreat(player);
             lastElytraToggle = now;
             return;
         }
 
         // DEFENSIVE: Escape to restock/repair
-        if (signals.isArmorBroken && !signals.inCombat() && canToggleElytra(now)) {
+        if (signals.isArmorBroken() && !signals.inCombat() && canToggleElytra(now)) {
             engageElytraForRecover(player);
             lastElytraToggle = now;
             return;
         }
 
         // AGGRESSIVE: Aerial entry with mace (high health + opponent not airborne)
-        if (signals.inCombat() && signals.playerHealth > 14.0f && 
-            !signals.opponentAirborne && signals.hasMaceEquipped && canToggleElytra(now)) {
+        if (signals.inCombat() && signals.playerHealth() > 14.0f && 
+            !signals.opponentAirborne() && signals.hasMaceEquipped() && canToggleElytra(now)) {
             engageElytraForAerialEntry(player);
             lastElytraToggle = now;
             return;
         }
 
         // AGGRESSIVE: Maintain aerial advantage
-        if (signals.inCombat() && elytraEquipped && !signals.falling && canToggleElytra(now)) {
+        if (signals.inCombat() && elytraEquipped && !signals.falling() && canToggleElytra(now)) {
             // Continue circling for aerial combat
             maintainAerialAdvantage(player, signals);
         }
@@ -127,7 +127,7 @@ public class ElytraModule {
                 PlayerActionUtils.lookAtEntity(player, opp);
                 PlayerActionUtils.moveInDirection(player, 0.2f, 0.6f);
                 // If opportunity (opponent grounded and below), signal for mace strike via log
-                if (!signals.opponentAirborne && player.getY() - opp.getY() > 1.5) {
+                if (!signals.opponentAirborne() && player.getY() - opp.getY() > 1.5) {
                     LOGGER.debug("Aerial strike opportunity detected");
                 }
             } else {
@@ -30,27 +30,27 @@ public class EnderPearlModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || pearlCount == 0 || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // DEFENSIVE: Escape when health critical
-        if (signals.playerHealth < DEFENSIVE_THRESHOLD && canThrowPearl(now)) {
+        if (signals.playerHealth() < DEFENSIVE_THRESHOLD && canThrowPearl(now)) {
             throwPearlToEscape(player, signals);
             lastPearl = now;
             return;
         }
 
         // DEFENSIVE: Escape to restock/repair
-        if (signals.isArmorBroken && !signals.inCombat() && canThrowPearl(now)) {
+        if (signals.isArmorBroken() && !signals.inCombat() && canThrowPearl(now)) {
             throwPearlToRestock(player);
             lastPearl = now;
             return;
         }
 
         // AGGRESSIVE: Gap-close when winning
-        if (signals.inCombat() && signals.playerHealth > AGGRESSIVE_THRESHOLD && 
+        if (signals.inCombat() && signals.playerHealth() > AGGRESSIVE_THRESHOLD && 
             signals.opponentDistance > 5.0f && canThrowPearl(now)) {
             throwPearlToGapClose(player);
             lastPearl = now;
@@ -58,14 +58,14 @@ public class EnderPearlModule {
         }
 
         // AGGRESSIVE: Flank for crystal entry
-        if (signals.inCombat() && signals.crystalOpportunity && canThrowPearl(now)) {
+        if (signals.inCombat() && signals.crystalOpportunity() && canThrowPearl(now)) {
             throwPearlForCrystalEntry(player);
             lastPearl = now;
         }
     }
 
     private void throwPearlToEscape(ServerPlayer player, ContextScanner.Signals signals) {
-        LOGGER.debug("Throwing pearl to escape (health: {})", signals.playerHealth);
+        LOGGER.debug("Throwing pearl to escape (health: {})", signals.playerHealth());
         try {
             var opt = player.level().getNearestPlayer(player, 32);
             net.minecraft.world.phys.Vec3 dir = net.minecraft.world.phys.Vec3.ZERO;
@@ -28,13 +28,13 @@ public class FishingRodModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || !hasFishingRod || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Hook shielded opponent (bypasses shield)
-        if (signals.inCombat() && signals.opponentHasShield && canHook(now)) {
+        if (signals.inCombat() && signals.opponentHasShield() && canHook(now)) {
             hookOpponent(player);
             lastHook = now;
             return;
@@ -40,34 +40,34 @@ public class PotionModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || availablePotions.isEmpty() || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Emergency healing when low health
-        if (signals.playerHealth < HEALING_THRESHOLD && hasPotion("Healing") && canUsePotion(now)) {
+        if (signals.playerHealth() < HEALING_THRESHOLD && hasPotion("Healing") && canUsePotion(now)) {
             usePotion(player, "Healing", signals);
             lastPotionUsed = now;
             return;
         }
 
         // Regeneration for sustained health management
-        if (signals.playerHealth < 10.0f && signals.inCombat() && hasPotion("Regeneration") && canUsePotion(now)) {
+        if (signals.playerHealth() < 10.0f && signals.inCombat() && hasPotion("Regeneration") && canUsePotion(now)) {
             usePotion(player, "Regeneration", signals);
             lastPotionUsed = now;
             return;
         }
 
         // Fire resistance in lava
-        if (signals.inLava && hasPotion("Fire Resistance") && canUsePotion(now)) {
+        if (signals.inLava() && hasPotion("Fire Resistance") && canUsePotion(now)) {
             usePotion(player, "Fire Resistance", signals);
             lastPotionUsed = now;
             return;
         }
 
         // Strength before initiating combat
-        if (!signals.inCombat() && signals.playerHealth > STRENGTH_THRESHOLD && 
+        if (!signals.inCombat() && signals.playerHealth() > STRENGTH_THRESHOLD && 
             hasPotion("Strength") && canUsePotion(now)) {
             usePotion(player, "Strength", signals);
             lastPotionUsed = now;
@@ -75,7 +75,7 @@ public class PotionModule {
         }
 
         // Speed for mobility during combat
-        if (signals.inCombat() && signals.playerHealth > SPEED_THRESHOLD && 
+        if (signals.inCombat() && signals.playerHealth() > SPEED_THRESHOLD && 
             hasPotion("Speed") && canUsePotion(now)) {
             usePotion(player, "Speed", signals);
             lastPotionUsed = now;
@@ -83,7 +83,7 @@ public class PotionModule {
         }
 
         // Resistance when taking heavy damage
-        if (signals.inCombat() && signals.playerHealth < 12.0f && 
+        if (signals.inCombat() && signals.playerHealth() < 12.0f && 
             hasPotion("Resistance") && canUsePotion(now)) {
             usePotion(player, "Resistance", signals);
             lastPotionUsed = now;
@@ -78,7 +78,7 @@ public class TridentModule {
     }
 
     private void useRiptideEscape(ServerPlayer player, Signals s) {
-        LOGGER.info("Using Riptide escape via trident to disengage (hp={})", s.playerHealth);
+        LOGGER.info("Using Riptide escape via trident to disengage (hp={})", s.playerHealth());
         try { com.tyler.forgeai.util.InventoryUtils.moveItemToHotbar(player, "trident"); } catch (Exception ignored) {}
         if (trainingManager != null) trainingManager.recordSuccess("TridentModule.riptide_escape");
         if (rewardSystem != null) rewardSystem.reward("TridentModule.riptide", 4);
@@ -29,27 +29,27 @@ public class WaterBucketModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || !hasWaterBucket || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Counter lava
-        if (signals.inLava && canPlaceWater(now)) {
+        if (signals.inLava() && canPlaceWater(now)) {
             placeWaterToCounterLava(player);
             lastWaterPlace = now;
             return;
         }
 
         // Prevent fall damage
-        if (signals.falling && signals.fallHeight > CRITICAL_FALL_HEIGHT && canPlaceWater(now)) {
-            placeWaterForFallDamageNegation(player, signals.fallHeight);
+        if (signals.falling() && signals.fallHeight() > CRITICAL_FALL_HEIGHT && canPlaceWater(now)) {
+            placeWaterForFallDamageNegation(player, signals.fallHeight());
             lastWaterPlace = now;
             return;
         }
 
         // Counter crystal traps
-        if (signals.inCombat() && signals.playerHealth < 10.0f && canPlaceWater(now)) {
+        if (signals.inCombat() && signals.playerHealth() < 10.0f && canPlaceWater(now)) {
             placeWaterForCrystalProtection(player);
             lastWaterPlace = now;
         }
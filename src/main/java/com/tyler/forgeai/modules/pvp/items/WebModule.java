@@ -35,7 +35,7 @@ public class WebModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
@@ -47,10 +47,10 @@ public class WebModule {
         }
 
         // Place webs defensively when low health and opponent nearby
-        if (signals.inCombat() && signals.playerHealth < 8.0f && 
+        if (signals.inCombat() && signals.playerHealth() < 8.0f && 
             !player.getInventory().isEmpty() && canPlaceWeb(now)) {
             // If single opponent nearby, attempt trap-for-crit sequence
-            if (signals.nearbyOpponents <= 1) {
+            if (signals.nearbyOpponents() <= 1) {
                 placeWebAroundOpponentForCrit(player, signals);
             } else {
                 placeWebAroundOpponent(player);
@@ -103,7 +103,7 @@ public class WebModule {
 
     private void placeWebAroundOpponentForCrit(ServerPlayer player, ContextScanner.Signals signals) {
         // Strategy: place webs to trap a single opponent and allow critical hits
-        LOGGER.info("Placing webs to trap opponent for crit sequence (hp={})", signals.playerHealth);
+        LOGGER.info("Placing webs to trap opponent for crit sequence (hp={})", signals.playerHealth());
         try {
             if (webCount <= 0) return;
             // If signals provides opponent position, use it; otherwise place at player's front
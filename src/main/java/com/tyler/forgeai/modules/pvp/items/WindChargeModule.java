@@ -28,20 +28,20 @@ public class WindChargeModule {
     public void tick(MinecraftServer server, ContextScanner.Signals signals) {
         if (!enabled || server == null) return;
 
-        ServerPlayer player = server.getPlayerList().getPlayers().stream().findFirst().orElse(null);
+        ServerPlayer player = ContextScanner.resolvePlayer(server, signals);
         if (player == null) return;
 
         long now = System.currentTimeMillis();
 
         // Critical disengage: use wind charge to escape
-        if (signals.playerHealth < 4.0f && !signals.hasItem("totem") && canUseWindCharge(now)) {
+        if (signals.playerHealth() < 4.0f && !signals.hasItem("totem") && canUseWindCharge(now)) {
             useWindChargeToEscape(player, signals);
             lastWindCharge = now;
             return;
         }
 
         // Reposition if opponent airborne (gain height advantage)
-        if (signals.inCombat() && signals.opponentAirborne && canUseWindCharge(now)) {
+        if (signals.inCombat() && signals.opponentAirborne() && canUseWindCharge(now)) {
             useWindChargeToReposition(player);
             lastWindCharge = now;
             return;
@@ -55,7 +55,7 @@ public class WindChargeModule {
     }
 
     private void useWindChargeToEscape(ServerPlayer player, ContextScanner.Signals signals) {
-        LOGGER.debug("Using wind charge to escape (health: {})", signals.playerHealth);
+        LOGGER.debug("Using wind charge to escape (health: {})", signals.playerHealth());
         try {
             // Push player backward and upward relative to look direction
             net.minecraft.world.phys.Vec3 look = player.getViewVector(1.0F);
@@ -58,7 +58,7 @@ public class StasisModule {
             com.tyler.forgeai.util.PlayerActionUtils.setCrouching(player, true);
 
             // Auto-eat if low health
-            if (s.playerHealth < 10.0f) {
+            if (s.playerHealth() < 10.0f) {
                 try { com.tyler.forgeai.util.FoodUtils.autoEatIfLow(player, 10.0f); } catch (Exception ignored) {}
             }
 
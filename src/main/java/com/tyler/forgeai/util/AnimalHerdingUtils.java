@@ -1,5 +1,6 @@
 package com.tyler.forgeai.util;
 
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.animal.Animal;
 import net.minecraft.world.entity.animal.AbstractHorse;
@@ -7,6 +8,7 @@ import net.minecraft.world.entity.animal.Llama;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 import net.minecraft.core.BlockPos;
+import com.tyler.forgeai.util.path.FlowField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
@@ -103,6 +105,18 @@ public class AnimalHerdingUtils {
             return;
         }
 
+        // One flow field toward the pen steers every animal: O(1) per animal per tick
+        if (herder != null && herder.level() instanceof ServerLevel level) {
+            FlowField field = FlowField.of(level, herd.targetLocation.below());
+            double speed = 0.6 + 0.1 * herd.speed;
+            for (Animal animal : herd.animals) {
+                if (!animal.isAlive()) continue;
+                BlockPos next = field.nextStep(animal.blockPosition().below());
+                if (next == null) continue;  // Off the field: leave it to the herder
+                animal.getMoveControl().setWantedPosition(next.getX() + 0.5, next.getY() + 1, next.getZ() + 0.5, speed);
+            }
+        }
+
         // Move herder toward herd center to push animals forward
         // In real implementation: move player, hold food, use herding stick
 
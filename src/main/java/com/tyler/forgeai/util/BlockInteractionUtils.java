@@ -5,6 +5,7 @@ import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.core.BlockPos;
 import net.minecraft.world.level.block.*;
 import net.minecraft.world.level.block.state.BlockState;
+import com.tyler.forgeai.util.path.WalkabilityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +18,22 @@ public final class BlockInteractionUtils {
 
     private BlockInteractionUtils() {}
 
+    /**
+     * Can a bot stand on this block? Reads the shared pathfinding walkability cache.
+     */
+    public static boolean isStandable(ServerLevel level, BlockPos pos) {
+        if (level == null || pos == null) return false;
+        return WalkabilityCache.of(level).isWalkable(pos);
+    }
+
+    /**
+     * Is this block a ladder or vine? Reads the shared pathfinding walkability cache.
+     */
+    public static boolean isClimbable(ServerLevel level, BlockPos pos) {
+        if (level == null || pos == null) return false;
+        return WalkabilityCache.of(level).isClimbable(pos);
+    }
+
     /**
      * Find nearest block of a specific type within scan radius.
      */
@@ -84,6 +101,11 @@ public final class BlockInteractionUtils {
         if (player == null || ladderPos == null || player.level() == null) return false;
         try {
             ServerLevel level = (ServerLevel) player.level();
+            // Cached flags reject most non-ladders without a block state read
+            if (!isClimbable(level, ladderPos)) {
+                LOGGER.debug("Block at {} is not a ladder", ladderPos);
+                return false;
+            }
             BlockState state = level.getBlockState(ladderPos);
             Block block = state.getBlock();
 
@@ -0,0 +1,77 @@
+package com.tyler.forgeai.util;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.function.Predicate;
+
+/**
+ * BlockScanCursor: resumable scan over a box of blocks.
+ * Visits at most a fixed number of positions per call so large searches
+ * can be spread over several ticks instead of stalling one.
+ */
+public class BlockScanCursor {
+    public static final int DEFAULT_BUDGET = 4096;
+
+    private final int minX, minY, minZ, maxX, maxY, maxZ;
+    private final BlockPos.MutableBlockPos cursor = new BlockPos.MutableBlockPos();
+    private int x, y, z;
+    private boolean exhausted = false;
+
+    public BlockScanCursor(BlockPos from, BlockPos to) {
+        this.minX = Math.min(from.getX(), to.getX());
+        this.minY = Math.min(from.getY(), to.getY());
+        this.minZ = Math.min(from.getZ(), to.getZ());
+        this.maxX = Math.max(from.getX(), to.getX());
+        this.maxY = Math.max(from.getY(), to.getY());
+        this.maxZ = Math.max(from.getZ(), to.getZ());
+        reset();
+    }
+
+    /** Scan box centred on a position, e.g. around(pos, 32, -5, 10). */
+    public static BlockScanCursor around(BlockPos center, int horizontal, int minDy, int maxDy) {
+        return new BlockScanCursor(
+            center.offset(-horizontal, minDy, -horizontal),
+            center.offset(horizontal, maxDy, horizontal));
+    }
+
+    /**
+     * Continue scanning; returns the next matching position or null when the
+     * budget ran out (call again next tick) or the box is exhausted.
+     */
+    public BlockPos next(Level level, Predicate<BlockState> match, int budget) {
+        while (!exhausted && budget-- > 0) {
+            cursor.set(x, y, z);
+            advance();
+            try {
+                if (match.test(level.getBlockState(cursor))) {
+                    return cursor.immutable();
+                }
+            } catch (Exception ignored) {}
+        }
+        return null;
+    }
+
+    public BlockPos next(Level level, Predicate<BlockState> match) {
+        return next(level, match, DEFAULT_BUDGET);
+    }
+
+    public boolean isExhausted() { return exhausted; }
+
+    /** Restart from the first position (e.g. after the area changed). */
+    public void reset() {
+        x = minX; y = minY; z = minZ;
+        exhausted = false;
+    }
+
+    private void advance() {
+        if (++x > maxX) {
+            x = minX;
+            if (++z > maxZ) {
+                z = minZ;
+                if (++y > maxY) exhausted = true;
+            }
+        }
+    }
+}
@@ -85,8 +85,9 @@ public class NightSleepHandler {
      */
     private void requestSleep(MinecraftServer server, ServerPlayer player) {
         // Find nearest bed
-        SharedWorldMemory.WorldLocation bedLoc = sharedMemory.findNearestLocation(
-            "bed", player.getBlockX(), player.getBlockY(), player.getBlockZ()
+        String dimension = SharedWorldMemory.dimensionName(player.level());
+        SharedWorldMemory.WorldLocation bedLoc = sharedMemory.findNearestLocationInDimension(
+            "bed", dimension, player.getBlockX(), player.getBlockY(), player.getBlockZ()
         );
 
         if (bedLoc != null) {
@@ -100,7 +101,7 @@ public class NightSleepHandler {
                 sharedMemory.registerLocation(
                     "bed_" + targetBedPos.getX() + "_" + targetBedPos.getZ(),
                     targetBedPos.getX(), targetBedPos.getY(), targetBedPos.getZ(),
-                    "bed", botName
+                    dimension, "bed", botName
                 );
                 LOGGER.info("Scanned and found bed at {}", targetBedPos);
             }
@@ -167,11 +168,15 @@ public class NightSleepHandler {
                     // Bot will remain sleeping until wake-up tick
                 }
             } else {
-                // Minimal navigation: look and step toward bed
+                // Every bot heading to this bed shares one cached flow field
                 try {
-                    com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, targetBedPos);
-                    float speed = 0.2f;
-                    com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, speed);
+                    com.tyler.forgeai.util.path.FlowField field = com.tyler.forgeai.util.path.FlowField.of(
+                        (net.minecraft.server.level.ServerLevel) player.level(), targetBedPos.below());
+                    if (!com.tyler.forgeai.util.PlayerActionUtils.followFlowField(player, field)) {
+                        // Off the field or cut off: look and step toward bed
+                        com.tyler.forgeai.util.PlayerActionUtils.lookAtBlock(player, targetBedPos);
+                        com.tyler.forgeai.util.PlayerActionUtils.moveForward(player, 0.2f);
+                    }
                     LOGGER.debug("Bot navigating to bed at {} (distance: {})", targetBedPos, Math.sqrt(dist));
                 } catch (Exception e) {
                     LOGGER.debug("Error navigating to bed: {}", e.getMessage());
@@ -3,10 +3,17 @@ package com.tyler.forgeai.util;
 import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.core.BlockPos;
-import net.minecraft.world.level.block.*;
-import net.minecraft.world.level.block.state.BlockState;
-import net.minecraft.world.level.material.Material;
+import com.tyler.forgeai.ai.RouteCache;
 import com.tyler.forgeai.ai.SharedWorldMemory;
+import com.tyler.forgeai.util.path.AStarSearch;
+import com.tyler.forgeai.util.path.CooperativeSearch;
+import com.tyler.forgeai.util.path.DStarLite;
+import com.tyler.forgeai.util.path.HierarchicalPlanner;
+import com.tyler.forgeai.util.path.PathMoves;
+import com.tyler.forgeai.util.path.PathSmoother;
+import com.tyler.forgeai.util.path.ReservationTable;
+import com.tyler.forgeai.util.path.SearchArena;
+import com.tyler.forgeai.util.path.WalkabilityCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.*;
@@ -23,48 +30,34 @@ import java.util.*;
 public class PathFinder {
     private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-pathfinder");
 
-    private final SharedWorldMemory sharedMemory;
-
-    public static class PathNode {
-        public BlockPos pos;
-        public BlockPos parent;
-        public double g;  // Cost from start
-        public double h;  // Heuristic to goal
-        public double f;  // g + h
-
-        public PathNode(BlockPos pos, BlockPos parent, double g, double h) {
-            this.pos = pos;
-            this.parent = parent;
-            this.g = g;
-            this.h = h;
-            this.f = g + h;
-        }
+    /** Node expansions allowed per search (the old HashMap-based search stopped at 5000). */
+    public static final int MAX_ITERATIONS = 50_000;
+    /** Search nodes an incremental route may keep before it reports LIMIT. */
+    public static final int MAX_INCREMENTAL_NODES = 200_000;
+    /** Expansions allowed to connect a bot to the ends of a cached route (same region). */
+    private static final int STITCH_ITERATIONS = 2_000;
+    /** Steps a bot plans and reserves ahead when sharing an area with other bots. */
+    public static final int COOPERATIVE_WINDOW = 16;
+    /** Space-time expansions allowed per cooperative window. */
+    private static final int COOPERATIVE_EXPANSIONS = 4_000;
 
-        @Override
-        public boolean equals(Object o) {
-            if (!(o instanceof PathNode)) return false;
-            return pos.equals(((PathNode) o).pos);
-        }
-
-        @Override
-        public int hashCode() {
-            return pos.hashCode();
-        }
-    }
+    private final SharedWorldMemory sharedMemory;
 
-    public enum TravelMode { WALK, CLIMB, BRIDGE, BOAT, ELYTRA, SWIM, TELEPORT }
+    public enum TravelMode { WALK, CLIMB, BRIDGE, BOAT, ELYTRA, SWIM, TELEPORT, DROP, SPRINT_JUMP }
 
     public static class Path {
         public List<BlockPos> nodes;
         public List<TravelMode> modes;  // How to move between nodes
         public double cost;
         public boolean requiresResources;  // Needs blocks/boats/rockets
+        public boolean complete;  // False when only the next segment of a long route was refined
 
         public Path() {
             this.nodes = new ArrayList<>();
             this.modes = new ArrayList<>();
             this.cost = 0;
             this.requiresResources = false;
+            this.complete = true;
         }
 
         @Override
@@ -81,126 +74,160 @@ public class PathFinder {
     /**
      * Find path from start to goal using A* algorithm.
      * Prefers walking, but considers climbing, bridging, boats, elytra.
+     * Long trips go through the chunk-level planner and only the first segment is
+     * refined (Path.complete = false); call again from its end, or use planRoute.
+     * Results are shared with other bots through SharedWorldMemory's RouteCache.
      */
     public Path findPath(ServerLevel level, BlockPos start, BlockPos goal, boolean allowBridging) {
         if (level == null || start == null || goal == null) return null;
 
-        PriorityQueue<PathNode> openSet = new PriorityQueue<>((a, b) -> Double.compare(a.f, b.f));
-        Set<BlockPos> closedSet = new HashSet<>();
-        Map<BlockPos, PathNode> allNodes = new HashMap<>();
-
-        PathNode startNode = new PathNode(start, null, 0, heuristic(start, goal));
-        openSet.offer(startNode);
-        allNodes.put(start, startNode);
-
-        int iterations = 0;
-        int maxIterations = 5000;  // Prevent infinite loops
-
-        while (!openSet.isEmpty() && iterations < maxIterations) {
-            iterations++;
-            PathNode current = openSet.poll();
+        // Another bot may already have walked this commute
+        RouteCache routes = sharedMemory != null ? sharedMemory.getRouteCache() : null;
+        if (routes != null) {
+            Path cached = fromCache(level, routes.get(level, start, goal), start, goal);
+            if (cached != null) return cached;
+        }
 
-            if (current.pos.equals(goal)) {
-                return reconstructPath(current);
+        if (PathMoves.heuristic(start.getX(), start.getY(), start.getZ(),
+                goal.getX(), goal.getY(), goal.getZ()) > HierarchicalPlanner.DIRECT_RANGE) {
+            HierarchicalPlanner.Plan plan = planRoute(level, start, goal);
+            long[] segment = plan != null ? plan.nextSegment(WalkabilityCache.of(level), start.asLong()) : null;
+            if (segment == null) {
+                LOGGER.warn("No route found from {} to {}", start, goal);
+                return null;
             }
+            Path path = toPath(segment);
+            path.complete = plan.isFinished() && !plan.partial;
+            if (routes != null) routes.put(level, start, goal, segment, path.complete);
+            return path;
+        }
 
-            closedSet.add(current.pos);
-
-            // Explore neighbors
-            for (BlockPos neighbor : getNeighbors(level, current.pos, allowBridging)) {
-                if (closedSet.contains(neighbor)) continue;
-
-                double tentativeG = current.g + 1.0;
-                PathNode neighborNode = allNodes.get(neighbor);
-
-                if (neighborNode == null || tentativeG < neighborNode.g) {
-                    if (neighborNode == null) {
-                        neighborNode = new PathNode(neighbor, current.pos, tentativeG, heuristic(neighbor, goal));
-                        allNodes.put(neighbor, neighborNode);
-                    } else {
-                        neighborNode.parent = current.pos;
-                        neighborNode.g = tentativeG;
-                        neighborNode.f = neighborNode.g + neighborNode.h;
-                    }
-                    openSet.offer(neighborNode);
-                }
-            }
+        AStarSearch search = new AStarSearch(WalkabilityCache.of(level), SearchArena.local(),
+            start.asLong(), goal.asLong(), MAX_ITERATIONS);
+        if (search.run() == AStarSearch.Status.FOUND) {
+            long[] packed = search.path();
+            if (routes != null) routes.put(level, start, goal, packed, true);
+            return toPath(packed);
         }
 
-        LOGGER.warn("No path found from {} to {} after {} iterations", start, goal, iterations);
+        LOGGER.warn("No path found from {} to {} after {} iterations", start, goal, search.getIterations());
         return null;
     }
 
     /**
-     * Get walkable neighbors of a position.
+     * Reuse a cached route whose ends lie in the same regions as start/goal:
+     * short searches (at most STITCH_ITERATIONS each) connect start to its first
+     * node and its last node to goal. Also used by PathPlanningService.
      */
-    private List<BlockPos> getNeighbors(ServerLevel level, BlockPos pos, boolean allowBridging) {
-        List<BlockPos> neighbors = new ArrayList<>();
-
-        // Check 4 cardinal directions (horizontal)
-        int[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}};
-
-        for (int[] dir : directions) {
-            BlockPos neighbor = pos.offset(dir[0], 0, dir[1]);
-            if (isWalkable(level, neighbor)) {
-                neighbors.add(neighbor);
-            }
+    static Path fromCache(ServerLevel level, RouteCache.Route route, BlockPos start, BlockPos goal) {
+        if (route == null) return null;
+        WalkabilityCache grid = WalkabilityCache.of(level);
+        long[] head = route.getStart() == start.asLong() ? null
+            : AStarSearch.findPath(grid, start.asLong(), route.getStart(), STITCH_ITERATIONS);
+        if (route.getStart() != start.asLong() && head == null) return null;
+        long[] tail = !route.complete || route.getEnd() == goal.asLong() ? null
+            : AStarSearch.findPath(grid, route.getEnd(), goal.asLong(), STITCH_ITERATIONS);
+        if (route.complete && route.getEnd() != goal.asLong() && tail == null) return null;
+
+        int length = (head != null ? head.length - 1 : 0) + route.nodes.length + (tail != null ? tail.length - 1 : 0);
+        long[] packed = new long[length];
+        int i = 0;
+        if (head != null) {
+            System.arraycopy(head, 0, packed, 0, head.length - 1);
+            i = head.length - 1;
         }
+        System.arraycopy(route.nodes, 0, packed, i, route.nodes.length);
+        i += route.nodes.length;
+        if (tail != null) System.arraycopy(tail, 1, packed, i, tail.length - 1);
 
-        // Check up (climbing)
-        BlockPos up = pos.above();
-        if (isClimbable(level, up)) {
-            neighbors.add(up);
-        }
-
-        // Check down (dropping)
-        BlockPos down = pos.below();
-        if (isWalkable(level, down)) {
-            neighbors.add(down);
-        }
-
-        // Check diagonal down (descending stairs)
-        for (int[] dir : directions) {
-            BlockPos diag = pos.offset(dir[0], -1, dir[1]);
-            if (isWalkable(level, diag)) {
-                neighbors.add(diag);
-            }
-        }
+        Path path = toPath(packed);
+        path.complete = route.complete;
+        return path;
+    }
 
-        return neighbors;
+    /**
+     * Coarse chunk-level route for long trips. Walk it with
+     * plan.nextSegment(WalkabilityCache.of(level), pos) one stretch at a time.
+     */
+    public HierarchicalPlanner.Plan planRoute(ServerLevel level, BlockPos start, BlockPos goal) {
+        if (level == null || start == null || goal == null) return null;
+        return HierarchicalPlanner.of(level).plan(start.asLong(), goal.asLong());
     }
 
     /**
-     * Check if a block is walkable (solid ground).
+     * Open an incremental route. It keeps its search state and listens for block
+     * changes, so replan() after a block along the way is placed or broken only
+     * revisits the affected nodes. close() it when the bot stops following it.
      */
-    private boolean isWalkable(ServerLevel level, BlockPos pos) {
-        try {
-            BlockState state = level.getBlockState(pos);
-            Block block = state.getBlock();
+    public DStarLite openRoute(ServerLevel level, BlockPos start, BlockPos goal) {
+        if (level == null || start == null || goal == null) return null;
+        return new DStarLite(WalkabilityCache.of(level), level, start.asLong(), goal.asLong(), MAX_INCREMENTAL_NODES);
+    }
 
-            // Skip water/lava for walking (handled separately)
-            if (state.getMaterial().isReplaceable() || block instanceof BucketPickupBlock) {
-                return false;
-            }
+    /**
+     * Current best path of an incremental route from the bot's position,
+     * repaired for any block changes since the last call. Null if blocked.
+     */
+    public Path replan(DStarLite route, BlockPos current) {
+        if (route == null) return null;
+        if (current != null) route.moveStart(current.asLong());
+        DStarLite.Status status = route.replan();
+        if (status != DStarLite.Status.FOUND) {
+            LOGGER.debug("Incremental route to {} unavailable: {}", BlockPos.of(route.getGoal()), status);
+            return null;
+        }
+        long[] packed = route.path();
+        return packed != null ? toPath(packed) : null;
+    }
 
-            // Check if solid
-            return state.getMaterial().isSolid();
-        } catch (Exception e) {
-            return false;
+    /**
+     * Plan the next COOPERATIVE_WINDOW steps from a bot's cell toward goal around
+     * the cells other bots reserved, and reserve them for this bot. Returns one
+     * standing cell per step from step on; a bot that is boxed in for now gets
+     * just its own cell (wait and ask again).
+     */
+    public static long[] planWindow(ServerLevel level, String owner, BlockPos from, long goal, long step) {
+        if (level == null || from == null) return null;
+        ReservationTable table = ReservationTable.of(level);
+        int id = ReservationTable.ownerId(owner);
+        long[] window = CooperativeSearch.plan(WalkabilityCache.of(level), table, id,
+            from.asLong(), goal, step, COOPERATIVE_WINDOW, COOPERATIVE_EXPANSIONS);
+        if (window == null) {
+            // Still hold the cell we stand on so nobody plans through us
+            window = new long[] { from.asLong() };
+            LOGGER.debug("{} is boxed in at {}, waiting", owner, from);
         }
+        table.reserve(id, window, step);
+        return window;
     }
 
     /**
-     * Check if a block is climbable (ladder, vine).
+     * Compress a block-by-block path into straight legs (PathSmoother): nodes become
+     * the leg ends and modes say how to cover each leg (WALK, CLIMB, DROP, SPRINT_JUMP).
+     * Cost and completeness are kept from the raw path.
      */
-    private boolean isClimbable(ServerLevel level, BlockPos pos) {
-        try {
-            BlockState state = level.getBlockState(pos);
-            Block block = state.getBlock();
-            return block instanceof LadderBlock || block instanceof VineBlock;
-        } catch (Exception e) {
-            return false;
+    public static Path smooth(ServerLevel level, Path raw) {
+        if (level == null || raw == null || raw.nodes.size() < 3) return raw;
+        long[] packed = raw.nodes.stream().mapToLong(BlockPos::asLong).toArray();
+        PathSmoother.Leg[] legs = PathSmoother.smooth(WalkabilityCache.of(level), packed);
+
+        Path path = new Path();
+        path.nodes.add(raw.nodes.get(0));
+        path.modes.add(TravelMode.WALK);
+        for (PathSmoother.Leg leg : legs) {
+            path.nodes.add(leg.toPos());
+            path.modes.add(switch (leg.kind) {
+                case CLIMB -> TravelMode.CLIMB;
+                case DROP -> TravelMode.DROP;
+                case SPRINT_JUMP -> TravelMode.SPRINT_JUMP;
+                default -> TravelMode.WALK;
+            });
         }
+        path.cost = raw.cost;
+        path.requiresResources = raw.requiresResources;
+        path.complete = raw.complete;
+        LOGGER.debug("Smoothed path: {} nodes -> {} legs", raw.nodes.size(), legs.length);
+        return path;
     }
 
     /**
@@ -214,23 +241,21 @@ public class PathFinder {
     }
 
     /**
-     * Reconstruct path from goal back to start.
+     * Convert a packed search result into a Path, marking upward steps as climbing.
      */
-    private Path reconstructPath(PathNode goalNode) {
+    static Path toPath(long[] packed) {
         Path path = new Path();
-        PathNode current = goalNode;
-
-        while (current != null) {
-            path.nodes.add(0, current.pos);
-            path.cost += 1.0;
-            if (current.parent != null && current.pos.getY() > current.parent.getY()) {
+        for (int i = 0; i < packed.length; i++) {
+            BlockPos pos = BlockPos.of(packed[i]);
+            path.nodes.add(pos);
+            if (i > 0 && pos.getY() > BlockPos.getY(packed[i - 1])) {
                 // Going up: mark as climbing
-                path.modes.add(0, TravelMode.CLIMB);
+                path.modes.add(TravelMode.CLIMB);
             } else {
-                path.modes.add(0, TravelMode.WALK);
+                path.modes.add(TravelMode.WALK);
             }
-            current = current.parent == null ? null : new PathNode(current.parent, null, 0, 0);
         }
+        path.cost = Math.max(0, packed.length - 1) * PathMoves.STEP_COST;
 
         LOGGER.info("Path found: {} nodes, cost: {}", path.nodes.size(), path.cost);
         return path;
@@ -300,6 +325,7 @@ public class PathFinder {
         }
 
         // Plan bridge: walk from 'from' towards 'to'
+        WalkabilityCache cache = WalkabilityCache.of(level);
         BlockPos current = from;
         while (!current.equals(to)) {
             if (current.getX() < to.getX()) {
@@ -312,8 +338,7 @@ public class PathFinder {
                 current = current.north();
             }
 
-            BlockState below = level.getBlockState(current.below());
-            if (!below.getMaterial().isSolid()) {
+            if (!cache.isSolid(current.getX(), current.getY() - 1, current.getZ())) {
                 bridgeBlocks.add(current.below());
             }
         }
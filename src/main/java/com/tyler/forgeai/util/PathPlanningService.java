@@ -0,0 +1,429 @@
+package com.tyler.forgeai.util;
+
+import com.tyler.forgeai.ForgeAI;
+import com.tyler.forgeai.ai.RouteCache;
+import com.tyler.forgeai.ai.SharedWorldMemory;
+import com.tyler.forgeai.core.TickScheduler;
+import com.tyler.forgeai.util.path.AStarSearch;
+import com.tyler.forgeai.util.path.GridSnapshot;
+import com.tyler.forgeai.util.path.HierarchicalPlanner;
+import com.tyler.forgeai.util.path.PathMoves;
+import com.tyler.forgeai.util.path.SearchArena;
+import com.tyler.forgeai.util.path.WalkabilityCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PathPlanningService: path requests that never block the tick.
+ * - request() queues a search and returns a future; one outstanding request per
+ *   owner, so asking again (e.g. the goal moved) cancels the previous one
+ * - Worker mode (threads > 0): the PATHING lane snapshots the walkability sections
+ *   around start and goal and hands A* to a daemon pool; results are queued and the
+ *   futures are completed on the server thread, so callbacks may touch the world
+ * - Time-sliced mode (threads = 0): searches run on the server thread with their own
+ *   arenas, iterationsPerTick node expansions per tick shared across requests
+ * - Trips beyond HierarchicalPlanner.DIRECT_RANGE get a coarse plan first and only
+ *   the first segment is searched (Path.complete = false)
+ * - Preparing a request (coarse plan, snapshot sections) is itself sliced: at most
+ *   COARSE_EXPANSIONS_PER_TICK coarse expansions and SNAPSHOT_SECTIONS_PER_TICK
+ *   section builds per tick, one request at a time
+ * - Server-thread searches draw their arenas from a small pool
+ * - Paths are shared through SharedWorldMemory's RouteCache: a request whose start
+ *   and goal regions match a valid cached route completes at once, and every path
+ *   found is stored there
+ */
+public class PathPlanningService {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-pathing");
+    private static final String OWNER = "forgeai-pathing";
+
+    /** Blocks of slack around the start/goal box that a snapshot covers. */
+    public static final int SNAPSHOT_MARGIN = 16;
+    /** Vertical slack above/below start and goal. */
+    public static final int SNAPSHOT_Y_MARGIN = 24;
+    /** Requests queued longer than this are dropped (their future is cancelled). */
+    public static final int MAX_WAIT_TICKS = 200;
+    /** Coarse (HierarchicalPlanner) expansions per tick while preparing requests. */
+    public static final int COARSE_EXPANSIONS_PER_TICK = 256;
+    /** Walkability sections built per tick for worker snapshots. */
+    public static final int SNAPSHOT_SECTIONS_PER_TICK = 32;
+    /** Idle arenas kept for reuse. */
+    private static final int MAX_POOLED_ARENAS = 8;
+
+    private static final class Request {
+        final String owner;
+        final ServerLevel level;
+        final BlockPos start;
+        final BlockPos goal;
+        final CompletableFuture<PathFinder.Path> future = new CompletableFuture<>();
+        final long submittedTick;
+        volatile boolean cancelled = false;
+        volatile AStarSearch search;
+        boolean complete = true;
+
+        // Preparation (server thread)
+        HierarchicalPlanner.CoarseSearch coarse;
+        WalkabilityCache.SnapshotBuilder snapshot;
+        long target = Long.MIN_VALUE;
+        SearchArena arena;   // pooled; coarse search, then the time-sliced search
+
+        Request(String owner, ServerLevel level, BlockPos start, BlockPos goal, long tick) {
+            this.owner = owner;
+            this.level = level;
+            this.start = start;
+            this.goal = goal;
+            this.submittedTick = tick;
+        }
+
+        void cancel() {
+            cancelled = true;
+            AStarSearch s = search;
+            if (s != null) s.cancel();
+        }
+    }
+
+    private static final class Result {
+        final Request request;
+        final long[] packed;
+
+        Result(Request request, long[] packed) {
+            this.request = request;
+            this.packed = packed;
+        }
+    }
+
+    /** Counters since startup. */
+    public static class Stats {
+        public long requested;
+        public long completed;
+        public long failed;
+        public long cancelled;
+        public long expired;
+        public long cacheHits;
+        public int queued;
+        public int running;
+
+        @Override
+        public String toString() {
+            return String.format("Pathing{requested=%d, completed=%d, cacheHits=%d, failed=%d, cancelled=%d, expired=%d, queued=%d, running=%d}",
+                requested, completed, cacheHits, failed, cancelled, expired, queued, running);
+        }
+    }
+
+    private final TickScheduler scheduler;
+    private final int threads;
+    private final int iterationsPerTick;
+    private final ExecutorService workers;
+
+    private final Map<String, Request> byOwner = new HashMap<>();
+    private final ArrayDeque<Request> queued = new ArrayDeque<>();
+    private Request preparing;
+    private final ArrayDeque<SearchArena> arenas = new ArrayDeque<>();
+    private final List<Request> slicing = new ArrayList<>();
+    private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+    private final Stats stats = new Stats();
+    private int running = 0;
+    private long tick = 0;
+
+    /**
+     * @param threads worker threads; 0 runs searches time-sliced on the server thread
+     * @param iterationsPerTick node expansions per tick in time-sliced mode
+     */
+    public PathPlanningService(TickScheduler scheduler, int threads, int iterationsPerTick) {
+        this.scheduler = scheduler;
+        this.threads = Math.max(0, threads);
+        this.iterationsPerTick = Math.max(1, iterationsPerTick);
+        if (this.threads > 0) {
+            AtomicInteger counter = new AtomicInteger();
+            this.workers = Executors.newFixedThreadPool(this.threads, r -> {
+                Thread t = new Thread(r, "forgeai-path-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            // Lives as long as the game; stopped only when the JVM exits
+            Runtime.getRuntime().addShutdownHook(new Thread(this.workers::shutdownNow, "forgeai-path-shutdown"));
+        } else {
+            this.workers = null;
+        }
+    }
+
+    /** Register the dispatch/apply job on the PATHING lane. */
+    public void init() {
+        scheduler.register(OWNER, "pathing", TickScheduler.Lane.PATHING, this::tick);
+        LOGGER.info("PathPlanningService initialized ({})",
+            threads > 0 ? threads + " worker threads" : "time-sliced, " + iterationsPerTick + " iterations/tick");
+    }
+
+    // ---- Requests --------------------------------------------------------------
+
+    /**
+     * Ask for a path. Completes on the server thread with the path, or null when
+     * none was found; cancelled if the owner asks again or cancels.
+     */
+    public CompletableFuture<PathFinder.Path> request(String owner, ServerLevel level, BlockPos start, BlockPos goal) {
+        cancel(owner);
+        // Another bot may already have walked this commute
+        RouteCache routes = routeCache();
+        if (routes != null) {
+            PathFinder.Path cached = PathFinder.fromCache(level, routes.get(level, start, goal), start, goal);
+            if (cached != null) {
+                stats.requested++;
+                stats.completed++;
+                stats.cacheHits++;
+                LOGGER.debug("Route cache hit for {}: {} -> {} ({} nodes)", owner, start, goal, cached.nodes.size());
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        Request request = new Request(owner, level, start.immutable(), goal.immutable(), tick);
+        byOwner.put(owner, request);
+        queued.add(request);
+        stats.requested++;
+        return request.future;
+    }
+
+    /** Drop the owner's outstanding request (e.g. its goal changed or it despawned). */
+    public void cancel(String owner) {
+        Request previous = byOwner.remove(owner);
+        if (previous == null) return;
+        previous.cancel();
+        queued.remove(previous);
+        slicing.remove(previous);
+        if (preparing == previous) preparing = null;
+        release(previous);
+        if (previous.future.cancel(false)) stats.cancelled++;
+    }
+
+    public boolean isPending(String owner) {
+        return byOwner.containsKey(owner);
+    }
+
+    // ---- Tick ------------------------------------------------------------------
+
+    private void tick(MinecraftServer server) {
+        tick++;
+        applyResults();
+        if (threads > 0) {
+            dispatch();
+        } else {
+            slice();
+        }
+    }
+
+    /** Start prepared searches on the workers (snapshots are taken on the server thread). */
+    private void dispatch() {
+        int coarseBudget = COARSE_EXPANSIONS_PER_TICK;
+        int sectionBudget = SNAPSHOT_SECTIONS_PER_TICK;
+        while (running < threads * 2) {
+            Request request = nextToPrepare();
+            if (request == null) return;
+            if (request.target == Long.MIN_VALUE) {
+                int before = request.coarse != null ? request.coarse.getIterations() : 0;
+                boolean ready = prepare(request, coarseBudget);
+                if (request.coarse != null) coarseBudget -= request.coarse.getIterations() - before;
+                if (!ready) return;
+                if (request.target == Long.MIN_VALUE) {
+                    preparing = null;
+                    finish(request, null);
+                    continue;
+                }
+                request.snapshot = snapshotFor(request, request.target);
+            }
+            int before = request.snapshot.getBuilt();
+            boolean ready = request.snapshot.step(sectionBudget);
+            sectionBudget -= request.snapshot.getBuilt() - before;
+            if (!ready) return;
+
+            preparing = null;
+            release(request);
+            GridSnapshot snapshot = request.snapshot.result();
+            long goal = request.target;
+            request.snapshot = null;
+            running++;
+            workers.execute(() -> {
+                long[] packed = null;
+                try {
+                    if (!request.cancelled) {
+                        AStarSearch search = new AStarSearch(snapshot, SearchArena.local(),
+                            request.start.asLong(), goal, PathFinder.MAX_ITERATIONS);
+                        request.search = search;
+                        if (!request.cancelled && search.run() == AStarSearch.Status.FOUND) packed = search.path();
+                    }
+                } catch (Exception e) {
+                    LOGGER.debug("Path search failed for {}: {}", request.owner, e.getMessage());
+                }
+                results.add(new Result(request, packed));
+            });
+        }
+    }
+
+    /** Advance server-thread searches within the per-tick iteration budget. */
+    private void slice() {
+        int coarseBudget = COARSE_EXPANSIONS_PER_TICK;
+        Request request;
+        while ((request = nextToPrepare()) != null) {
+            int before = request.coarse != null ? request.coarse.getIterations() : 0;
+            boolean ready = prepare(request, coarseBudget);
+            if (request.coarse != null) coarseBudget -= request.coarse.getIterations() - before;
+            if (!ready) break;
+            preparing = null;
+            if (request.target == Long.MIN_VALUE) {
+                finish(request, null);
+                continue;
+            }
+            // Pooled arena: the search outlives this call
+            request.search = new AStarSearch(WalkabilityCache.of(request.level), arena(request),
+                request.start.asLong(), request.target, PathFinder.MAX_ITERATIONS);
+            slicing.add(request);
+        }
+        if (slicing.isEmpty()) return;
+
+        int share = Math.max(1, iterationsPerTick / slicing.size());
+        for (Request r : new ArrayList<>(slicing)) {
+            AStarSearch.Status status = r.search.step(share);
+            if (status == AStarSearch.Status.SEARCHING) continue;
+            slicing.remove(r);
+            finish(r, status == AStarSearch.Status.FOUND ? r.search.path() : null);
+        }
+    }
+
+    /** The request being prepared, or the next live one from the queue. */
+    private Request nextToPrepare() {
+        while (preparing == null) {
+            Request request = queued.poll();
+            if (request == null) return null;
+            if (!expired(request)) preparing = request;
+        }
+        return preparing;
+    }
+
+    private void applyResults() {
+        Result result;
+        while ((result = results.poll()) != null) {
+            running--;
+            finish(result.request, result.packed);
+        }
+    }
+
+    private void finish(Request request, long[] packed) {
+        if (byOwner.get(request.owner) == request) byOwner.remove(request.owner);
+        release(request);
+        if (request.cancelled) return;
+        if (packed == null) {
+            stats.failed++;
+            request.future.complete(null);
+            return;
+        }
+        PathFinder.Path path = PathFinder.toPath(packed);
+        path.complete = request.complete;
+        RouteCache routes = routeCache();
+        if (routes != null) routes.put(request.level, request.start, request.goal, packed, request.complete);
+        stats.completed++;
+        request.future.complete(path);
+    }
+
+    private boolean expired(Request request) {
+        if (request.cancelled) return true;
+        if (tick - request.submittedTick <= MAX_WAIT_TICKS) return false;
+        if (byOwner.get(request.owner) == request) byOwner.remove(request.owner);
+        request.future.cancel(false);
+        stats.expired++;
+        return true;
+    }
+
+    /**
+     * Pick the goal the block-level search should aim for (request.target): the goal
+     * itself, or for long trips the first coarse waypoint beyond reach, found with at
+     * most budget coarse expansions this call. Returns false while the coarse search
+     * is still running; target stays Long.MIN_VALUE if there is no route.
+     */
+    private boolean prepare(Request request, int budget) {
+        BlockPos s = request.start, g = request.goal;
+        if (request.coarse == null) {
+            if (PathMoves.heuristic(s.getX(), s.getY(), s.getZ(), g.getX(), g.getY(), g.getZ()) <= HierarchicalPlanner.DIRECT_RANGE) {
+                request.target = g.asLong();
+                return true;
+            }
+            request.coarse = HierarchicalPlanner.of(request.level).start(s.asLong(), g.asLong(), arena(request));
+        }
+        if (!request.coarse.step(Math.max(0, budget))) return false;
+        HierarchicalPlanner.Plan plan = request.coarse.result();
+        request.coarse = null;
+        if (plan == null) return true;
+        int target = 1;
+        while (target + 1 < plan.waypoints.length
+                && distance(s, plan.waypoints[target + 1]) <= HierarchicalPlanner.SEGMENT_REACH) {
+            target++;
+        }
+        request.complete = target == plan.waypoints.length - 1 && !plan.partial;
+        request.target = plan.waypoints[target];
+        return true;
+    }
+
+    private static float distance(BlockPos from, long to) {
+        return PathMoves.heuristic(from.getX(), from.getY(), from.getZ(),
+            BlockPos.getX(to), BlockPos.getY(to), BlockPos.getZ(to));
+    }
+
+    private WalkabilityCache.SnapshotBuilder snapshotFor(Request request, long goal) {
+        BlockPos s = request.start;
+        int gx = BlockPos.getX(goal), gy = BlockPos.getY(goal), gz = BlockPos.getZ(goal);
+        return WalkabilityCache.of(request.level).snapshotBuilder(
+            Math.min(s.getX(), gx) - SNAPSHOT_MARGIN, Math.min(s.getY(), gy) - SNAPSHOT_Y_MARGIN,
+            Math.min(s.getZ(), gz) - SNAPSHOT_MARGIN, Math.max(s.getX(), gx) + SNAPSHOT_MARGIN,
+            Math.max(s.getY(), gy) + SNAPSHOT_Y_MARGIN, Math.max(s.getZ(), gz) + SNAPSHOT_MARGIN);
+    }
+
+    private static RouteCache routeCache() {
+        SharedWorldMemory memory = ForgeAI.getSharedWorldMemory();
+        return memory != null ? memory.getRouteCache() : null;
+    }
+
+    // ---- Arena pool ------------------------------------------------------------
+
+    private SearchArena arena(Request request) {
+        if (request.arena == null) {
+            SearchArena pooled = arenas.poll();
+            request.arena = pooled != null ? pooled : new SearchArena();
+        }
+        return request.arena;
+    }
+
+    private void release(Request request) {
+        SearchArena arena = request.arena;
+        if (arena == null) return;
+        request.arena = null;
+        request.coarse = null;
+        request.search = null;
+        if (arenas.size() < MAX_POOLED_ARENAS) arenas.push(arena);
+    }
+
+    // ---- Lifecycle / stats -----------------------------------------------------
+
+    /**
+     * Server stopping: cancel every request. The service and its worker pool carry
+     * over to the next server (integrated server: another world may be opened);
+     * searches still running finish on their own and are dropped when applied.
+     */
+    public void stop() {
+        for (String owner : new ArrayList<>(byOwner.keySet())) cancel(owner);
+    }
+
+    public Stats getStats() {
+        Stats s = new Stats();
+        s.requested = stats.requested;
+        s.completed = stats.completed;
+        s.failed = stats.failed;
+        s.cancelled = stats.cancelled;
+        s.expired = stats.expired;
+        s.cacheHits = stats.cacheHits;
+        s.queued = queued.size() + (preparing != null ? 1 : 0);
+        s.running = threads > 0 ? running : slicing.size();
+        return s;
+    }
+}
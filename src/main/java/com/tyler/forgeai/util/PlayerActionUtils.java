@@ -207,6 +207,22 @@ public class PlayerActionUtils {
         }
     }
 
+    /**
+     * Take one step along a flow field: face the next standing cell and walk.
+     * Returns false (and stops) when the player is off the field or cut off from its goal.
+     */
+    public static boolean followFlowField(ServerPlayer player, com.tyler.forgeai.util.path.FlowField field) {
+        BlockPos next = field.nextStep(player.blockPosition().below());
+        if (next == null) {
+            moveForward(player, 0.0f);
+            return false;
+        }
+        // Cells are the blocks to stand on: aim at the top centre
+        lookAt(player, next.getX() + 0.5, next.getY() + 1, next.getZ() + 0.5);
+        moveForward(player, 0.6f);
+        return true;
+    }
+
     /**
      * Look at entity.
      */
@@ -0,0 +1,116 @@
+package com.tyler.forgeai.util.path;
+
+import net.minecraft.core.BlockPos;
+
+/**
+ * AStarSearch: block-level A* over packed long positions.
+ * - Nodes are keyed by BlockPos.asLong in an open-addressing map
+ * - The open set is an indexed heap with decrease-key (no stale duplicates)
+ * - Search state lives in a SearchArena, so warm searches do not allocate
+ * - step(budget) is resumable, so a search can be spread over several ticks
+ */
+public class AStarSearch {
+    public enum Status { SEARCHING, FOUND, FAILED, CANCELLED }
+
+    private final PathGrid grid;
+    private final SearchArena arena;
+    private final long start;
+    private final long goal;
+    private final int goalX, goalY, goalZ;
+    private final int maxIterations;
+
+    private Status status = Status.SEARCHING;
+    private int iterations = 0;
+    private int goalNode = -1;
+    private volatile boolean cancelled = false;
+
+    public AStarSearch(PathGrid grid, SearchArena arena, long start, long goal, int maxIterations) {
+        this.grid = grid;
+        this.arena = arena;
+        this.start = start;
+        this.goal = goal;
+        this.goalX = BlockPos.getX(goal);
+        this.goalY = BlockPos.getY(goal);
+        this.goalZ = BlockPos.getZ(goal);
+        this.maxIterations = maxIterations;
+
+        arena.reset();
+        int s = arena.node(start);
+        arena.g[s] = 0;
+        arena.open.update(s, h(start), h(start));
+    }
+
+    /** Blocking search on the calling thread's arena. Returns packed path or null. */
+    public static long[] findPath(PathGrid grid, long start, long goal, int maxIterations) {
+        AStarSearch search = new AStarSearch(grid, SearchArena.local(), start, goal, maxIterations);
+        return search.run() == Status.FOUND ? search.path() : null;
+    }
+
+    public Status run() {
+        return step(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Expand up to budget nodes. Returns SEARCHING if the search should be
+     * resumed later, otherwise the final status.
+     */
+    public Status step(int budget) {
+        if (status != Status.SEARCHING) return status;
+        SearchArena a = arena;
+        NodeHeap open = a.open;
+
+        while (budget-- > 0) {
+            if (cancelled) return status = Status.CANCELLED;
+            if (open.isEmpty() || iterations >= maxIterations) return status = Status.FAILED;
+            iterations++;
+
+            int current = open.pop();
+            long packed = a.pos[current];
+            if (packed == goal) {
+                goalNode = current;
+                return status = Status.FOUND;
+            }
+            a.closed[current] = true;
+
+            int x = BlockPos.getX(packed), y = BlockPos.getY(packed), z = BlockPos.getZ(packed);
+            float nextG = a.g[current] + PathMoves.STEP_COST;
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                int nx = x + PathMoves.DX[m], ny = y + PathMoves.DY[m], nz = z + PathMoves.DZ[m];
+                long np = BlockPos.asLong(nx, ny, nz);
+                int existing = a.find(np);
+                if (existing >= 0 && (a.closed[existing] || nextG >= a.g[existing])) continue;
+                if (!PathMoves.canEnter(grid, m, nx, ny, nz)) continue;
+
+                int n = existing >= 0 ? existing : a.node(np);
+                a.g[n] = nextG;
+                a.parent[n] = current;
+                float hn = PathMoves.heuristic(nx, ny, nz, goalX, goalY, goalZ);
+                open.update(n, nextG + hn, hn);
+            }
+        }
+        return status;
+    }
+
+    /** Stop the search at the next step (safe from any thread). */
+    public void cancel() { cancelled = true; }
+
+    /** Packed positions from start to goal, inclusive. Only valid when FOUND. */
+    public long[] path() {
+        if (status != Status.FOUND) return null;
+        int length = 0;
+        for (int n = goalNode; n >= 0; n = arena.parent[n]) length++;
+        long[] out = new long[length];
+        int i = length;
+        for (int n = goalNode; n >= 0; n = arena.parent[n]) out[--i] = arena.pos[n];
+        return out;
+    }
+
+    public Status getStatus() { return status; }
+    public int getIterations() { return iterations; }
+    public long getStart() { return start; }
+    public long getGoal() { return goal; }
+
+    private float h(long p) {
+        return PathMoves.heuristic(BlockPos.getX(p), BlockPos.getY(p), BlockPos.getZ(p), goalX, goalY, goalZ);
+    }
+}
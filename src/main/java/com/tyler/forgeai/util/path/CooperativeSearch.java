@@ -0,0 +1,93 @@
+package com.tyler.forgeai.util.path;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * CooperativeSearch: space-time A* over (standing cell, step) for one planning
+ * window, avoiding cells other bots reserved in a ReservationTable.
+ * - Moves are the PathMoves set plus waiting in place; every step costs 1, so g
+ *   is the step and f = step + distance to the goal
+ * - The search ends at the goal or at the window horizon; the first such state
+ *   popped is the best one, so a bot gets a window to walk (possibly all waits)
+ *   even when the way ahead is blocked for a while
+ * - The start cell is never checked: the bot is already standing there
+ */
+public final class CooperativeSearch {
+    private CooperativeSearch() {}
+
+    /**
+     * One standing cell per step from firstStep (cells[0] = start), ending at goal
+     * or after window steps. Null if the budget runs out or every branch is blocked.
+     */
+    public static long[] plan(PathGrid grid, ReservationTable table, int owner,
+                              long start, long goal, long firstStep, int window, int maxExpansions) {
+        int gx = BlockPos.getX(goal), gy = BlockPos.getY(goal), gz = BlockPos.getZ(goal);
+
+        // A state is (cell, step); one position index per step layer
+        LongIntHashMap[] layers = new LongIntHashMap[window + 1];
+        for (int t = 0; t <= window; t++) layers[t] = new LongIntHashMap(64);
+        NodeHeap open = new NodeHeap(256);
+        long[] pos = new long[256];
+        int[] step = new int[256];
+        int[] parent = new int[256];
+        int count;
+
+        pos[0] = start;
+        step[0] = 0;
+        parent[0] = -1;
+        layers[0].put(start, 0);
+        count = 1;
+        open.update(0, h(start, gx, gy, gz), 0);
+
+        for (int expansions = 0; expansions < maxExpansions && !open.isEmpty(); expansions++) {
+            int current = open.pop();
+            long p = pos[current];
+            int t = step[current];
+            if (p == goal || t == window) return trace(pos, parent, current, t);
+
+            int x = BlockPos.getX(p), y = BlockPos.getY(p), z = BlockPos.getZ(p);
+            long when = firstStep + t + 1;
+            for (int m = -1; m < PathMoves.COUNT; m++) {
+                int nx = x, ny = y, nz = z;
+                if (m >= 0) {
+                    nx += PathMoves.DX[m];
+                    ny += PathMoves.DY[m];
+                    nz += PathMoves.DZ[m];
+                    if (!PathMoves.canEnter(grid, m, nx, ny, nz)) continue;
+                }
+                long np = m < 0 ? p : BlockPos.asLong(nx, ny, nz);
+                if (layers[t + 1].containsKey(np)) continue;
+                if (!table.isFree(owner, nx, ny, nz, when)) continue;
+
+                if (count == pos.length) {
+                    int cap = count * 2;
+                    pos = Arrays.copyOf(pos, cap);
+                    step = Arrays.copyOf(step, cap);
+                    parent = Arrays.copyOf(parent, cap);
+                    open.ensureNodeCapacity(cap);
+                }
+                int n = count++;
+                pos[n] = np;
+                step[n] = t + 1;
+                parent[n] = current;
+                layers[t + 1].put(np, n);
+                float g = (t + 1) * PathMoves.STEP_COST;
+                // Prefer later (deeper) states on ties so the search dives toward the goal
+                open.update(n, g + h(np, gx, gy, gz), -g);
+            }
+        }
+        return null;
+    }
+
+    private static long[] trace(long[] pos, int[] parent, int node, int steps) {
+        long[] out = new long[steps + 1];
+        for (int n = node, i = steps; n >= 0; n = parent[n]) out[i--] = pos[n];
+        return out;
+    }
+
+    private static float h(long p, int gx, int gy, int gz) {
+        return PathMoves.heuristic(BlockPos.getX(p), BlockPos.getY(p), BlockPos.getZ(p), gx, gy, gz);
+    }
+}
@@ -0,0 +1,274 @@
+package com.tyler.forgeai.util.path;
+
+import com.tyler.forgeai.core.WorldChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+
+import java.util.Arrays;
+
+/**
+ * DStarLite: incremental replanning for one bot's route (Koenig & Likhachev).
+ * - Searches backwards from the goal, so g values are costs-to-goal and survive
+ *   the bot moving (moveStart bumps km instead of resetting)
+ * - Block changes arrive through WorldChangeTracker; a move's validity depends only
+ *   on its target block, so a change at p only touches the edges into p, and only
+ *   the vertices p - offset are re-evaluated on the next replan
+ * - Keys are (min(g, rhs) + h + km, min(g, rhs)) in a NodeHeap
+ * Server thread only. close() unregisters the listener.
+ */
+public class DStarLite implements WorldChangeTracker.Listener {
+    public enum Status { IDLE, FOUND, NO_PATH, LIMIT }
+
+    private static final float INF = Float.POSITIVE_INFINITY;
+
+    private final PathGrid grid;
+    private final Level level;
+    private final long goal;
+    private final int maxNodes;
+
+    private final LongIntHashMap index = new LongIntHashMap(4096);
+    private final NodeHeap open = new NodeHeap(4096);
+    private long[] pos = new long[4096];
+    private float[] g = new float[4096];
+    private float[] rhs = new float[4096];
+    private int count = 0;
+
+    private long start;
+    private float km = 0;
+    private Status status = Status.IDLE;
+
+    // Block changes since the last replan (applied together, after the grid has updated)
+    private long[] pending = new long[64];
+    private int pendingCount = 0;
+
+    private long expansions = 0;
+    private boolean closed = false;
+
+    public DStarLite(PathGrid grid, Level level, long start, long goal, int maxNodes) {
+        this.grid = grid;
+        this.level = level;
+        this.start = start;
+        this.goal = goal;
+        this.maxNodes = maxNodes;
+
+        int gn = node(goal);
+        rhs[gn] = 0;
+        open.update(gn, h(goal), 0);
+        if (level != null) WorldChangeTracker.addListener(this);
+    }
+
+    // ---- Public API -------------------------------------------------------------
+
+    /** Bring the search up to date (applying queued block changes) and report the result. */
+    public Status replan() {
+        if (closed) return status;
+        applyChanges();
+        computeShortestPath();
+        return status;
+    }
+
+    /** The bot moved: keep all search state and shift the key offset. */
+    public void moveStart(long newStart) {
+        if (newStart == start) return;
+        km += h(newStart, start);
+        start = newStart;
+    }
+
+    /** Packed positions from start to goal following the current g values, or null. */
+    public long[] path() {
+        if (status != Status.FOUND) return null;
+        long[] out = new long[64];
+        int length = 0;
+        long current = start;
+        out[length++] = current;
+        // A consistent solution strictly decreases g at each step, so this terminates
+        while (current != goal && length <= count) {
+            int x = BlockPos.getX(current), y = BlockPos.getY(current), z = BlockPos.getZ(current);
+            long best = 0;
+            float bestCost = INF;
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                int nx = x + PathMoves.DX[m], ny = y + PathMoves.DY[m], nz = z + PathMoves.DZ[m];
+                long np = BlockPos.asLong(nx, ny, nz);
+                float cost = PathMoves.STEP_COST + gOf(np);
+                if (cost < bestCost && PathMoves.canEnter(grid, m, nx, ny, nz)) {
+                    bestCost = cost;
+                    best = np;
+                }
+            }
+            if (bestCost == INF) return null;
+            current = best;
+            if (length == out.length) out = Arrays.copyOf(out, length * 2);
+            out[length++] = current;
+        }
+        return current == goal ? Arrays.copyOf(out, length) : null;
+    }
+
+    /** Stop listening for block changes. */
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (level != null) WorldChangeTracker.removeListener(this);
+    }
+
+    public Status getStatus() { return status; }
+    public long getStart() { return start; }
+    public long getGoal() { return goal; }
+    public int getNodeCount() { return count; }
+    public long getExpansions() { return expansions; }
+    public boolean hasPendingChanges() { return pendingCount > 0; }
+
+    // ---- Change notifications -----------------------------------------------------
+
+    @Override
+    public void onBlockChanged(Level changed, BlockPos p) {
+        if (changed != level || closed) return;
+        if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+        pending[pendingCount++] = p.asLong();
+    }
+
+    /** Feed a change directly (for grids that are not backed by the world). */
+    public void notifyChanged(int x, int y, int z) {
+        if (pendingCount == pending.length) pending = Arrays.copyOf(pending, pendingCount * 2);
+        pending[pendingCount++] = BlockPos.asLong(x, y, z);
+    }
+
+    private void applyChanges() {
+        if (pendingCount == 0) return;
+        for (int i = 0; i < pendingCount; i++) {
+            long p = pending[i];
+            int px = BlockPos.getX(p), py = BlockPos.getY(p), pz = BlockPos.getZ(p);
+            // Every vertex with an edge into p may have a new best successor
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                long u = BlockPos.asLong(px - PathMoves.DX[m], py - PathMoves.DY[m], pz - PathMoves.DZ[m]);
+                int n = index.get(u);
+                if (n == LongIntHashMap.MISSING || u == goal) continue;
+                rhs[n] = bestSuccessor(u);
+                updateVertex(n);
+            }
+        }
+        pendingCount = 0;
+    }
+
+    // ---- Search -----------------------------------------------------------------
+
+    private void computeShortestPath() {
+        int s = node(start);
+        while (!open.isEmpty()) {
+            float startK1 = Math.min(g[s], rhs[s]) + km;
+            float startK2 = Math.min(g[s], rhs[s]);
+            float topK1 = open.peekKey1(), topK2 = open.peekKey2();
+            boolean topBelowStart = topK1 < startK1 || (topK1 == startK1 && topK2 < startK2);
+            if (!topBelowStart && rhs[s] <= g[s]) break;
+            if (count >= maxNodes) {
+                status = Status.LIMIT;
+                return;
+            }
+
+            int u = open.peek();
+            expansions++;
+            long up = pos[u];
+            float newK1 = Math.min(g[u], rhs[u]) + h(up) + km;
+            float newK2 = Math.min(g[u], rhs[u]);
+            if (topK1 < newK1 || (topK1 == newK1 && topK2 < newK2)) {
+                // Key was computed with an older km
+                open.update(u, newK1, newK2);
+            } else if (g[u] > rhs[u]) {
+                g[u] = rhs[u];
+                open.remove(u);
+                for (int m = 0; m < PathMoves.COUNT; m++) {
+                    long pred = predecessor(up, m);
+                    if (pred == Long.MIN_VALUE || pred == goal) continue;
+                    int pn = node(pred);
+                    float cost = PathMoves.STEP_COST + g[u];
+                    if (cost < rhs[pn]) {
+                        rhs[pn] = cost;
+                        updateVertex(pn);
+                    }
+                }
+            } else {
+                float gOld = g[u];
+                g[u] = INF;
+                if (up != goal) {
+                    rhs[u] = bestSuccessor(up);
+                }
+                updateVertex(u);
+                for (int m = 0; m < PathMoves.COUNT; m++) {
+                    long pred = predecessor(up, m);
+                    if (pred == Long.MIN_VALUE || pred == goal) continue;
+                    int pn = index.get(pred);
+                    if (pn == LongIntHashMap.MISSING) continue;
+                    if (rhs[pn] == PathMoves.STEP_COST + gOld) {
+                        rhs[pn] = bestSuccessor(pred);
+                        updateVertex(pn);
+                    }
+                }
+            }
+            s = index.get(start);
+        }
+        status = rhs[s] < INF ? Status.FOUND : Status.NO_PATH;
+    }
+
+    private void updateVertex(int n) {
+        if (g[n] != rhs[n]) {
+            float k2 = Math.min(g[n], rhs[n]);
+            open.update(n, k2 + h(pos[n]) + km, k2);
+        } else if (open.contains(n)) {
+            open.remove(n);
+        }
+    }
+
+    /**
+     * Source of the edge that reaches v with move m, or Long.MIN_VALUE if v
+     * cannot be entered that way.
+     */
+    private long predecessor(long v, int m) {
+        int x = BlockPos.getX(v), y = BlockPos.getY(v), z = BlockPos.getZ(v);
+        if (!PathMoves.canEnter(grid, m, x, y, z)) return Long.MIN_VALUE;
+        return BlockPos.asLong(x - PathMoves.DX[m], y - PathMoves.DY[m], z - PathMoves.DZ[m]);
+    }
+
+    /** min over successors s' of (cost + g(s')). */
+    private float bestSuccessor(long u) {
+        int x = BlockPos.getX(u), y = BlockPos.getY(u), z = BlockPos.getZ(u);
+        float best = INF;
+        for (int m = 0; m < PathMoves.COUNT; m++) {
+            int nx = x + PathMoves.DX[m], ny = y + PathMoves.DY[m], nz = z + PathMoves.DZ[m];
+            float cost = PathMoves.STEP_COST + gOf(BlockPos.asLong(nx, ny, nz));
+            if (cost < best && PathMoves.canEnter(grid, m, nx, ny, nz)) best = cost;
+        }
+        return best;
+    }
+
+    private float gOf(long p) {
+        int n = index.get(p);
+        return n == LongIntHashMap.MISSING ? INF : g[n];
+    }
+
+    private int node(long p) {
+        int n = index.get(p);
+        if (n != LongIntHashMap.MISSING) return n;
+        n = count++;
+        if (n >= pos.length) {
+            int cap = pos.length << 1;
+            pos = Arrays.copyOf(pos, cap);
+            g = Arrays.copyOf(g, cap);
+            rhs = Arrays.copyOf(rhs, cap);
+            open.ensureNodeCapacity(cap);
+        }
+        pos[n] = p;
+        g[n] = INF;
+        rhs[n] = INF;
+        index.put(p, n);
+        return n;
+    }
+
+    /** Heuristic from the current start (searching backwards, so h is to the start). */
+    private float h(long p) {
+        return h(p, start);
+    }
+
+    private static float h(long a, long b) {
+        return PathMoves.heuristic(BlockPos.getX(a), BlockPos.getY(a), BlockPos.getZ(a),
+            BlockPos.getX(b), BlockPos.getY(b), BlockPos.getZ(b));
+    }
+}
@@ -0,0 +1,153 @@
+package com.tyler.forgeai.util.path;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * FlowField: next step toward one goal for every standing cell in a box around it.
+ * - Built by one backwards breadth-first search from the goal (moves cost 1, so this
+ *   is Dijkstra); any number of agents then read their next step in O(1)
+ * - One byte per cell: the move to take, so following the field walks a shortest path
+ * - of() caches fields per level (LRU of MAX_FIELDS) until the walkability flags of a
+ *   chunk of the box change (WalkabilityCache flag version); other block changes
+ *   (crops, furnaces, redstone) keep the field
+ * - The BFS queue is a per-thread buffer reused across builds
+ * Fields are immutable once built; of() is server thread only.
+ */
+public class FlowField {
+    public static final int DEFAULT_RADIUS = 32;
+    public static final int DEFAULT_HEIGHT = 12;
+    public static final int MAX_FIELDS = 32;
+
+    /** next() result for cells outside the box or with no way to the goal. */
+    public static final long NO_STEP = Long.MIN_VALUE;
+
+    private static final byte UNREACHED = -1;
+    private static final byte AT_GOAL = PathMoves.COUNT;
+
+    private static final Map<Level, LinkedHashMap<Long, FlowField>> caches = new WeakHashMap<>();
+    private static final ThreadLocal<int[]> QUEUE = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final long goal;
+    private final int minX, minY, minZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final byte[] moves;
+    private final long version;
+    private int reachable = 0;
+
+    private FlowField(long goal, int radius, int height, long version) {
+        this.goal = goal;
+        this.minX = BlockPos.getX(goal) - radius;
+        this.minY = BlockPos.getY(goal) - height;
+        this.minZ = BlockPos.getZ(goal) - radius;
+        this.sizeX = radius * 2 + 1;
+        this.sizeY = height * 2 + 1;
+        this.sizeZ = radius * 2 + 1;
+        this.moves = new byte[sizeX * sizeY * sizeZ];
+        this.version = version;
+    }
+
+    /** Cached field toward goal (a standing cell), rebuilt after its area changed. */
+    public static FlowField of(ServerLevel level, BlockPos goal) {
+        LinkedHashMap<Long, FlowField> fields = caches.computeIfAbsent(level, l -> new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, FlowField> eldest) {
+                return size() > MAX_FIELDS;
+            }
+        });
+        long key = goal.asLong();
+        WalkabilityCache grid = WalkabilityCache.of(level);
+        long version = grid.getFlagVersion(
+            goal.getX() - DEFAULT_RADIUS, goal.getZ() - DEFAULT_RADIUS,
+            goal.getX() + DEFAULT_RADIUS, goal.getZ() + DEFAULT_RADIUS);
+        FlowField field = fields.get(key);
+        if (field == null || field.version != version) {
+            field = build(grid, key, DEFAULT_RADIUS, DEFAULT_HEIGHT, version);
+            fields.put(key, field);
+        }
+        return field;
+    }
+
+    /** Build an uncached field over any grid. */
+    public static FlowField build(PathGrid grid, long goal, int radius, int height) {
+        return build(grid, goal, radius, height, 0);
+    }
+
+    private static FlowField build(PathGrid grid, long goal, int radius, int height, long version) {
+        FlowField field = new FlowField(goal, radius, height, version);
+        byte[] moves = field.moves;
+        Arrays.fill(moves, UNREACHED);
+
+        int[] queue = QUEUE.get();
+        if (queue.length < moves.length) {
+            queue = new int[moves.length];
+            QUEUE.set(queue);
+        }
+        int head = 0, tail = 0;
+        int start = field.index(BlockPos.getX(goal), BlockPos.getY(goal), BlockPos.getZ(goal));
+        moves[start] = AT_GOAL;
+        queue[tail++] = start;
+
+        int layer = field.sizeX * field.sizeZ;
+        while (head < tail) {
+            int v = queue[head++];
+            int ly = v / layer, rest = v - ly * layer, lz = rest / field.sizeX, lx = rest - lz * field.sizeX;
+            int vx = field.minX + lx, vy = field.minY + ly, vz = field.minZ + lz;
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                // A move's validity depends only on the cell it enters
+                if (!PathMoves.canEnter(grid, m, vx, vy, vz)) continue;
+                int ux = vx - PathMoves.DX[m], uy = vy - PathMoves.DY[m], uz = vz - PathMoves.DZ[m];
+                int u = field.index(ux, uy, uz);
+                if (u < 0 || moves[u] != UNREACHED) continue;
+                if (!grid.isWalkable(ux, uy, uz) && !grid.isClimbable(ux, uy, uz)) continue;
+                moves[u] = (byte) m;
+                queue[tail++] = u;
+            }
+        }
+        field.reachable = tail;
+        return field;
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    /** Standing cell to move to next from (x, y, z); the goal at the goal, NO_STEP if none. */
+    public long next(int x, int y, int z) {
+        int i = index(x, y, z);
+        if (i < 0) return NO_STEP;
+        byte m = moves[i];
+        if (m == UNREACHED) return NO_STEP;
+        if (m == AT_GOAL) return goal;
+        return BlockPos.asLong(x + PathMoves.DX[m], y + PathMoves.DY[m], z + PathMoves.DZ[m]);
+    }
+
+    public long next(long cell) {
+        return next(BlockPos.getX(cell), BlockPos.getY(cell), BlockPos.getZ(cell));
+    }
+
+    /** Next standing cell, or null if cell is outside the box or cut off from the goal. */
+    public BlockPos nextStep(BlockPos cell) {
+        long next = next(cell.getX(), cell.getY(), cell.getZ());
+        return next == NO_STEP ? null : BlockPos.of(next);
+    }
+
+    public boolean canReach(BlockPos cell) {
+        return next(cell.getX(), cell.getY(), cell.getZ()) != NO_STEP;
+    }
+
+    public long getGoal() { return goal; }
+    public BlockPos getGoalPos() { return BlockPos.of(goal); }
+    /** Cells with a way to the goal (including the goal). */
+    public int getReachable() { return reachable; }
+
+    private int index(int x, int y, int z) {
+        int lx = x - minX, ly = y - minY, lz = z - minZ;
+        if (lx < 0 || ly < 0 || lz < 0 || lx >= sizeX || ly >= sizeY || lz >= sizeZ) return -1;
+        return (ly * sizeZ + lz) * sizeX + lx;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tyler.forgeai.util.path;
+
+/**
+ * GridSnapshot: immutable view of WalkabilityCache sections over a box.
+ * - Section arrays are shared, not copied: the cache never mutates a built
+ *   section (a block change drops it and the next query builds a new one)
+ * - Dense section table, so lookups do no hashing
+ * - Everything outside the box reads as empty, which confines a search to it
+ * Safe to read from any thread once built.
+ */
+public final class GridSnapshot implements PathGrid {
+    private final int minSX, minSY, minSZ;
+    private final int sizeX, sizeY, sizeZ;
+    private final byte[][] sections;
+
+    GridSnapshot(int minSX, int minSY, int minSZ, int sizeX, int sizeY, int sizeZ, byte[][] sections) {
+        this.minSX = minSX;
+        this.minSY = minSY;
+        this.minSZ = minSZ;
+        this.sizeX = sizeX;
+        this.sizeY = sizeY;
+        this.sizeZ = sizeZ;
+        this.sections = sections;
+    }
+
+    public byte flags(int x, int y, int z) {
+        int sx = (x >> 4) - minSX, sy = (y >> 4) - minSY, sz = (z >> 4) - minSZ;
+        if (sx < 0 || sy < 0 || sz < 0 || sx >= sizeX || sy >= sizeY || sz >= sizeZ) return 0;
+        byte[] section = sections[(sy * sizeZ + sz) * sizeX + sx];
+        if (section == null) return 0;
+        return section[((y & 15) << 8) | ((z & 15) << 4) | (x & 15)];
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y, int z) {
+        return (flags(x, y, z) & WalkabilityCache.WALKABLE) != 0;
+    }
+
+    @Override
+    public boolean isClimbable(int x, int y, int z) {
+        return (flags(x, y, z) & WalkabilityCache.CLIMBABLE) != 0;
+    }
+
+    public int getSectionCount() { return sections.length; }
+}
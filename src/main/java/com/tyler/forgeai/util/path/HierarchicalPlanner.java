@@ -0,0 +1,463 @@
+package com.tyler.forgeai.util.path;
+
+import com.tyler.forgeai.core.WorldChangeTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * HierarchicalPlanner: HPA*-style long-distance planning over chunks.
+ * - Each chunk is abstracted to its entrances: the middle block of every run of
+ *   walkable block pairs across a chunk border (capped per side), inside a y window
+ * - Intra-chunk edges are exact block distances, found by a BFS confined to the chunk
+ *   and computed lazily the first time the coarse search expands an entrance
+ * - Chunk graphs live in an LRU of MAX_CHUNKS entries and are rebuilt when a block in
+ *   the chunk or its border neighbours changed (WorldChangeTracker versions)
+ * - plan() returns coarse waypoints; Plan.nextSegment refines only the next stretch
+ *   at block level with AStarSearch
+ * - start() returns a resumable CoarseSearch so callers inside the tick budget can
+ *   spread a long plan over ticks; plan() runs one to completion
+ * Only loaded chunks are planned through. If the goal is out of reach the plan ends at
+ * the closest expanded point and is marked partial. Server thread only.
+ */
+public class HierarchicalPlanner {
+    private static final Logger LOGGER = LoggerFactory.getLogger("forgeai-hpa");
+
+    /** Below this distance a plain block-level search is cheaper than the abstraction. */
+    public static final int DIRECT_RANGE = 64;
+    public static final int MAX_CHUNKS = 4096;
+    public static final int MAX_ENTRANCES_PER_SIDE = 4;
+    /** Blocks above/below the start and goal heights that the coarse graph considers. */
+    public static final int Y_MARGIN = 24;
+    public static final int MAX_ABSTRACT_ITERATIONS = 20_000;
+    public static final int SEGMENT_ITERATIONS = 20_000;
+    /** How far ahead (heuristic distance) a refined segment reaches. */
+    public static final int SEGMENT_REACH = 32;
+
+    private static final Map<Level, HierarchicalPlanner> planners = new WeakHashMap<>();
+
+    /** Coarse route: block waypoints from start towards goal. */
+    public static class Plan {
+        public final long[] waypoints;
+        /** True when the goal was unreachable and the route ends at the closest point found. */
+        public final boolean partial;
+        private int next = 1;
+
+        Plan(long[] waypoints, boolean partial) {
+            this.waypoints = waypoints;
+            this.partial = partial;
+        }
+
+        public boolean isFinished() { return next >= waypoints.length; }
+
+        public long getFinalWaypoint() { return waypoints[waypoints.length - 1]; }
+
+        /**
+         * Block-level path from 'from' to the farthest upcoming waypoint within
+         * SEGMENT_REACH. Returns null when finished or when the stretch is blocked
+         * (the caller should replan).
+         */
+        public long[] nextSegment(PathGrid grid, long from) {
+            if (isFinished()) return null;
+            int fx = BlockPos.getX(from), fy = BlockPos.getY(from), fz = BlockPos.getZ(from);
+            int target = next;
+            while (target + 1 < waypoints.length && reach(fx, fy, fz, waypoints[target + 1]) <= SEGMENT_REACH) {
+                target++;
+            }
+            long[] segment = AStarSearch.findPath(grid, from, waypoints[target], SEGMENT_ITERATIONS);
+            if (segment != null) next = target + 1;
+            return segment;
+        }
+
+        private static float reach(int x, int y, int z, long p) {
+            return PathMoves.heuristic(x, y, z, BlockPos.getX(p), BlockPos.getY(p), BlockPos.getZ(p));
+        }
+    }
+
+    /** Entrances of one chunk and the lazily computed edges between them. */
+    static final class ChunkGraph {
+        final long version;
+        final int minY, maxY;
+        final long[] nodes;
+        final long[][] crossings;   // partner entrances in neighbouring chunks
+        final long[][] edgeTo;      // null until the node is first expanded
+        final float[][] edgeCost;
+
+        ChunkGraph(long version, int minY, int maxY, long[] nodes, long[][] crossings) {
+            this.version = version;
+            this.minY = minY;
+            this.maxY = maxY;
+            this.nodes = nodes;
+            this.crossings = crossings;
+            this.edgeTo = new long[nodes.length][];
+            this.edgeCost = new float[nodes.length][];
+        }
+
+        int indexOf(long pos) {
+            for (int i = 0; i < nodes.length; i++) if (nodes[i] == pos) return i;
+            return -1;
+        }
+    }
+
+    private final PathGrid grid;
+    private final Level level;
+    private final int levelMinY, levelMaxY;
+    private final LinkedHashMap<Long, ChunkGraph> chunks = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, ChunkGraph> eldest) {
+            return size() > MAX_CHUNKS;
+        }
+    };
+
+    // Scratch for the chunk-confined BFS: dense arrays over chunk x window, indexed
+    // (y, z, x); a stamp per cell replaces clearing between searches
+    private int[] bfsStamp = new int[0];
+    private int[] bfsDist = new int[0];
+    private int[] bfsQueue = new int[0];
+    private int stamp = 0;
+    private int bfsMinX, bfsMinZ;
+
+    // Window of the search being stepped; chunk graphs built for another window are rebuilt
+    private int minY, maxY;
+
+    private long chunksBuilt = 0;
+    private long plans = 0;
+
+    public HierarchicalPlanner(PathGrid grid, Level level, int levelMinY, int levelMaxY) {
+        this.grid = grid;
+        this.level = level;
+        this.levelMinY = levelMinY;
+        this.levelMaxY = levelMaxY;
+    }
+
+    public static HierarchicalPlanner of(ServerLevel level) {
+        return planners.computeIfAbsent(level,
+            l -> new HierarchicalPlanner(WalkabilityCache.of(level), level, level.getMinY(), level.getMaxY()));
+    }
+
+    public PathGrid getGrid() { return grid; }
+    public int getCachedChunks() { return chunks.size(); }
+    public long getChunksBuilt() { return chunksBuilt; }
+    public long getPlans() { return plans; }
+
+    // ---- Coarse search ----------------------------------------------------------
+
+    /**
+     * Plan a coarse route in one call. Short trips get a two-waypoint plan (start,
+     * goal) that nextSegment refines directly. Returns null only when nothing could
+     * be expanded. Can take up to MAX_ABSTRACT_ITERATIONS expansions: code running
+     * inside the tick budget uses start() and steps it instead.
+     */
+    public Plan plan(long start, long goal) {
+        CoarseSearch search = start(start, goal, SearchArena.local());
+        search.step(Integer.MAX_VALUE);
+        return search.result();
+    }
+
+    /** Begin a coarse search to be advanced with step(); the arena is used until it is done. */
+    public CoarseSearch start(long start, long goal, SearchArena arena) {
+        plans++;
+        return new CoarseSearch(start, goal, arena);
+    }
+
+    /**
+     * Resumable coarse A*: step(expansions) advances it, so a long plan can be
+     * spread over ticks. Each expansion may build one chunk graph and run one
+     * chunk-confined BFS. Server thread only.
+     */
+    public final class CoarseSearch {
+        private final long start, goal;
+        private final int gx, gy, gz, goalChunkX, goalChunkZ;
+        private final int windowMinY, windowMaxY;
+        private final SearchArena a;
+        private final int startNode;
+        private int best;
+        private float bestH;
+        private int iterations = 0;
+        private int goalNode = -1;
+        private boolean done;
+        private Plan result;
+
+        private CoarseSearch(long start, long goal, SearchArena arena) {
+            this.start = start;
+            this.goal = goal;
+            int sx = BlockPos.getX(start), sy = BlockPos.getY(start), sz = BlockPos.getZ(start);
+            gx = BlockPos.getX(goal);
+            gy = BlockPos.getY(goal);
+            gz = BlockPos.getZ(goal);
+            goalChunkX = gx >> 4;
+            goalChunkZ = gz >> 4;
+            windowMinY = Math.max(levelMinY, Math.min(sy, gy) - Y_MARGIN);
+            windowMaxY = Math.min(levelMaxY, Math.max(sy, gy) + Y_MARGIN);
+            a = arena;
+            float hs = PathMoves.heuristic(sx, sy, sz, gx, gy, gz);
+            if (hs <= DIRECT_RANGE) {
+                startNode = -1;
+                done = true;
+                result = new Plan(new long[] { start, goal }, false);
+                return;
+            }
+            a.reset();
+            startNode = a.node(start);
+            a.g[startNode] = 0;
+            a.open.update(startNode, hs, hs);
+            best = startNode;
+            bestH = hs;
+        }
+
+        /** Expand up to budget entrances; true once the search is finished. */
+        public boolean step(int budget) {
+            if (done) return true;
+            // Another search may have run in between: restore this one's y window
+            minY = windowMinY;
+            maxY = windowMaxY;
+            while (budget-- > 0) {
+                if (a.open.isEmpty() || iterations >= MAX_ABSTRACT_ITERATIONS) return finish();
+                iterations++;
+                int current = a.open.pop();
+                long p = a.pos[current];
+                if (p == goal) {
+                    goalNode = current;
+                    return finish();
+                }
+                expand(current, p);
+            }
+            return false;
+        }
+
+        private void expand(int current, long p) {
+            a.closed[current] = true;
+            int px = BlockPos.getX(p), py = BlockPos.getY(p), pz = BlockPos.getZ(p);
+            float h = PathMoves.heuristic(px, py, pz, gx, gy, gz);
+            if (h < bestH) {
+                bestH = h;
+                best = current;
+            }
+
+            ChunkGraph graph = graph(px >> 4, pz >> 4);
+            if (graph == null) return;
+            int idx = graph.indexOf(p);
+            boolean goalChunk = (px >> 4) == goalChunkX && (pz >> 4) == goalChunkZ;
+
+            long[] targets;
+            float[] costs;
+            if (idx >= 0 && !goalChunk) {
+                if (graph.edgeTo[idx] == null) computeEdges(graph, idx, px >> 4, pz >> 4);
+                targets = graph.edgeTo[idx];
+                costs = graph.edgeCost[idx];
+            } else {
+                // Start, goal chunk, or a point the graph does not know: one uncached BFS
+                bfs(p, px >> 4, pz >> 4);
+                int n = 0;
+                targets = new long[graph.nodes.length + 1];
+                costs = new float[graph.nodes.length + 1];
+                for (long node : graph.nodes) n = collect(node, targets, costs, n);
+                if (goalChunk) n = collect(goal, targets, costs, n);
+                targets = Arrays.copyOf(targets, n);
+                costs = Arrays.copyOf(costs, n);
+            }
+
+            for (int e = 0; e < targets.length; e++) relax(a, current, targets[e], a.g[current] + costs[e], gx, gy, gz);
+            if (idx >= 0) {
+                for (long partner : graph.crossings[idx]) {
+                    relax(a, current, partner, a.g[current] + PathMoves.STEP_COST, gx, gy, gz);
+                }
+            }
+        }
+
+        private boolean finish() {
+            done = true;
+            int end = goalNode >= 0 ? goalNode : best;
+            if (end == startNode) {
+                LOGGER.debug("No coarse route from {} to {}", BlockPos.of(start), BlockPos.of(goal));
+                return true;
+            }
+            int length = 0;
+            for (int n = end; n >= 0; n = a.parent[n]) length++;
+            long[] waypoints = new long[length];
+            for (int n = end, i = length; n >= 0; n = a.parent[n]) waypoints[--i] = a.pos[n];
+
+            LOGGER.debug("Coarse route: {} waypoints, {} iterations, partial={}", length, iterations, goalNode < 0);
+            result = new Plan(waypoints, goalNode < 0);
+            return true;
+        }
+
+        public boolean isDone() { return done; }
+
+        /** The plan once done (null if nothing could be expanded). */
+        public Plan result() { return result; }
+
+        public int getIterations() { return iterations; }
+    }
+
+    private void relax(SearchArena a, int from, long to, float g, int gx, int gy, int gz) {
+        int existing = a.find(to);
+        if (existing >= 0 && (a.closed[existing] || g >= a.g[existing])) return;
+        int n = existing >= 0 ? existing : a.node(to);
+        a.g[n] = g;
+        a.parent[n] = from;
+        float h = PathMoves.heuristic(BlockPos.getX(to), BlockPos.getY(to), BlockPos.getZ(to), gx, gy, gz);
+        a.open.update(n, g + h, h);
+    }
+
+    private int collect(long target, long[] targets, float[] costs, int n) {
+        int d = bfsDistance(target);
+        if (d <= 0) return n;
+        targets[n] = target;
+        costs[n] = d * PathMoves.STEP_COST;
+        return n + 1;
+    }
+
+    // ---- Chunk abstraction ------------------------------------------------------
+
+    private ChunkGraph graph(int chunkX, int chunkZ) {
+        long key = ChunkPos.asLong(chunkX, chunkZ);
+        // Entrances depend on the neighbours' border blocks too
+        long version = WorldChangeTracker.getAreaVersion(level,
+            (chunkX << 4) - 1, (chunkZ << 4) - 1, (chunkX << 4) + 16, (chunkZ << 4) + 16);
+        ChunkGraph graph = chunks.get(key);
+        if (graph != null && graph.version == version && graph.minY == minY && graph.maxY == maxY) return graph;
+
+        graph = build(chunkX, chunkZ, version);
+        chunks.put(key, graph);
+        return graph;
+    }
+
+    private ChunkGraph build(int chunkX, int chunkZ, long version) {
+        chunksBuilt++;
+        int x0 = chunkX << 4, z0 = chunkZ << 4;
+        long[] nodes = new long[4 * MAX_ENTRANCES_PER_SIDE];
+        long[] partners = new long[nodes.length];
+        int n = 0;
+        // East, west, south, north borders: (inside block, outside step)
+        n = scanSide(x0 + 15, z0, 0, 1, 1, 0, nodes, partners, n);
+        n = scanSide(x0, z0, 0, 1, -1, 0, nodes, partners, n);
+        n = scanSide(x0, z0 + 15, 1, 0, 0, 1, nodes, partners, n);
+        n = scanSide(x0, z0, 1, 0, 0, -1, nodes, partners, n);
+
+        // Corner blocks can be entrances on two sides: merge into one node
+        long[] unique = new long[n];
+        long[][] crossings = new long[n][];
+        int u = 0;
+        for (int i = 0; i < n; i++) {
+            int j = 0;
+            while (j < u && unique[j] != nodes[i]) j++;
+            if (j == u) {
+                unique[u] = nodes[i];
+                crossings[u++] = new long[] { partners[i] };
+            } else {
+                crossings[j] = Arrays.copyOf(crossings[j], crossings[j].length + 1);
+                crossings[j][crossings[j].length - 1] = partners[i];
+            }
+        }
+        return new ChunkGraph(version, minY, maxY, Arrays.copyOf(unique, u), Arrays.copyOf(crossings, u));
+    }
+
+    /**
+     * Find the entrances along one border. (x, z) is the first border block,
+     * (ax, az) steps along the border and (ox, oz) points out of the chunk.
+     * Runs are collected per y; if there are more than MAX_ENTRANCES_PER_SIDE,
+     * evenly spaced ones are kept. Both chunks sharing a border pick the same pairs.
+     */
+    private int scanSide(int x, int z, int ax, int az, int ox, int oz, long[] nodes, long[] partners, int n) {
+        long[] runs = new long[64];
+        int runCount = 0;
+        for (int y = minY; y <= maxY; y++) {
+            int runStart = -1;
+            for (int i = 0; i <= 16; i++) {
+                boolean open = i < 16
+                    && grid.isWalkable(x + ax * i, y, z + az * i)
+                    && grid.isWalkable(x + ax * i + ox, y, z + az * i + oz);
+                if (open && runStart < 0) runStart = i;
+                if (!open && runStart >= 0) {
+                    if (runCount == runs.length) runs = Arrays.copyOf(runs, runCount * 2);
+                    // Pack (y, middle) so both sides see identical run lists
+                    runs[runCount++] = ((long) y << 8) | ((runStart + i - 1) >> 1);
+                    runStart = -1;
+                }
+            }
+        }
+        int keep = Math.min(runCount, MAX_ENTRANCES_PER_SIDE);
+        for (int k = 0; k < keep; k++) {
+            long run = runs[(int) ((long) k * runCount / keep)];
+            int y = (int) (run >> 8), i = (int) (run & 0xFF);
+            int bx = x + ax * i, bz = z + az * i;
+            nodes[n] = BlockPos.asLong(bx, y, bz);
+            partners[n++] = BlockPos.asLong(bx + ox, y, bz + oz);
+        }
+        return n;
+    }
+
+    private void computeEdges(ChunkGraph graph, int idx, int chunkX, int chunkZ) {
+        bfs(graph.nodes[idx], chunkX, chunkZ);
+        long[] targets = new long[graph.nodes.length];
+        float[] costs = new float[graph.nodes.length];
+        int n = 0;
+        for (long node : graph.nodes) n = collect(node, targets, costs, n);
+        graph.edgeTo[idx] = Arrays.copyOf(targets, n);
+        graph.edgeCost[idx] = Arrays.copyOf(costs, n);
+    }
+
+    /** Unit-cost BFS from origin over PathMoves, confined to one chunk and the y window. */
+    private void bfs(long origin, int chunkX, int chunkZ) {
+        int cells = 256 * (maxY - minY + 1);
+        if (bfsStamp.length < cells) {
+            bfsStamp = new int[cells];
+            bfsDist = new int[cells];
+            bfsQueue = new int[cells];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            Arrays.fill(bfsStamp, 0);
+            stamp = 1;
+        }
+        bfsMinX = chunkX << 4;
+        bfsMinZ = chunkZ << 4;
+        int first = cell(BlockPos.getX(origin), BlockPos.getY(origin), BlockPos.getZ(origin));
+        if (first < 0) return;
+
+        bfsStamp[first] = stamp;
+        bfsDist[first] = 0;
+        bfsQueue[0] = first;
+        int head = 0, tail = 1;
+        while (head < tail) {
+            int c = bfsQueue[head++];
+            int d = bfsDist[c] + 1;
+            int x = bfsMinX + (c & 15), z = bfsMinZ + ((c >> 4) & 15), y = minY + (c >> 8);
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                int nx = x + PathMoves.DX[m], ny = y + PathMoves.DY[m], nz = z + PathMoves.DZ[m];
+                int nc = cell(nx, ny, nz);
+                if (nc < 0 || bfsStamp[nc] == stamp || !PathMoves.canEnter(grid, m, nx, ny, nz)) continue;
+                bfsStamp[nc] = stamp;
+                bfsDist[nc] = d;
+                bfsQueue[tail++] = nc;
+            }
+        }
+    }
+
+    /** Cell index in the BFS arrays, or -1 outside the current chunk and window. */
+    private int cell(int x, int y, int z) {
+        int lx = x - bfsMinX, lz = z - bfsMinZ, ly = y - minY;
+        if ((lx | lz) >>> 4 != 0 || ly < 0 || y > maxY) return -1;
+        return (ly << 8) | (lz << 4) | lx;
+    }
+
+    /** Distance found by the last BFS (-1 when unreached). */
+    private int bfsDistance(long pos) {
+        int c = cell(BlockPos.getX(pos), BlockPos.getY(pos), BlockPos.getZ(pos));
+        return c >= 0 && bfsStamp[c] == stamp ? bfsDist[c] : -1;
+    }
+
+    /** Forget every chunk graph (e.g. after a bulk world edit). */
+    public void clear() {
+        chunks.clear();
+    }
+}
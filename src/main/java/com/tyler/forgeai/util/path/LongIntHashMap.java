@@ -0,0 +1,130 @@
+package com.tyler.forgeai.util.path;
+
+import java.util.Arrays;
+
+/**
+ * LongIntHashMap: open-addressing map from packed block positions to node
+ * indices. Linear probing, power-of-two capacity, no boxing. clear() keeps
+ * the backing arrays so a map can be reused across searches.
+ */
+public class LongIntHashMap {
+    public static final int MISSING = -1;
+
+    // Key that never occurs as a packed BlockPos (y field would be out of range)
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    public LongIntHashMap() {
+        this(1024);
+    }
+
+    public LongIntHashMap(int expected) {
+        allocate(tableSizeFor(Math.max(16, (int) (expected / 0.6f) + 1)));
+    }
+
+    public int get(long key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == key) return values[slot];
+            if (k == EMPTY) return MISSING;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != MISSING;
+    }
+
+    /** Insert or overwrite. Returns the previous value or MISSING. */
+    public int put(long key, int value) {
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == key) {
+                int old = values[slot];
+                values[slot] = value;
+                return old;
+            }
+            if (k == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size >= resizeAt) rehash(keys.length << 1);
+                return MISSING;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Remove a key (backward-shift deletion keeps probe chains intact). */
+    public int remove(long key) {
+        int slot = mix(key) & mask;
+        while (true) {
+            long k = keys[slot];
+            if (k == EMPTY) return MISSING;
+            if (k == key) break;
+            slot = (slot + 1) & mask;
+        }
+        int old = values[slot];
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int ideal = mix(keys[next]) & mask;
+            // Move the entry back if the gap lies within its probe path
+            if (((next - ideal) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        size--;
+        return old;
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    public void clear() {
+        if (size == 0) return;
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * 0.6f);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private static int mix(long key) {
+        // Multiplying only carries bits upward; fold the high half back so the
+        // x/z fields reach the low bits used as the slot index
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    private static int tableSizeFor(int n) {
+        int cap = Integer.highestOneBit(n - 1) << 1;
+        return Math.max(16, cap);
+    }
+}
@@ -0,0 +1,227 @@
+package com.tyler.forgeai.util.path;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.Arrays;
+
+/**
+ * MultiGoalSearch: one Dijkstra search over standing positions that yields target
+ * blocks in order of walking cost.
+ * - A target counts as reached from a standing node when it is within reach of the
+ *   bot's eyes there (|dx|, |dz| <= reach; dy from the eye within +-reach)
+ * - Targets come from a candidate set (a reach map makes each expansion one lookup)
+ *   or from a block test evaluated lazily around expanded nodes (each block once)
+ * - next(budget) is resumable and streams the next-nearest target, keeping the
+ *   search frontier, so a bot can chain through a whole vein with one search
+ * - Costs are measured from the original start
+ * Owns its SearchArena, so it can live across ticks. Not thread-safe.
+ */
+public class MultiGoalSearch {
+    /** Survival reach is ~4.5 blocks from the eyes; 3 blocks per axis stays inside it. */
+    public static final int DEFAULT_REACH = 3;
+
+    @FunctionalInterface
+    public interface BlockTest {
+        boolean test(int x, int y, int z);
+    }
+
+    /** A reachable target and where to stand to reach it. */
+    public static final class Goal {
+        public final long target;
+        public final long stand;
+        public final float cost;
+        private final long[] path;
+
+        Goal(long target, long stand, float cost, long[] path) {
+            this.target = target;
+            this.stand = stand;
+            this.cost = cost;
+            this.path = path;
+        }
+
+        /** Packed standing positions from the search start to stand. */
+        public long[] path() { return path; }
+
+        public BlockPos targetPos() { return BlockPos.of(target); }
+        public BlockPos standPos() { return BlockPos.of(stand); }
+    }
+
+    private final PathGrid grid;
+    private final SearchArena arena = new SearchArena();
+    private final int reach;
+    private final int maxNodes;
+
+    // Candidate mode: standing position -> head of a chain of (target, next) entries
+    private final LongIntHashMap reachMap;
+    private long[] targets;
+    private boolean[] claimed;
+    private int[] entryTarget = new int[256];
+    private int[] entryNext = new int[256];
+    private int entryCount = 0;
+
+    // Predicate mode: blocks already tested (value unused)
+    private final BlockTest test;
+    private final LongIntHashMap tested;
+
+    // Targets found at the node being expanded but not yet handed out
+    private long[] found = new long[16];
+    private int foundHead = 0, foundCount = 0;
+    private int foundNode = -1;
+
+    private boolean exhausted = false;
+    private int expansions = 0;
+
+    private MultiGoalSearch(PathGrid grid, long start, int reach, int maxNodes,
+                            long[] candidates, BlockTest test) {
+        this.grid = grid;
+        this.reach = reach;
+        this.maxNodes = maxNodes;
+        this.test = test;
+
+        if (candidates != null) {
+            int n = candidates.length;
+            this.targets = candidates.clone();
+            this.claimed = new boolean[n];
+            this.reachMap = new LongIntHashMap(Math.max(16, n * 64));
+            buildReachMap();
+            this.tested = null;
+        } else {
+            this.reachMap = null;
+            this.tested = new LongIntHashMap(4096);
+        }
+
+        arena.reset();
+        int s = arena.node(start);
+        arena.g[s] = 0;
+        arena.open.update(s, 0, 0);
+    }
+
+    /** Search towards any of the candidate blocks (packed positions). */
+    public static MultiGoalSearch forTargets(PathGrid grid, long start, long[] candidates, int reach, int maxNodes) {
+        return new MultiGoalSearch(grid, start, reach, maxNodes, candidates, null);
+    }
+
+    /** Search towards any block matching the test, probing blocks near expanded nodes. */
+    public static MultiGoalSearch forMatching(PathGrid grid, long start, BlockTest test, int reach, int maxNodes) {
+        return new MultiGoalSearch(grid, start, reach, maxNodes, null, test);
+    }
+
+    /**
+     * Next-nearest reachable target, expanding at most budget nodes. Returns null
+     * when the budget ran out (call again) or the search is exhausted.
+     */
+    public Goal next(int budget) {
+        while (true) {
+            if (foundHead < foundCount) {
+                long target = found[foundHead++];
+                return new Goal(target, arena.pos[foundNode], arena.g[foundNode], pathTo(foundNode));
+            }
+            if (exhausted || budget-- <= 0) return null;
+            if (arena.open.isEmpty() || arena.nodeCount() >= maxNodes) {
+                exhausted = true;
+                return null;
+            }
+
+            int current = arena.open.pop();
+            arena.closed[current] = true;
+            expansions++;
+            long p = arena.pos[current];
+            int x = BlockPos.getX(p), y = BlockPos.getY(p), z = BlockPos.getZ(p);
+
+            foundHead = foundCount = 0;
+            foundNode = current;
+            if (reachMap != null) collectCandidates(p);
+            else probe(x, y, z);
+
+            float nextG = arena.g[current] + PathMoves.STEP_COST;
+            for (int m = 0; m < PathMoves.COUNT; m++) {
+                int nx = x + PathMoves.DX[m], ny = y + PathMoves.DY[m], nz = z + PathMoves.DZ[m];
+                long np = BlockPos.asLong(nx, ny, nz);
+                int existing = arena.find(np);
+                if (existing >= 0 && (arena.closed[existing] || nextG >= arena.g[existing])) continue;
+                if (!PathMoves.canEnter(grid, m, nx, ny, nz)) continue;
+                int n = existing >= 0 ? existing : arena.node(np);
+                arena.g[n] = nextG;
+                arena.parent[n] = current;
+                arena.open.update(n, nextG, 0);
+            }
+        }
+    }
+
+    /** Mark a target as taken elsewhere (e.g. another bot mined it). */
+    public void claim(long target) {
+        if (targets == null) {
+            if (tested != null) tested.put(target, 0);
+            return;
+        }
+        for (int i = 0; i < targets.length; i++) if (targets[i] == target) claimed[i] = true;
+    }
+
+    public boolean isExhausted() { return exhausted && foundHead >= foundCount; }
+    public int getExpansions() { return expansions; }
+
+    // ---- Goal lookup --------------------------------------------------------------
+
+    private void buildReachMap() {
+        // Every standing position from which a target is in reach points at it;
+        // eye height is stand.y + 2, so stand.y spans target.y - 2 +- reach
+        for (int i = 0; i < targets.length; i++) {
+            int tx = BlockPos.getX(targets[i]), ty = BlockPos.getY(targets[i]), tz = BlockPos.getZ(targets[i]);
+            for (int dy = -reach; dy <= reach; dy++) {
+                for (int dx = -reach; dx <= reach; dx++) {
+                    for (int dz = -reach; dz <= reach; dz++) {
+                        long stand = BlockPos.asLong(tx + dx, ty - 2 + dy, tz + dz);
+                        reachMap.put(stand, addEntry(i, reachMap.get(stand)));
+                    }
+                }
+            }
+        }
+    }
+
+    private int addEntry(int target, int next) {
+        if (entryCount == entryTarget.length) {
+            entryTarget = Arrays.copyOf(entryTarget, entryCount * 2);
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+        }
+        entryTarget[entryCount] = target;
+        entryNext[entryCount] = next;
+        return entryCount++;
+    }
+
+    private void collectCandidates(long stand) {
+        for (int e = reachMap.get(stand); e >= 0; e = entryNext[e]) {
+            int t = entryTarget[e];
+            if (claimed[t]) continue;
+            claimed[t] = true;
+            addFound(targets[t]);
+        }
+    }
+
+    private void probe(int x, int y, int z) {
+        int eyeY = y + 2;
+        for (int dy = -reach; dy <= reach; dy++) {
+            for (int dx = -reach; dx <= reach; dx++) {
+                for (int dz = -reach; dz <= reach; dz++) {
+                    int bx = x + dx, by = eyeY + dy, bz = z + dz;
+                    long b = BlockPos.asLong(bx, by, bz);
+                    if (tested.containsKey(b)) continue;
+                    tested.put(b, 0);
+                    if (test.test(bx, by, bz)) addFound(b);
+                }
+            }
+        }
+    }
+
+    private void addFound(long target) {
+        if (foundCount == found.length) found = Arrays.copyOf(found, foundCount * 2);
+        found[foundCount++] = target;
+    }
+
+    private long[] pathTo(int node) {
+        int length = 0;
+        for (int n = node; n >= 0; n = arena.parent[n]) length++;
+        long[] out = new long[length];
+        for (int n = node, i = length; n >= 0; n = arena.parent[n]) out[--i] = arena.pos[n];
+        return out;
+    }
+}
@@ -0,0 +1,142 @@
+package com.tyler.forgeai.util.path;
+
+import java.util.Arrays;
+
+/**
+ * NodeHeap: indexed binary min-heap over integer node ids.
+ * Each node has a two-part key compared lexicographically (primary, then
+ * secondary), which covers both A* (f, h tie-break) and D* Lite (k1, k2).
+ * Supports decrease/increase-key and removal in O(log n) via a position index.
+ */
+public class NodeHeap {
+    private int[] heap;
+    private int[] position;   // node id -> heap slot, -1 when not queued
+    private float[] key1;
+    private float[] key2;
+    private int size;
+
+    public NodeHeap() {
+        this(1024);
+    }
+
+    public NodeHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        key1 = new float[capacity];
+        key2 = new float[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /** Make room for node ids below the given bound. */
+    public void ensureNodeCapacity(int nodes) {
+        if (nodes <= position.length) return;
+        int cap = Math.max(nodes, position.length << 1);
+        int old = position.length;
+        position = Arrays.copyOf(position, cap);
+        Arrays.fill(position, old, cap, -1);
+        key1 = Arrays.copyOf(key1, cap);
+        key2 = Arrays.copyOf(key2, cap);
+        heap = Arrays.copyOf(heap, cap);
+    }
+
+    public boolean isEmpty() { return size == 0; }
+    public int size() { return size; }
+
+    public boolean contains(int node) {
+        return node < position.length && position[node] >= 0;
+    }
+
+    /** Insert a node, or move it to its new key if already queued. */
+    public void update(int node, float k1, float k2) {
+        ensureNodeCapacity(node + 1);
+        int slot = position[node];
+        if (slot < 0) {
+            key1[node] = k1;
+            key2[node] = k2;
+            heap[size] = node;
+            position[node] = size;
+            siftUp(size++);
+            return;
+        }
+        boolean decreased = less(k1, k2, key1[node], key2[node]);
+        key1[node] = k1;
+        key2[node] = k2;
+        if (decreased) siftUp(slot);
+        else siftDown(slot);
+    }
+
+    public int peek() {
+        return size == 0 ? -1 : heap[0];
+    }
+
+    public float peekKey1() { return size == 0 ? Float.POSITIVE_INFINITY : key1[heap[0]]; }
+    public float peekKey2() { return size == 0 ? Float.POSITIVE_INFINITY : key2[heap[0]]; }
+
+    public int pop() {
+        if (size == 0) return -1;
+        int top = heap[0];
+        removeAt(0);
+        return top;
+    }
+
+    public void remove(int node) {
+        if (!contains(node)) return;
+        removeAt(position[node]);
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; i++) position[heap[i]] = -1;
+        size = 0;
+    }
+
+    private void removeAt(int slot) {
+        int node = heap[slot];
+        position[node] = -1;
+        size--;
+        if (slot == size) return;
+        int last = heap[size];
+        heap[slot] = last;
+        position[last] = slot;
+        siftUp(slot);
+        siftDown(position[last]);
+    }
+
+    private void siftUp(int slot) {
+        int node = heap[slot];
+        float k1 = key1[node], k2 = key2[node];
+        while (slot > 0) {
+            int parentSlot = (slot - 1) >>> 1;
+            int parent = heap[parentSlot];
+            if (!less(k1, k2, key1[parent], key2[parent])) break;
+            heap[slot] = parent;
+            position[parent] = slot;
+            slot = parentSlot;
+        }
+        heap[slot] = node;
+        position[node] = slot;
+    }
+
+    private void siftDown(int slot) {
+        int node = heap[slot];
+        float k1 = key1[node], k2 = key2[node];
+        int half = size >>> 1;
+        while (slot < half) {
+            int child = (slot << 1) + 1;
+            int right = child + 1;
+            if (right < size && less(key1[heap[right]], key2[heap[right]], key1[heap[child]], key2[heap[child]])) {
+                child = right;
+            }
+            int c = heap[child];
+            if (!less(key1[c], key2[c], k1, k2)) break;
+            heap[slot] = c;
+            position[c] = slot;
+            slot = child;
+        }
+        heap[slot] = node;
+        position[node] = slot;
+    }
+
+    private static boolean less(float a1, float a2, float b1, float b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+}
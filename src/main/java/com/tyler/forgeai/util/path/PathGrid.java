@@ -0,0 +1,13 @@
+package com.tyler.forgeai.util.path;
+
+/**
+ * PathGrid: the block queries a search needs, by raw coordinates.
+ * Implementations must not allocate per call; searches make millions of them.
+ */
+public interface PathGrid {
+    /** Solid ground a bot can stand on (the node itself, as in PathFinder). */
+    boolean isWalkable(int x, int y, int z);
+
+    /** Ladder or vine. */
+    boolean isClimbable(int x, int y, int z);
+}
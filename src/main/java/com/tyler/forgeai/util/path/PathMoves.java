@@ -0,0 +1,39 @@
+package com.tyler.forgeai.util.path;
+
+/**
+ * PathMoves: the move set shared by every planner.
+ * - 4 horizontal steps onto walkable blocks
+ * - climb up onto a ladder/vine
+ * - drop straight down or diagonally down onto walkable blocks
+ * Whether a move is allowed depends only on the target block, so the edges
+ * into a block change exactly when that block changes.
+ */
+public final class PathMoves {
+    public static final int COUNT = 10;
+
+    public static final int[] DX = { 1, -1, 0,  0, 0,  0,  1, -1,  0,  0 };
+    public static final int[] DY = { 0,  0, 0,  0, 1, -1, -1, -1, -1, -1 };
+    public static final int[] DZ = { 0,  0, 1, -1, 0,  0,  0,  0,  1, -1 };
+
+    /** Index of the climb move (the only one that needs a climbable target). */
+    public static final int CLIMB = 4;
+
+    public static final float STEP_COST = 1.0f;
+
+    private PathMoves() {}
+
+    /** Can a bot enter (x, y, z) using move m? */
+    public static boolean canEnter(PathGrid grid, int m, int x, int y, int z) {
+        return m == CLIMB ? grid.isClimbable(x, y, z) : grid.isWalkable(x, y, z);
+    }
+
+    /**
+     * Admissible, consistent heuristic for unit-cost moves: every move changes
+     * |dx|+|dz| by at most one and |dy| by at most one.
+     */
+    public static float heuristic(int x1, int y1, int z1, int x2, int y2, int z2) {
+        int horizontal = Math.abs(x1 - x2) + Math.abs(z1 - z2);
+        int vertical = Math.abs(y1 - y2);
+        return Math.max(horizontal, vertical) * STEP_COST;
+    }
+}
@@ -0,0 +1,176 @@
+package com.tyler.forgeai.util.path;
+
+import net.minecraft.core.BlockPos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PathSmoother: turns a block-by-block path into a few straight legs.
+ * - String pulling: each leg runs to the farthest later node (within MAX_LEG_LENGTH)
+ *   in walking line of sight, which also merges collinear runs into one leg
+ * - Line of sight follows the cells under the straight line (exact integer DDA):
+ *   each needs a floor and two clear blocks above it; dropping up to MAX_DROP is
+ *   allowed on the way down (DROP leg)
+ * - Straight (axis-aligned) gaps of up to MAX_JUMP_GAP cells between floors at the
+ *   same height become SPRINT_JUMP legs when that beats walking around (looked for
+ *   MAX_JUMP_LOOKAHEAD nodes ahead)
+ * - Consecutive climb steps become one CLIMB leg; legs never cross a climb
+ * Legs keep the index of their end node, so a follower stays in sync with the path.
+ */
+public final class PathSmoother {
+    public enum Kind { WALK, CLIMB, DROP, SPRINT_JUMP }
+
+    public static final int MAX_DROP = 3;
+    public static final int MAX_JUMP_GAP = 2;
+    public static final int MAX_JUMP_LENGTH = 4;
+    public static final int MAX_JUMP_LOOKAHEAD = 24;
+    /** Longest leg considered, which bounds the line-of-sight cost. */
+    public static final int MAX_LEG_LENGTH = 32;
+
+    /** One straight movement: from the previous leg's end to nodes[end]. */
+    public static final class Leg {
+        public final int end;
+        public final long to;
+        public final Kind kind;
+
+        Leg(int end, long to, Kind kind) {
+            this.end = end;
+            this.to = to;
+            this.kind = kind;
+        }
+
+        public BlockPos toPos() { return BlockPos.of(to); }
+    }
+
+    private PathSmoother() {}
+
+    public static Leg[] smooth(PathGrid grid, long[] nodes) {
+        List<Leg> legs = new ArrayList<>();
+        int n = nodes.length;
+        int anchor = 0;
+        while (anchor < n - 1) {
+            if (y(nodes[anchor + 1]) > y(nodes[anchor])) {
+                int top = anchor + 1;
+                while (top + 1 < n && y(nodes[top + 1]) > y(nodes[top])) top++;
+                legs.add(new Leg(top, nodes[top], Kind.CLIMB));
+                anchor = top;
+                continue;
+            }
+
+            // Farthest node in line of sight (intermediate nodes need not be)
+            int best = anchor + 1;
+            Kind bestKind = y(nodes[best]) < y(nodes[anchor]) ? Kind.DROP : Kind.WALK;
+            for (int j = anchor + 2; j < n; j++) {
+                if (y(nodes[j]) > y(nodes[j - 1]) || horizontal(nodes[anchor], nodes[j]) > MAX_LEG_LENGTH) break;
+                Kind kind = sight(grid, nodes[anchor], nodes[j], false);
+                if (kind != null) {
+                    best = j;
+                    bestKind = kind;
+                }
+            }
+
+            // A straight jump across a gap may skip a detour further on
+            for (int k = Math.min(n - 1, anchor + MAX_JUMP_LOOKAHEAD); k > best; k--) {
+                if (y(nodes[k]) != y(nodes[anchor]) || !climbFree(nodes, anchor, k)) continue;
+                int dx = BlockPos.getX(nodes[k]) - BlockPos.getX(nodes[anchor]);
+                int dz = BlockPos.getZ(nodes[k]) - BlockPos.getZ(nodes[anchor]);
+                int length = Math.abs(dx + dz);
+                if ((dx != 0 && dz != 0) || length > MAX_JUMP_LENGTH || k - anchor <= length + 2) continue;
+                if (sight(grid, nodes[anchor], nodes[k], true) == Kind.SPRINT_JUMP) {
+                    best = k;
+                    bestKind = Kind.SPRINT_JUMP;
+                    break;
+                }
+            }
+
+            legs.add(new Leg(best, nodes[best], bestKind));
+            anchor = best;
+        }
+        return legs.toArray(new Leg[0]);
+    }
+
+    /**
+     * How a bot can go straight from a to b: WALK, DROP, SPRINT_JUMP (only when
+     * jumps are allowed), or null if it cannot.
+     */
+    static Kind sight(PathGrid grid, long a, long b, boolean allowJump) {
+        int ax = BlockPos.getX(a), az = BlockPos.getZ(a);
+        int bx = BlockPos.getX(b), by = BlockPos.getY(b), bz = BlockPos.getZ(b);
+        int y = BlockPos.getY(a);
+        if (by > y) return null;
+
+        int dx = Math.abs(bx - ax), dz = Math.abs(bz - az);
+        int stepX = Integer.signum(bx - ax), stepZ = Integer.signum(bz - az);
+        int cx = ax, cz = az, i = 0, k = 0;
+        int gap = 0;
+        boolean jumped = false, dropped = false;
+
+        while (cx != bx || cz != bz) {
+            // Next boundary along x at t = (2i+1)/(2dx), along z at (2k+1)/(2dz); compare exactly
+            long tx = dx == 0 ? Long.MAX_VALUE : (2L * i + 1) * dz;
+            long tz = dz == 0 ? Long.MAX_VALUE : (2L * k + 1) * dx;
+            if (tx == tz) {
+                // Through a corner: both side cells must at least be passable
+                if (wall(grid, cx + stepX, y, cz) || wall(grid, cx, y, cz + stepZ)) return null;
+                cx += stepX;
+                cz += stepZ;
+                i++;
+                k++;
+            } else if (tx < tz) {
+                cx += stepX;
+                i++;
+            } else {
+                cz += stepZ;
+                k++;
+            }
+
+            if (wall(grid, cx, y, cz)) return null;
+            if (grid.isWalkable(cx, y, cz)) {
+                gap = 0;
+                continue;
+            }
+            if (y > by) {
+                // On the way down: land on the first floor below
+                boolean landed = false;
+                for (int d = 1; d <= MAX_DROP && y - d >= by; d++) {
+                    if (grid.isWalkable(cx, y - d, cz)) {
+                        y -= d;
+                        landed = true;
+                        break;
+                    }
+                }
+                if (landed) {
+                    dropped = true;
+                    gap = 0;
+                    continue;
+                }
+            }
+            if (!allowJump || y != by || ++gap > MAX_JUMP_GAP) return null;
+            jumped = true;
+        }
+
+        if (y != by || gap > 0 || (jumped && dropped)) return null;
+        return jumped ? Kind.SPRINT_JUMP : dropped ? Kind.DROP : Kind.WALK;
+    }
+
+    /** Body-height blocks above a floor at y are solid. */
+    private static boolean wall(PathGrid grid, int x, int y, int z) {
+        return grid.isWalkable(x, y + 1, z) || grid.isWalkable(x, y + 2, z);
+    }
+
+    private static boolean climbFree(long[] nodes, int from, int to) {
+        for (int i = from + 1; i <= to; i++) {
+            if (y(nodes[i]) > y(nodes[i - 1])) return false;
+        }
+        return true;
+    }
+
+    private static int horizontal(long a, long b) {
+        return Math.max(Math.abs(BlockPos.getX(a) - BlockPos.getX(b)), Math.abs(BlockPos.getZ(a) - BlockPos.getZ(b)));
+    }
+
+    private static int y(long p) {
+        return BlockPos.getY(p);
+    }
+}
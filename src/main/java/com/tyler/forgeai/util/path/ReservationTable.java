@@ -0,0 +1,211 @@
+package com.tyler.forgeai.util.path;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReservationTable: space-time reservations of standing cells for cooperative
+ * pathfinding (windowed hierarchical cooperative A*).
+ * - A bot reserves the cells it will stand on over its next few steps; other bots
+ *   plan around them (CooperativeSearch) instead of walking into each other
+ * - Each cell is held for its step and the next one, so two bots can never swap
+ *   places head-on in a 1-wide tunnel
+ * - A step is TICKS_PER_STEP game ticks, about one block of walking
+ * - Sharded by chunk: every chunk's reservations sit behind their own lock in a
+ *   ConcurrentHashMap, so bots in different areas never contend (no global lock);
+ *   past steps are purged lazily when a shard is written
+ * Thread-safe.
+ */
+public class ReservationTable {
+    public static final int TICKS_PER_STEP = 5;
+    /** Owner id meaning "free". */
+    public static final int NONE = 0;
+
+    private static final Map<Level, ReservationTable> tables = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final Map<String, Integer> ownerIds = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextOwnerId = new AtomicInteger(NONE + 1);
+
+    private static final class Shard {
+        // (step, local position) -> owner id
+        final Long2IntOpenHashMap cells = new Long2IntOpenHashMap();
+        long oldestStep = Long.MAX_VALUE;
+        boolean dead = false;
+
+        Shard() {
+            cells.defaultReturnValue(NONE);
+        }
+    }
+
+    /** What one owner currently holds, so reserving again or releasing is cheap. */
+    private static final class Held {
+        final long[] cells;
+        final long[] steps;
+
+        Held(long[] cells, long[] steps) {
+            this.cells = cells;
+            this.steps = steps;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Shard> shards = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Held> held = new ConcurrentHashMap<>();
+
+    public static ReservationTable of(Level level) {
+        return tables.computeIfAbsent(level, l -> new ReservationTable());
+    }
+
+    /** Stable small id for a bot name (ids are never reused). */
+    public static int ownerId(String owner) {
+        return ownerIds.computeIfAbsent(owner, o -> nextOwnerId.getAndIncrement());
+    }
+
+    /** Reservation step for a game time. */
+    public static long stepAt(long gameTime) {
+        return gameTime / TICKS_PER_STEP;
+    }
+
+    /** Drop an owner's reservations in every level (e.g. its job was cancelled). */
+    public static void releaseEverywhere(String owner) {
+        Integer id = ownerIds.get(owner);
+        if (id == null) return;
+        List<ReservationTable> all;
+        synchronized (tables) {
+            all = new ArrayList<>(tables.values());
+        }
+        for (ReservationTable table : all) table.release(id);
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    /** Owner holding a standing cell at a step, or NONE. */
+    public int ownerAt(int x, int y, int z, long step) {
+        Shard shard = shards.get(ChunkPos.asLong(x >> 4, z >> 4));
+        if (shard == null) return NONE;
+        synchronized (shard) {
+            return shard.cells.get(key(x, y, z, step));
+        }
+    }
+
+    /** Can owner stand on the cell at this step? */
+    public boolean isFree(int owner, int x, int y, int z, long step) {
+        int holder = ownerAt(x, y, z, step);
+        return holder == NONE || holder == owner;
+    }
+
+    // ---- Reserving ------------------------------------------------------------
+
+    /**
+     * Replace owner's reservations with cells[i] at firstStep + i (each also held
+     * for the following step). Cells another bot got first are skipped; returns
+     * false if any were.
+     */
+    public boolean reserve(int owner, long[] cells, long firstStep) {
+        release(owner);
+        int n = cells.length;
+        long[] heldCells = new long[n * 2];
+        long[] heldSteps = new long[n * 2];
+        int count = 0;
+        boolean all = true;
+        for (int i = 0; i < n; i++) {
+            for (int hold = 0; hold < 2; hold++) {
+                long step = firstStep + i + hold;
+                if (put(owner, cells[i], step, firstStep)) {
+                    heldCells[count] = cells[i];
+                    heldSteps[count++] = step;
+                } else if (hold == 0) {
+                    all = false;
+                }
+            }
+        }
+        held.put(owner, new Held(Arrays.copyOf(heldCells, count), Arrays.copyOf(heldSteps, count)));
+        return all;
+    }
+
+    /** Drop everything owner holds. */
+    public void release(int owner) {
+        Held previous = held.remove(owner);
+        if (previous == null) return;
+        for (int i = 0; i < previous.cells.length; i++) {
+            long cell = previous.cells[i];
+            int x = BlockPos.getX(cell), y = BlockPos.getY(cell), z = BlockPos.getZ(cell);
+            long chunk = ChunkPos.asLong(x >> 4, z >> 4);
+            Shard shard = shards.get(chunk);
+            if (shard == null) continue;
+            synchronized (shard) {
+                long k = key(x, y, z, previous.steps[i]);
+                if (shard.cells.get(k) == owner) shard.cells.remove(k);
+                if (shard.cells.isEmpty()) {
+                    shard.dead = true;
+                    shards.remove(chunk, shard);
+                }
+            }
+        }
+    }
+
+    private boolean put(int owner, long cell, long step, long now) {
+        int x = BlockPos.getX(cell), y = BlockPos.getY(cell), z = BlockPos.getZ(cell);
+        long chunk = ChunkPos.asLong(x >> 4, z >> 4);
+        while (true) {
+            Shard shard = shards.computeIfAbsent(chunk, c -> new Shard());
+            synchronized (shard) {
+                // Emptied and unlinked by a concurrent release: take the fresh one
+                if (shard.dead) continue;
+                purge(shard, now);
+                long k = key(x, y, z, step);
+                int holder = shard.cells.get(k);
+                if (holder != NONE && holder != owner) return false;
+                shard.cells.put(k, owner);
+                shard.oldestStep = Math.min(shard.oldestStep, step);
+                return true;
+            }
+        }
+    }
+
+    /** Remove entries before a step (caller holds the shard lock). */
+    private static void purge(Shard shard, long before) {
+        if (shard.oldestStep >= before) return;
+        long oldest = Long.MAX_VALUE;
+        for (LongIterator it = shard.cells.keySet().iterator(); it.hasNext(); ) {
+            long step = it.nextLong() >>> 24;
+            if (step < before) it.remove();
+            else oldest = Math.min(oldest, step);
+        }
+        shard.oldestStep = oldest;
+    }
+
+    /** Step in the high 40 bits, then y (16 bits) and the 4-bit local x/z. */
+    private static long key(int x, int y, int z, long step) {
+        return (step << 24) | ((long) (y & 0xFFFF) << 8) | ((z & 15) << 4) | (x & 15);
+    }
+
+    /**
+     * Does another bot hold a current or future cell in the 3x3 chunks around
+     * (x, z)? Bots with nobody near can skip cooperative planning.
+     */
+    public boolean othersNear(int owner, int x, int z, long step) {
+        int chunkX = x >> 4, chunkZ = z >> 4;
+        for (int cx = chunkX - 1; cx <= chunkX + 1; cx++) {
+            for (int cz = chunkZ - 1; cz <= chunkZ + 1; cz++) {
+                Shard shard = shards.get(ChunkPos.asLong(cx, cz));
+                if (shard == null) continue;
+                synchronized (shard) {
+                    for (var it = shard.cells.long2IntEntrySet().fastIterator(); it.hasNext(); ) {
+                        var entry = it.next();
+                        if (entry.getIntValue() != owner && (entry.getLongKey() >>> 24) >= step) return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    public int getShardCount() { return shards.size(); }
+    public int getOwnerCount() { return held.size(); }
+}
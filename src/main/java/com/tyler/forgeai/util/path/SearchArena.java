@@ -0,0 +1,64 @@
+package com.tyler.forgeai.util.path;
+
+import java.util.Arrays;
+
+/**
+ * SearchArena: reusable scratch storage for one search.
+ * Nodes live in parallel primitive arrays indexed by node id; the position
+ * index and open heap are reused between searches, so a warm arena does not
+ * allocate. Blocking searches borrow the calling thread's arena via local();
+ * resumable searches that span ticks own their own instance.
+ */
+public class SearchArena {
+    private static final ThreadLocal<SearchArena> LOCAL = ThreadLocal.withInitial(SearchArena::new);
+
+    final LongIntHashMap index = new LongIntHashMap(4096);
+    final NodeHeap open = new NodeHeap(4096);
+
+    long[] pos = new long[4096];
+    float[] g = new float[4096];
+    int[] parent = new int[4096];
+    boolean[] closed = new boolean[4096];
+    int count;
+
+    /** Arena for the current thread (only for searches that finish before returning). */
+    public static SearchArena local() {
+        return LOCAL.get();
+    }
+
+    public void reset() {
+        index.clear();
+        open.clear();
+        if (count > 0) Arrays.fill(closed, 0, count, false);
+        count = 0;
+    }
+
+    /** Node id for a packed position, creating it if needed. */
+    int node(long packed) {
+        int id = index.get(packed);
+        if (id != LongIntHashMap.MISSING) return id;
+        id = count++;
+        if (id >= pos.length) grow();
+        pos[id] = packed;
+        g[id] = Float.POSITIVE_INFINITY;
+        parent[id] = -1;
+        closed[id] = false;
+        index.put(packed, id);
+        return id;
+    }
+
+    int find(long packed) {
+        return index.get(packed);
+    }
+
+    public int nodeCount() { return count; }
+
+    private void grow() {
+        int cap = pos.length << 1;
+        pos = Arrays.copyOf(pos, cap);
+        g = Arrays.copyOf(g, cap);
+        parent = Arrays.copyOf(parent, cap);
+        closed = Arrays.copyOf(closed, cap);
+        open.ensureNodeCapacity(cap);
+    }
+}
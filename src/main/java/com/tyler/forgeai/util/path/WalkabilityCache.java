@@ -0,0 +1,302 @@
+package com.tyler.forgeai.util.path;
+
+import com.tyler.forgeai.core.WorldChangeTracker;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.BucketPickupBlock;
+import net.minecraft.world.level.block.LadderBlock;
+import net.minecraft.world.level.block.VineBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import net.minecraft.world.level.chunk.LevelChunkSection;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * WalkabilityCache: per-chunk-section flag bytes for pathfinding.
+ * - One byte per block: walkable / solid / climbable / liquid
+ * - A section is built once from its states (all-air sections share one empty array)
+ *   and classification is memoized per BlockState id, so building is mostly array reads
+ * - Sections are dropped when a block in them changes its flags or their chunk unloads
+ *   (WorldChangeTracker listener), so repeated searches never touch the world; a
+ *   change that keeps the flags (a crop growing, a furnace lighting) keeps the section
+ * - getFlagVersion() moves only on such flag changes, for caches derived from flags
+ * - Unloaded chunks are never loaded; they read as empty and are not cached
+ * Server thread only; snapshot() hands immutable views to worker threads.
+ */
+public class WalkabilityCache implements PathGrid {
+    public static final byte WALKABLE = 1;
+    public static final byte SOLID = 2;
+    public static final byte CLIMBABLE = 4;
+    public static final byte LIQUID = 8;
+
+    // Set on memoized classifications so 0 can mean "not classified yet"
+    private static final byte KNOWN = (byte) 0x80;
+    private static final byte[] EMPTY_SECTION = new byte[4096];
+
+    private static final Map<Level, WalkabilityCache> caches = new WeakHashMap<>();
+    private static byte[] stateFlags = new byte[4096];
+
+    /** Invalidation hook; registered once from EventHookRegistry.registerWorldChangeHooks. */
+    public static final WorldChangeTracker.Listener LISTENER = new WorldChangeTracker.Listener() {
+        @Override
+        public void onBlockChanged(Level level, BlockPos pos) {
+            WalkabilityCache cache = caches.get(level);
+            if (cache != null) cache.blockChanged(pos);
+        }
+
+        @Override
+        public void onChunkUnloaded(Level level, int chunkX, int chunkZ) {
+            WalkabilityCache cache = caches.get(level);
+            if (cache != null) cache.invalidateChunk(chunkX, chunkZ);
+        }
+    };
+
+    private final ServerLevel level;
+    private final Long2ObjectOpenHashMap<byte[]> sections = new Long2ObjectOpenHashMap<>();
+
+    // Searches walk neighbouring blocks, so most queries hit the section of the previous one
+    private long lastKey = Long.MIN_VALUE;
+    private byte[] lastSection = null;
+
+    private long sectionsBuilt = 0;
+
+    // Per chunk column: clock value of the last flag change (kept across unloads, so monotonic)
+    private final Long2LongOpenHashMap flagVersions = new Long2LongOpenHashMap();
+    private long flagClock = 0;
+
+    private WalkabilityCache(ServerLevel level) {
+        this.level = level;
+    }
+
+    public static WalkabilityCache of(ServerLevel level) {
+        return caches.computeIfAbsent(level, l -> new WalkabilityCache(level));
+    }
+
+    // ---- Queries --------------------------------------------------------------
+
+    /** Flag bits for a block (0 when unloaded or outside the build height). */
+    public byte flags(int x, int y, int z) {
+        byte[] section = section(x >> 4, y >> 4, z >> 4);
+        if (section == null) return 0;
+        return section[((y & 15) << 8) | ((z & 15) << 4) | (x & 15)];
+    }
+
+    /** Built section array (never mutated afterwards), or null when its chunk is not loaded. */
+    byte[] section(int sectionX, int sectionY, int sectionZ) {
+        long key = SectionPos.asLong(sectionX, sectionY, sectionZ);
+        if (key == lastKey) return lastSection;
+        byte[] section = sections.get(key);
+        if (section == null) {
+            section = build(sectionX, sectionY, sectionZ);
+            if (section == null) return null;
+            sections.put(key, section);
+        }
+        lastKey = key;
+        lastSection = section;
+        return section;
+    }
+
+    /**
+     * Immutable copy of the sections covering a block box, for searches that run
+     * off the server thread. Shares the section arrays, so it costs one table.
+     */
+    public GridSnapshot snapshot(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        SnapshotBuilder builder = snapshotBuilder(minX, minY, minZ, maxX, maxY, maxZ);
+        builder.step(Integer.MAX_VALUE);
+        return builder.result();
+    }
+
+    /** Like snapshot(), but building missing sections a few at a time with step(). */
+    public SnapshotBuilder snapshotBuilder(int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+        int minSX = minX >> 4, minSY = Math.max(level.getMinSectionY(), minY >> 4), minSZ = minZ >> 4;
+        int maxSX = maxX >> 4, maxSY = Math.min(level.getMaxSectionY(), maxY >> 4), maxSZ = maxZ >> 4;
+        return new SnapshotBuilder(minSX, minSY, minSZ, maxSX - minSX + 1, Math.max(0, maxSY - minSY + 1), maxSZ - minSZ + 1);
+    }
+
+    /**
+     * Fills a snapshot table over several ticks: cached sections are taken as they
+     * come, only sections that must be built count against the budget. Sections
+     * taken early stay valid views of their tick (built sections are never mutated).
+     */
+    public final class SnapshotBuilder {
+        private final int minSX, minSY, minSZ, sizeX, sizeY, sizeZ;
+        private final byte[][] table;
+        private int next = 0;
+        private int built = 0;
+
+        private SnapshotBuilder(int minSX, int minSY, int minSZ, int sizeX, int sizeY, int sizeZ) {
+            this.minSX = minSX;
+            this.minSY = minSY;
+            this.minSZ = minSZ;
+            this.sizeX = sizeX;
+            this.sizeY = sizeY;
+            this.sizeZ = sizeZ;
+            this.table = new byte[sizeX * sizeY * sizeZ][];
+        }
+
+        /** Build at most budget missing sections; true once the table is complete. */
+        public boolean step(int budget) {
+            while (next < table.length) {
+                int sx = minSX + next % sizeX, sz = minSZ + (next / sizeX) % sizeZ, sy = minSY + next / (sizeX * sizeZ);
+                if (!sections.containsKey(SectionPos.asLong(sx, sy, sz))) {
+                    if (budget-- <= 0) return false;
+                    built++;
+                }
+                table[next++] = section(sx, sy, sz);
+            }
+            return true;
+        }
+
+        public boolean isDone() { return next == table.length; }
+
+        /** Sections this builder had to build so far. */
+        public int getBuilt() { return built; }
+
+        public GridSnapshot result() {
+            return new GridSnapshot(minSX, minSY, minSZ, sizeX, sizeY, sizeZ, table);
+        }
+    }
+
+    @Override
+    public boolean isWalkable(int x, int y, int z) {
+        return (flags(x, y, z) & WALKABLE) != 0;
+    }
+
+    @Override
+    public boolean isClimbable(int x, int y, int z) {
+        return (flags(x, y, z) & CLIMBABLE) != 0;
+    }
+
+    public boolean isSolid(int x, int y, int z) {
+        return (flags(x, y, z) & SOLID) != 0;
+    }
+
+    public boolean isLiquid(int x, int y, int z) {
+        return (flags(x, y, z) & LIQUID) != 0;
+    }
+
+    public boolean isWalkable(BlockPos pos) { return isWalkable(pos.getX(), pos.getY(), pos.getZ()); }
+    public boolean isClimbable(BlockPos pos) { return isClimbable(pos.getX(), pos.getY(), pos.getZ()); }
+    public boolean isSolid(BlockPos pos) { return isSolid(pos.getX(), pos.getY(), pos.getZ()); }
+    public boolean isLiquid(BlockPos pos) { return isLiquid(pos.getX(), pos.getY(), pos.getZ()); }
+
+    public ServerLevel getLevel() { return level; }
+    public int getCachedSections() { return sections.size(); }
+    public long getSectionsBuilt() { return sectionsBuilt; }
+
+    /**
+     * Latest flag change in the chunks covering a block box (max of the per-chunk
+     * versions). Unlike WorldChangeTracker.getAreaVersion it ignores block changes
+     * that leave every flag as it was.
+     */
+    public long getFlagVersion(int minX, int minZ, int maxX, int maxZ) {
+        if (flagVersions.isEmpty()) return 0;
+        long combined = 0;
+        for (int cx = minX >> 4; cx <= maxX >> 4; cx++) {
+            for (int cz = minZ >> 4; cz <= maxZ >> 4; cz++) {
+                long version = flagVersions.get(ChunkPos.asLong(cx, cz));
+                if (version > combined) combined = version;
+            }
+        }
+        return combined;
+    }
+
+    // ---- Building -------------------------------------------------------------
+
+    private byte[] build(int sectionX, int sectionY, int sectionZ) {
+        if (sectionY < level.getMinSectionY() || sectionY > level.getMaxSectionY()) return EMPTY_SECTION;
+        LevelChunk chunk = level.getChunkSource().getChunkNow(sectionX, sectionZ);
+        if (chunk == null) return null;
+
+        LevelChunkSection section = chunk.getSection(level.getSectionIndexFromSectionY(sectionY));
+        sectionsBuilt++;
+        if (section.hasOnlyAir()) return EMPTY_SECTION;
+
+        byte[] bits = new byte[4096];
+        for (int ly = 0; ly < 16; ly++) {
+            for (int lz = 0; lz < 16; lz++) {
+                for (int lx = 0; lx < 16; lx++) {
+                    bits[(ly << 8) | (lz << 4) | lx] = classify(section.getBlockState(lx, ly, lz));
+                }
+            }
+        }
+        return bits;
+    }
+
+    /** Flag bits for a block state, memoized by registry id. */
+    public static byte classify(BlockState state) {
+        int id = Block.BLOCK_STATE_REGISTRY.getId(state);
+        if (id < 0) return compute(state);
+        if (id >= stateFlags.length) {
+            stateFlags = java.util.Arrays.copyOf(stateFlags, Math.max(id + 1, stateFlags.length * 2));
+        }
+        byte cached = stateFlags[id];
+        if (cached == 0) {
+            cached = (byte) (compute(state) | KNOWN);
+            stateFlags[id] = cached;
+        }
+        return (byte) (cached & ~KNOWN);
+    }
+
+    private static byte compute(BlockState state) {
+        try {
+            Block block = state.getBlock();
+            byte flags = 0;
+            if (state.isSolid()) flags |= SOLID;
+            // Water/lava and replaceable blocks are not walked on (handled separately)
+            if ((flags & SOLID) != 0 && !state.canBeReplaced() && !(block instanceof BucketPickupBlock)) {
+                flags |= WALKABLE;
+            }
+            if (block instanceof LadderBlock || block instanceof VineBlock) flags |= CLIMBABLE;
+            if (!state.getFluidState().isEmpty()) flags |= LIQUID;
+            return flags;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    // ---- Invalidation ---------------------------------------------------------
+
+    /** A block was set (the new state is in place): drop its section only if its flags moved. */
+    private void blockChanged(BlockPos pos) {
+        long key = SectionPos.asLong(pos.getX() >> 4, pos.getY() >> 4, pos.getZ() >> 4);
+        byte[] section = sections.get(key);
+        if (section != null) {
+            int i = ((pos.getY() & 15) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+            if (section[i] == classify(level.getBlockState(pos))) return;
+        }
+        // Changed, or never cached (nothing to compare with): count it as a change
+        invalidate(key);
+        flagVersions.put(ChunkPos.asLong(pos.getX() >> 4, pos.getZ() >> 4), ++flagClock);
+    }
+
+    private void invalidate(long sectionKey) {
+        sections.remove(sectionKey);
+        if (sectionKey == lastKey) {
+            lastKey = Long.MIN_VALUE;
+            lastSection = null;
+        }
+    }
+
+    private void invalidateChunk(int chunkX, int chunkZ) {
+        flagVersions.put(ChunkPos.asLong(chunkX, chunkZ), ++flagClock);
+        for (int sy = level.getMinSectionY(); sy <= level.getMaxSectionY(); sy++) {
+            invalidate(SectionPos.asLong(chunkX, sy, chunkZ));
+        }
+    }
+
+    /** Drop everything (e.g. after a bulk world edit). */
+    public void clear() {
+        sections.clear();
+        lastKey = Long.MIN_VALUE;
+        lastSection = null;
+    }
+}
@@ -74,7 +74,7 @@ public class ForgeAITestHarness {
         comms.init();
         LOGGER.debug("✓ CommunicationManager initialized");
 
-        this.trainingManager = new TrainingManager();
+        this.trainingManager = new TrainingManager("harness");
         trainingManager.init();
         LOGGER.debug("✓ TrainingManager initialized");
 
@@ -111,7 +111,7 @@ public class ForgeAITestHarness {
         // Reset state for clean test
         mockServer.resetPlayerState();
         // Create fresh AI subsystems and a fresh DecisionEngine for isolation
-        TrainingManager tm = new TrainingManager(); tm.init();
+        TrainingManager tm = new TrainingManager("scenario-" + scenarioName); tm.init();
         MemoryManager mm = new MemoryManager(); mm.init();
         RewardSystem rs = new RewardSystem(); rs.init();
         PunishmentSystem ps = new PunishmentSystem(); ps.init();
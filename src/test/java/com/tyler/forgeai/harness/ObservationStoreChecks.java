@@ -0,0 +1,213 @@
+package com.tyler.forgeai.harness;
+
+import com.tyler.forgeai.ai.ObservationCodec;
+import com.tyler.forgeai.ai.ObservationLog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ObservationStoreChecks: LearningStore's on-disk formats.
+ * - ObservationCodec: random payloads of every schema (plus unknown fields and
+ *   values a schema's kind cannot hold) decode to what was encoded, also with a
+ *   codec restored from the persisted dictionary; JSON bodies from before the
+ *   binary format still decode
+ * - ObservationLog: records across several segments, a forgotten key, then a crash
+ *   (index files lost, a torn frame at the end of the last segment); reopening
+ *   must recover exactly the retained records, cut the torn frame, and keep the
+ *   key forgotten. openReadOnly() must read the same records and leave every
+ *   file byte-for-byte unchanged
+ */
+public class ObservationStoreChecks {
+
+    public static int run() throws IOException {
+        HarnessChecks checks = new HarnessChecks("observation store");
+        codecRoundTrip(checks, new Random(21));
+        logRecovery(checks, new Random(22));
+        return checks.report();
+    }
+
+    // ---- ObservationCodec ---------------------------------------------------------
+
+    static void codecRoundTrip(HarnessChecks checks, Random random) {
+        List<byte[]> dictionary = new ArrayList<>();
+        ObservationCodec codec = new ObservationCodec((id, value) -> dictionary.add(ObservationCodec.encodeString(id, value)));
+        List<byte[]> bodies = new ArrayList<>();
+        List<Map<String, Object>> payloads = new ArrayList<>();
+        String[] keys = { "observation-Steve", "combat-Alex", "building-Steve", "task-gather", "chat", "hotbar-Alex", "learned_location_base" };
+        for (int i = 0; i < 5000; i++) {
+            String key = keys[random.nextInt(keys.length)];
+            Map<String, Object> payload = payload(key, random);
+            byte[] body = codec.encode(key, payload);
+            checks.check(body[0] == ObservationCodec.MAGIC, "payload %d was not binary encoded", i);
+            checks.check(codec.decode(body).equals(payload), "payload %d (%s) decoded to %s", i, payload, codec.decode(body));
+            bodies.add(body);
+            payloads.add(payload);
+        }
+
+        // A codec restored from the persisted dictionary reads the same bodies
+        ObservationCodec restored = new ObservationCodec((id, value) -> {});
+        for (byte[] entry : dictionary) restored.loadString(entry);
+        checks.check(restored.dictionarySize() == codec.dictionarySize(), "restored dictionary has %d strings, expected %d",
+            restored.dictionarySize(), codec.dictionarySize());
+        for (int i = 0; i < bodies.size(); i++) {
+            checks.check(restored.decode(bodies.get(i)).equals(payloads.get(i)), "restored codec decoded payload %d differently", i);
+        }
+
+        // Records written before the binary format
+        Map<String, Object> legacy = codec.decode("{\"type\":\"movement\",\"speed\":2.5}".getBytes(StandardCharsets.UTF_8));
+        checks.check("movement".equals(legacy.get("type")) && Double.valueOf(2.5).equals(legacy.get("speed")),
+            "JSON body decoded to %s", legacy);
+    }
+
+    /**
+     * A payload as LearningStore callers build them, using only values that decode
+     * to the same Java type (longs, doubles, booleans, strings, string lists).
+     */
+    private static Map<String, Object> payload(String key, Random random) {
+        Map<String, Object> p = new LinkedHashMap<>();
+        long timestamp = ObservationCodec.EPOCH_BASE + random.nextInt(Integer.MAX_VALUE) * 10L;
+        if (key.startsWith("observation-")) {
+            p.put("type", "movement");
+            p.put("style", random.nextBoolean() ? "sprint" : "bridge");
+            p.put("speed", random.nextDouble() * 10);
+            p.put("timestamp", timestamp);
+        } else if (key.startsWith("combat-")) {
+            p.put("attacker", "bot" + random.nextInt(4));
+            p.put("defender", "player" + random.nextInt(4));
+            p.put("outcome", random.nextBoolean() ? "win" : "loss");
+            p.put("module", "CombatModule");
+            p.put("timestamp", timestamp);
+        } else if (key.startsWith("building-")) {
+            p.put("type", "building");
+            p.put("action", "place");
+            p.put("blockType", "minecraft:cobblestone");
+            // Positions that would not read back identically stay text
+            p.put("position", random.nextBoolean()
+                ? (random.nextInt(2000) - 1000) + "," + random.nextInt(300) + "," + (random.nextInt(2000) - 1000)
+                : "01, 2,3");
+            p.put("timestamp", timestamp);
+        } else if (key.startsWith("task-")) {
+            p.put("type", "task");
+            p.put("taskType", "gather");
+            p.put("success", random.nextBoolean());
+            p.put("duration", (long) random.nextInt(100_000) - 50_000);
+            p.put("timestamp", timestamp);
+        } else if (key.startsWith("chat")) {
+            p.put("sender", "player" + random.nextInt(4));
+            p.put("message", "hello ✓ " + random.nextInt());
+            p.put("timestamp", timestamp);
+        } else if (key.startsWith("hotbar-")) {
+            p.put("mode", random.nextBoolean() ? "pvp" : "build");
+            p.put("layout", List.of("minecraft:diamond_sword", "minecraft:shield", "minecraft:cobblestone"));
+            p.put("timestamp", timestamp);
+        } else {
+            p.put("x", (long) random.nextInt(2000) - 1000);
+            p.put("name", "base");
+        }
+        // Fields no schema knows, and known fields holding a value of another kind
+        if (random.nextInt(4) == 0) p.put("extra" + random.nextInt(3), random.nextBoolean() ? "note" : (Object) random.nextLong());
+        if (random.nextInt(8) == 0) p.put("tags", List.of("a", "b"));
+        if (random.nextInt(8) == 0 && p.containsKey("timestamp")) p.put("timestamp", "yesterday");
+        return p;
+    }
+
+    // ---- ObservationLog -----------------------------------------------------------
+
+    static void logRecovery(HarnessChecks checks, Random random) throws IOException {
+        Path dir = Files.createTempDirectory("forgeai-observations-check");
+        try {
+            ObservationLog log = new ObservationLog(dir);
+            log.open();
+            Map<String, List<String>> expected = new TreeMap<>();
+            for (int i = 0; i < 8000; i++) {
+                // ~3 MB of records, so several segments are sealed and indexed
+                String key = "k" + random.nextInt(16);
+                String body = i + ":" + "x".repeat(300 + random.nextInt(100));
+                log.record(key, body.getBytes(StandardCharsets.UTF_8));
+                List<String> records = expected.computeIfAbsent(key, k -> new ArrayList<>());
+                records.add(body);
+                if (records.size() > ObservationLog.DEFAULT_RETENTION) records.remove(0);
+            }
+            log.forget("k3");
+            expected.remove("k3");
+            log.flush();
+            checks.check(contents(log).equals(expected), "records differ before the crash");
+
+            // Crash: index files lost, a torn frame at the end of the last segment
+            List<Path> segments = new ArrayList<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    if (file.toString().endsWith(".idx")) Files.delete(file);
+                    else if (file.toString().endsWith(".log")) segments.add(file);
+                }
+            }
+            checks.check(segments.size() > 2, "only %d segments written", segments.size());
+            segments.sort(Comparator.comparingInt(p -> Integer.parseInt(p.getFileName().toString().replaceAll("\\D", ""))));
+            Path last = segments.get(segments.size() - 1);
+            long intact = Files.size(last);
+            Files.write(last, new byte[] { 0, 0, 0, 40, 9, 9, 9 }, StandardOpenOption.APPEND);
+
+            // A read-only open sees the same records and changes nothing
+            Map<String, byte[]> before = files(dir);
+            ObservationLog readOnly = new ObservationLog(dir);
+            readOnly.openReadOnly();
+            checks.check(contents(readOnly).equals(expected), "read-only open recovered different records");
+            boolean refused = false;
+            try {
+                readOnly.record("k0", new byte[1]);
+            } catch (IllegalStateException e) {
+                refused = true;
+            }
+            checks.check(refused, "read-only log accepted a record");
+            readOnly.flush();
+            readOnly.compactIfNeeded();
+            checks.check(sameFiles(before, files(dir)), "read-only open changed the files");
+
+            // A normal open cuts the torn frame and recovers the same records
+            ObservationLog reopened = new ObservationLog(dir);
+            reopened.open();
+            checks.check(contents(reopened).equals(expected), "reopen recovered different records");
+            checks.check(Files.size(last) == intact, "torn frame left in %s (%d bytes, %d intact)", last.getFileName(), Files.size(last), intact);
+            reopened.flush();
+
+            ObservationLog again = new ObservationLog(dir);
+            again.open();
+            checks.check(contents(again).equals(expected), "second reopen recovered different records");
+        } finally {
+            try (var files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static Map<String, List<String>> contents(ObservationLog log) {
+        Map<String, List<String>> result = new TreeMap<>();
+        for (String key : log.keys("k")) {
+            List<String> records = new ArrayList<>();
+            for (byte[] body : log.readKey(key)) records.add(new String(body, StandardCharsets.UTF_8));
+            result.put(key, records);
+        }
+        return result;
+    }
+
+    private static Map<String, byte[]> files(Path dir) throws IOException {
+        Map<String, byte[]> result = new TreeMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+            for (Path file : files) result.put(file.getFileName().toString(), Files.readAllBytes(file));
+        }
+        return result;
+    }
+
+    private static boolean sameFiles(Map<String, byte[]> a, Map<String, byte[]> b) {
+        if (!a.keySet().equals(b.keySet())) return false;
+        for (String name : a.keySet()) if (!Arrays.equals(a.get(name), b.get(name))) return false;
+        return true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (run() > 0) System.exit(1);
+    }
+}
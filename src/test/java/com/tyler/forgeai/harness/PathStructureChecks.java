@@ -0,0 +1,216 @@
+package com.tyler.forgeai.harness;
+
+import com.tyler.forgeai.util.path.AStarSearch;
+import com.tyler.forgeai.util.path.DStarLite;
+import com.tyler.forgeai.util.path.LongIntHashMap;
+import com.tyler.forgeai.util.path.NodeHeap;
+import com.tyler.forgeai.util.path.PathGrid;
+import com.tyler.forgeai.util.path.PathMoves;
+import net.minecraft.core.BlockPos;
+
+import java.util.*;
+
+/**
+ * PathStructureChecks: the path search's own structures against plain references.
+ * - LongIntHashMap vs HashMap under random put/remove/clear on colliding keys
+ * - NodeHeap vs a brute-force minimum under random update/pop/remove
+ * - DStarLite on a 300x300 grid: the bot walks its route while blocks on it are
+ *   placed and removed; every replan must give a valid route as short as a fresh
+ *   A* from the bot's position (expansions are reported)
+ */
+public class PathStructureChecks {
+    static final int GRID_SIZE = 300;
+    static final int GROUND_Y = 64;
+
+    public static int run() {
+        HarnessChecks checks = new HarnessChecks("path structures");
+        longIntHashMap(checks, new Random(11));
+        nodeHeap(checks, new Random(12));
+        dStarLiteReplans(checks, new Random(13));
+        return checks.report();
+    }
+
+    // ---- LongIntHashMap ---------------------------------------------------------
+
+    static void longIntHashMap(HarnessChecks checks, Random random) {
+        LongIntHashMap map = new LongIntHashMap(16);
+        Map<Long, Integer> reference = new HashMap<>();
+        for (int op = 0; op < 200_000; op++) {
+            // Few distinct keys, packed like positions, so probe chains collide and wrap
+            long key = BlockPos.asLong(random.nextInt(64) - 32, random.nextInt(8) - 4, random.nextInt(64) - 32);
+            // Mostly puts and removes; a rare clear (~40 per run) lets the emptied table refill
+            int roll = random.nextInt(5000);
+            if (roll < 3000) {
+                int value = random.nextInt(1_000_000);
+                Integer old = reference.put(key, value);
+                int got = map.put(key, value);
+                checks.check(got == (old == null ? LongIntHashMap.MISSING : old), "put #%d returned %d, expected %s", op, got, old);
+            } else if (roll < 4999) {
+                Integer old = reference.remove(key);
+                int got = map.remove(key);
+                checks.check(got == (old == null ? LongIntHashMap.MISSING : old), "remove #%d returned %d, expected %s", op, got, old);
+            } else {
+                map.clear();
+                reference.clear();
+            }
+            if (op % 1000 == 0) {
+                checks.check(map.size() == reference.size(), "size %d after op %d, expected %d", map.size(), op, reference.size());
+                for (Map.Entry<Long, Integer> e : reference.entrySet()) {
+                    if (map.get(e.getKey()) != e.getValue()) {
+                        checks.check(false, "get after op %d lost key %d", op, e.getKey());
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    // ---- NodeHeap ---------------------------------------------------------------
+
+    static void nodeHeap(HarnessChecks checks, Random random) {
+        NodeHeap heap = new NodeHeap(16);
+        Map<Integer, float[]> reference = new HashMap<>();
+        for (int op = 0; op < 100_000; op++) {
+            int roll = random.nextInt(10);
+            if (roll < 6) {
+                int node = random.nextInt(5000);
+                // Coarse keys, so ties on the first part are decided by the second
+                float k1 = random.nextInt(50), k2 = random.nextInt(50);
+                heap.update(node, k1, k2);
+                reference.put(node, new float[] { k1, k2 });
+            } else if (roll < 9) {
+                float[] min = null;
+                for (float[] key : reference.values()) if (min == null || less(key, min)) min = key;
+                int node = heap.pop();
+                if (min == null) {
+                    checks.check(node == -1, "pop #%d from an empty heap returned %d", op, node);
+                    continue;
+                }
+                float[] key = reference.remove(node);
+                checks.check(key != null && key[0] == min[0] && key[1] == min[1],
+                    "pop #%d returned node %d, not one with the minimum key", op, node);
+            } else if (!reference.isEmpty()) {
+                int node = random.nextInt(5000);
+                heap.remove(node);
+                reference.remove(node);
+            }
+            checks.check(heap.size() == reference.size(), "size %d after op %d, expected %d", heap.size(), op, reference.size());
+        }
+        for (int node = 0; node < 5000; node++) {
+            checks.check(heap.contains(node) == reference.containsKey(node), "contains(%d) disagrees", node);
+        }
+    }
+
+    private static boolean less(float[] a, float[] b) {
+        return a[0] < b[0] || (a[0] == b[0] && a[1] < b[1]);
+    }
+
+    // ---- DStarLite ----------------------------------------------------------------
+
+    /** A flat floor at GROUND_Y with removable obstacles. */
+    static final class FloorGrid implements PathGrid {
+        final boolean[] blocked = new boolean[GRID_SIZE * GRID_SIZE];
+
+        @Override
+        public boolean isWalkable(int x, int y, int z) {
+            return y == GROUND_Y && x >= 0 && z >= 0 && x < GRID_SIZE && z < GRID_SIZE && !blocked[x * GRID_SIZE + z];
+        }
+
+        @Override
+        public boolean isClimbable(int x, int y, int z) {
+            return false;
+        }
+    }
+
+    static void dStarLiteReplans(HarnessChecks checks, Random random) {
+        FloorGrid grid = new FloorGrid();
+        for (int i = 0; i < grid.blocked.length; i++) grid.blocked[i] = random.nextInt(100) < 20;
+        long start = BlockPos.asLong(0, GROUND_Y, 0);
+        long goal = BlockPos.asLong(GRID_SIZE - 1, GROUND_Y, GRID_SIZE - 1);
+        grid.blocked[0] = false;
+        grid.blocked[grid.blocked.length - 1] = false;
+
+        DStarLite replanner = new DStarLite(grid, null, start, goal, 1_000_000);
+        replanner.replan();
+        checks.note("D* Lite initial search: %d expansions", replanner.getExpansions());
+        checkRoute(checks, grid, replanner, start, goal, "initial");
+
+        long position = start;
+        long[] replanExpansions = new long[40];
+        int replans = 0;
+        for (int round = 0; round < replanExpansions.length; round++) {
+            long[] route = replanner.path();
+            if (route == null || route.length < 12) break;
+            // Walk part of the way, then change blocks on and around the route ahead
+            position = route[4 + random.nextInt(4)];
+            replanner.moveStart(position);
+            long[] placed = new long[3];
+            for (int edit = 0; edit < placed.length; edit++) {
+                placed[edit] = route[8 + random.nextInt(route.length - 9)];
+                setBlocked(grid, replanner, BlockPos.getX(placed[edit]), BlockPos.getZ(placed[edit]), true);
+            }
+            for (int edit = 0; edit < 5; edit++) {
+                setBlocked(grid, replanner, random.nextInt(GRID_SIZE), random.nextInt(GRID_SIZE), random.nextBoolean());
+            }
+            // The bot's own block and the goal stay open
+            setBlocked(grid, replanner, BlockPos.getX(position), BlockPos.getZ(position), false);
+            setBlocked(grid, replanner, GRID_SIZE - 1, GRID_SIZE - 1, false);
+
+            long before = replanner.getExpansions();
+            replanner.replan();
+            replanExpansions[replans++] = replanner.getExpansions() - before;
+            checkRoute(checks, grid, replanner, position, goal, "replan " + round);
+            if (replanner.getStatus() == DStarLite.Status.NO_PATH) {
+                // Sealed off: clear the blocks placed on the route and keep walking
+                for (long p : placed) setBlocked(grid, replanner, BlockPos.getX(p), BlockPos.getZ(p), false);
+                replanner.replan();
+                checkRoute(checks, grid, replanner, position, goal, "reopen " + round);
+            }
+        }
+        replanner.close();
+        long[] sorted = Arrays.copyOf(replanExpansions, replans);
+        Arrays.sort(sorted);
+        if (replans > 0) {
+            checks.note("D* Lite %d replans: expansions min %d, median %d, max %d",
+                replans, sorted[0], sorted[replans / 2], sorted[replans - 1]);
+        }
+    }
+
+    private static void setBlocked(FloorGrid grid, DStarLite replanner, int x, int z, boolean blocked) {
+        grid.blocked[x * GRID_SIZE + z] = blocked;
+        replanner.notifyChanged(x, GROUND_Y, z);
+    }
+
+    /** D* route from position is made of legal moves and is as short as a fresh A*. */
+    private static void checkRoute(HarnessChecks checks, PathGrid grid, DStarLite replanner, long position, long goal, String what) {
+        long[] fresh = AStarSearch.findPath(grid, position, goal, 1_000_000);
+        long[] route = replanner.getStatus() == DStarLite.Status.FOUND ? replanner.path() : null;
+        if (fresh == null || route == null) {
+            checks.check(fresh == null && route == null, "%s: A* found %s, D* found %s", what, fresh != null, route != null);
+            return;
+        }
+        checks.check(route.length == fresh.length, "%s: D* route has %d nodes, A* %d", what, route.length, fresh.length);
+        checks.check(route[0] == position && route[route.length - 1] == goal, "%s: D* route does not join start and goal", what);
+        for (int i = 1; i < route.length; i++) {
+            if (!legalMove(grid, route[i - 1], route[i])) {
+                checks.check(false, "%s: illegal move at step %d", what, i);
+                return;
+            }
+        }
+    }
+
+    private static boolean legalMove(PathGrid grid, long from, long to) {
+        int x = BlockPos.getX(to), y = BlockPos.getY(to), z = BlockPos.getZ(to);
+        for (int m = 0; m < PathMoves.COUNT; m++) {
+            if (BlockPos.getX(from) + PathMoves.DX[m] == x && BlockPos.getY(from) + PathMoves.DY[m] == y
+                    && BlockPos.getZ(from) + PathMoves.DZ[m] == z) {
+                return PathMoves.canEnter(grid, m, x, y, z);
+            }
+        }
+        return false;
+    }
+
+    public static void main(String[] args) {
+        if (run() > 0) System.exit(1);
+    }
+}
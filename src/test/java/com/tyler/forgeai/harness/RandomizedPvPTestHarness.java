@@ -121,7 +121,7 @@ public class RandomizedPvPTestHarness {
         }
 
         // Create fresh DecisionEngine for this run
-        TrainingManager tm = new TrainingManager(); tm.init();
+        TrainingManager tm = new TrainingManager("run-" + runNumber); tm.init();
         MemoryManager mm = new MemoryManager(); mm.init();
         RewardSystem rs = new RewardSystem(); rs.init();
         PunishmentSystem ps = new PunishmentSystem(); ps.init();
@@ -0,0 +1,327 @@
+package com.tyler.forgeai.harness;
+
+import com.tyler.forgeai.ai.BlockIndex;
+import com.tyler.forgeai.ai.LocationIndex;
+import com.tyler.forgeai.ai.MemoryJournal;
+import com.tyler.forgeai.ai.SharedWorldMemory.WorldLocation;
+import net.minecraft.core.BlockPos;
+import net.minecraft.nbt.CompoundTag;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * WorldMemoryChecks: SharedWorldMemory's indexes and journal against brute force.
+ * - BlockIndex: 40k inserts (one dense chunk, the rest scattered) and 15k removals
+ *   through block changes, then 3000 nearest/range queries on the index and on an
+ *   encode/decode copy
+ * - BlockIndex snapshots: 200 snapshots under mixed add/remove/block-change events
+ *   must keep exactly the blocks they were taken with
+ * - LocationIndex: 5000 locations (a few very far apart) minus removals, 2000
+ *   nearest-k and range queries; 100 snapshots under adds and removals
+ * - MemoryJournal: 100 ops with a compaction after 60 and a torn tail must recover
+ *   the snapshot plus ops 60-99; a frame header with an absurd length must not
+ *   stop the earlier records replaying; after close nothing is left to replay
+ */
+public class WorldMemoryChecks {
+
+    public static int run() throws IOException, InterruptedException {
+        HarnessChecks checks = new HarnessChecks("world memory");
+        blockIndexQueries(checks, new Random(3));
+        blockIndexSnapshots(checks, new Random(5));
+        locationIndexQueries(checks, new Random(1));
+        locationIndexSnapshots(checks, new Random(2));
+        memoryJournalReplay(checks);
+        return checks.report();
+    }
+
+    // ---- BlockIndex -------------------------------------------------------------
+
+    static void blockIndexQueries(HarnessChecks checks, Random random) {
+        BlockIndex index = new BlockIndex();
+        Set<List<Integer>> truth = new HashSet<>();
+        for (int i = 0; i < 40_000; i++) {
+            int x, y, z;
+            if (i < 20_000) {
+                // One chunk column filled densely enough to switch sections to bit sets
+                x = random.nextInt(16) + 32;
+                y = random.nextInt(16) - 16;
+                z = random.nextInt(16) - 48;
+            } else {
+                x = random.nextInt(4000) - 2000;
+                y = random.nextInt(300) - 64;
+                z = random.nextInt(4000) - 2000;
+            }
+            boolean added = index.add("minecraft:Diamond_Ore", x, y, z);
+            checks.check(added == truth.add(List.of(x, y, z)), "add #%d reported %s", i, added);
+        }
+        List<List<Integer>> present = new ArrayList<>(truth);
+        Collections.shuffle(present, random);
+        for (int i = 0; i < 15_000; i++) {
+            List<Integer> p = present.get(i);
+            index.onBlockChanged(p.get(0), p.get(1), p.get(2), i % 2 == 0 ? null : "stone");
+            truth.remove(p);
+        }
+        index.onBlockChanged(5, 5, 5, "diamond_ore");
+        truth.add(List.of(5, 5, 5));
+        checks.check(index.size("diamond_ore") == truth.size(), "size %d, expected %d", index.size("diamond_ore"), truth.size());
+        checks.check(toSet(index.positions("diamond_ore")).equals(truth), "positions() differ from the inserted blocks");
+
+        BlockIndex.Encoded encoded = index.encode("diamond_ore");
+        BlockIndex decoded = new BlockIndex();
+        decoded.decode("diamond_ore", encoded);
+        checks.check(toSet(decoded.positions("diamond_ore")).equals(truth), "decode(encode()) lost or added blocks");
+        checks.note("BlockIndex: %d blocks encode to %d section keys and %d cell ints",
+            truth.size(), encoded.sections.length, encoded.cells.length);
+
+        for (int q = 0; q < 3000; q++) {
+            int x = random.nextInt(5000) - 2500, y = random.nextInt(400) - 100, z = random.nextInt(5000) - 2500;
+            if (q % 3 == 0) {
+                x = 40;
+                z = -40;
+            }
+            int radius = random.nextInt(q % 5 == 0 ? 5000 : 200);
+            long best = Long.MAX_VALUE;
+            int count = 0;
+            for (List<Integer> p : truth) {
+                long d = distSqr(p.get(0), p.get(1), p.get(2), x, y, z);
+                if (d > (long) radius * radius) continue;
+                count++;
+                best = Math.min(best, d);
+            }
+            BlockIndex source = q % 2 == 0 ? index : decoded;
+            BlockPos nearest = source.nearest("DIAMOND_ORE", x, y, z, radius);
+            long got = nearest == null ? Long.MAX_VALUE : distSqr(nearest.getX(), nearest.getY(), nearest.getZ(), x, y, z);
+            checks.check(got == best, "nearest query %d: distance² %d, expected %d", q, got, best);
+            int within = source.within("diamond_ore", x, y, z, radius, Integer.MAX_VALUE).size();
+            checks.check(within == count, "range query %d: %d blocks, expected %d", q, within, count);
+        }
+    }
+
+    static void blockIndexSnapshots(HarnessChecks checks, Random random) {
+        BlockIndex index = new BlockIndex();
+        index.track("stone");
+        List<BlockIndex> snapshots = new ArrayList<>();
+        List<Set<List<Integer>>> expected = new ArrayList<>();
+        Set<List<Integer>> truth = new HashSet<>();
+        for (int round = 0; round < 200; round++) {
+            for (int i = 0; i < 300; i++) {
+                int x = random.nextInt(64), y = random.nextInt(32), z = random.nextInt(64);
+                if (random.nextInt(3) > 0) {
+                    index.add("diamond_ore", x, y, z);
+                    index.remove("stone", x, y, z);
+                    truth.add(List.of(x, y, z));
+                } else {
+                    index.onBlockChanged(x, y, z, random.nextBoolean() ? "stone" : null);
+                    truth.remove(List.of(x, y, z));
+                }
+            }
+            snapshots.add(index.snapshot());
+            expected.add(new HashSet<>(truth));
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            BlockIndex snapshot = snapshots.get(i);
+            checks.check(toSet(snapshot.positions("diamond_ore")).equals(expected.get(i))
+                    && snapshot.size("diamond_ore") == expected.get(i).size(),
+                "BlockIndex snapshot %d changed after it was taken", i);
+        }
+    }
+
+    private static Set<List<Integer>> toSet(int[] coords) {
+        Set<List<Integer>> set = new HashSet<>();
+        for (int i = 0; i + 2 < coords.length; i += 3) set.add(List.of(coords[i], coords[i + 1], coords[i + 2]));
+        return set;
+    }
+
+    private static long distSqr(int ax, int ay, int az, int bx, int by, int bz) {
+        long dx = ax - bx, dy = ay - by, dz = az - bz;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    // ---- LocationIndex ----------------------------------------------------------
+
+    static void locationIndexQueries(HarnessChecks checks, Random random) {
+        LocationIndex index = new LocationIndex();
+        List<WorldLocation> live = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // The last few are spread far apart, like portals
+            int span = i < 4990 ? 2000 : 200_000;
+            WorldLocation loc = new WorldLocation("n" + i, random.nextInt(span) - span / 2, random.nextInt(100),
+                random.nextInt(span) - span / 2, i % 3 == 0 ? "Nether" : "overworld", i % 2 == 0 ? "Chest" : "portal", "harness");
+            index.add(loc);
+            live.add(loc);
+        }
+        for (Iterator<WorldLocation> it = live.iterator(); it.hasNext(); ) {
+            WorldLocation loc = it.next();
+            if (random.nextInt(30) != 0) continue;
+            checks.check(index.remove(loc), "remove of %s failed", loc);
+            it.remove();
+        }
+        checks.check(index.size() == live.size(), "size %d, expected %d", index.size(), live.size());
+
+        for (int q = 0; q < 2000; q++) {
+            int span = q % 10 == 0 ? 400_000 : 3000;
+            int x = random.nextInt(span) - span / 2, y = random.nextInt(100), z = random.nextInt(span) - span / 2;
+            String type = q % 2 == 0 ? "chest" : "PORTAL";
+            String dimension = q % 3 == 0 ? "nether" : "Overworld";
+            int k = 1 + random.nextInt(5);
+            List<Long> distances = new ArrayList<>();
+            for (WorldLocation loc : live) {
+                if (!loc.type.equalsIgnoreCase(type) || !loc.dimension.equalsIgnoreCase(dimension)) continue;
+                distances.add(distSqr(loc.x, loc.y, loc.z, x, y, z));
+            }
+            Collections.sort(distances);
+
+            List<WorldLocation> nearest = index.nearest(type, dimension, x, y, z, k);
+            boolean ok = nearest.size() == Math.min(k, distances.size());
+            for (int i = 0; ok && i < nearest.size(); i++) {
+                WorldLocation loc = nearest.get(i);
+                ok = distSqr(loc.x, loc.y, loc.z, x, y, z) == distances.get(i);
+            }
+            checks.check(ok, "nearest-%d query %d differs from brute force", k, q);
+
+            int radius = random.nextInt(300);
+            long count = distances.stream().filter(d -> d <= (long) radius * radius).count();
+            int within = index.within(type, dimension, x, y, z, radius).size();
+            checks.check(within == count, "range query %d: %d locations, expected %d", q, within, count);
+        }
+    }
+
+    static void locationIndexSnapshots(HarnessChecks checks, Random random) {
+        LocationIndex index = new LocationIndex();
+        List<WorldLocation> live = new ArrayList<>();
+        List<LocationIndex> snapshots = new ArrayList<>();
+        List<Set<WorldLocation>> expected = new ArrayList<>();
+        for (int round = 0; round < 100; round++) {
+            for (int i = 0; i < 50; i++) {
+                if (live.isEmpty() || random.nextInt(3) > 0) {
+                    WorldLocation loc = new WorldLocation("n", random.nextInt(500), 64, random.nextInt(500),
+                        "overworld", random.nextBoolean() ? "bed" : "chest", "harness");
+                    index.add(loc);
+                    live.add(loc);
+                } else {
+                    WorldLocation loc = live.remove(random.nextInt(live.size()));
+                    checks.check(index.remove(loc), "remove of %s failed", loc);
+                }
+            }
+            snapshots.add(index.snapshot());
+            expected.add(Collections.newSetFromMap(new IdentityHashMap<>()));
+            expected.get(round).addAll(live);
+        }
+        for (int i = 0; i < snapshots.size(); i++) {
+            LocationIndex snapshot = snapshots.get(i);
+            Set<WorldLocation> got = Collections.newSetFromMap(new IdentityHashMap<>());
+            got.addAll(snapshot.ofType("bed"));
+            got.addAll(snapshot.ofType("chest"));
+            checks.check(got.equals(expected.get(i)) && snapshot.size() == got.size(),
+                "LocationIndex snapshot %d changed after it was taken", i);
+        }
+    }
+
+    // ---- MemoryJournal ------------------------------------------------------------
+
+    static void memoryJournalReplay(HarnessChecks checks) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("forgeai-journal-check");
+        try {
+            // Session 1: 60 ops, a compaction, 40 more ops, then a crash mid-record
+            MemoryJournal first = new MemoryJournal(dir);
+            first.recover(base -> {}, op -> {});
+            for (int i = 0; i < 60; i++) first.append(op(i));
+            first.compact(() -> state("ops 0-59"));
+            for (int i = 60; i < 100; i++) first.append(op(i));
+            awaitJournal(dir);
+            appendToNewestJournal(dir, 50, 10);
+
+            List<String> bases = new ArrayList<>();
+            List<Integer> replayed = new ArrayList<>();
+            MemoryJournal second = new MemoryJournal(dir);
+            second.recover(base -> bases.add(base.getString("state")), op -> replayed.add(op.getInt("op")));
+            checks.check(bases.equals(List.of("ops 0-59")), "recovery loaded snapshot %s", bases);
+            checks.check(replayed.equals(range(60, 100)), "recovery replayed %d ops (%s...), expected 60-99",
+                replayed.size(), replayed.isEmpty() ? "-" : replayed.get(0));
+
+            // Session 2 crashes too, this time leaving a frame header with an absurd length
+            for (int i = 100; i < 110; i++) second.append(op(i));
+            awaitJournal(dir);
+            appendToNewestJournal(dir, Integer.MAX_VALUE, 0);
+
+            bases.clear();
+            replayed.clear();
+            MemoryJournal third = new MemoryJournal(dir);
+            third.recover(base -> bases.add(base.getString("state")), op -> replayed.add(op.getInt("op")));
+            checks.check(replayed.equals(range(60, 110)), "second recovery replayed %d ops, expected 60-109", replayed.size());
+
+            // A clean shutdown compacts everything: nothing is left to replay
+            third.close(() -> state("final"));
+            bases.clear();
+            replayed.clear();
+            MemoryJournal fourth = new MemoryJournal(dir);
+            fourth.recover(base -> bases.add(base.getString("state")), op -> replayed.add(op.getInt("op")));
+            checks.check(bases.equals(List.of("final")) && replayed.isEmpty(),
+                "after close: snapshot %s and %d ops to replay", bases, replayed.size());
+            fourth.close(() -> state("final"));
+        } finally {
+            try (var files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+            }
+        }
+    }
+
+    private static CompoundTag op(int i) {
+        CompoundTag tag = new CompoundTag();
+        tag.putInt("op", i);
+        return tag;
+    }
+
+    private static CompoundTag state(String description) {
+        CompoundTag tag = new CompoundTag();
+        tag.putString("state", description);
+        return tag;
+    }
+
+    private static List<Integer> range(int from, int to) {
+        List<Integer> list = new ArrayList<>();
+        for (int i = from; i < to; i++) list.add(i);
+        return list;
+    }
+
+    /** Wait until the journal writer has been idle for a while (it has no flush call). */
+    private static void awaitJournal(Path dir) throws IOException, InterruptedException {
+        long last = -1;
+        for (int stable = 0, waited = 0; stable < 3 && waited < 100; waited++) {
+            Thread.sleep(50);
+            long bytes = 0;
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) bytes += Files.size(file);
+            }
+            stable = bytes == last ? stable + 1 : 0;
+            last = bytes;
+        }
+    }
+
+    /** Simulate a crash mid-write: a frame header and fewer bytes than it announces. */
+    private static void appendToNewestJournal(Path dir, int length, int bytes) throws IOException {
+        Path newest = null;
+        int newestGeneration = -1;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "journal-*.log")) {
+            for (Path file : files) {
+                int generation = Integer.parseInt(file.getFileName().toString().replaceAll("\\D", ""));
+                if (generation > newestGeneration) {
+                    newestGeneration = generation;
+                    newest = file;
+                }
+            }
+        }
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(newest, StandardOpenOption.APPEND))) {
+            out.writeInt(length);
+            out.writeInt(0);
+            out.write(new byte[bytes]);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (run() > 0) System.exit(1);
+    }
+}